@@ -0,0 +1,183 @@
+package bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.Bundle;
+import model.BundleEntry;
+import model.Condition;
+import model.FhirJson;
+import model.Patient;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+import service.ConditionService;
+import service.FhirResponse;
+import validation.FhirValidator;
+import validation.ValidationResult;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * ⏱️ PayloadBenchmark measures client-side cost of building and serializing request payloads.
+ *
+ * The {@code build*}/{@code serialize*} cases mirror the original {@code Map<String, Object>} payloads;
+ * the {@code typed*} cases use the {@link model} records and the prebuilt {@link FhirJson} writers;
+ * the {@code validate*} cases measure the local pre-flight check that replaces a {@code $validate} round trip;
+ * the {@code extract*} cases read three values from a 100-entry search Bundle via GPath vs {@link FhirResponse}.
+ * Run with {@code mvn -Pbench verify}; {@code -prof gc} adds allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Map<String, Object> patient;
+    private Map<String, Object> condition;
+    private Map<String, Object> bundle;
+    private Patient typedPatient;
+    private Condition typedCondition;
+    private Bundle typedBundle;
+    private byte[] conditionBytes;
+    private byte[] searchBundleBytes;
+
+    @Setup
+    public void setUp() {
+        patient = patientPayload(null, "Mohanad Al Badri", "male", "1992-01-01");
+        condition = ConditionService.buildConditionPayload("Patient/mohanad-albadri", "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus");
+        bundle = transactionBundle();
+        typedPatient = Patient.of("Mohanad Al Badri", "male", "1992-01-01");
+        typedCondition = Condition.of("Patient/mohanad-albadri", "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus");
+        typedBundle = typedTransactionBundle();
+        conditionBytes = FhirJson.write(typedCondition.withStatus("active", "confirmed"));
+        searchBundleBytes = FhirJson.write(new Bundle(null, "searchset", 100, List.of(), IntStream.range(0, 100)
+                .mapToObj(i -> BundleEntry.put(typedCondition.withId("c" + i))).toList()));
+    }
+
+    @Benchmark
+    public Map<String, Object> buildPatient() {
+        return patientPayload(null, "Mohanad Al Badri", "male", "1992-01-01");
+    }
+
+    @Benchmark
+    public Map<String, Object> buildCondition() {
+        return ConditionService.buildConditionPayload("Patient/mohanad-albadri", "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus");
+    }
+
+    @Benchmark
+    public Map<String, Object> buildTransactionBundle() {
+        return transactionBundle();
+    }
+
+    @Benchmark
+    public byte[] serializePatient() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(patient);
+    }
+
+    @Benchmark
+    public byte[] serializeCondition() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(condition);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionBundle() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(bundle);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeCondition() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(ConditionService.buildConditionPayload("Patient/mohanad-albadri", "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus"));
+    }
+
+    @Benchmark
+    public byte[] typedSerializePatient() {
+        return FhirJson.write(typedPatient);
+    }
+
+    @Benchmark
+    public byte[] typedSerializeCondition() {
+        return FhirJson.write(typedCondition);
+    }
+
+    @Benchmark
+    public byte[] typedSerializeTransactionBundle() {
+        return FhirJson.write(typedBundle);
+    }
+
+    @Benchmark
+    public byte[] typedBuildAndSerializeCondition() {
+        return FhirJson.write(Condition.of("Patient/mohanad-albadri", "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus"));
+    }
+
+    @Benchmark
+    public ValidationResult validateTypedPatient() {
+        return FhirValidator.validate(typedPatient);
+    }
+
+    @Benchmark
+    public ValidationResult validateConditionBody() {
+        return FhirValidator.validate(conditionBytes);
+    }
+
+    @Benchmark
+    public String extractWithJsonPath() {
+        Response response = searchResponse();
+        return response.jsonPath().getString("total") + response.jsonPath().getString("entry[0].resource.id")
+                + response.jsonPath().getString("entry[99].resource.code.text");
+    }
+
+    @Benchmark
+    public String extractWithFhirResponse() {
+        FhirResponse response = FhirResponse.of(searchResponse());
+        return response.string("total") + response.string("entry[0].resource.id") + response.string("entry[99].resource.code.text");
+    }
+
+    private Response searchResponse() {
+        return new ResponseBuilder().setStatusCode(200).setContentType("application/fhir+json").setBody(searchBundleBytes).build();
+    }
+
+    private static Bundle typedTransactionBundle() {
+        Patient patient = Patient.of("Mohanad Al Badri", "male", "1992-05-15").withId("mohanad-albadri");
+        Condition condition = Condition.of("Patient/mohanad-albadri", "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus");
+        return Bundle.transaction(List.of(BundleEntry.put(patient), BundleEntry.post(null, condition)));
+    }
+
+    // 🧱 The Map-based Patient payload the typed model replaced (id may be null for creates), with the raw
+    // Map[] arrays the Map-based tests still send, so the baseline keeps their cost
+    private static Map<String, Object> patientPayload(String id, String name, String gender, String birthDate) {
+        Map<String, Object> patient = new HashMap<>();
+        patient.put("resourceType", "Patient");
+        if (id != null) {
+            patient.put("id", id);
+        }
+        patient.put("gender", gender);
+        patient.put("birthDate", birthDate);
+
+        Map<String, Object> nameObject = new HashMap<>();
+        nameObject.put("use", "official");
+        nameObject.put("text", name);
+        @SuppressWarnings("rawtypes")
+        Map[] names = new Map[]{nameObject};
+        patient.put("name", names);
+        return patient;
+    }
+
+    // 📦 Same shape as PatientServiceTest#testCreatePatientWithCondition
+    private static Map<String, Object> transactionBundle() {
+        Map<String, Object> patient = patientPayload("mohanad-albadri", "Mohanad Al Badri", "male", "1992-05-15");
+        Map<String, Object> condition = ConditionService.buildConditionPayload("Patient/mohanad-albadri", "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus");
+        Map<String, Object> entry1 = Map.of("resource", patient, "request", Map.of("method", "PUT", "url", "Patient/mohanad-albadri"));
+        Map<String, Object> entry2 = Map.of("resource", condition, "request", Map.of("method", "POST", "url", "Condition"));
+        @SuppressWarnings("rawtypes")
+        Map[] entries = new Map[]{entry1, entry2};
+        return Map.of("resourceType", "Bundle", "type", "transaction", "entry", entries);
+    }
+}
@@ -0,0 +1,82 @@
+package bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ ResponseParsingBenchmark measures the cost of reading fields from response bodies.
+ *
+ * {@code jsonPath*} benchmarks reproduce what the tests do today ({@code response.jsonPath().getString(...)}
+ * re-parses the body through Groovy GPath on every call); {@code jackson*} read the same fields from one tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseParsingBenchmark {
+
+    @Param({"1", "50"})
+    public int bundleEntries;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private String patientJson;
+    private String searchBundleJson;
+
+    @Setup
+    public void setUp() {
+        patientJson = patient("1001");
+        StringBuilder bundle = new StringBuilder("{\"resourceType\":\"Bundle\",\"type\":\"searchset\",\"total\":")
+                .append(bundleEntries).append(",\"entry\":[");
+        for (int i = 0; i < bundleEntries; i++) {
+            bundle.append(i == 0 ? "" : ",").append("{\"fullUrl\":\"http://localhost/baseR4/Patient/").append(1000 + i)
+                    .append("\",\"resource\":").append(patient(String.valueOf(1000 + i))).append('}');
+        }
+        searchBundleJson = bundle.append("]}").toString();
+    }
+
+    @Benchmark
+    public String[] jsonPathPatientFields() {
+        // Each response.jsonPath() call builds a new JsonPath and parses the body again
+        return new String[]{
+                JsonPath.from(patientJson).getString("id"),
+                JsonPath.from(patientJson).getString("name[0].text"),
+                JsonPath.from(patientJson).getString("meta.versionId")};
+    }
+
+    @Benchmark
+    public String[] jacksonPatientFields() throws IOException {
+        JsonNode tree = mapper.readTree(patientJson);
+        return new String[]{
+                tree.path("id").asText(),
+                tree.at("/name/0/text").asText(),
+                tree.at("/meta/versionId").asText()};
+    }
+
+    @Benchmark
+    public boolean stringContainsSearchBundle() {
+        return searchBundleJson.contains("Mohanad");
+    }
+
+    @Benchmark
+    public int jsonPathSearchBundleTotal() {
+        return JsonPath.from(searchBundleJson).getInt("total");
+    }
+
+    @Benchmark
+    public int jacksonSearchBundleTotal() throws IOException {
+        return mapper.readTree(searchBundleJson).path("total").asInt();
+    }
+
+    private static String patient(String id) {
+        return "{\"resourceType\":\"Patient\",\"id\":\"" + id + "\",\"meta\":{\"versionId\":\"1\",\"lastUpdated\":\"2024-05-16T10:00:00.000Z\"},"
+                + "\"name\":[{\"use\":\"official\",\"text\":\"Mohanad Al Badri\"}],\"gender\":\"male\",\"birthDate\":\"1992-01-01\"}";
+    }
+}
@@ -0,0 +1,381 @@
+package data;
+
+import io.restassured.response.Response;
+import model.CodeableConcept;
+import model.Coding;
+import model.Condition;
+import model.HumanName;
+import model.Patient;
+import model.Reference;
+import model.Resource;
+import service.BulkLoader;
+import service.ConditionService;
+import service.FhirResponse;
+import service.Ndjson;
+import service.PatientService;
+import utils.ConfigReader;
+import validation.CodeSystems;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * 🧬 SyntheticData generates a reproducible population of Patients with 0..N Conditions each.
+ *
+ * - ✅ Deterministic: record {@code i} depends only on the seed and {@code i}, so any slice of the population
+ *   (sequential or parallel) is identical on every run and every machine
+ * - ✅ Realistic shape: gender split, an age pyramid, common given and family names, and SNOMED CT conditions
+ *   weighted by prevalence, with more (and more chronic) conditions as patients get older
+ * - ✅ Light: records are built lazily on demand; codings, statuses and categories are shared immutable instances,
+ *   so millions of resources stream in constant memory
+ * - ✅ Goes straight to the service layer ({@link #create}), {@link BulkLoader} Bundles ({@link #groups}) or NDJSON ({@link #writeNdjson})
+ *
+ * <pre>
+ * SyntheticData data = new SyntheticData(SyntheticData.Options.fromConfig());
+ * new BulkLoader().load(data.groups(1_000_000));
+ * </pre>
+ */
+public final class SyntheticData {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final String[] FEMALE_NAMES = {"Emma", "Olivia", "Sophia", "Mia", "Anna", "Lena", "Laura", "Sarah", "Maria",
+            "Julia", "Hannah", "Lea", "Amelia", "Isabella", "Charlotte", "Emily", "Fatima", "Aisha", "Layla", "Mariam", "Elena",
+            "Clara", "Sofia", "Valentina", "Chloe", "Grace", "Ella", "Zoe", "Nora", "Ingrid", "Yuki", "Mei", "Priya", "Ananya"};
+    private static final String[] MALE_NAMES = {"Liam", "Noah", "Lukas", "Elias", "Paul", "David", "Jakob", "Felix", "Leon",
+            "Maximilian", "James", "William", "Benjamin", "Lucas", "Henry", "Alexander", "Mohammed", "Omar", "Ali", "Yusuf",
+            "Ahmed", "Mateo", "Diego", "Carlos", "Marco", "Luca", "Jan", "Tomas", "Erik", "Kenji", "Wei", "Arjun", "Ravi"};
+    private static final String[] FAMILY_NAMES = {"Gruber", "Huber", "Bauer", "Wagner", "Müller", "Pichler", "Steiner", "Moser",
+            "Mayer", "Hofer", "Leitner", "Berger", "Fuchs", "Eder", "Fischer", "Schmid", "Winkler", "Weber", "Schwarz", "Maier",
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez",
+            "Lopez", "Wilson", "Anderson", "Taylor", "Thomas", "Al Badri", "Hassan", "Khan", "Yilmaz", "Kaya", "Nowak",
+            "Kowalski", "Novak", "Horvat", "Rossi", "Russo", "Dubois", "Martin", "Silva", "Santos", "Kim", "Lee", "Park",
+            "Nguyen", "Tanaka", "Sato", "Chen", "Wang", "Singh", "Patel"};
+
+    // 👥 Share of the population per decade of age (0-9 … 90-99)
+    private static final int[] AGE_DECADE_WEIGHTS = {11, 12, 13, 13, 12, 13, 12, 9, 4, 1};
+
+    /**
+     * 🩺 A condition the generator can assign
+     *
+     * @param weight  relative prevalence
+     * @param minAge  youngest age at onset
+     * @param chronic chronic conditions stay active (problem list); acute ones are mostly resolved (encounter diagnosis)
+     */
+    private record Diagnosis(CodeableConcept code, int weight, int minAge, boolean chronic) {
+
+        static Diagnosis of(String code, String display, String text, int weight, int minAge, boolean chronic) {
+            if (!CodeSystems.isSnomedConceptId(code)) {
+                throw new IllegalStateException("❌ Invalid SNOMED CT code in synthetic catalog: " + code);
+            }
+            return new Diagnosis(CodeableConcept.of(Coding.snomed(code, display), text), weight, minAge, chronic);
+        }
+    }
+
+    private static final Diagnosis[] CATALOG = {
+            Diagnosis.of("38341003", "Hypertensive disorder, systemic arterial", "Hypertension", 120, 30, true),
+            Diagnosis.of("55822004", "Hyperlipidemia", "Hyperlipidemia", 90, 30, true),
+            Diagnosis.of("44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus", 70, 35, true),
+            Diagnosis.of("414916001", "Obesity", "Obesity", 60, 10, true),
+            Diagnosis.of("35489007", "Depressive disorder", "Depression", 50, 15, true),
+            Diagnosis.of("197480006", "Anxiety disorder", "Anxiety", 45, 12, true),
+            Diagnosis.of("195967001", "Asthma", "Asthma", 40, 3, true),
+            Diagnosis.of("396275006", "Osteoarthritis", "Osteoarthritis", 40, 45, true),
+            Diagnosis.of("40930008", "Hypothyroidism", "Hypothyroidism", 30, 20, true),
+            Diagnosis.of("37796009", "Migraine", "Migraine", 30, 12, true),
+            Diagnosis.of("13645005", "Chronic obstructive lung disease", "COPD", 25, 45, true),
+            Diagnosis.of("53741008", "Coronary arteriosclerosis", "Coronary artery disease", 25, 50, true),
+            Diagnosis.of("49436004", "Atrial fibrillation", "Atrial fibrillation", 20, 55, true),
+            Diagnosis.of("709044004", "Chronic kidney disease", "Chronic kidney disease", 15, 50, true),
+            Diagnosis.of("84114007", "Heart failure", "Heart failure", 12, 60, true),
+            Diagnosis.of("230690007", "Cerebrovascular accident", "Stroke", 8, 55, true),
+            Diagnosis.of("444814009", "Viral sinusitis", "Viral sinusitis", 80, 0, false),
+            Diagnosis.of("195662009", "Acute viral pharyngitis", "Sore throat", 70, 0, false),
+            Diagnosis.of("10509002", "Acute bronchitis", "Acute bronchitis", 45, 0, false),
+            Diagnosis.of("68566005", "Urinary tract infectious disease", "Urinary tract infection", 40, 0, false),
+            Diagnosis.of("162864005", "Body mass index 30+ - obesity", "BMI 30+", 15, 18, false),
+    };
+    private static final int CATALOG_WEIGHT;
+
+    static {
+        int total = 0;
+        for (Diagnosis diagnosis : CATALOG) {
+            total += diagnosis.weight();
+        }
+        CATALOG_WEIGHT = total;
+    }
+
+    private static final CodeableConcept ACTIVE = CodeableConcept.of(Condition.CLINICAL_STATUS_SYSTEM, "active");
+    private static final CodeableConcept REMISSION = CodeableConcept.of(Condition.CLINICAL_STATUS_SYSTEM, "remission");
+    private static final CodeableConcept RESOLVED = CodeableConcept.of(Condition.CLINICAL_STATUS_SYSTEM, "resolved");
+    private static final CodeableConcept CONFIRMED = CodeableConcept.of(Condition.VERIFICATION_STATUS_SYSTEM, "confirmed");
+    private static final CodeableConcept PROVISIONAL = CodeableConcept.of(Condition.VERIFICATION_STATUS_SYSTEM, "provisional");
+    private static final List<CodeableConcept> PROBLEM_LIST = List.of(CodeableConcept.of(CodeSystems.CONDITION_CATEGORY, "problem-list-item"));
+    private static final List<CodeableConcept> ENCOUNTER_DIAGNOSIS = List.of(CodeableConcept.of(CodeSystems.CONDITION_CATEGORY, "encounter-diagnosis"));
+
+    /**
+     * ⚙️ Generator settings
+     *
+     * @param seed                 same seed ⇒ same population
+     * @param conditionsPerPatient average conditions per patient (older patients get more, younger fewer)
+     * @param maxConditions        upper bound of conditions per patient
+     * @param referenceDate        "today" of the population: ages, onsets and recorded dates are relative to it
+     */
+    public record Options(long seed, double conditionsPerPatient, int maxConditions, LocalDate referenceDate) {
+
+        public Options {
+            if (conditionsPerPatient < 0 || maxConditions < 0 || referenceDate == null) {
+                throw new IllegalArgumentException("❌ Invalid synthetic data options: conditionsPerPatient=" + conditionsPerPatient
+                        + ", maxConditions=" + maxConditions + ", referenceDate=" + referenceDate);
+            }
+        }
+
+        /**
+         * ⚙️ Options from config.properties ({@code synthetic.seed}, {@code synthetic.conditions.mean},
+         * {@code synthetic.conditions.max}, {@code synthetic.reference.date})
+         */
+        public static Options fromConfig() {
+            String referenceDate = ConfigReader.get("synthetic.reference.date");
+            return new Options(ConfigReader.getLong("synthetic.seed", 42),
+                    ConfigReader.getDouble("synthetic.conditions.mean", 1.5),
+                    ConfigReader.getInt("synthetic.conditions.max", 8),
+                    referenceDate == null || referenceDate.isBlank() ? LocalDate.of(2025, 1, 1) : LocalDate.parse(referenceDate.trim()));
+        }
+
+        public Options withSeed(long seed) {
+            return new Options(seed, conditionsPerPatient, maxConditions, referenceDate);
+        }
+    }
+
+    /**
+     * 🧑‍⚕️ One generated patient and its conditions; neither carries an ID and the conditions have no subject yet
+     *
+     * @param id deterministic logical ID for exports and upserts, e.g. {@code syn-42-17}
+     */
+    public record PatientRecord(long index, String id, Patient patient, List<Condition> conditions) {
+
+        /**
+         * 🧩 Patient plus conditions for {@link BulkLoader}, linked through a deterministic {@code urn:uuid}
+         */
+        public BulkLoader.Group toGroup() {
+            return BulkLoader.Group.patientWithConditions("urn:uuid:" + UUID.nameUUIDFromBytes(id.getBytes(StandardCharsets.UTF_8)), patient, conditions);
+        }
+
+        /**
+         * 📄 The patient and its conditions with their IDs set and conditions pointing at {@code Patient/<id>}
+         */
+        public Stream<Resource> resources() {
+            return Stream.concat(Stream.of(patient.withId(id)), linkedConditions().stream());
+        }
+
+        /**
+         * 🩺 Conditions with IDs ({@code <patient id>-c<n>}) and subject {@code Patient/<id>}
+         */
+        public List<Condition> linkedConditions() {
+            return conditionsFor(Reference.to("Patient/" + id), true);
+        }
+
+        /**
+         * 🩺 Conditions without IDs, pointing at the given subject (e.g. the ID the server assigned to the patient)
+         */
+        public List<Condition> conditionsFor(Reference subject) {
+            return conditionsFor(subject, false);
+        }
+
+        private List<Condition> conditionsFor(Reference subject, boolean withIds) {
+            List<Condition> linked = new ArrayList<>(conditions.size());
+            for (int i = 0; i < conditions.size(); i++) {
+                Condition condition = conditions.get(i).withSubject(subject);
+                linked.add(withIds ? condition.withId(id + "-c" + i) : condition);
+            }
+            return linked;
+        }
+    }
+
+    private final Options options;
+
+    public SyntheticData(Options options) {
+        this.options = options;
+    }
+
+    public Options options() {
+        return options;
+    }
+
+    /**
+     * 🎲 Patient number {@code index} of the population (0-based); the same index always yields the same record
+     */
+    public PatientRecord record(long index) {
+        SplittableRandom random = new SplittableRandom(mix(options.seed() + index * GOLDEN_GAMMA));
+
+        double g = random.nextDouble();
+        String gender = g < 0.505 ? "female" : g < 0.995 ? "male" : g < 0.998 ? "other" : "unknown";
+        String[] givenNames = "female".equals(gender) || ("male".equals(gender) ? false : random.nextBoolean()) ? FEMALE_NAMES : MALE_NAMES;
+        String given = givenNames[random.nextInt(givenNames.length)];
+        String family = FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)];
+
+        int age = age(random);
+        LocalDate reference = options.referenceDate();
+        LocalDate birthDate = reference.minusYears(age).minusDays(random.nextInt(365));
+
+        Patient patient = new Patient(null, null,
+                List.of(new HumanName("official", given + " " + family, family, List.of(given))), gender, birthDate.toString());
+        return new PatientRecord(index, "syn-" + options.seed() + "-" + index, patient, conditions(random, age, birthDate));
+    }
+
+    /**
+     * 🌊 The first {@code count} patients, generated lazily
+     */
+    public Stream<PatientRecord> records(long count) {
+        return LongStream.range(0, count).mapToObj(this::record);
+    }
+
+    /**
+     * 🧩 The first {@code count} patients as {@link BulkLoader} groups (patient + conditions in one Bundle)
+     */
+    public Stream<BulkLoader.Group> groups(long count) {
+        return records(count).map(PatientRecord::toGroup);
+    }
+
+    /**
+     * 📄 Write the first {@code count} patients to {@code Patient.ndjson} and their conditions to {@code Condition.ndjson}
+     * in {@code dir}; IDs are set, so the files import with {@link BulkLoader#loadNdjson} as upserts
+     *
+     * @return number of resources written
+     */
+    public long writeNdjson(Path dir, long count) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not create " + dir, e);
+        }
+        long patients = Ndjson.write(dir.resolve("Patient.ndjson"), records(count).map(r -> r.patient().withId(r.id())));
+        long conditions = Ndjson.write(dir.resolve("Condition.ndjson"), records(count).flatMap(r -> r.linkedConditions().stream()));
+        return patients + conditions;
+    }
+
+    /**
+     * ➕ Create the first {@code count} patients and their conditions one request at a time through the services
+     *
+     * @return number of resources created
+     * @throws IllegalStateException when the server rejects a resource
+     */
+    public long create(PatientService patientService, ConditionService conditionService, long count) {
+        long created = 0;
+        for (long index = 0; index < count; index++) {
+            PatientRecord record = record(index);
+            FhirResponse patient = FhirResponse.of(patientService.createPatient(record.patient()));
+            String patientId = patient.id();
+            if (patient.status() != 201 || patientId == null) {
+                throw new IllegalStateException("❌ Synthetic patient " + record.id() + " rejected: " + patient.status());
+            }
+            created++;
+            for (Condition condition : record.conditionsFor(Reference.to("Patient/" + patientId))) {
+                Response response = conditionService.createCondition(condition);
+                if (response.getStatusCode() != 201) {
+                    throw new IllegalStateException("❌ Synthetic condition of " + record.id() + " rejected: " + response.getStatusCode());
+                }
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private int age(SplittableRandom random) {
+        int pick = random.nextInt(100);
+        for (int decade = 0; decade < AGE_DECADE_WEIGHTS.length; decade++) {
+            pick -= AGE_DECADE_WEIGHTS[decade];
+            if (pick < 0) {
+                return decade * 10 + random.nextInt(10);
+            }
+        }
+        return 99;
+    }
+
+    private List<Condition> conditions(SplittableRandom random, int age, LocalDate birthDate) {
+        // 📈 Expected count grows with age: ×0.4 for newborns up to ×1.6 at 80+
+        double mean = options.conditionsPerPatient() * (0.4 + 1.2 * Math.min(age, 80) / 80.0);
+        int count = Math.min(options.maxConditions(), poisson(random, mean));
+        if (count == 0) {
+            return List.of();
+        }
+        List<Condition> conditions = new ArrayList<>(count);
+        long assigned = 0;
+        for (int attempt = 0; conditions.size() < count && attempt < count * 4; attempt++) {
+            int pick = pickDiagnosis(random);
+            Diagnosis diagnosis = CATALOG[pick];
+            if (diagnosis.minAge() > age || (assigned & (1L << pick)) != 0) {
+                continue;
+            }
+            assigned |= 1L << pick;
+            conditions.add(condition(random, diagnosis, age, birthDate));
+        }
+        return conditions;
+    }
+
+    private Condition condition(SplittableRandom random, Diagnosis diagnosis, int age, LocalDate birthDate) {
+        LocalDate earliest = birthDate.plusYears(diagnosis.minAge());
+        long span = Math.max(1, options.referenceDate().toEpochDay() - earliest.toEpochDay());
+        // 🕰️ Acute problems are recent; chronic ones can start any time since they became possible
+        long daysBeforeReference = diagnosis.chronic() ? random.nextLong(span) : random.nextLong(Math.min(span, 3 * 365));
+        LocalDate onset = options.referenceDate().minusDays(daysBeforeReference);
+        LocalDate recorded = onset.plusDays(random.nextInt(30));
+        if (recorded.isAfter(options.referenceDate())) {
+            recorded = options.referenceDate();
+        }
+
+        CodeableConcept clinicalStatus;
+        if (diagnosis.chronic()) {
+            clinicalStatus = random.nextInt(20) == 0 ? REMISSION : ACTIVE;
+        } else {
+            clinicalStatus = daysBeforeReference < 21 ? ACTIVE : RESOLVED;
+        }
+        CodeableConcept verificationStatus = random.nextInt(25) == 0 ? PROVISIONAL : CONFIRMED;
+        return new Condition(null, null, clinicalStatus, verificationStatus,
+                diagnosis.chronic() ? PROBLEM_LIST : ENCOUNTER_DIAGNOSIS, diagnosis.code(), null, onset.toString(), recorded.toString());
+    }
+
+    private static int pickDiagnosis(SplittableRandom random) {
+        int pick = random.nextInt(CATALOG_WEIGHT);
+        for (int i = 0; i < CATALOG.length; i++) {
+            pick -= CATALOG[i].weight();
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return CATALOG.length - 1;
+    }
+
+    /**
+     * 🎲 Knuth's Poisson sampler; fine for the small means used here
+     */
+    private static int poisson(SplittableRandom random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            count++;
+            product *= random.nextDouble();
+        }
+        return count;
+    }
+
+    /**
+     * 🌀 SplitMix64 finalizer: spreads neighbouring seeds/indices over the whole 64-bit space
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,51 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * 📦 Typed, immutable FHIR Bundle (transaction, batch, searchset and their responses).
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"id", "type", "total", "link", "entry"})
+public record Bundle(String id, String type, Integer total, List<BundleLink> link, List<BundleEntry> entry) implements Resource {
+
+    public Bundle {
+        link = link == null ? null : List.copyOf(link);
+        entry = entry == null ? null : List.copyOf(entry);
+    }
+
+    public static Bundle transaction(List<BundleEntry> entries) {
+        return new Bundle(null, "transaction", null, null, entries);
+    }
+
+    public static Bundle batch(List<BundleEntry> entries) {
+        return new Bundle(null, "batch", null, null, entries);
+    }
+
+    /**
+     * 🔗 URL of the link with the given relation (e.g. {@code next}), or null
+     */
+    public String linkUrl(String relation) {
+        if (link != null) {
+            for (BundleLink l : link) {
+                if (relation.equals(l.relation())) {
+                    return l.url();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 🔗 Paging / self link of a Bundle.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record BundleLink(String relation, String url) {
+    }
+}
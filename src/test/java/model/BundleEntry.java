@@ -0,0 +1,39 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * 📦 One Bundle entry: the resource plus the request (transaction/batch) or response details.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"fullUrl", "resource", "request", "response"})
+public record BundleEntry(String fullUrl, Resource resource, Request request, Response response) {
+
+    /**
+     * ➕ POST entry; {@code fullUrl} may be a {@code urn:uuid:} other entries reference
+     */
+    public static BundleEntry post(String fullUrl, Resource resource) {
+        return new BundleEntry(fullUrl, resource, new Request("POST", resource.resourceType()), null);
+    }
+
+    /**
+     * 🔁 PUT entry to {@code Type/id} (update or create with a client-assigned ID)
+     */
+    public static BundleEntry put(Resource resource) {
+        String url = resource.resourceType() + "/" + resource.id();
+        return new BundleEntry(null, resource, new Request("PUT", url), null);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Request(String method, String url) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Response(String status, String location, String etag, String lastModified) {
+    }
+}
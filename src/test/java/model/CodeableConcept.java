@@ -0,0 +1,34 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * 🔤 One or more codings plus free text.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CodeableConcept(List<Coding> coding, String text) {
+
+    public CodeableConcept {
+        coding = coding == null ? null : List.copyOf(coding);
+    }
+
+    public static CodeableConcept of(Coding coding, String text) {
+        return new CodeableConcept(List.of(coding), text);
+    }
+
+    public static CodeableConcept of(String system, String code) {
+        return new CodeableConcept(List.of(new Coding(system, code, null)), null);
+    }
+
+    public static CodeableConcept text(String text) {
+        return new CodeableConcept(null, text);
+    }
+
+    public CodeableConcept withText(String text) {
+        return new CodeableConcept(coding, text);
+    }
+}
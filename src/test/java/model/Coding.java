@@ -0,0 +1,18 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 🔤 A code from a code system, e.g. SNOMED CT {@code 44054006}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Coding(String system, String code, String display) {
+
+    public static final String SNOMED = "http://snomed.info/sct";
+
+    public static Coding snomed(String code, String display) {
+        return new Coding(SNOMED, code, display);
+    }
+}
@@ -0,0 +1,46 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * 🩺 Typed, immutable FHIR Condition.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"id", "meta", "clinicalStatus", "verificationStatus", "category", "code", "subject", "onsetDateTime", "recordedDate"})
+public record Condition(String id, Meta meta, CodeableConcept clinicalStatus, CodeableConcept verificationStatus,
+                        List<CodeableConcept> category, CodeableConcept code, Reference subject,
+                        String onsetDateTime, String recordedDate) implements Resource {
+
+    public static final String CLINICAL_STATUS_SYSTEM = "http://terminology.hl7.org/CodeSystem/condition-clinical";
+    public static final String VERIFICATION_STATUS_SYSTEM = "http://terminology.hl7.org/CodeSystem/condition-ver-status";
+
+    public Condition {
+        category = category == null ? null : List.copyOf(category);
+    }
+
+    /**
+     * ✅ New condition with a SNOMED CT code for the given subject (same shape as ConditionService payloads)
+     */
+    public static Condition of(String subjectReference, String snomedCode, String display, String text) {
+        return new Condition(null, null, null, null, null,
+                CodeableConcept.of(Coding.snomed(snomedCode, display), text), Reference.to(subjectReference), null, null);
+    }
+
+    public Condition withId(String id) {
+        return new Condition(id, meta, clinicalStatus, verificationStatus, category, code, subject, onsetDateTime, recordedDate);
+    }
+
+    public Condition withSubject(Reference subject) {
+        return new Condition(id, meta, clinicalStatus, verificationStatus, category, code, subject, onsetDateTime, recordedDate);
+    }
+
+    public Condition withStatus(String clinicalStatus, String verificationStatus) {
+        return new Condition(id, meta, CodeableConcept.of(CLINICAL_STATUS_SYSTEM, clinicalStatus),
+                CodeableConcept.of(VERIFICATION_STATUS_SYSTEM, verificationStatus), category, code, subject, onsetDateTime, recordedDate);
+    }
+}
@@ -0,0 +1,140 @@
+package model;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🧬 FhirJson serializes and parses the typed model with readers and writers built once.
+ *
+ * - ✅ One {@link ObjectWriter}/{@link ObjectReader} per resource class, bound to its type so Jackson
+ *   resolves the root (de)serializer when the class loads, not on the first request
+ * - ✅ Each writer is exercised once at start-up, so introspection of records and nested types is
+ *   already cached when the first measured call runs
+ * - ✅ Writers produce {@code byte[]} directly (no intermediate String or Map)
+ * - ✅ Time spent in {@link #write} is summed per thread, so the next FHIR call can report it
+ *   ({@link #takeSerializationNanos()}, used by {@code service.FhirFlightRecorder})
+ */
+public final class FhirJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(DeserializationFeature.FAIL_ON_INVALID_SUBTYPE);
+
+    private static final List<Class<? extends Resource>> TYPES = List.of(Patient.class, Condition.class, Bundle.class);
+
+    private static final ThreadLocal<long[]> SERIALIZATION_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final Map<Class<?>, ObjectWriter> WRITERS;
+    private static final Map<Class<?>, ObjectReader> READERS;
+
+    static {
+        Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+        Map<Class<?>, ObjectReader> readers = new HashMap<>();
+        for (Class<? extends Resource> type : TYPES) {
+            writers.put(type, MAPPER.writerFor(type));
+            readers.put(type, MAPPER.readerFor(type));
+        }
+        writers.put(RawResource.class, MAPPER.writerFor(RawResource.class));
+        readers.put(Resource.class, MAPPER.readerFor(Resource.class));
+        WRITERS = Map.copyOf(writers);
+        READERS = Map.copyOf(readers);
+        prime();
+    }
+
+    private FhirJson() {
+    }
+
+    /**
+     * 📤 Serialize a resource to UTF-8 JSON bytes (includes {@code resourceType})
+     */
+    public static byte[] write(Resource resource) {
+        long start = System.nanoTime();
+        try {
+            return WRITERS.get(resource.getClass()).writeValueAsBytes(resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not serialize " + resource.resourceType(), e);
+        } finally {
+            SERIALIZATION_NANOS.get()[0] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * ⏱️ Nanoseconds this thread spent in {@link #write} since the previous call, which resets the sum
+     */
+    public static long takeSerializationNanos() {
+        long[] sum = SERIALIZATION_NANOS.get();
+        long nanos = sum[0];
+        sum[0] = 0;
+        return nanos;
+    }
+
+    /**
+     * 📥 Parse JSON bytes as the given resource type
+     */
+    public static <T extends Resource> T read(byte[] json, Class<T> type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not parse " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * 📥 Parse a JSON stream as the given resource type
+     */
+    public static <T extends Resource> T read(InputStream json, Class<T> type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not parse " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * 📥 Parse any supported resource, dispatching on {@code resourceType}; unknown types yield null
+     */
+    public static Resource read(byte[] json) {
+        return read(json, Resource.class);
+    }
+
+    /**
+     * 📥 Parse any supported resource from a slice of a buffer (e.g. one NDJSON line); unknown types yield null
+     */
+    public static Resource read(byte[] buffer, int offset, int length) {
+        try {
+            return READERS.get(Resource.class).readValue(buffer, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not parse resource", e);
+        }
+    }
+
+    /**
+     * 🧰 The shared mapper, configured for the model (for streaming parsers and tree access)
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    private static ObjectReader reader(Class<?> type) {
+        ObjectReader reader = READERS.get(type);
+        return reader != null ? reader : MAPPER.readerFor(type);
+    }
+
+    private static void prime() {
+        Patient patient = Patient.of("Prime Patient", "unknown", "2000-01-01").withId("0");
+        Condition condition = Condition.of("Patient/0", "44054006", "Diabetes mellitus type 2", "Prime");
+        Bundle bundle = Bundle.transaction(List.of(BundleEntry.post("urn:uuid:0", patient), BundleEntry.post(null, condition)));
+        for (Resource resource : List.of(patient, condition, bundle)) {
+            read(write(resource), resource.getClass());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * 🧑 A person's name.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record HumanName(String use, String text, String family, List<String> given) {
+
+    public HumanName {
+        given = given == null ? null : List.copyOf(given);
+    }
+
+    public static HumanName official(String text) {
+        return new HumanName("official", text, null, null);
+    }
+}
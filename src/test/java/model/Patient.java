@@ -0,0 +1,31 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * 🧑 Typed, immutable FHIR Patient.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"id", "meta", "name", "gender", "birthDate"})
+public record Patient(String id, Meta meta, List<HumanName> name, String gender, String birthDate) implements Resource {
+
+    public Patient {
+        name = name == null ? null : List.copyOf(name);
+    }
+
+    /**
+     * ✅ New patient (no ID yet) with one official name
+     */
+    public static Patient of(String name, String gender, String birthDate) {
+        return new Patient(null, null, List.of(HumanName.official(name)), gender, birthDate);
+    }
+
+    public Patient withId(String id) {
+        return new Patient(id, meta, name, gender, birthDate);
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 🧾 Any FHIR resource kept exactly as received, for paths that move resources without interpreting them.
+ *
+ * - ✅ Every field survives, including the ones the typed model does not know ({@code identifier}, {@code address},
+ *   extensions) and resource types it has no record for ({@code Observation}, {@code Encounter}, ...)
+ * - ✅ Only {@code resourceType} and {@code id} are read, for routing (e.g. a PUT to {@code Type/id})
+ * - ✅ Serialized as the original JSON tree, also inside a {@link BundleEntry}
+ * - ✅ {@link #as(Class)} gives the typed view when a caller wants to inspect a known type
+ *
+ * Used by NDJSON import/export and bulk loading, where a lossy round trip would overwrite server data with partial copies.
+ */
+@JsonSerialize(using = RawResource.Serializer.class)
+public record RawResource(ObjectNode json) implements Resource {
+
+    public RawResource {
+        if (json == null || !json.path("resourceType").isTextual() || json.path("resourceType").asText().isBlank()) {
+            throw new IllegalArgumentException("❌ A FHIR resource needs a resourceType");
+        }
+    }
+
+    /**
+     * 📥 Wrap one resource from a slice of a buffer (e.g. one NDJSON line)
+     */
+    public static RawResource parse(byte[] buffer, int offset, int length) {
+        JsonNode node;
+        try {
+            node = FhirJson.mapper().readTree(buffer, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not parse resource", e);
+        }
+        if (!(node instanceof ObjectNode object)) {
+            throw new IllegalArgumentException("❌ Expected a JSON object but got " + (node == null ? "nothing" : node.getNodeType()));
+        }
+        return new RawResource(object);
+    }
+
+    /**
+     * 🧾 Lossless copy of a typed resource
+     */
+    public static RawResource of(Resource resource) {
+        return resource instanceof RawResource raw ? raw : new RawResource(FhirJson.mapper().valueToTree(resource));
+    }
+
+    @Override
+    public String id() {
+        JsonNode id = json.get("id");
+        return id == null || id.isNull() ? null : id.asText();
+    }
+
+    @Override
+    public String resourceType() {
+        return json.get("resourceType").asText();
+    }
+
+    /**
+     * 🧬 Typed view of this resource (fields outside the model are not carried over)
+     */
+    public <T extends Resource> T as(Class<T> type) {
+        try {
+            return FhirJson.mapper().treeToValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ " + resourceType() + " is not a " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * ✍️ Writes the tree as-is; it already carries its {@code resourceType}, so no type id is added
+     */
+    static final class Serializer extends StdSerializer<RawResource> {
+
+        private static final long serialVersionUID = 1L;
+
+        Serializer() {
+            super(RawResource.class);
+        }
+
+        @Override
+        public void serialize(RawResource value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeTree(value.json());
+        }
+
+        @Override
+        public void serializeWithType(RawResource value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+                throws IOException {
+            serialize(value, gen, provider);
+        }
+    }
+}
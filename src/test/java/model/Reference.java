@@ -0,0 +1,20 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 🔗 A reference to another resource, e.g. {@code Patient/123} or {@code urn:uuid:...}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Reference(String reference, String display) {
+
+    public static Reference to(String reference) {
+        return new Reference(reference, null);
+    }
+
+    public static Reference to(Resource resource) {
+        return new Reference(resource.resourceType() + "/" + resource.id(), null);
+    }
+}
@@ -0,0 +1,29 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * 🧬 Common supertype of the typed FHIR resources.
+ *
+ * {@code resourceType} is written and read as the Jackson type id, so a {@link BundleEntry}
+ * can carry any of the permitted resources. {@link RawResource} stands for any other type, or for a
+ * known type whose fields must all be kept.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "resourceType")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = Patient.class, name = "Patient"),
+        @JsonSubTypes.Type(value = Condition.class, name = "Condition"),
+        @JsonSubTypes.Type(value = Bundle.class, name = "Bundle")
+})
+public sealed interface Resource permits Patient, Condition, Bundle, RawResource {
+
+    String id();
+
+    /**
+     * @return the FHIR resource type name, e.g. {@code Patient}
+     */
+    default String resourceType() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,169 @@
+package run;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.BulkLoader;
+import service.ConditionService;
+import service.FhirClient;
+import service.PatientService;
+import stub.FhirStubServer;
+import utils.TargetProfile;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 🎯 FanOut runs the same load scenario against several {@link TargetProfile}s at once and compares them.
+ *
+ * - ✅ One {@link LoadDriver} per target, each with its own services and ID pools, all running concurrently
+ * - ✅ Targets seed independently, then wait for each other so warm-up and measurement cover the same wall-clock window
+ * - ✅ {@code base.uri=stub} targets get a private embedded stub for the duration of the run
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.args="fanout --targets staging,prod-like --rps 100 --duration 60s"
+ * </pre>
+ */
+public class FanOut {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOut.class);
+
+    private final LoadConfig config;
+    private final List<TargetProfile> targets;
+
+    public FanOut(LoadConfig config, List<TargetProfile> targets) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("❌ Fan-out needs at least one target");
+        }
+        this.config = config;
+        this.targets = List.copyOf(targets);
+    }
+
+    /**
+     * ▶️ Run every target and return their reports side by side; the first target is the baseline of the comparison
+     */
+    public ComparisonReport run() {
+        List<FhirStubServer> stubs = new ArrayList<>();
+        CyclicBarrier seeded = new CyclicBarrier(targets.size());
+        Map<String, Future<LoadReport>> pending = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(targets.size())) {
+            for (TargetProfile target : targets) {
+                TargetProfile resolved = target;
+                if (target.isStub()) {
+                    FhirStubServer stub = FhirStubServer.start(0, target.basePath());
+                    stubs.add(stub);
+                    resolved = new TargetProfile(target.name(), stub.baseUri(), stub.basePath());
+                }
+                log.info("🎯 {} → {}{}", resolved.name(), resolved.baseUri(), resolved.basePath());
+                LoadContext context = context(resolved);
+                pending.put(target.name(), executor.submit(() -> {
+                    try {
+                        return new LoadDriver(config, context).run(() -> await(seeded));
+                    } catch (RuntimeException e) {
+                        // 🧱 Release the targets already waiting to measure
+                        seeded.reset();
+                        throw e;
+                    }
+                }));
+            }
+
+            Map<String, LoadReport> reports = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<LoadReport>> entry : pending.entrySet()) {
+                try {
+                    reports.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("❌ Fan-out run against '" + entry.getKey() + "' failed", e.getCause());
+                }
+            }
+            return new ComparisonReport(reports);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("❌ Fan-out run interrupted", e);
+        } finally {
+            stubs.forEach(FhirStubServer::close);
+        }
+    }
+
+    private static LoadContext context(TargetProfile target) {
+        return new LoadContext(
+                new PatientService(FhirClient.spec(target.baseUri(), target.basePath())),
+                new ConditionService(FhirClient.spec(target.baseUri(), target.basePath())),
+                new BulkLoader(FhirClient.spec(target.baseUri(), target.basePath()), BulkLoader.Options.fromConfig()));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("❌ Interrupted while waiting for the other targets", e);
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException("❌ Another target failed before measuring started", e);
+        }
+    }
+
+    /**
+     * 📊 Load reports of all targets, compared per operation against the first (baseline) target.
+     *
+     * @param reports report per target name, in target order
+     */
+    public record ComparisonReport(Map<String, LoadReport> reports) {
+
+        public ComparisonReport {
+            reports = Collections.unmodifiableMap(new LinkedHashMap<>(reports));
+        }
+
+        /**
+         * 🏁 Name of the target the others are compared against
+         */
+        public String baseline() {
+            return reports.keySet().iterator().next();
+        }
+
+        /**
+         * 🔎 Stats of one operation on one target, or null when it was not part of the run
+         */
+        public LoadReport.OperationStats stats(String target, String operation) {
+            LoadReport report = reports.get(target);
+            return report == null ? null : report.stats(operation);
+        }
+
+        /**
+         * 🖨️ Print one block per operation with a row per target; Δ columns are relative to the baseline target
+         */
+        public void print(PrintStream out) {
+            LoadReport first = reports.get(baseline());
+            out.printf(Locale.ROOT, "%n📊 Fan-out comparison — %d targets, baseline '%s'%n", reports.size(), baseline());
+            out.printf(Locale.ROOT, "%-20s %-16s %9s %7s %9s %9s %9s %9s %8s %8s %8s%n",
+                    "operation", "target", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "Δreq/s", "Δp95", "Δp99");
+            for (LoadReport.OperationStats base : first.operations()) {
+                for (Map.Entry<String, LoadReport> entry : reports.entrySet()) {
+                    LoadReport.OperationStats s = entry.getValue().stats(base.operation());
+                    if (s == null) {
+                        continue;
+                    }
+                    out.printf(Locale.ROOT, "%-20s %-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %8s %8s %8s%n",
+                            s.operation(), entry.getKey(), s.count(), s.errors(), s.throughput(), s.p50(), s.p95(), s.p99(),
+                            delta(s.throughput(), base.throughput()), delta(s.p95(), base.p95()), delta(s.p99(), base.p99()));
+                }
+            }
+        }
+
+        private static String delta(double value, double baseline) {
+            if (baseline == 0) {
+                return "—";
+            }
+            return String.format(Locale.ROOT, "%+.0f%%", (value - baseline) * 100 / baseline);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package run;
+
+import model.FhirJson;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 📏 LatencyBaseline holds repeated latency samples per operation, as stored in the baseline file of the {@link LatencyGate}.
+ *
+ * A sample is one run of {@code iterations} lifecycles; each contributes its p50/p95/p99 (in ms) per operation.
+ * Keeping every sample, not just an average, lets the gate tell a real shift from run-to-run noise.
+ *
+ * @param iterations lifecycles per sample
+ * @param recorded   when the samples were taken (ISO-8601)
+ * @param operations samples per operation, in {@link LifecycleScenario#OPERATIONS} order
+ */
+public record LatencyBaseline(int iterations, String recorded, Map<String, Samples> operations) {
+
+    /**
+     * 📈 Percentiles of each sample, in milliseconds
+     */
+    public record Samples(List<Double> p50, List<Double> p95, List<Double> p99) {
+
+        /**
+         * 🔎 Samples of {@code percentile} ({@code p50}, {@code p95} or {@code p99})
+         */
+        public double[] of(String percentile) {
+            List<Double> values = switch (percentile) {
+                case "p50" -> p50;
+                case "p95" -> p95;
+                case "p99" -> p99;
+                default -> throw new IllegalArgumentException("❌ Unknown percentile " + percentile);
+            };
+            return values.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+    }
+
+    /**
+     * ⏱️ Warm up, then take {@code samples} samples of {@code iterations} lifecycles each
+     */
+    public static LatencyBaseline measure(LifecycleScenario scenario, int samples, int iterations, int warmupIterations) {
+        if (samples < 1 || iterations < 1) {
+            throw new IllegalArgumentException("❌ Need at least one sample of one iteration");
+        }
+        scenario.run(warmupIterations);
+        Map<String, List<double[]>> perOperation = new LinkedHashMap<>();
+        for (int sample = 0; sample < samples; sample++) {
+            for (Map.Entry<String, Histogram> entry : scenario.run(iterations).entrySet()) {
+                Histogram histogram = entry.getValue();
+                perOperation.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(new double[]{
+                        histogram.getValueAtPercentile(50) / 1000.0,
+                        histogram.getValueAtPercentile(95) / 1000.0,
+                        histogram.getValueAtPercentile(99) / 1000.0});
+            }
+        }
+        Map<String, Samples> operations = new LinkedHashMap<>();
+        perOperation.forEach((operation, values) -> operations.put(operation, new Samples(
+                values.stream().map(v -> v[0]).toList(), values.stream().map(v -> v[1]).toList(), values.stream().map(v -> v[2]).toList())));
+        return new LatencyBaseline(iterations, Instant.now().toString(), operations);
+    }
+
+    /**
+     * 📂 Read a baseline file
+     */
+    public static LatencyBaseline read(Path file) {
+        try {
+            return FhirJson.mapper().readValue(file.toFile(), LatencyBaseline.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not read latency baseline " + file, e);
+        }
+    }
+
+    /**
+     * 💾 Write this baseline as pretty-printed JSON
+     */
+    public void write(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            FhirJson.mapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not write latency baseline " + file, e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package run;
+
+import utils.ConfigReader;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 🚧 LatencyGate compares a run's latency samples with a stored {@link LatencyBaseline} and flags regressions.
+ *
+ * A percentile of an operation regresses only when both hold:
+ * - ✅ its median across samples grew by more than {@code perf.tolerance} (e.g. 0.25 = 25 %) over the baseline median
+ * - ✅ a one-sided Mann–Whitney U test says the current samples are larger with p &lt; {@code perf.alpha},
+ *   after Holm–Bonferroni correction over all gated percentiles of the run
+ *
+ * The size threshold ignores shifts too small to matter; the rank test ignores one noisy sample, and needs
+ * no assumption about how latencies are distributed. Only p95 and p99 are gated; p50 is reported for context.
+ */
+public final class LatencyGate {
+
+    public static final List<String> GATED_PERCENTILES = List.of("p95", "p99");
+
+    /**
+     * ⚙️ Gate settings
+     *
+     * @param tolerance allowed relative growth of the median before a shift counts (0.25 = 25 %)
+     * @param alpha     significance level of the rank test
+     */
+    public record Options(double tolerance, double alpha) {
+
+        public Options {
+            if (tolerance < 0 || alpha <= 0 || alpha >= 1) {
+                throw new IllegalArgumentException("❌ Invalid latency gate options: tolerance=" + tolerance + ", alpha=" + alpha);
+            }
+        }
+
+        /**
+         * ⚙️ Options from config.properties ({@code perf.tolerance}, {@code perf.alpha})
+         */
+        public static Options fromConfig() {
+            return new Options(ConfigReader.getDouble("perf.tolerance", 0.25), ConfigReader.getDouble("perf.alpha", 0.05));
+        }
+    }
+
+    /**
+     * 📋 Comparison of one percentile of one operation
+     *
+     * @param change relative change of the median (0.3 = 30 % slower)
+     * @param pValue one-sided p-value that the current samples are larger (Holm-adjusted in a full-run comparison)
+     */
+    public record Finding(String operation, String percentile, double baselineMedian, double currentMedian,
+                          double change, double pValue, boolean regressed) {
+    }
+
+    private LatencyGate() {
+    }
+
+    /**
+     * 🔍 Compare every gated percentile of every operation present in both runs
+     */
+    public static List<Finding> compare(LatencyBaseline baseline, LatencyBaseline current, Options options) {
+        List<Finding> findings = new ArrayList<>();
+        for (Map.Entry<String, LatencyBaseline.Samples> entry : current.operations().entrySet()) {
+            LatencyBaseline.Samples before = baseline.operations().get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            for (String percentile : GATED_PERCENTILES) {
+                findings.add(compare(entry.getKey(), percentile, before.of(percentile), entry.getValue().of(percentile), options));
+            }
+        }
+        return holm(findings, options);
+    }
+
+    /**
+     * 🔍 Compare one set of baseline samples with one set of current samples
+     */
+    public static Finding compare(String operation, String percentile, double[] baseline, double[] current, Options options) {
+        double baselineMedian = median(baseline);
+        double currentMedian = median(current);
+        double change = baselineMedian == 0 ? 0 : (currentMedian - baselineMedian) / baselineMedian;
+        double pValue = mannWhitneyGreater(baseline, current);
+        return new Finding(operation, percentile, baselineMedian, currentMedian, change, pValue,
+                change > options.tolerance() && pValue < options.alpha());
+    }
+
+    /**
+     * 📉 One-sided Mann–Whitney U p-value for "current tends to be larger than baseline".
+     *
+     * Exact for small samples (the usual 5–20 repetitions), normal approximation with continuity correction beyond.
+     * Ties count half.
+     */
+    public static double mannWhitneyGreater(double[] baseline, double[] current) {
+        int m = baseline.length;
+        int n = current.length;
+        if (m == 0 || n == 0) {
+            return 1;
+        }
+        double u = 0;
+        for (double c : current) {
+            for (double b : baseline) {
+                u += c > b ? 1 : c == b ? 0.5 : 0;
+            }
+        }
+        if ((long) m * n <= 2_500) {
+            return exactUpperTail(n, m, u);
+        }
+        double mean = m * (double) n / 2;
+        double sd = Math.sqrt(m * (double) n * (m + n + 1) / 12);
+        return 1 - normalCdf((u - 0.5 - mean) / sd);
+    }
+
+    /**
+     * 🖨️ Print every finding, regressions first
+     */
+    public static void print(List<Finding> findings, Options options, PrintStream out) {
+        out.printf(Locale.ROOT, "%n🚧 Latency gate — tolerance %.0f %%, alpha %.2f%n", options.tolerance() * 100, options.alpha());
+        out.printf(Locale.ROOT, "%-20s %-4s %12s %12s %8s %8s  %s%n", "operation", "pct", "baseline ms", "current ms", "change", "p", "verdict");
+        findings.stream()
+                .sorted((a, b) -> Boolean.compare(b.regressed(), a.regressed()))
+                .forEach(f -> out.printf(Locale.ROOT, "%-20s %-4s %12.2f %12.2f %+7.0f%% %8.4f  %s%n", f.operation(), f.percentile(),
+                        f.baselineMedian(), f.currentMedian(), f.change() * 100, f.pValue(), f.regressed() ? "❌ REGRESSED" : "✅"));
+    }
+
+    /**
+     * 🧮 Holm–Bonferroni: with 16 operations × 2 percentiles, 32 tests at 5 % would flag about one false regression per run.
+     * p-values are replaced by their step-down adjusted values, so {@code alpha} holds for the run as a whole.
+     */
+    private static List<Finding> holm(List<Finding> findings, Options options) {
+        Integer[] order = new Integer[findings.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(findings.get(a).pValue(), findings.get(b).pValue()));
+        Finding[] adjusted = new Finding[order.length];
+        double running = 0;
+        for (int rank = 0; rank < order.length; rank++) {
+            Finding f = findings.get(order[rank]);
+            running = Math.max(running, Math.min(1, (order.length - rank) * f.pValue()));
+            adjusted[order[rank]] = new Finding(f.operation(), f.percentile(), f.baselineMedian(), f.currentMedian(), f.change(),
+                    running, f.change() > options.tolerance() && running < options.alpha());
+        }
+        return List.of(adjusted);
+    }
+
+    /**
+     * P(U ≥ u) under H0, counting the orderings of n current and m baseline values that reach each U
+     */
+    private static double exactUpperTail(int n, int m, double u) {
+        int max = n * m;
+        // counts[j][k]: orderings of i current and j baseline values with U = k, built up over i
+        double[][] counts = new double[m + 1][max + 1];
+        for (int j = 0; j <= m; j++) {
+            counts[j][0] = 1;
+        }
+        for (int i = 1; i <= n; i++) {
+            double[][] next = new double[m + 1][max + 1];
+            next[0][0] = 1;
+            for (int j = 1; j <= m; j++) {
+                for (int k = 0; k <= i * j; k++) {
+                    // the largest value is either a current one (beats all j baseline values) or a baseline one
+                    next[j][k] = (k >= j ? counts[j][k - j] : 0) + next[j - 1][k];
+                }
+            }
+            counts = next;
+        }
+        double total = 0;
+        double tail = 0;
+        int threshold = (int) Math.ceil(u);
+        for (int k = 0; k <= max; k++) {
+            total += counts[m][k];
+            if (k >= threshold) {
+                tail += counts[m][k];
+            }
+        }
+        return tail / total;
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    // Abramowitz–Stegun 7.1.26 approximation of the standard normal CDF
+    static double normalCdf(double z) {
+        double t = 1 / (1 + 0.3275911 * Math.abs(z) / Math.sqrt(2));
+        double erf = 1 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t + 0.254829592) * t
+                * Math.exp(-z * z / 2);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
@@ -0,0 +1,115 @@
+package run;
+
+import io.restassured.response.Response;
+import model.Bundle;
+import model.BundleEntry;
+import model.Condition;
+import model.Patient;
+import io.restassured.specification.RequestSpecification;
+import org.HdrHistogram.Histogram;
+import service.ConditionService;
+import service.FhirClient;
+import service.FhirResponse;
+import service.PatientService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 🔁 LifecycleScenario replays the Patient and Condition lifecycles of {@code PatientServiceTest} and
+ * {@code ConditionServiceTest} in a loop and records the latency of every step.
+ *
+ * One iteration: Patient create → get → update → patch → search → validate → history (vread) → bundle,
+ * then Condition create → get → update → patch → search → validate → delete, then Patient delete.
+ * Every step must succeed (2xx); a failing step aborts the measurement instead of timing an error.
+ *
+ * {@link #forServer()} builds the services so that the two {@code validate} steps reach the server; with the default
+ * {@code validation.server=false} the pre-flight filter would answer them in-process and the gate would time a local
+ * JSON walk under a server operation's name.
+ */
+public class LifecycleScenario {
+
+    public static final List<String> OPERATIONS = List.of(
+            "patient.create", "patient.get", "patient.update", "patient.patch", "patient.search", "patient.validate",
+            "patient.history", "patient.bundle", "condition.create", "condition.get", "condition.update", "condition.patch",
+            "condition.search", "condition.validate", "condition.delete", "patient.delete");
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final String SNOMED_CODE = "44054006";
+    private static final String SNOMED_DISPLAY = "Diabetes mellitus type 2";
+
+    private final PatientService patientService;
+    private final ConditionService conditionService;
+    private final AtomicInteger names = new AtomicInteger();
+
+    public LifecycleScenario(PatientService patientService, ConditionService conditionService) {
+        this.patientService = patientService;
+        this.conditionService = conditionService;
+    }
+
+    /**
+     * 🔁 Scenario against the configured server in which every step, {@code $validate} included, is a server round trip
+     */
+    public static LifecycleScenario forServer() {
+        RequestSpecification spec = FhirClient.serverValidationSpec();
+        return new LifecycleScenario(new PatientService(spec), new ConditionService(spec));
+    }
+
+    /**
+     * ⏱️ Run {@code iterations} lifecycles and return one latency histogram (µs) per operation, in {@link #OPERATIONS} order
+     */
+    public Map<String, Histogram> run(int iterations) {
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            histograms.put(operation, new Histogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+        for (int i = 0; i < iterations; i++) {
+            iteration(histograms);
+        }
+        return histograms;
+    }
+
+    private void iteration(Map<String, Histogram> histograms) {
+        // 🔎 A unique family name keeps the search result at one hit however many iterations ran before; fixed width so
+        // no name is a prefix of another, and numbered rather than timed so a recorded run replays (see RecordReplay)
+        String name = String.format(Locale.ROOT, "Perf %06d", names.incrementAndGet());
+        String patientId = step(histograms, "patient.create", () -> patientService.createPatient(Patient.of(name, "male", "1992-01-01"))).id();
+        String versionId = step(histograms, "patient.get", () -> patientService.getPatient(patientId)).versionId();
+        step(histograms, "patient.update", () -> patientService.updatePatient(patientId, name + " Updated", "male", "1992-01-01"));
+        step(histograms, "patient.patch", () -> patientService.patchPatient(patientId, "/name/0/text", name + " Patched"));
+        step(histograms, "patient.search", () -> patientService.searchPatientByName(name));
+        step(histograms, "patient.validate", () -> patientService.validatePatientResource(Patient.of(name, "male", "1992-01-01")));
+        step(histograms, "patient.history", () -> patientService.getPatientVersion(patientId, versionId));
+        step(histograms, "patient.bundle", () -> patientService.sendTransactionBundle(
+                Bundle.transaction(List.of(BundleEntry.post(null, Patient.of("Perf Bundled", "female", "1990-01-01"))))));
+
+        String patientReference = "Patient/" + patientId;
+        String conditionId = step(histograms, "condition.create", () -> conditionService.createCondition(
+                patientReference, SNOMED_CODE, SNOMED_DISPLAY, "Type 2 Diabetes Mellitus")).id();
+        step(histograms, "condition.get", () -> conditionService.getCondition(conditionId));
+        step(histograms, "condition.update", () -> conditionService.updateCondition(
+                conditionId, patientReference, SNOMED_CODE, SNOMED_DISPLAY, "Updated Type 2 Diabetes"));
+        step(histograms, "condition.patch", () -> conditionService.patchCondition(conditionId, "/code/text", "Patched Diagnosis Text"));
+        step(histograms, "condition.search", () -> conditionService.searchConditionsByPatient(patientReference));
+        step(histograms, "condition.validate", () -> conditionService.validateConditionResource(
+                Condition.of(patientReference, SNOMED_CODE, SNOMED_DISPLAY, "Type 2 Diabetes Mellitus")));
+        step(histograms, "condition.delete", () -> conditionService.deleteCondition(conditionId));
+        step(histograms, "patient.delete", () -> patientService.deletePatient(patientId));
+    }
+
+    private static FhirResponse step(Map<String, Histogram> histograms, String operation, Supplier<Response> call) {
+        long start = System.nanoTime();
+        FhirResponse response = FhirResponse.of(call.get());
+        long micros = (System.nanoTime() - start) / 1_000;
+        if (response.status() / 100 != 2) {
+            throw new IllegalStateException("❌ " + operation + " answered " + response.status() + " instead of 2xx");
+        }
+        histograms.get(operation).recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        return response;
+    }
+}
@@ -0,0 +1,114 @@
+package run;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ⚙️ Settings for one load run, parsed from command-line flags.
+ *
+ * <pre>
+ * load --mix get-patient=70,search-patient=10,create-patient=10,create-condition=10
+ *      --rps 200 --concurrency 64 --duration 30s --warmup 5s --seed 20
+ * </pre>
+ *
+ * With {@code --rps} the run is open-model (fixed arrival rate, latency measured from the intended
+ * start time so queueing is not hidden); without it, {@code --concurrency} workers run back to back.
+ */
+public record LoadConfig(Map<LoadOperation, Integer> mix, double rps, int concurrency,
+                         Duration duration, Duration warmup, int seedResources) {
+
+    public static final String DEFAULT_MIX = "get-patient=50,search-patient=10,create-patient=10,update-patient=5,"
+            + "patch-patient=5,get-condition=10,create-condition=10";
+
+    public LoadConfig {
+        if (mix.isEmpty() || mix.values().stream().anyMatch(weight -> weight < 0)
+                || mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("❌ The operation mix needs at least one positive weight");
+        }
+        if (rps < 0) {
+            throw new IllegalArgumentException("❌ --rps must not be negative (omit it for the closed model) but was " + rps);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("❌ --concurrency must be at least 1");
+        }
+        if (duration.isZero() || duration.isNegative() || warmup.isNegative()) {
+            throw new IllegalArgumentException("❌ --duration must be positive and --warmup must not be negative");
+        }
+    }
+
+    /**
+     * 🧾 Parse {@code --flag value} pairs; unspecified flags fall back to defaults.
+     */
+    public static LoadConfig parse(String[] args) {
+        String mix = DEFAULT_MIX;
+        double rps = 0;
+        int concurrency = 32;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(5);
+        int seed = 20;
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("❌ Missing value for " + flag);
+            }
+            String value = args[++i];
+            switch (flag) {
+                case "--mix" -> mix = value;
+                case "--rps" -> rps = Double.parseDouble(value);
+                case "--concurrency" -> concurrency = Integer.parseInt(value);
+                case "--duration" -> duration = parseDuration(value);
+                case "--warmup" -> warmup = parseDuration(value);
+                case "--seed" -> seed = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("❌ Unknown flag " + flag);
+            }
+        }
+        return new LoadConfig(parseMix(mix), rps, concurrency, duration, warmup, seed);
+    }
+
+    /**
+     * 🎛️ Parse {@code name=weight,name=weight} into an ordered operation mix.
+     * A missing weight counts as 1; negative weights and a mix without any positive weight are rejected.
+     */
+    public static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int eq = trimmed.indexOf('=');
+            String name = eq < 0 ? trimmed : trimmed.substring(0, eq).trim();
+            int weight = eq < 0 ? 1 : Integer.parseInt(trimmed.substring(eq + 1).trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("❌ Weight of '" + name + "' must not be negative: " + weight);
+            }
+            weights.merge(LoadOperation.fromCliName(name), weight, Integer::sum);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("❌ The operation mix needs at least one positive weight: '" + mix + "'");
+        }
+        return weights;
+    }
+
+    /**
+     * ⏲️ Accepts {@code 500ms}, {@code 30s}, {@code 5m}, {@code 2h} or plain seconds.
+     */
+    public static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        long amount = Long.parseLong(v.replaceAll("[smh]$", ""));
+        return switch (v.charAt(v.length() - 1)) {
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> Duration.ofSeconds(amount);
+        };
+    }
+
+    public boolean isRateLimited() {
+        return rps > 0;
+    }
+}
@@ -0,0 +1,93 @@
+package run;
+
+import service.BulkLoader;
+import service.ConditionService;
+import service.PatientService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 🧰 Shared state for a load run: the service instances and pools of IDs created during the run.
+ */
+public class LoadContext {
+
+    private final PatientService patientService;
+    private final ConditionService conditionService;
+    private final BulkLoader bulkLoader;
+    private final IdPool patientIds = new IdPool(10_000);
+    private final IdPool conditionIds = new IdPool(10_000);
+
+    public LoadContext(PatientService patientService, ConditionService conditionService) {
+        this(patientService, conditionService, new BulkLoader());
+    }
+
+    public LoadContext(PatientService patientService, ConditionService conditionService, BulkLoader bulkLoader) {
+        this.patientService = patientService;
+        this.conditionService = conditionService;
+        this.bulkLoader = bulkLoader;
+    }
+
+    public PatientService patients() {
+        return patientService;
+    }
+
+    public ConditionService conditions() {
+        return conditionService;
+    }
+
+    public BulkLoader bulkLoader() {
+        return bulkLoader;
+    }
+
+    public IdPool patientIds() {
+        return patientIds;
+    }
+
+    public IdPool conditionIds() {
+        return conditionIds;
+    }
+
+    /**
+     * 🎲 Lock-free, fixed-size ring of recently created IDs that operations pick from at random.
+     */
+    public static class IdPool {
+
+        private final AtomicReferenceArray<String> ids;
+        private final AtomicLong written = new AtomicLong();
+
+        public IdPool(int capacity) {
+            this.ids = new AtomicReferenceArray<>(capacity);
+        }
+
+        public void add(String id) {
+            if (id != null) {
+                ids.set((int) (written.getAndIncrement() % ids.length()), id);
+            }
+        }
+
+        /**
+         * @return a random known ID
+         * @throws IllegalStateException while the pool is still empty (check {@link #isEmpty()} first)
+         */
+        public String random() {
+            long size = Math.min(written.get(), ids.length());
+            if (size == 0) {
+                throw new IllegalStateException("❌ No IDs in the pool yet");
+            }
+            // 🔁 A slot can be claimed but not yet written; a couple of retries are enough to find a filled one
+            for (int attempt = 0; attempt < 4; attempt++) {
+                String id = ids.get(ThreadLocalRandom.current().nextInt((int) size));
+                if (id != null) {
+                    return id;
+                }
+            }
+            return ids.get(0);
+        }
+
+        public boolean isEmpty() {
+            return written.get() == 0;
+        }
+    }
+}
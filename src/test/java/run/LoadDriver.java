@@ -0,0 +1,200 @@
+package run;
+
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import data.SyntheticData;
+import service.BulkLoader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 🚚 LoadDriver runs a weighted mix of service operations for a fixed duration and records latency.
+ *
+ * - ✅ Open model ({@code --rps}): requests start on a fixed schedule; latency is measured from the
+ *   intended start time, so a slow server shows up as latency instead of silently lowering the rate
+ * - ✅ Closed model: {@code --concurrency} virtual-thread workers issue requests back to back
+ * - ✅ Per-operation HdrHistogram recorders (lock-free on the recording path)
+ * - ✅ Operations whose ID pool is still empty are skipped and counted apart, never sent with a missing ID
+ */
+public class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final long SKIP_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LoadConfig config;
+    private final LoadContext context;
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadDriver(LoadConfig config, LoadContext context) {
+        this.config = config;
+        this.context = context;
+        this.operations = config.mix().keySet().toArray(LoadOperation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * ▶️ Seed resources, warm up, then run the measured phase and return its report
+     */
+    public LoadReport run() {
+        return run(() -> {
+        });
+    }
+
+    /**
+     * ▶️ Same as {@link #run()}, calling {@code seeded} between seeding and warm-up
+     * (e.g. so that concurrent runs against several targets start measuring together)
+     */
+    public LoadReport run(Runnable seeded) {
+        seed();
+        seeded.run();
+        if (!config.warmup().isZero()) {
+            log.info("🔥 Warming up for {} ms", config.warmup().toMillis());
+            execute(config.warmup());
+        }
+        log.info("🚀 Measuring for {} ms {}", config.duration().toMillis(),
+                config.isRateLimited() ? "at " + config.rps() + " req/s" : "with " + config.concurrency() + " workers");
+        return execute(config.duration());
+    }
+
+    private void seed() {
+        int count = config.seedResources();
+        if (count <= 0) {
+            return;
+        }
+        SyntheticData data = new SyntheticData(SyntheticData.Options.fromConfig());
+        log.info("🌱 Seeding {} synthetic patients with their conditions (seed {})", count, data.options().seed());
+        context.bulkLoader().load(data.groups(count), outcome -> {
+            if (!outcome.succeeded()) {
+                log.warn("⚠️ Seed entry failed: {} {}", outcome.status(), outcome.error());
+            } else if ("Patient".equals(outcome.resourceType())) {
+                context.patientIds().add(outcome.id());
+            } else if ("Condition".equals(outcome.resourceType())) {
+                context.conditionIds().add(outcome.id());
+            }
+        });
+    }
+
+    private LoadReport execute(Duration duration) {
+        Map<LoadOperation, Recorder> recorders = new EnumMap<>(LoadOperation.class);
+        Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+        Map<LoadOperation, LongAdder> skipped = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : operations) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+            skipped.put(operation, new LongAdder());
+        }
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (config.isRateLimited()) {
+                // 🕰️ Open model: dispatch on schedule; the semaphore caps outstanding requests
+                Semaphore outstanding = new Semaphore(config.concurrency());
+                for (long i = 0; ; i++) {
+                    long intendedStart = start + (long) (i * 1_000_000_000L / config.rps());
+                    if (intendedStart >= end) {
+                        break;
+                    }
+                    parkUntil(intendedStart);
+                    outstanding.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            runOne(pick(), intendedStart, recorders, errors, skipped);
+                        } finally {
+                            outstanding.release();
+                        }
+                    });
+                }
+            } else {
+                for (int worker = 0; worker < config.concurrency(); worker++) {
+                    executor.execute(() -> {
+                        while (System.nanoTime() < end) {
+                            if (!runOne(pick(), System.nanoTime(), recorders, errors, skipped)) {
+                                // 🧘 Nothing was sent; back off instead of spinning, so the creates that fill the pool get to run
+                                LockSupport.parkNanos(SKIP_BACKOFF_NANOS);
+                            }
+                        }
+                    });
+                }
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<LoadReport.OperationStats> stats = new ArrayList<>();
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long allErrors = 0;
+        long allSkipped = 0;
+        for (LoadOperation operation : operations) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            long operationErrors = errors.get(operation).sum();
+            long operationSkipped = skipped.get(operation).sum();
+            stats.add(LoadReport.OperationStats.of(operation.cliName(), histogram, operationErrors, operationSkipped, elapsed));
+            all.add(histogram);
+            allErrors += operationErrors;
+            allSkipped += operationSkipped;
+        }
+        stats.add(LoadReport.OperationStats.of("ALL", all, allErrors, allSkipped, elapsed));
+        return new LoadReport(elapsed, stats);
+    }
+
+    // 📤 False when the operation was skipped because its ID pool is still empty
+    private boolean runOne(LoadOperation operation, long startNanos, Map<LoadOperation, Recorder> recorders,
+                        Map<LoadOperation, LongAdder> errors, Map<LoadOperation, LongAdder> skipped) {
+        if (!operation.isReady(context)) {
+            skipped.get(operation).increment();
+            return false;
+        }
+        boolean failed;
+        try {
+            Response response = operation.execute(context);
+            failed = response.getStatusCode() >= 400;
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+        long micros = Math.min((System.nanoTime() - startNanos) / 1_000, HIGHEST_TRACKABLE_MICROS);
+        recorders.get(operation).recordValue(Math.max(micros, 0));
+        if (failed) {
+            errors.get(operation).increment();
+        }
+        return true;
+    }
+
+    private LoadOperation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package run;
+
+import io.restassured.response.Response;
+import model.Patient;
+import service.FhirResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * 🎯 Operations the load driver can mix, each mapped to a PatientService/ConditionService call.
+ *
+ * Operations that need an existing resource pick a random ID from the {@link LoadContext} pools,
+ * which are seeded before the measured run starts and grow as create operations succeed. While
+ * a pool is empty those operations are not sent; the driver counts them as skipped.
+ */
+public enum LoadOperation {
+
+    CREATE_PATIENT("create-patient", null, ctx -> {
+        Response response = ctx.patients().createPatient(randomName(), randomGender(), "1980-01-01");
+        ctx.patientIds().add(FhirResponse.of(response).id());
+        return response;
+    }),
+    GET_PATIENT("get-patient", LoadContext::patientIds, ctx -> ctx.patients().getPatient(ctx.patientIds().random())),
+    UPDATE_PATIENT("update-patient", LoadContext::patientIds, ctx -> ctx.patients().updatePatient(ctx.patientIds().random(), randomName(), randomGender(), "1980-01-01")),
+    PATCH_PATIENT("patch-patient", LoadContext::patientIds, ctx -> ctx.patients().patchPatient(ctx.patientIds().random(), "/name/0/text", randomName())),
+    SEARCH_PATIENT("search-patient", null, ctx -> ctx.patients().searchPatientByName("Load")),
+    VALIDATE_PATIENT("validate-patient", null, ctx -> ctx.patients().validatePatientResource(Patient.of(randomName(), randomGender(), null))),
+    GET_PATIENT_VERSION("get-patient-version", LoadContext::patientIds, ctx -> ctx.patients().getPatientVersion(ctx.patientIds().random(), "1")),
+    CREATE_CONDITION("create-condition", LoadContext::patientIds, ctx -> {
+        Response response = ctx.conditions().createCondition("Patient/" + ctx.patientIds().random(),
+                "44054006", "Diabetes mellitus type 2", "Type 2 Diabetes Mellitus");
+        ctx.conditionIds().add(FhirResponse.of(response).id());
+        return response;
+    }),
+    GET_CONDITION("get-condition", LoadContext::conditionIds, ctx -> ctx.conditions().getCondition(ctx.conditionIds().random())),
+    PATCH_CONDITION("patch-condition", LoadContext::conditionIds, ctx -> ctx.conditions().patchCondition(ctx.conditionIds().random(), "/code/text", "Load patched")),
+    SEARCH_CONDITIONS("search-conditions", LoadContext::patientIds, ctx -> ctx.conditions().searchConditionsByPatient("Patient/" + ctx.patientIds().random()));
+
+    private final String cliName;
+    private final Function<LoadContext, LoadContext.IdPool> needs;
+    private final Function<LoadContext, Response> call;
+
+    LoadOperation(String cliName, Function<LoadContext, LoadContext.IdPool> needs, Function<LoadContext, Response> call) {
+        this.cliName = cliName;
+        this.needs = needs;
+        this.call = call;
+    }
+
+    /**
+     * 🏷️ Name used on the command line and in reports (e.g. {@code get-patient})
+     */
+    public String cliName() {
+        return cliName;
+    }
+
+    /**
+     * 🆔 False while the ID pool this operation picks from is still empty (nothing to read, update or reference yet)
+     */
+    public boolean isReady(LoadContext context) {
+        return needs == null || !needs.apply(context).isEmpty();
+    }
+
+    public Response execute(LoadContext context) {
+        return call.apply(context);
+    }
+
+    public static LoadOperation fromCliName(String name) {
+        for (LoadOperation operation : values()) {
+            if (operation.cliName.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("❌ Unknown operation '" + name + "'. Known: " + String.join(", ", cliNames()));
+    }
+
+    public static String[] cliNames() {
+        LoadOperation[] operations = values();
+        String[] names = new String[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            names[i] = operations[i].cliName;
+        }
+        return names;
+    }
+
+    private static String randomName() {
+        return "Load Patient" + ThreadLocalRandom.current().nextInt(1_000_000);
+    }
+
+    private static String randomGender() {
+        return ThreadLocalRandom.current().nextBoolean() ? "male" : "female";
+    }
+}
@@ -0,0 +1,60 @@
+package run;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 📊 Throughput and latency percentiles per operation for one load run.
+ *
+ * @param elapsed    measured wall-clock time (warm-up excluded)
+ * @param operations one row per operation, plus a final {@code ALL} row
+ */
+public record LoadReport(Duration elapsed, List<OperationStats> operations) {
+
+    /**
+     * ⏱️ Percentiles are in milliseconds; {@code throughput} is requests per second.
+     * {@code skipped} calls were never sent because their ID pool was still empty; they are not in {@code count}.
+     */
+    public record OperationStats(String operation, long count, long errors, long skipped, double throughput,
+                                 double p50, double p90, double p95, double p99, double p999, double max) {
+
+        /**
+         * 🧮 Summarise a histogram recorded in microseconds.
+         */
+        public static OperationStats of(String operation, Histogram histogram, long errors, long skipped, Duration elapsed) {
+            long count = histogram.getTotalCount();
+            double seconds = Math.max(elapsed.toNanos() / 1e9, 1e-9);
+            return new OperationStats(operation, count, errors, skipped, count / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 95),
+                    millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    /**
+     * 🔎 Stats for a single operation, or null when it was not part of the run
+     */
+    public OperationStats stats(String operation) {
+        return operations.stream().filter(s -> s.operation().equals(operation)).findFirst().orElse(null);
+    }
+
+    /**
+     * 🖨️ Print the report as an aligned table
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%n📊 Load report — %.1f s measured%n", elapsed.toMillis() / 1000.0);
+        out.printf(Locale.ROOT, "%-20s %9s %7s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "skipped", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (OperationStats s : operations) {
+            out.printf(Locale.ROOT, "%-20s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.operation(), s.count(), s.errors(), s.skipped(), s.throughput(), s.p50(), s.p90(), s.p95(), s.p99(), s.p999(), s.max());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package run;
+
+import data.SyntheticData;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import service.ConditionService;
+import service.FhirFlightRecorder;
+import service.PatientService;
+import utils.ConfigReader;
+import utils.TargetProfile;
+
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * 🧭 MenuLauncher is the CLI entry point used by {@code mvn exec:java}.
+ *
+ * Without arguments it shows an interactive menu. With arguments it runs a mode directly:
+ * <pre>
+ * mvn exec:java -Dexec.args="tests"
+ * mvn exec:java -Dexec.args="load --rps 200 --duration 60s --mix get-patient=80,create-patient=20"
+ * mvn exec:java -Dexec.args="fanout --targets staging,prod-like --rps 100 --duration 60s"
+ * mvn exec:java -Dexec.args="generate --patients 100000 --seed 7 --out target/synthetic"
+ * mvn exec:java -Dexec.args="soak --duration 4h --concurrency 16 --interval 30s"
+ * </pre>
+ */
+public class MenuLauncher {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            menu();
+            return;
+        }
+        String[] rest = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+            case "tests" -> runTests();
+            case "load" -> runLoad(LoadConfig.parse(rest));
+            case "fanout" -> runFanOut(rest);
+            case "generate" -> runGenerate(rest);
+            case "soak" -> runSoak(rest);
+            default -> {
+                usage();
+                System.exit(2);
+            }
+        }
+    }
+
+    private static void menu() {
+        Scanner in = new Scanner(System.in);
+        while (true) {
+            System.out.println("""
+
+                    🏥 FHIR test launcher
+                      1) ✅ Run functional test suite
+                      2) 🚚 Run load test (default mix, 32 workers, 30 s)
+                      3) 🎛️ Run load test with custom flags
+                      0) 🚪 Exit""");
+            System.out.print("> ");
+            if (!in.hasNextLine()) {
+                return;
+            }
+            switch (in.nextLine().trim()) {
+                case "1" -> runTests();
+                case "2" -> runLoad(LoadConfig.parse(new String[0]));
+                case "3" -> {
+                    System.out.println("Flags (e.g. --rps 100 --duration 20s --mix get-patient=9,create-patient=1):");
+                    System.out.print("> ");
+                    String line = in.hasNextLine() ? in.nextLine().trim() : "";
+                    try {
+                        runLoad(LoadConfig.parse(line.isEmpty() ? new String[0] : line.split("\\s+")));
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(e.getMessage());
+                    }
+                }
+                case "0" -> {
+                    return;
+                }
+                default -> System.out.println("❓ Unknown option");
+            }
+        }
+    }
+
+    private static void runTests() {
+        LauncherDiscoveryRequest discovery = request().selectors(selectPackage("tests")).build();
+        Launcher launcher = LauncherFactory.create();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(discovery, listener);
+        PrintWriter out = new PrintWriter(System.out);
+        listener.getSummary().printTo(out);
+        listener.getSummary().printFailuresTo(out, 10);
+        out.flush();
+    }
+
+    private static void runLoad(LoadConfig config) {
+        LoadContext context = new LoadContext(new PatientService(), new ConditionService());
+        FhirFlightRecorder.Session recording = FhirFlightRecorder.recordIfConfigured("load");
+        try {
+            LoadReport report = new LoadDriver(config, context).run();
+            report.print(System.out);
+        } finally {
+            recording.close();
+        }
+    }
+
+    private static void runFanOut(String[] args) {
+        List<TargetProfile> targets = TargetProfile.configured();
+        List<String> loadArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--targets".equals(args[i]) && i + 1 < args.length) {
+                targets = TargetProfile.parse(args[++i]);
+            } else {
+                loadArgs.add(args[i]);
+            }
+        }
+        LoadConfig config = LoadConfig.parse(loadArgs.toArray(String[]::new));
+        FhirFlightRecorder.Session recording = FhirFlightRecorder.recordIfConfigured("fanout");
+        try {
+            new FanOut(config, targets).run().print(System.out);
+        } finally {
+            recording.close();
+        }
+    }
+
+    private static void runSoak(String[] args) {
+        SoakRunner.Options options = SoakRunner.Options.parse(args);
+        if (ConfigReader.isStubEnabled() && !ConfigReader.getBoolean("soak.allow.stub", false)) {
+            // 🗄️ The stub keeps every version in this JVM; its growth would be reported as a client leak
+            System.out.println("❌ Soak needs a real server: set -Dfhir.stub=false and base.uri (or -Dsoak.allow.stub=true to soak the stub itself)");
+            System.exit(2);
+        }
+        SoakReport report;
+        FhirFlightRecorder.Session recording = FhirFlightRecorder.recordIfConfigured("soak");
+        try {
+            report = new SoakRunner(options, new PatientService(), new ConditionService()).run();
+        } finally {
+            recording.close();
+        }
+        report.print(System.out);
+        System.out.println("💾 Samples written to " + report.writeCsv(Path.of("target", "soak")).toAbsolutePath());
+        if (report.failed()) {
+            System.exit(1);
+        }
+    }
+
+    private static void runGenerate(String[] args) {
+        SyntheticData.Options options = SyntheticData.Options.fromConfig();
+        long patients = 1000;
+        Path out = Path.of("target", "synthetic");
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("❌ Missing value for " + args[i]);
+            }
+            switch (args[i]) {
+                case "--patients" -> patients = Long.parseLong(args[i + 1]);
+                case "--seed" -> options = options.withSeed(Long.parseLong(args[i + 1]));
+                case "--out" -> out = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("❌ Unknown flag: " + args[i]);
+            }
+        }
+        long start = System.nanoTime();
+        long written = new SyntheticData(options).writeNdjson(out, patients);
+        System.out.printf("🧬 Wrote %d resources for %d patients (seed %d) to %s in %d ms%n", written, patients,
+                options.seed(), out.toAbsolutePath(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void usage() {
+        System.out.println("""
+                Usage: MenuLauncher [tests | load [flags] | fanout [--targets a,b] [load flags] | generate [flags] | soak [flags]]
+                  load flags:
+                    --mix name=weight,...   operations: %s
+                    --rps N                 fixed arrival rate (open model); omit for closed model
+                    --concurrency N         workers (closed model) or max outstanding requests (open model)
+                    --duration 30s          measured duration (ms/s/m/h)
+                    --warmup 5s             unmeasured warm-up
+                    --seed N                synthetic patients (with their conditions) created before the run
+                  fanout flags:
+                    --targets a,b,...       target profiles (target.<name>.base.uri); default: targets in config.properties
+                  generate flags:
+                    --patients N            synthetic patients to write (default 1000)
+                    --seed S                generator seed (default synthetic.seed)
+                    --out DIR               directory for Patient.ndjson and Condition.ndjson (default target/synthetic)
+                  soak flags:
+                    --duration 1h           total soak time, warm-up included (ms/s/m/h)
+                    --concurrency N         workers cycling Patient and Condition lifecycles (default 16)
+                    --interval 30s          health sampling interval
+                    --warmup 2m             samples ignored by the leak and decay checks"""
+                .formatted(String.join(", ", LoadOperation.cliNames())));
+    }
+}
@@ -0,0 +1,119 @@
+package run;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 🧽 Result of a {@link SoakRunner} run: the raw samples and a {@link Trend} per health signal after the warm-up.
+ *
+ * - ✅ A leak is flagged when a signal rises significantly (Mann–Kendall p &lt; {@code soak.alpha}) and faster than its threshold
+ * - ✅ Throughput decay is flagged when cycles/s falls significantly and by more than {@code soak.throughput.decay.per.hour}
+ * - ✅ Heap is judged on its post-GC level, so the sawtooth between collections is not mistaken for growth
+ * - ✅ Fewer than {@link #MIN_SAMPLES} samples after the warm-up is inconclusive rather than a pass
+ *
+ * @param checks one row per signal, in print order
+ */
+public record SoakReport(List<SoakRunner.Sample> samples, List<Check> checks, boolean conclusive) {
+
+    public static final int MIN_SAMPLES = 8;
+
+    /**
+     * 📋 Trend of one signal
+     *
+     * @param threshold slope per hour that must be exceeded (relative for throughput, absolute otherwise)
+     * @param flagged   significant and beyond the threshold
+     */
+    public record Check(String signal, String unit, Trend trend, double threshold, boolean flagged) {
+    }
+
+    /**
+     * 🔍 Judge the post-warm-up samples against the thresholds in {@code options}
+     */
+    public static SoakReport analyse(SoakRunner.Options options, List<SoakRunner.Sample> samples) {
+        double warmupSeconds = options.warmup().toNanos() / 1e9;
+        List<SoakRunner.Sample> measured = samples.stream().filter(s -> s.seconds() > warmupSeconds).toList();
+        List<Check> checks = new ArrayList<>();
+        checks.add(rising("heap after GC", "MB", measured, SoakRunner.Sample::heapAfterGcMb, options.heapLeakMbPerHour(), options.alpha()));
+        checks.add(rising("pooled connections", "", measured, SoakRunner.Sample::connections, options.resourceLeakPerHour(), options.alpha()));
+        checks.add(rising("threads", "", measured, SoakRunner.Sample::threads, options.resourceLeakPerHour(), options.alpha()));
+        if (measured.stream().allMatch(s -> s.openFileDescriptors() >= 0)) {
+            checks.add(rising("open file descriptors", "", measured, SoakRunner.Sample::openFileDescriptors, options.resourceLeakPerHour(), options.alpha()));
+        }
+        Trend throughput = trend(measured, SoakRunner.Sample::cyclesPerSecond);
+        checks.add(new Check("throughput", "cycles/s", throughput, -options.throughputDecayPerHour(),
+                throughput.pDecreasing() < options.alpha() && throughput.relativeSlopePerHour() < -options.throughputDecayPerHour()));
+        return new SoakReport(samples, List.copyOf(checks), measured.size() >= MIN_SAMPLES);
+    }
+
+    /**
+     * ❌ True when a conclusive run flagged a leak or throughput decay
+     */
+    public boolean failed() {
+        return conclusive && checks.stream().anyMatch(Check::flagged);
+    }
+
+    /**
+     * 🚨 Errors counted over the whole run
+     */
+    public long errors() {
+        return samples.isEmpty() ? 0 : samples.get(samples.size() - 1).errors();
+    }
+
+    /**
+     * 🖨️ Print one line per signal
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%n🧽 Soak report — %d samples, %d errors%n", samples.size(), errors());
+        if (!conclusive) {
+            out.printf("⚠️ Fewer than %d samples after the warm-up; run longer or sample more often for a verdict%n", MIN_SAMPLES);
+        }
+        out.printf(Locale.ROOT, "%-22s %12s %14s %10s %10s  %s%n", "signal", "median", "slope / h", "p rise", "p fall", "verdict");
+        for (Check c : checks) {
+            String slope = c.signal().equals("throughput")
+                    ? String.format(Locale.ROOT, "%+.1f %%", c.trend().relativeSlopePerHour() * 100)
+                    : String.format(Locale.ROOT, "%+.2f %s", c.trend().slopePerHour(), c.unit());
+            String verdict = !c.flagged() ? "✅" : c.signal().equals("throughput") ? "❌ DECAY" : "❌ LEAK";
+            out.printf(Locale.ROOT, "%-22s %12.2f %14s %10.4f %10.4f  %s%n", c.signal(), c.trend().median(), slope,
+                    c.trend().pIncreasing(), c.trend().pDecreasing(), conclusive ? verdict : "—");
+        }
+    }
+
+    /**
+     * 💾 Write the samples as CSV for plotting, returns the file
+     */
+    public Path writeCsv(Path dir) {
+        Path file = dir.resolve("soak-samples.csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("seconds,cycles_per_second,errors,heap_used_mb,heap_after_gc_mb,gc_count,gc_ms,connections,leased_connections,open_fds,threads");
+        for (SoakRunner.Sample s : samples) {
+            lines.add(String.format(Locale.ROOT, "%.1f,%.2f,%d,%.1f,%.1f,%d,%d,%d,%d,%d,%d", s.seconds(), s.cyclesPerSecond(), s.errors(),
+                    s.heapUsedMb(), s.heapAfterGcMb(), s.gcCount(), s.gcMillis(), s.connections(), s.leasedConnections(),
+                    s.openFileDescriptors(), s.threads()));
+        }
+        try {
+            Files.createDirectories(dir);
+            return Files.write(file, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not write " + file, e);
+        }
+    }
+
+    private static Check rising(String signal, String unit, List<SoakRunner.Sample> samples,
+                                ToDoubleFunction<SoakRunner.Sample> value, double threshold, double alpha) {
+        Trend trend = trend(samples, value);
+        return new Check(signal, unit, trend, threshold, trend.pIncreasing() < alpha && trend.slopePerHour() > threshold);
+    }
+
+    private static Trend trend(List<SoakRunner.Sample> samples, ToDoubleFunction<SoakRunner.Sample> value) {
+        double[] seconds = samples.stream().mapToDouble(SoakRunner.Sample::seconds).toArray();
+        double[] values = samples.stream().mapToDouble(value).toArray();
+        return Trend.of(seconds, values);
+    }
+}
@@ -0,0 +1,247 @@
+package run;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import io.restassured.response.Response;
+import model.Patient;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.ConditionService;
+import service.FhirResponse;
+import service.FhirTransport;
+import service.PatientService;
+import utils.ConfigReader;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 🧽 SoakRunner repeats the Patient and Condition lifecycles for hours at steady concurrency and samples the client's health.
+ *
+ * - ✅ Workers alternate two cycles: Patient create → read → update → patch → search → delete, and Condition
+ *   create → read → update → patch → search → delete (on a patient created and deleted around it)
+ * - ✅ Every {@code --interval}: throughput, errors, heap after the last GC, GC count and time, pooled connections,
+ *   open file descriptors and threads
+ * - ✅ {@link SoakReport} looks for slow drifts in those series once the warm-up is over
+ * - ⚠️ Against the in-process stub ({@code fhir.stub=true}) the stub's store grows in the measured JVM, so the run
+ *   warns; {@code MenuLauncher soak} refuses it unless {@code soak.allow.stub=true}
+ *
+ * <pre>
+ * soak --duration 4h --concurrency 16 --interval 30s --warmup 5m
+ * </pre>
+ */
+public class SoakRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SoakRunner.class);
+
+    /**
+     * ⚙️ Soak settings; thresholds come from {@code soak.*} in config.properties
+     *
+     * @param heapLeakMbPerHour      growth of the post-GC heap that counts as a leak
+     * @param resourceLeakPerHour    growth of file descriptors, threads or pooled connections that counts as a leak
+     * @param throughputDecayPerHour relative throughput loss per hour that counts as decay (0.05 = 5 %/h)
+     * @param alpha                  significance level of the trend tests
+     */
+    public record Options(Duration duration, int concurrency, Duration interval, Duration warmup,
+                          double heapLeakMbPerHour, double resourceLeakPerHour, double throughputDecayPerHour, double alpha) {
+
+        public Options {
+            if (concurrency < 1 || interval.isZero() || interval.isNegative() || duration.compareTo(warmup) <= 0) {
+                throw new IllegalArgumentException("❌ Soak needs concurrency ≥ 1, a positive interval and a duration longer than the warm-up");
+            }
+        }
+
+        /**
+         * 🧾 Parse {@code --duration}, {@code --concurrency}, {@code --interval} and {@code --warmup}; other settings from config
+         */
+        public static Options parse(String[] args) {
+            Duration duration = Duration.ofHours(1);
+            int concurrency = 16;
+            Duration interval = Duration.ofSeconds(30);
+            Duration warmup = Duration.ofMinutes(2);
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("❌ Missing value for " + flag);
+                }
+                String value = args[++i];
+                switch (flag) {
+                    case "--duration" -> duration = LoadConfig.parseDuration(value);
+                    case "--concurrency" -> concurrency = Integer.parseInt(value);
+                    case "--interval" -> interval = LoadConfig.parseDuration(value);
+                    case "--warmup" -> warmup = LoadConfig.parseDuration(value);
+                    default -> throw new IllegalArgumentException("❌ Unknown flag " + flag);
+                }
+            }
+            return new Options(duration, concurrency, interval, warmup,
+                    ConfigReader.getDouble("soak.heap.leak.mb.per.hour", 20),
+                    ConfigReader.getDouble("soak.resource.leak.per.hour", 10),
+                    ConfigReader.getDouble("soak.throughput.decay.per.hour", 0.05),
+                    ConfigReader.getDouble("soak.alpha", 0.01));
+        }
+    }
+
+    /**
+     * 📸 One health sample; {@code -1} where the platform does not expose a value
+     *
+     * @param seconds         time since start
+     * @param cyclesPerSecond completed cycles per second during the interval
+     * @param heapAfterGcMb   heap in use right after the most recent collection (live data, not garbage)
+     * @param connections     pooled connections, leased and idle
+     */
+    public record Sample(double seconds, double cyclesPerSecond, long errors, double heapUsedMb, double heapAfterGcMb,
+                         long gcCount, long gcMillis, int connections, int leasedConnections, long openFileDescriptors, int threads) {
+    }
+
+    private final Options options;
+    private final PatientService patientService;
+    private final ConditionService conditionService;
+    private final LongAdder cycles = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public SoakRunner(Options options, PatientService patientService, ConditionService conditionService) {
+        this.options = options;
+        this.patientService = patientService;
+        this.conditionService = conditionService;
+    }
+
+    /**
+     * ▶️ Soak for {@code --duration}, printing each sample, and return the analysed report
+     */
+    public SoakReport run() {
+        List<Sample> samples = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + options.duration().toNanos();
+        if (ConfigReader.isStubEnabled()) {
+            log.warn("⚠️ Soaking the in-process stub: its store grows inside this JVM, so heap, search latency and "
+                    + "throughput trends describe the stub, not the client. Set fhir.stub=false and base.uri to soak a server");
+        }
+        log.info("🧽 Soaking for {} with {} workers, sampling every {}", options.duration(), options.concurrency(), options.interval());
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] previous = {0, start};
+        sampler.scheduleAtFixedRate(() -> {
+            Sample sample = sample(start, previous);
+            synchronized (samples) {
+                samples.add(sample);
+            }
+            log.info(String.format(Locale.ROOT, "⏱️ %7.0f s  %8.1f cycles/s  errors %d  heap %.0f MB (live %.0f MB)  gc %d/%d ms  conns %d  fds %d  threads %d",
+                    sample.seconds(), sample.cyclesPerSecond(), sample.errors(), sample.heapUsedMb(), sample.heapAfterGcMb(),
+                    sample.gcCount(), sample.gcMillis(), sample.connections(), sample.openFileDescriptors(), sample.threads()));
+        }, options.interval().toNanos(), options.interval().toNanos(), TimeUnit.NANOSECONDS);
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < options.concurrency(); worker++) {
+                int id = worker;
+                workers.execute(() -> {
+                    for (long cycle = 0; System.nanoTime() < end; cycle++) {
+                        try {
+                            if ((cycle + id) % 2 == 0) {
+                                patientCycle(id, cycle);
+                            } else {
+                                conditionCycle(id, cycle);
+                            }
+                            cycles.increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        }
+                    }
+                });
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        synchronized (samples) {
+            return SoakReport.analyse(options, List.copyOf(samples));
+        }
+    }
+
+    private void patientCycle(int worker, long cycle) {
+        String name = "Soak " + worker + "-" + cycle;
+        String id = call(() -> patientService.createPatient(Patient.of(name, "female", "1970-01-01"))).id();
+        try {
+            call(() -> patientService.getPatient(id));
+            call(() -> patientService.updatePatient(id, name + " Updated", "female", "1970-01-01"));
+            call(() -> patientService.patchPatient(id, "/name/0/text", name + " Patched"));
+            call(() -> patientService.searchPatientByName(name));
+        } finally {
+            call(() -> patientService.deletePatient(id));
+        }
+    }
+
+    private void conditionCycle(int worker, long cycle) {
+        String patientId = call(() -> patientService.createPatient(Patient.of("Soak Subject " + worker, "male", "1965-01-01"))).id();
+        String reference = "Patient/" + patientId;
+        try {
+            String id = call(() -> conditionService.createCondition(reference, "38341003", "Hypertensive disorder, systemic arterial", "Hypertension")).id();
+            try {
+                call(() -> conditionService.getCondition(id));
+                call(() -> conditionService.updateCondition(id, reference, "38341003", "Hypertensive disorder, systemic arterial", "Hypertension, updated"));
+                call(() -> conditionService.patchCondition(id, "/code/text", "Hypertension, patched"));
+                call(() -> conditionService.searchConditionsByPatient(reference));
+            } finally {
+                call(() -> conditionService.deleteCondition(id));
+            }
+        } finally {
+            call(() -> patientService.deletePatient(patientId));
+        }
+    }
+
+    private static FhirResponse call(Supplier<Response> request) {
+        FhirResponse response = FhirResponse.of(request.get());
+        if (response.status() / 100 != 2) {
+            throw new IllegalStateException("❌ Soak call answered " + response.status());
+        }
+        return response;
+    }
+
+    private Sample sample(long start, long[] previous) {
+        long now = System.nanoTime();
+        long completed = cycles.sum();
+        double intervalSeconds = Math.max((now - previous[1]) / 1e9, 1e-9);
+        double cyclesPerSecond = (completed - previous[0]) / intervalSeconds;
+        previous[0] = completed;
+        previous[1] = now;
+
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long heapAfterGc = 0;
+        boolean collected = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null) {
+                heapAfterGc += usage.getUsed();
+                collected |= usage.getUsed() > 0;
+            }
+        }
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(gc.getCollectionCount(), 0);
+            gcMillis += Math.max(gc.getCollectionTime(), 0);
+        }
+        PoolStats pool = FhirTransport.shared().stats();
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        long fds = os instanceof UnixOperatingSystemMXBean unix ? unix.getOpenFileDescriptorCount() : -1;
+        return new Sample((now - start) / 1e9, cyclesPerSecond, errors.sum(), heapUsed / 1048576.0,
+                (collected ? heapAfterGc : heapUsed) / 1048576.0, gcCount, gcMillis,
+                pool.getLeased() + pool.getAvailable(), pool.getLeased(), fds, ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
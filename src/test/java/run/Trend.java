@@ -0,0 +1,63 @@
+package run;
+
+import java.util.Arrays;
+
+/**
+ * 📈 Trend of a time series: Theil–Sen slope plus a Mann–Kendall test for a monotonic rise or fall.
+ *
+ * Both are rank-based, so a GC spike or one slow interval neither creates nor hides a trend;
+ * a slow, steady drift over many samples does show up.
+ *
+ * @param slopePerHour  median of all pairwise slopes, in units per hour
+ * @param pIncreasing   one-sided Mann–Kendall p-value for an upward trend
+ * @param pDecreasing   one-sided Mann–Kendall p-value for a downward trend
+ * @param median        median value of the series (to express the slope relative to the level)
+ */
+public record Trend(double slopePerHour, double pIncreasing, double pDecreasing, double median) {
+
+    /**
+     * 🧮 Trend of {@code values} sampled at {@code seconds} (same length, ascending)
+     */
+    public static Trend of(double[] seconds, double[] values) {
+        int n = values.length;
+        if (n != seconds.length) {
+            throw new IllegalArgumentException("❌ " + seconds.length + " timestamps for " + n + " values");
+        }
+        if (n < 3) {
+            return new Trend(0, 1, 1, median(values));
+        }
+        double[] slopes = new double[n * (n - 1) / 2];
+        int count = 0;
+        long s = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double dt = seconds[j] - seconds[i];
+                if (dt > 0) {
+                    slopes[count++] = (values[j] - values[i]) / dt;
+                }
+                s += Double.compare(values[j], values[i]);
+            }
+        }
+        double slope = count == 0 ? 0 : median(Arrays.copyOf(slopes, count)) * 3600;
+        double variance = n * (n - 1.0) * (2 * n + 5) / 18;
+        double z = s > 0 ? (s - 1) / Math.sqrt(variance) : s < 0 ? (s + 1) / Math.sqrt(variance) : 0;
+        return new Trend(slope, 1 - LatencyGate.normalCdf(z), LatencyGate.normalCdf(z), median(values));
+    }
+
+    /**
+     * 📏 Slope per hour relative to the median level (−0.1 = losing 10 % per hour)
+     */
+    public double relativeSlopePerHour() {
+        return median == 0 ? 0 : slopePerHour / Math.abs(median);
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
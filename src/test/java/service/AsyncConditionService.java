@@ -0,0 +1,162 @@
+package service;
+
+import io.restassured.response.Response;
+import model.Condition;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ⚡ Non-blocking variants of every {@link ConditionService} operation, executed on virtual threads.
+ *
+ * Handles the following:
+ * - ✅ Every ConditionService call returning a {@link CompletableFuture}
+ * - ✅ Fan-out reads and per-patient searches with a bounded number in flight
+ */
+public class AsyncConditionService {
+
+    private final ConditionService conditionService;
+
+    /**
+     * ✅ Async service bound to the FHIR server configured in config.properties
+     */
+    public AsyncConditionService() {
+        this(new ConditionService());
+    }
+
+    /**
+     * ✅ Async facade over an existing (e.g. differently configured) ConditionService
+     */
+    public AsyncConditionService(ConditionService conditionService) {
+        this.conditionService = conditionService;
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#getCondition(String)}
+     */
+    public CompletableFuture<Response> getCondition(String id) {
+        return FhirAsync.supply(() -> conditionService.getCondition(id));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#createCondition(Map)}
+     */
+    public CompletableFuture<Response> createCondition(Map<String, Object> condition) {
+        return FhirAsync.supply(() -> conditionService.createCondition(condition));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#createCondition(String, String, String, String)}
+     */
+    public CompletableFuture<Response> createCondition(String patientReference, String diagnosisCode, String diagnosisDisplay, String diagnosisText) {
+        return FhirAsync.supply(() -> conditionService.createCondition(patientReference, diagnosisCode, diagnosisDisplay, diagnosisText));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#updateCondition(String, Map)}
+     */
+    public CompletableFuture<Response> updateCondition(String id, Map<String, Object> condition) {
+        return FhirAsync.supply(() -> conditionService.updateCondition(id, condition));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#updateCondition(String, String, String, String, String)}
+     */
+    public CompletableFuture<Response> updateCondition(String conditionId, String patientReference, String diagnosisCode, String diagnosisDisplay, String newText) {
+        return FhirAsync.supply(() -> conditionService.updateCondition(conditionId, patientReference, diagnosisCode, diagnosisDisplay, newText));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#patchCondition(String, String, String)}
+     */
+    public CompletableFuture<Response> patchCondition(String id, String path, String newValue) {
+        return FhirAsync.supply(() -> conditionService.patchCondition(id, path, newValue));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#patchCondition(String, JsonPatch)}
+     */
+    public CompletableFuture<Response> patchCondition(String id, JsonPatch patch) {
+        return FhirAsync.supply(() -> conditionService.patchCondition(id, patch));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#deleteCondition(String)}
+     */
+    public CompletableFuture<Response> deleteCondition(String id) {
+        return FhirAsync.supply(() -> conditionService.deleteCondition(id));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#validateConditionResource(Map)}
+     */
+    public CompletableFuture<Response> validateConditionResource(Map<String, Object> condition) {
+        return FhirAsync.supply(() -> conditionService.validateConditionResource(condition));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#searchConditionByPatient(String)}
+     */
+    public CompletableFuture<Response> searchConditionByPatient(String patientRef) {
+        return FhirAsync.supply(() -> conditionService.searchConditionByPatient(patientRef));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#postConditionFromFile(String)}
+     */
+    public CompletableFuture<Response> postConditionFromFile(String filePath) {
+        return FhirAsync.supply(() -> conditionService.postConditionFromFile(filePath));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#uploadCondition(Path, boolean)}
+     */
+    public CompletableFuture<Response> uploadCondition(Path file, boolean gzip) {
+        return FhirAsync.supply(() -> conditionService.uploadCondition(file, gzip));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#searchConditionsByPatient(String)}
+     */
+    public CompletableFuture<Response> searchConditionsByPatient(String patientReference) {
+        return FhirAsync.supply(() -> conditionService.searchConditionsByPatient(patientReference));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#createCondition(Condition)}
+     */
+    public CompletableFuture<Response> createCondition(Condition condition) {
+        return FhirAsync.supply(() -> conditionService.createCondition(condition));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#updateCondition(String, Condition)}
+     */
+    public CompletableFuture<Response> updateCondition(String id, Condition condition) {
+        return FhirAsync.supply(() -> conditionService.updateCondition(id, condition));
+    }
+
+    /**
+     * ⚡ Async {@link ConditionService#validateConditionResource(Condition)}
+     */
+    public CompletableFuture<Response> validateConditionResource(Condition condition) {
+        return FhirAsync.supply(() -> conditionService.validateConditionResource(condition));
+    }
+
+    /**
+     * 🌊 GET many conditions concurrently with at most {@code maxInFlight} requests at once (results in input order)
+     */
+    public CompletableFuture<List<Response>> getConditions(Collection<String> ids, int maxInFlight) {
+        return FhirAsync.fanOut(ids, maxInFlight, conditionService::getCondition);
+    }
+
+    /**
+     * 🌊 Search conditions for many patients concurrently with at most {@code maxInFlight} requests at once
+     */
+    public CompletableFuture<List<Response>> searchConditionsByPatients(Collection<String> patientReferences, int maxInFlight) {
+        return FhirAsync.fanOut(patientReferences, maxInFlight, conditionService::searchConditionsByPatient);
+    }
+}
@@ -0,0 +1,163 @@
+package service;
+
+import io.restassured.response.Response;
+import model.Bundle;
+import model.Patient;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ⚡ Non-blocking variants of every {@link PatientService} operation, executed on virtual threads.
+ *
+ * Handles the following:
+ * - ✅ Every PatientService call returning a {@link CompletableFuture}
+ * - ✅ Fan-out reads of many patients with a bounded number in flight
+ */
+public class AsyncPatientService {
+
+    private final PatientService patientService;
+
+    /**
+     * ✅ Async service bound to the FHIR server configured in config.properties
+     */
+    public AsyncPatientService() {
+        this(new PatientService());
+    }
+
+    /**
+     * ✅ Async facade over an existing (e.g. differently configured) PatientService
+     */
+    public AsyncPatientService(PatientService patientService) {
+        this.patientService = patientService;
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#getPatient(String)}
+     */
+    public CompletableFuture<Response> getPatient(String id) {
+        return FhirAsync.supply(() -> patientService.getPatient(id));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#createPatient(String, String, String)}
+     */
+    public CompletableFuture<Response> createPatient(String name, String gender, String birthDate) {
+        return FhirAsync.supply(() -> patientService.createPatient(name, gender, birthDate));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#updatePatient(String, String, String, String)}
+     */
+    public CompletableFuture<Response> updatePatient(String id, String name, String gender, String birthDate) {
+        return FhirAsync.supply(() -> patientService.updatePatient(id, name, gender, birthDate));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#deletePatient(String)}
+     */
+    public CompletableFuture<Response> deletePatient(String id) {
+        return FhirAsync.supply(() -> patientService.deletePatient(id));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#searchPatientByName(String)}
+     */
+    public CompletableFuture<Response> searchPatientByName(String name) {
+        return FhirAsync.supply(() -> patientService.searchPatientByName(name));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#validatePatientResource(Map)}
+     */
+    public CompletableFuture<Response> validatePatientResource(Map<String, Object> resource) {
+        return FhirAsync.supply(() -> patientService.validatePatientResource(resource));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#getPatientVersion(String, String)}
+     */
+    public CompletableFuture<Response> getPatientVersion(String id, String versionId) {
+        return FhirAsync.supply(() -> patientService.getPatientVersion(id, versionId));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#patchPatient(String, String, String)}
+     */
+    public CompletableFuture<Response> patchPatient(String id, String path, String newValue) {
+        return FhirAsync.supply(() -> patientService.patchPatient(id, path, newValue));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#patchPatient(String, JsonPatch)}
+     */
+    public CompletableFuture<Response> patchPatient(String id, JsonPatch patch) {
+        return FhirAsync.supply(() -> patientService.patchPatient(id, patch));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#sendTransactionBundle(Map)}
+     */
+    public CompletableFuture<Response> sendTransactionBundle(Map<String, Object> bundle) {
+        return FhirAsync.supply(() -> patientService.sendTransactionBundle(bundle));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#createPatientWithConditionBundle(Map)}
+     */
+    public CompletableFuture<Response> createPatientWithConditionBundle(Map<String, Object> bundle) {
+        return FhirAsync.supply(() -> patientService.createPatientWithConditionBundle(bundle));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#postFhirResourceFromFile(String)}
+     */
+    public CompletableFuture<Response> postFhirResourceFromFile(String filePath) {
+        return FhirAsync.supply(() -> patientService.postFhirResourceFromFile(filePath));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#uploadFhirResource(Path, boolean)}
+     */
+    public CompletableFuture<Response> uploadFhirResource(Path file, boolean gzip) {
+        return FhirAsync.supply(() -> patientService.uploadFhirResource(file, gzip));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#createPatient(Patient)}
+     */
+    public CompletableFuture<Response> createPatient(Patient patient) {
+        return FhirAsync.supply(() -> patientService.createPatient(patient));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#updatePatient(String, Patient)}
+     */
+    public CompletableFuture<Response> updatePatient(String id, Patient patient) {
+        return FhirAsync.supply(() -> patientService.updatePatient(id, patient));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#validatePatientResource(Patient)}
+     */
+    public CompletableFuture<Response> validatePatientResource(Patient patient) {
+        return FhirAsync.supply(() -> patientService.validatePatientResource(patient));
+    }
+
+    /**
+     * ⚡ Async {@link PatientService#sendTransactionBundle(Bundle)}
+     */
+    public CompletableFuture<Response> sendTransactionBundle(Bundle bundle) {
+        return FhirAsync.supply(() -> patientService.sendTransactionBundle(bundle));
+    }
+
+    /**
+     * 🌊 GET many patients concurrently with at most {@code maxInFlight} requests at once (results in input order)
+     */
+    public CompletableFuture<List<Response>> getPatients(Collection<String> ids, int maxInFlight) {
+        return FhirAsync.fanOut(ids, maxInFlight, patientService::getPatient);
+    }
+}
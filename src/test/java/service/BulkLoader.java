@@ -0,0 +1,337 @@
+package service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import model.Bundle;
+import model.BundleEntry;
+import model.Condition;
+import model.FhirJson;
+import model.Patient;
+import model.RawResource;
+import model.Reference;
+import model.Resource;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * 🚛 BulkLoader ingests a large stream of resources as transaction or batch Bundles.
+ *
+ * - ✅ Packs {@link Group}s into Bundles of at most {@code chunkSize} entries; a group is never split,
+ *   so {@code urn:uuid} references between its entries (patient ↔ conditions) always resolve
+ * - ✅ Submits chunks concurrently on virtual threads, at most {@code maxInFlight} at a time; the input
+ *   stream is only pulled when a slot is free (backpressure, constant memory)
+ * - ✅ Reports one {@link EntryOutcome} per entry: status, location, error
+ * - ✅ Imports NDJSON files line by line via {@link Ndjson}, sending each line unchanged (every field, any resource type)
+ *
+ * <pre>
+ * BulkLoader.Result result = new BulkLoader().load(patients.map(p -&gt; BulkLoader.Group.patientWithConditions(p, conditionsOf(p))));
+ * </pre>
+ */
+public class BulkLoader {
+
+    /**
+     * ⚙️ Chunking and concurrency settings
+     *
+     * @param chunkSize   maximum entries per Bundle (a larger single group gets a chunk of its own)
+     * @param bundleType  {@code transaction} (all-or-nothing per chunk) or {@code batch} (per-entry results)
+     * @param maxInFlight chunks submitted concurrently
+     */
+    public record Options(int chunkSize, String bundleType, int maxInFlight) {
+
+        public Options {
+            if (chunkSize < 1 || maxInFlight < 1) {
+                throw new IllegalArgumentException("❌ chunkSize and maxInFlight must be at least 1");
+            }
+            if (!"transaction".equals(bundleType) && !"batch".equals(bundleType)) {
+                throw new IllegalArgumentException("❌ bundleType must be 'transaction' or 'batch' but was " + bundleType);
+            }
+        }
+
+        /**
+         * ⚙️ Options from config.properties ({@code bulk.chunk.size}, {@code bulk.bundle.type}, {@code bulk.max.in.flight})
+         */
+        public static Options fromConfig() {
+            String type = ConfigReader.get("bulk.bundle.type");
+            return new Options(ConfigReader.getInt("bulk.chunk.size", 500),
+                    type == null || type.isBlank() ? "transaction" : type.trim(),
+                    ConfigReader.getInt("bulk.max.in.flight", 4));
+        }
+    }
+
+    /**
+     * 🧩 Entries that must land in the same Bundle (e.g. a patient and the conditions that reference it by urn:uuid)
+     */
+    public record Group(List<BundleEntry> entries) {
+
+        public Group {
+            entries = List.copyOf(entries);
+        }
+
+        /**
+         * 🧩 A single resource, created with POST
+         */
+        public static Group of(Resource resource) {
+            return new Group(List.of(BundleEntry.post(null, resource)));
+        }
+
+        /**
+         * 🧩 A single resource: PUT to {@code Type/id} when it carries an ID (keeps references between
+         * resources of an export valid), POST otherwise
+         */
+        public static Group upsert(Resource resource) {
+            return new Group(List.of(resource.id() == null ? BundleEntry.post(null, resource) : BundleEntry.put(resource)));
+        }
+
+        /**
+         * 🧩 A new patient plus its conditions; each condition's subject is rewritten to the patient's urn:uuid
+         */
+        public static Group patientWithConditions(Patient patient, List<Condition> conditions) {
+            return patientWithConditions("urn:uuid:" + UUID.randomUUID(), patient, conditions);
+        }
+
+        /**
+         * 🧩 Same, with a caller-chosen fullUrl (e.g. a name-based UUID, so the Bundles are reproducible)
+         */
+        public static Group patientWithConditions(String fullUrl, Patient patient, List<Condition> conditions) {
+            List<BundleEntry> entries = new ArrayList<>(conditions.size() + 1);
+            entries.add(BundleEntry.post(fullUrl, patient));
+            for (Condition condition : conditions) {
+                entries.add(BundleEntry.post(null, condition.withSubject(Reference.to(fullUrl))));
+            }
+            return new Group(entries);
+        }
+
+        public int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 📋 Result of one entry
+     *
+     * @param group    position of the entry's group in the input stream
+     * @param chunk    Bundle the entry was sent in
+     * @param status   HTTP status of the entry (the chunk's status if the whole Bundle failed; 0 for I/O errors)
+     * @param location {@code Type/id/_history/vid} of the written resource, or null
+     * @param error    diagnostics for failed entries, or null
+     */
+    public record EntryOutcome(long group, int chunk, String resourceType, int status, String location, String error) {
+
+        public boolean succeeded() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * 🆔 Logical ID from {@code location}, or null
+         */
+        public String id() {
+            if (location == null) {
+                return null;
+            }
+            String[] parts = location.split("/");
+            return parts.length >= 2 ? parts[1] : null;
+        }
+    }
+
+    /**
+     * 📊 Totals of one load (outcomes are kept in submission order)
+     */
+    public record Result(List<EntryOutcome> outcomes, int chunks, Duration elapsed) {
+
+        public long succeeded() {
+            return outcomes.stream().filter(EntryOutcome::succeeded).count();
+        }
+
+        public long failed() {
+            return outcomes.size() - succeeded();
+        }
+
+        public double entriesPerSecond() {
+            return outcomes.size() / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+    }
+
+    private record Chunk(int index, List<Group> groups, long firstGroup) {
+    }
+
+    private final RequestSpecification spec;
+    private final Options options;
+
+    /**
+     * ✅ Loader for the FHIR server and options configured in config.properties
+     */
+    public BulkLoader() {
+        this(FhirClient.spec(), Options.fromConfig());
+    }
+
+    /**
+     * ✅ Loader for an explicit request specification and options
+     */
+    public BulkLoader(RequestSpecification spec, Options options) {
+        this.spec = spec;
+        this.options = options;
+    }
+
+    /**
+     * 🚛 Load every group and collect all entry outcomes
+     */
+    public Result load(Stream<Group> groups) {
+        List<EntryOutcome> outcomes = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        int chunks = load(groups, outcomes::add);
+        List<EntryOutcome> ordered = new ArrayList<>(outcomes);
+        ordered.sort((a, b) -> a.chunk() != b.chunk() ? Integer.compare(a.chunk(), b.chunk()) : Long.compare(a.group(), b.group()));
+        return new Result(ordered, chunks, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * 🚛 Load every group, handing each entry outcome to {@code sink} as its chunk completes
+     * (called from loader threads; keeps memory flat for very large loads)
+     *
+     * @return number of Bundles sent
+     */
+    public int load(Stream<Group> groups, Consumer<EntryOutcome> sink) {
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        int chunkIndex = 0;
+        long groupIndex = 0;
+        long chunkFirstGroup = 0;
+        List<Group> current = new ArrayList<>();
+        int currentEntries = 0;
+
+        Iterator<Group> iterator = groups.iterator();
+        while (iterator.hasNext()) {
+            Group group = iterator.next();
+            if (!current.isEmpty() && currentEntries + group.size() > options.chunkSize()) {
+                pending.add(submit(new Chunk(chunkIndex++, current, chunkFirstGroup), inFlight, sink));
+                current = new ArrayList<>();
+                currentEntries = 0;
+                chunkFirstGroup = groupIndex;
+            }
+            current.add(group);
+            currentEntries += group.size();
+            groupIndex++;
+            pending.removeIf(CompletableFuture::isDone);
+        }
+        if (!current.isEmpty()) {
+            pending.add(submit(new Chunk(chunkIndex++, current, chunkFirstGroup), inFlight, sink));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        return chunkIndex;
+    }
+
+    /**
+     * 📄 Import an NDJSON file (e.g. a bulk-data export) line by line; resources with IDs are upserted.
+     * Lines are sent exactly as read, so an import never replaces server data with a partial copy;
+     * a type the server rejects comes back as a failed {@link EntryOutcome}.
+     */
+    public Result loadNdjson(Path file) {
+        try (Stream<RawResource> resources = Ndjson.read(file)) {
+            return load(resources.map(Group::upsert));
+        }
+    }
+
+    private CompletableFuture<Void> submit(Chunk chunk, Semaphore inFlight, Consumer<EntryOutcome> sink) {
+        // 🚦 Blocks the producer until a slot is free, so at most maxInFlight chunks are buffered
+        inFlight.acquireUninterruptibly();
+        return FhirAsync.supply(() -> {
+            try {
+                send(chunk, sink);
+            } finally {
+                inFlight.release();
+            }
+            return null;
+        });
+    }
+
+    private void send(Chunk chunk, Consumer<EntryOutcome> sink) {
+        List<BundleEntry> entries = new ArrayList<>();
+        List<Long> groupOf = new ArrayList<>();
+        for (int g = 0; g < chunk.groups().size(); g++) {
+            for (BundleEntry entry : chunk.groups().get(g).entries()) {
+                entries.add(entry);
+                groupOf.add(chunk.firstGroup() + g);
+            }
+        }
+        Bundle bundle = new Bundle(null, options.bundleType(), null, null, entries);
+
+        Response response;
+        try {
+            response = given(spec)
+                    .contentType(ContentType.JSON)
+                    .body(FhirJson.write(bundle))
+                    .when()
+                    .post("/")
+                    .then()
+                    .extract().response();
+        } catch (RuntimeException e) {
+            failAll(chunk, entries, groupOf, 0, e.toString(), sink);
+            return;
+        }
+
+        byte[] body = response.asByteArray();
+        if (response.getStatusCode() != 200) {
+            failAll(chunk, entries, groupOf, response.getStatusCode(), diagnostics(body), sink);
+            return;
+        }
+        List<BundleEntry> results = FhirJson.read(body, Bundle.class).entry();
+        for (int i = 0; i < entries.size(); i++) {
+            String type = entries.get(i).resource() == null ? null : entries.get(i).resource().resourceType();
+            BundleEntry.Response result = results != null && i < results.size() ? results.get(i).response() : null;
+            if (result == null) {
+                sink.accept(new EntryOutcome(groupOf.get(i), chunk.index(), type, 0, null, "❌ No response entry"));
+                continue;
+            }
+            int status = parseStatus(result.status());
+            sink.accept(new EntryOutcome(groupOf.get(i), chunk.index(), type, status, result.location(),
+                    status >= 200 && status < 300 ? null : result.status()));
+        }
+    }
+
+    private static void failAll(Chunk chunk, List<BundleEntry> entries, List<Long> groupOf, int status, String error,
+                                Consumer<EntryOutcome> sink) {
+        for (int i = 0; i < entries.size(); i++) {
+            Resource resource = entries.get(i).resource();
+            sink.accept(new EntryOutcome(groupOf.get(i), chunk.index(), resource == null ? null : resource.resourceType(),
+                    status, null, error));
+        }
+    }
+
+    private static int parseStatus(String status) {
+        if (status == null || status.length() < 3) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(status.substring(0, 3));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String diagnostics(byte[] body) {
+        try {
+            JsonNode outcome = FhirJson.mapper().readTree(body);
+            String text = outcome.path("issue").path(0).path("diagnostics").asText();
+            return text.isEmpty() ? new String(body, StandardCharsets.UTF_8) : text;
+        } catch (IOException e) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -2,14 +2,21 @@ package service;
 
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import model.Condition;
+import model.FhirJson;
+import model.RawResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import utils.ConfigReader;
 
-import java.io.File;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
-import static io.restassured.RestAssured.*;
+import static io.restassured.RestAssured.given;
 
 /**
  * ✅ This class provides reusable REST API methods for Condition FHIR operations.
@@ -18,28 +25,42 @@ import static io.restassured.RestAssured.*;
  * - ✅ GET condition by ID
  * - ✅ POST a new condition
  * - ✅ PUT to update condition
- * - ✅ PATCH to partially update condition
+ * - ✅ PATCH to partially update condition, several operations per request via {@link JsonPatch}
  * - ✅ DELETE condition
  * - ✅ Validate FHIR Condition resource
- * - ✅ Search condition by patient reference
- * - ✅ POST FHIR Condition from external JSON file
+ * - ✅ Search condition by patient reference, or stream every page of matches
+ * - ✅ Export search results to an NDJSON file
+ * - ✅ POST FHIR Condition from external JSON file, streamed and optionally gzip-compressed
+ * - ✅ Typed overloads taking {@link Condition} (serialized once to bytes via {@link FhirJson})
  */
 public class ConditionService {
 
-    // ✅ Dynamically load baseURI and basePath from config.properties
-    static {
-        baseURI = ConfigReader.get("base.uri");
-        basePath = ConfigReader.get("base.path");
+    private static final Logger log = LoggerFactory.getLogger(ConditionService.class);
+    private static final String BASE_PATH = "/Condition";
+
+    // 🔌 Isolated per instance: no RestAssured globals are touched, so instances are safe to use in parallel
+    private final RequestSpecification spec;
+
+    /**
+     * ✅ Service bound to the FHIR server configured in config.properties
+     */
+    public ConditionService() {
+        this(FhirClient.spec());
     }
 
-    private static final String BASE_PATH = "/Condition";
+    /**
+     * ✅ Service bound to an explicit request specification (e.g. another FHIR server)
+     */
+    public ConditionService(RequestSpecification spec) {
+        this.spec = spec;
+    }
 
     /**
      * ✅ GET a condition by ID
      */
-    public static Response getCondition(String id) {
-        System.out.println("📥 [GET] " + BASE_PATH + "/" + id);
-        return given()
+    public Response getCondition(String id) {
+        log.debug("📥 [GET] {}/{}", BASE_PATH, id);
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .when()
                 .get(BASE_PATH + "/" + id)
@@ -51,9 +72,9 @@ public class ConditionService {
     /**
      * ✅ POST - Create new condition resource from Map
      */
-    public static Response createCondition(Map<String, Object> condition) {
-        System.out.println("➕ [POST] Creating new condition");
-        return given()
+    public Response createCondition(Map<String, Object> condition) {
+        log.debug("➕ [POST] Creating new condition");
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .body(condition)
                 .when()
@@ -66,18 +87,32 @@ public class ConditionService {
     /**
      * ✅ POST - Create new condition resource from parameters
      */
-    public static Response createCondition(String patientReference, String diagnosisCode, String diagnosisDisplay, String diagnosisText) {
-        Map<String, Object> condition = buildConditionPayload(patientReference, diagnosisCode, diagnosisDisplay, diagnosisText);
-        return createCondition(condition);
+    public Response createCondition(String patientReference, String diagnosisCode, String diagnosisDisplay, String diagnosisText) {
+        return createCondition(Condition.of(patientReference, diagnosisCode, diagnosisDisplay, diagnosisText));
+    }
+
+    /**
+     * ✅ POST - Create new condition resource from the typed model
+     */
+    public Response createCondition(Condition condition) {
+        log.debug("➕ [POST] Creating new condition (typed)");
+        return given(spec)
+                .contentType(ContentType.JSON)
+                .body(FhirJson.write(condition))
+                .when()
+                .post(BASE_PATH)
+                .then()
+                .extract()
+                .response();
     }
 
     /**
      * ✅ PUT - Update entire condition resource from Map
      */
-    public static Response updateCondition(String id, Map<String, Object> condition) {
+    public Response updateCondition(String id, Map<String, Object> condition) {
         condition.put("id", id);
-        System.out.println("🔁 [PUT] Updating condition ID: " + id);
-        return given()
+        log.debug("🔁 [PUT] Updating condition ID: {}", id);
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .body(condition)
                 .when()
@@ -90,21 +125,40 @@ public class ConditionService {
     /**
      * ✅ PUT - Update condition from parameters
      */
-    public static Response updateCondition(String conditionId, String patientReference, String diagnosisCode, String diagnosisDisplay, String newText) {
-        Map<String, Object> condition = buildConditionPayload(patientReference, diagnosisCode, diagnosisDisplay, newText);
-        condition.put("id", conditionId);
-        return updateCondition(conditionId, condition);
+    public Response updateCondition(String conditionId, String patientReference, String diagnosisCode, String diagnosisDisplay, String newText) {
+        return updateCondition(conditionId, Condition.of(patientReference, diagnosisCode, diagnosisDisplay, newText));
+    }
+
+    /**
+     * ✅ PUT - Update entire condition resource from the typed model (the ID is taken from the path)
+     */
+    public Response updateCondition(String id, Condition condition) {
+        log.debug("🔁 [PUT] Updating condition ID (typed): {}", id);
+        return given(spec)
+                .contentType(ContentType.JSON)
+                .body(FhirJson.write(condition.withId(id)))
+                .when()
+                .put(BASE_PATH + "/" + id)
+                .then()
+                .extract()
+                .response();
     }
 
     /**
      * 🩹 PATCH condition using FHIR JSON Patch (application/json-patch+json)
      */
-    public static Response patchCondition(String id, String path, String newValue) {
-        String patchPayload = String.format("[{\"op\":\"replace\", \"path\":\"%s\", \"value\":\"%s\"}]", path, newValue);
-        System.out.println("🩹 [PATCH] " + BASE_PATH + "/" + id + " with: " + patchPayload);
-        return given()
-                .contentType("application/json-patch+json")
-                .body(patchPayload)
+    public Response patchCondition(String id, String path, String newValue) {
+        return patchCondition(id, JsonPatch.create().replace(path, newValue));
+    }
+
+    /**
+     * 🩹 PATCH condition with any number of JSON Patch operations in a single request
+     */
+    public Response patchCondition(String id, JsonPatch patch) {
+        log.debug("🩹 [PATCH] {}/{} with: {}", BASE_PATH, id, patch);
+        return given(spec)
+                .contentType(JsonPatch.CONTENT_TYPE)
+                .body(patch.toBytes())
                 .when()
                 .patch(BASE_PATH + "/" + id)
                 .then()
@@ -115,9 +169,9 @@ public class ConditionService {
     /**
      * ✅ DELETE a condition resource by ID
      */
-    public static Response deleteCondition(String id) {
-        System.out.println("🗑️ [DELETE] " + BASE_PATH + "/" + id);
-        return given()
+    public Response deleteCondition(String id) {
+        log.debug("🗑️ [DELETE] {}/{}", BASE_PATH, id);
+        return given(spec)
                 .when()
                 .delete(BASE_PATH + "/" + id)
                 .then()
@@ -127,10 +181,12 @@ public class ConditionService {
 
     /**
      * 🧪 Validate FHIR condition resource without storing
+     *
+     * Answered locally by the {@link validation.ValidationFilter} unless {@code validation.server=true}
      */
-    public static Response validateConditionResource(Map<String, Object> condition) {
-        System.out.println("🧪 [VALIDATE] Sending condition resource to $validate");
-        return given()
+    public Response validateConditionResource(Map<String, Object> condition) {
+        log.debug("🧪 [VALIDATE] Sending condition resource to $validate");
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .body(condition)
                 .when()
@@ -140,12 +196,27 @@ public class ConditionService {
                 .response();
     }
 
+    /**
+     * 🧪 Validate typed condition resource without storing (locally unless {@code validation.server=true})
+     */
+    public Response validateConditionResource(Condition condition) {
+        log.debug("🧪 [VALIDATE] Sending typed condition resource to $validate");
+        return given(spec)
+                .contentType(ContentType.JSON)
+                .body(FhirJson.write(condition))
+                .when()
+                .post(BASE_PATH + "/$validate")
+                .then()
+                .extract()
+                .response();
+    }
+
     /**
      * 🔍 Search for conditions by patient reference
      */
-    public static Response searchConditionByPatient(String patientRef) {
-        System.out.println("🔍 [SEARCH] Conditions for patient: " + patientRef);
-        return given()
+    public Response searchConditionByPatient(String patientRef) {
+        log.debug("🔍 [SEARCH] Conditions for patient: {}", patientRef);
+        return given(spec)
                 .queryParam("subject", patientRef)
                 .when()
                 .get(BASE_PATH)
@@ -155,14 +226,50 @@ public class ConditionService {
     }
 
     /**
-     * 📂 POST FHIR Condition from external JSON file
+     * 🌊 Stream every condition matching the search parameters, following {@code next} links page by page
      */
-    public static Response postConditionFromFile(String filePath) {
-        File file = new File(filePath);
-        System.out.println("📂 [POST] Condition from file: " + filePath);
-        return given()
-                .contentType(ContentType.JSON)
-                .body(file)
+    public Stream<Condition> streamConditions(Map<String, ?> params) {
+        log.debug("🌊 [SEARCH] Streaming conditions: {}", params);
+        return SearchResults.search(spec, BASE_PATH, params, Condition.class).stream();
+    }
+
+    /**
+     * 🌊 Stream all conditions of a patient across all result pages, in constant memory
+     */
+    public Stream<Condition> streamConditionsByPatient(String patientReference) {
+        return streamConditions(Map.of("subject", patientReference));
+    }
+
+    /**
+     * 📄 Export every condition matching the search parameters to an NDJSON file, page by page.
+     * Each condition is written exactly as the server returned it, fields outside the typed model included.
+     *
+     * @return number of conditions written
+     */
+    public long exportConditions(Map<String, ?> params, Path file) {
+        log.debug("📄 [EXPORT] Conditions {} -> {}", params, file);
+        try (Stream<RawResource> conditions = SearchResults.search(spec, BASE_PATH, params, RawResource.class).stream()
+                .filter(resource -> "Condition".equals(resource.resourceType()))) {
+            return Ndjson.write(file, conditions);
+        }
+    }
+
+    /**
+     * 📂 POST FHIR Condition from external JSON file ({@code .json.gz} files are sent compressed)
+     */
+    public Response postConditionFromFile(String filePath) {
+        return uploadCondition(Path.of(filePath), ConfigReader.getBoolean("upload.gzip", false));
+    }
+
+    /**
+     * 📤 Stream a Condition file to the server, optionally gzip-compressed on the fly
+     *
+     * @param file FHIR JSON file; {@code .gz} files are sent as-is with {@code Content-Encoding: gzip}
+     * @param gzip compress plain JSON files while uploading
+     */
+    public Response uploadCondition(Path file, boolean gzip) {
+        log.debug("📂 [POST] Condition from file: {}{}", file, gzip || FileUpload.isGzipFile(file) ? " (gzip)" : "");
+        return FileUpload.body(given(spec), file, gzip)
                 .when()
                 .post(BASE_PATH)
                 .then()
@@ -176,9 +283,9 @@ public class ConditionService {
      * @param patientReference the FHIR reference to the patient (e.g., "Patient/mohanad-albadri")
      * @return the API response containing a Bundle of conditions
      */
-    public static Response searchConditionsByPatient(String patientReference) {
-        System.out.println("🔍 [SEARCH] Fetching all conditions for patient: " + patientReference);
-        return given()
+    public Response searchConditionsByPatient(String patientReference) {
+        log.debug("🔍 [SEARCH] Fetching all conditions for patient: {}", patientReference);
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .queryParam("subject", patientReference)
                 .when()
@@ -191,7 +298,7 @@ public class ConditionService {
     /**
      * 🧱 Build a FHIR-compliant Condition resource payload
      */
-    private static Map<String, Object> buildConditionPayload(String patientReference, String code, String display, String text) {
+    public static Map<String, Object> buildConditionPayload(String patientReference, String code, String display, String text) {
         Map<String, Object> condition = new HashMap<>();
         condition.put("resourceType", "Condition");
         condition.put("subject", Map.of("reference", patientReference));
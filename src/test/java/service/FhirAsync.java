@@ -0,0 +1,62 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ⚡ FhirAsync runs blocking service calls on Java 21 virtual threads.
+ *
+ * A virtual thread parks cheaply while it waits on the network, so thousands of FHIR calls can be
+ * in flight without a platform thread each. Actual concurrency on the wire is still bounded by the
+ * {@link FhirTransport} connection pool ({@code http.pool.max.per.route}).
+ */
+public final class FhirAsync {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private FhirAsync() {
+    }
+
+    /**
+     * 🧵 Run a blocking call on a new virtual thread
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, EXECUTOR);
+    }
+
+    /**
+     * 🌊 Apply {@code call} to every input concurrently with at most {@code maxInFlight} calls running at once.
+     *
+     * Results keep the order of {@code inputs}; the returned future fails if any call throws.
+     */
+    public static <I, T> CompletableFuture<List<T>> fanOut(Collection<I> inputs, int maxInFlight, Function<I, T> call) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1 but was " + maxInFlight);
+        }
+        Semaphore permits = new Semaphore(maxInFlight);
+        List<CompletableFuture<T>> futures = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            futures.add(supply(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    return call.apply(input);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    futures.forEach(future -> results.add(future.join()));
+                    return results;
+                });
+    }
+}
@@ -0,0 +1,68 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 🛩️ FhirCallEvent is the JFR event emitted by {@link FhirFlightRecorder} for every FHIR client call.
+ *
+ * The event's own duration is the whole call as the service caller sees it (filters, body read and parsing included);
+ * {@link #wireTime} is the part spent waiting on the server. Shows up in JDK Mission Control under "FHIR / Client",
+ * next to GC, allocation and thread events of the same moment.
+ */
+@Name(FhirCallEvent.NAME)
+@Label("FHIR Client Call")
+@Category({"FHIR", "Client"})
+@Description("One request sent through PatientService, ConditionService or another FhirClient specification")
+@StackTrace(false)
+public class FhirCallEvent extends Event {
+
+    public static final String NAME = "fhir.ClientCall";
+
+    @Label("Operation")
+    @Description("FHIR REST interaction: read, vread, search, create, update, patch, delete, operation, transaction")
+    String operation;
+
+    @Label("Resource Type")
+    String resourceType;
+
+    @Label("HTTP Method")
+    String method;
+
+    @Label("Path Template")
+    @Description("Request path with IDs replaced by placeholders, e.g. /Patient/{id}")
+    String pathTemplate;
+
+    @Label("Status")
+    @Description("HTTP status, 0 when no response arrived")
+    int status;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Serialization Time")
+    @Description("Time spent serializing resources with FhirJson on this thread since its previous call")
+    @Timespan
+    long serializationTime;
+
+    @Label("Wire Time")
+    @Description("Request sent until response headers received, summed over retries")
+    @Timespan
+    long wireTime;
+
+    @Label("Throttle Time")
+    @Description("Time spent waiting in the client throttle and retry backoff")
+    @Timespan
+    long throttleTime;
+}
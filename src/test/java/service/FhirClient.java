@@ -0,0 +1,71 @@
+package service;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import utils.ConfigReader;
+import validation.ValidationFilter;
+
+/**
+ * 🔌 FhirClient builds the request specifications shared by the service classes.
+ *
+ * Specifications are immutable once built and never touch RestAssured's global
+ * {@code baseURI}/{@code basePath}, so any number of service instances can run in parallel.
+ * All of them send requests through the pooled {@link FhirTransport} and log through the
+ * asynchronous {@link LoggingFilter}, and are timed by {@link FhirMetrics} ({@code metrics.enabled}) and
+ * {@link FhirFlightRecorder} JFR events ({@code jfr.events}). Patient and Condition bodies are
+ * checked locally first by the {@link ValidationFilter} ({@code validation.preflight}); with
+ * {@code cache.enabled=true} reads also go through the shared {@link ResponseCache}, and with {@code replay.mode}
+ * set every exchange is recorded to, or answered from, the {@link RecordReplay} archive.
+ */
+public final class FhirClient {
+
+    private FhirClient() {
+    }
+
+    /**
+     * ✅ Request specification for the FHIR server configured in config.properties
+     */
+    public static RequestSpecification spec() {
+        return spec(ConfigReader.get("base.uri"), ConfigReader.get("base.path"));
+    }
+
+    /**
+     * ✅ Request specification for an explicit FHIR server base URI and path
+     */
+    public static RequestSpecification spec(String baseUri, String basePath) {
+        return build(baseUri, basePath, ValidationFilter.shared());
+    }
+
+    /**
+     * 🛂 Specification for the configured server on which {@code $validate} always reaches the server (after the
+     * local pre-flight check), whatever {@code validation.server} says; e.g. to time the server's validation
+     */
+    public static RequestSpecification serverValidationSpec() {
+        return build(ConfigReader.get("base.uri"), ConfigReader.get("base.path"), new ValidationFilter(true));
+    }
+
+    private static RequestSpecification build(String baseUri, String basePath, ValidationFilter validation) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setBasePath(basePath)
+                .setConfig(FhirTransport.shared().config())
+                .addFilter(FhirTransport.shared().releaseFilter())
+                .addFilter(LoggingFilter.shared());
+        if (ConfigReader.getBoolean("jfr.events", true)) {
+            builder.addFilter(FhirFlightRecorder.shared());
+        }
+        if (ConfigReader.getBoolean("metrics.enabled", true)) {
+            builder.addFilter(FhirMetrics.shared());
+        }
+        if (ConfigReader.getBoolean("validation.preflight", true)) {
+            builder.addFilter(validation);
+        }
+        if (ConfigReader.getBoolean("cache.enabled", false)) {
+            builder.addFilter(ResponseCache.shared());
+        }
+        if (RecordReplay.configuredMode() != RecordReplay.Mode.OFF) {
+            builder.addFilter(RecordReplay.shared());
+        }
+        return builder.build();
+    }
+}
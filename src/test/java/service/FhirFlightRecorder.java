@@ -0,0 +1,163 @@
+package service;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import model.FhirJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 🛩️ FhirFlightRecorder emits a {@link FhirCallEvent} per FHIR call and can record a whole run to a {@code .jfr} file.
+ *
+ * - ✅ Installed outermost by {@link FhirClient} ({@code jfr.events}); while no recording is running the event is
+ *   disabled and the filter stops at {@code isEnabled()}, so the cost is negligible
+ * - ✅ Wire and throttle time come from {@link FhirTransport}, serialization time from {@link FhirJson#takeSerializationNanos()}
+ * - ✅ {@link #recordIfConfigured(String)} ({@code jfr.record=true}) wraps a test or load run in a recording written to
+ *   {@code jfr.dir}, using the JDK's {@code jfr.settings} configuration ({@code default} or {@code profile})
+ *
+ * Any other recording (e.g. {@code -XX:StartFlightRecording} or {@code jcmd JFR.start}) picks the events up as well.
+ */
+public class FhirFlightRecorder implements OrderedFilter {
+
+    /**
+     * 🔢 Outside the metrics filter, so the event spans everything the caller waits for
+     */
+    public static final int ORDER = OrderedFilter.DEFAULT_PRECEDENCE - 800;
+
+    private static final Logger log = LoggerFactory.getLogger(FhirFlightRecorder.class);
+    private static final FhirFlightRecorder SHARED = new FhirFlightRecorder();
+
+    // ⏱️ [wire nanos, transport nanos] of the call in progress on this thread, filled in by FhirTransport
+    private static final ThreadLocal<long[]> TRANSPORT_NANOS = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * ⏹️ Handle of a running recording; closing it stops the recording and writes the file
+     */
+    public interface Session extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 🛩️ The filter of every {@link FhirClient} specification
+     */
+    public static FhirFlightRecorder shared() {
+        return SHARED;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        long serializationNanos = FhirJson.takeSerializationNanos();
+        FhirCallEvent event = new FhirCallEvent();
+        if (!event.isEnabled()) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long[] transport = TRANSPORT_NANOS.get();
+        transport[0] = 0;
+        transport[1] = 0;
+        int status = 0;
+        long received = 0;
+        event.begin();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            status = response.getStatusCode();
+            received = FhirMetrics.responseSize(requestSpec, response);
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                FhirRoute route = FhirRoute.of(requestSpec);
+                event.operation = route.interaction().label();
+                event.resourceType = route.type();
+                event.method = requestSpec.getMethod();
+                event.pathTemplate = route.template();
+                event.status = status;
+                event.requestBytes = FhirMetrics.bodySize(requestSpec.getBody());
+                event.responseBytes = received;
+                event.serializationTime = serializationNanos;
+                event.wireTime = transport[0];
+                event.throttleTime = Math.max(transport[1] - transport[0], 0);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * 📡 One attempt's time on the wire (called by {@link FhirTransport})
+     */
+    static void addWireNanos(long nanos) {
+        TRANSPORT_NANOS.get()[0] += nanos;
+    }
+
+    /**
+     * 🔌 Time in the HTTP client, throttle waits and retries included (called by {@link FhirTransport})
+     */
+    static void addTransportNanos(long nanos) {
+        TRANSPORT_NANOS.get()[1] += nanos;
+    }
+
+    /**
+     * ⏺️ Start a recording to {@code jfr.dir/<name>-<timestamp>.jfr} when {@code jfr.record=true}; closing it stops
+     * the recording and writes the file. Returns a no-op handle otherwise.
+     */
+    public static Session recordIfConfigured(String name) {
+        if (!ConfigReader.getBoolean("jfr.record", false)) {
+            return () -> {
+            };
+        }
+        String dir = ConfigReader.get("jfr.dir");
+        String settings = ConfigReader.get("jfr.settings");
+        Path file = Path.of(dir == null || dir.isBlank() ? "target/jfr" : dir)
+                .resolve(name + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+        Recording recording = start(file, settings == null || settings.isBlank() ? "profile" : settings.trim());
+        return () -> stop(recording, file);
+    }
+
+    /**
+     * ⏺️ Start a recording with the given JDK settings ({@code default}, {@code profile}) that is written to {@code file} when stopped
+     */
+    public static Recording start(Path file, String settings) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Recording recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName("fhir");
+            recording.enable(FhirCallEvent.NAME);
+            recording.setToDisk(true);
+            recording.setDestination(file);
+            recording.setDumpOnExit(true);
+            recording.start();
+            log.info("⏺️ JFR recording started ({} settings) → {}", settings, file.toAbsolutePath());
+            return recording;
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not start JFR recording to " + file, e);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("❌ Invalid JFR settings '" + settings + "'", e);
+        }
+    }
+
+    private static void stop(Recording recording, Path file) {
+        try (recording) {
+            recording.stop();
+            log.info("🛩️ JFR recording written to {}", file.toAbsolutePath());
+        }
+    }
+}
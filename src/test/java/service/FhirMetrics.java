@@ -0,0 +1,258 @@
+package service;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import model.FhirJson;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ⏱️ FhirMetrics records latency and payload size of every FHIR request, per operation, resource type and status.
+ *
+ * - ✅ Series are keyed by {@link FhirRoute} ({@code read Patient 200}, {@code create Condition 422}, …);
+ *   I/O errors are recorded with status {@code 0}
+ * - ✅ Latency goes into an HdrHistogram {@link Recorder} (wait-free on the request thread, microsecond resolution)
+ * - ✅ Bytes sent and received are counted with {@link LongAdder}s; streamed request bodies count as 0, streamed
+ *   responses by their {@code Content-Length}
+ * - ✅ {@link #snapshot()} is cumulative since start (or {@link #reset()}); export with
+ *   {@link #toPrometheus()} / {@link #toJson()}
+ *
+ * Installed outermost by {@link FhirClient}, so the timing is what the caller sees, cache hits and local
+ * validation answers included. Files are written at the end of a test run by {@code utils.MetricsExportListener}.
+ */
+public class FhirMetrics implements OrderedFilter {
+
+    /**
+     * 🔢 Before the validation filter and the cache, so locally answered requests are timed too
+     */
+    public static final int ORDER = OrderedFilter.DEFAULT_PRECEDENCE - 700;
+
+    private static final FhirMetrics SHARED = new FhirMetrics();
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+
+    /**
+     * 🏷️ One time series
+     */
+    public record Key(String operation, String resourceType, int status) {
+    }
+
+    /**
+     * 📊 Cumulative numbers for one series; latencies in milliseconds
+     */
+    public record Stats(Key key, long count, long bytesSent, long bytesReceived, double sumMillis,
+                        double p50, double p90, double p95, double p99, double p999, double max) {
+    }
+
+    private static final class Series {
+        final Recorder recorder = new Recorder(3);
+        final Histogram total = new Histogram(3);
+        final LongAdder sentBytes = new LongAdder();
+        final LongAdder receivedBytes = new LongAdder();
+        Histogram interval;
+
+        synchronized Histogram collect() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return total.copy();
+        }
+    }
+
+    private final Map<Key, Series> series = new ConcurrentHashMap<>();
+    private volatile Instant since = Instant.now();
+
+    /**
+     * ⏱️ Metrics of every {@link FhirClient} specification, exported at the end of the run
+     */
+    public static FhirMetrics shared() {
+        return SHARED;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            record(FhirRoute.of(requestSpec), 0, System.nanoTime() - start, bodySize(requestSpec.getBody()), 0);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        record(FhirRoute.of(requestSpec), response.getStatusCode(), elapsed, bodySize(requestSpec.getBody()), responseSize(requestSpec, response));
+        return response;
+    }
+
+    /**
+     * ➕ Record one exchange
+     */
+    public void record(FhirRoute route, int status, long elapsedNanos, long bytesSent, long bytesReceived) {
+        Key key = new Key(route.interaction().label(), route.type() == null ? "" : route.type(), status);
+        Series s = series.computeIfAbsent(key, k -> new Series());
+        s.recorder.recordValue(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 0));
+        s.sentBytes.add(bytesSent);
+        s.receivedBytes.add(bytesReceived);
+    }
+
+    /**
+     * 📸 Cumulative stats per series, sorted by operation, resource type and status
+     */
+    public List<Stats> snapshot() {
+        return series.entrySet().stream()
+                .map(e -> stats(e.getKey(), e.getValue()))
+                .filter(s -> s.count() > 0)
+                .sorted(Comparator.comparing((Stats s) -> s.key().operation())
+                        .thenComparing(s -> s.key().resourceType())
+                        .thenComparingInt(s -> s.key().status()))
+                .toList();
+    }
+
+    /**
+     * 🧹 Forget everything recorded so far
+     */
+    public void reset() {
+        series.clear();
+        since = Instant.now();
+    }
+
+    /**
+     * 📤 Prometheus text exposition format (0.0.4): a latency summary plus byte counters per series
+     */
+    public String toPrometheus() {
+        List<Stats> stats = snapshot();
+        StringBuilder out = new StringBuilder(256 + stats.size() * 512);
+        out.append("# HELP fhir_client_request_duration_seconds FHIR request latency seen by the test client\n")
+                .append("# TYPE fhir_client_request_duration_seconds summary\n");
+        for (Stats s : stats) {
+            double[] values = {s.p50(), s.p90(), s.p95(), s.p99(), s.p999()};
+            for (int i = 0; i < QUANTILES.length; i++) {
+                sample(out, "fhir_client_request_duration_seconds", s.key(), "quantile=\"" + QUANTILES[i] + "\"", values[i] / 1000.0);
+            }
+            sample(out, "fhir_client_request_duration_seconds_sum", s.key(), null, s.sumMillis() / 1000.0);
+            sample(out, "fhir_client_request_duration_seconds_count", s.key(), null, s.count());
+        }
+        out.append("# HELP fhir_client_request_bytes_total Request body bytes sent\n")
+                .append("# TYPE fhir_client_request_bytes_total counter\n");
+        stats.forEach(s -> sample(out, "fhir_client_request_bytes_total", s.key(), null, s.bytesSent()));
+        out.append("# HELP fhir_client_response_bytes_total Response body bytes received\n")
+                .append("# TYPE fhir_client_response_bytes_total counter\n");
+        stats.forEach(s -> sample(out, "fhir_client_response_bytes_total", s.key(), null, s.bytesReceived()));
+        return out.toString();
+    }
+
+    /**
+     * 📤 The same numbers as a JSON document, latencies in milliseconds
+     */
+    public String toJson() {
+        ObjectNode root = FhirJson.mapper().createObjectNode();
+        root.put("since", since.toString());
+        root.put("until", Instant.now().toString());
+        ArrayNode rows = root.putArray("series");
+        for (Stats s : snapshot()) {
+            ObjectNode row = rows.addObject();
+            row.put("operation", s.key().operation());
+            row.put("resourceType", s.key().resourceType());
+            row.put("status", s.key().status());
+            row.put("count", s.count());
+            row.put("bytesSent", s.bytesSent());
+            row.put("bytesReceived", s.bytesReceived());
+            ObjectNode latency = row.putObject("latencyMs");
+            latency.put("mean", s.sumMillis() / s.count());
+            latency.put("p50", s.p50());
+            latency.put("p90", s.p90());
+            latency.put("p95", s.p95());
+            latency.put("p99", s.p99());
+            latency.put("p999", s.p999());
+            latency.put("max", s.max());
+        }
+        try {
+            return FhirJson.mapper().writerWithDefaultPrettyPrinter().writeValueAsString(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 💾 Write {@code fhir-metrics.prom} and {@code fhir-metrics.json} into {@code dir}
+     *
+     * @return the two files, Prometheus first
+     */
+    public List<Path> writeTo(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path prometheus = Files.writeString(dir.resolve("fhir-metrics.prom"), toPrometheus(), StandardCharsets.UTF_8);
+        Path json = Files.writeString(dir.resolve("fhir-metrics.json"), toJson(), StandardCharsets.UTF_8);
+        return List.of(prometheus, json);
+    }
+
+    private static Stats stats(Key key, Series s) {
+        Histogram h = s.collect();
+        long count = h.getTotalCount();
+        double sumMillis = count == 0 ? 0 : h.getMean() * count / 1000.0;
+        return new Stats(key, count, s.sentBytes.sum(), s.receivedBytes.sum(), sumMillis,
+                millis(h, 50), millis(h, 90), millis(h, 95), millis(h, 99), millis(h, 99.9), h.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    // 🌊 Streamed responses are left unread for their consumer, so only the declared length is known
+    static long responseSize(FilterableRequestSpecification requestSpec, Response response) {
+        if (!FhirTransport.isStreamed(requestSpec)) {
+            return response.asByteArray().length;
+        }
+        String length = response.getHeader("Content-Length");
+        return length == null || length.isBlank() ? 0 : Long.parseLong(length.trim());
+    }
+
+    static long bodySize(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return 0;
+    }
+
+    private static void sample(StringBuilder out, String name, Key key, String extraLabel, double value) {
+        out.append(name)
+                .append("{operation=\"").append(key.operation())
+                .append("\",resource=\"").append(key.resourceType())
+                .append("\",status=\"").append(key.status()).append('"');
+        if (extraLabel != null) {
+            out.append(',').append(extraLabel);
+        }
+        out.append("} ");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        out.append('\n');
+    }
+}
@@ -0,0 +1,223 @@
+package service;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import io.restassured.response.Response;
+import model.FhirJson;
+import model.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 🔬 FhirResponse wraps a RestAssured response and parses its body at most once.
+ *
+ * - ✅ {@link #json()} parses the body into a Jackson tree on first use; every lookup after that is a tree walk
+ * - ✅ Paths use the familiar GPath subset ({@code name[0].text}, {@code entry[0].response.location}),
+ *   compiled once into a {@link JsonPointer} and cached for the whole run
+ * - ✅ {@link #as(Class)} maps to the typed model on demand (cached per response)
+ * - ✅ {@link #pretty()} formats only when something actually logs it
+ * - ✅ Fluent assertions: {@code FhirResponse.of(r).assertStatus(200).assertEquals("code.text", "Diabetes")}
+ */
+public final class FhirResponse {
+
+    private static final Map<String, JsonPointer> POINTERS = new ConcurrentHashMap<>();
+
+    private final Response response;
+    private byte[] bytes;
+    private JsonNode json;
+    private Resource typed;
+
+    private FhirResponse(Response response) {
+        this.response = response;
+    }
+
+    public static FhirResponse of(Response response) {
+        return new FhirResponse(response);
+    }
+
+    /**
+     * 🔌 The underlying RestAssured response
+     */
+    public Response raw() {
+        return response;
+    }
+
+    public int status() {
+        return response.getStatusCode();
+    }
+
+    public String header(String name) {
+        return response.getHeader(name);
+    }
+
+    public byte[] bytes() {
+        if (bytes == null) {
+            bytes = response.asByteArray();
+        }
+        return bytes;
+    }
+
+    /**
+     * 🌳 The body as a Jackson tree, parsed on first call ({@link MissingNode} for an empty body)
+     */
+    public JsonNode json() {
+        if (json == null) {
+            try {
+                JsonNode parsed = FhirJson.mapper().readTree(bytes());
+                json = parsed == null ? MissingNode.getInstance() : parsed;
+            } catch (IOException e) {
+                throw new UncheckedIOException("❌ Response body is not JSON (HTTP " + status() + ")", e);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * 🔎 Node at a path such as {@code name[0].text}; {@link MissingNode} when absent
+     */
+    public JsonNode node(String path) {
+        return json().at(pointer(path));
+    }
+
+    /**
+     * 🔎 Text at a path, or null when absent (numbers and booleans are returned as text)
+     */
+    public String string(String path) {
+        JsonNode node = node(path);
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    /**
+     * 🔎 Integer at a path; fails when absent
+     */
+    public int integer(String path) {
+        JsonNode node = node(path);
+        if (!node.canConvertToInt()) {
+            throw new IllegalStateException("❌ No integer at '" + path + "' in HTTP " + status() + " response");
+        }
+        return node.asInt();
+    }
+
+    public boolean has(String path) {
+        JsonNode node = node(path);
+        return !node.isMissingNode() && !node.isNull();
+    }
+
+    public String id() {
+        return string("id");
+    }
+
+    public String versionId() {
+        return string("meta.versionId");
+    }
+
+    /**
+     * 🧬 The body as a typed resource, mapped on first call
+     */
+    public <T extends Resource> T as(Class<T> type) {
+        if (!type.isInstance(typed)) {
+            typed = FhirJson.read(bytes(), type);
+        }
+        return type.cast(typed);
+    }
+
+    /**
+     * 🖨️ Indented body for logs, formatted only when called
+     */
+    public String pretty() {
+        if (bytes().length == 0) {
+            return "";
+        }
+        try {
+            return FhirJson.mapper().writerWithDefaultPrettyPrinter().writeValueAsString(json());
+        } catch (IOException | UncheckedIOException e) {
+            return new String(bytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // ------------------------------------------------------------------ assertions
+
+    /**
+     * ✅ Status is one of {@code expected}; the body is shown on failure
+     */
+    public FhirResponse assertStatus(int... expected) {
+        int status = status();
+        assertTrue(Arrays.stream(expected).anyMatch(code -> code == status),
+                () -> "Expected HTTP " + Arrays.toString(expected) + " but got " + status + ": " + new String(bytes(), StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /**
+     * ✅ Value at {@code path} equals {@code expected} (compared as text, so numbers work too)
+     */
+    public FhirResponse assertEquals(String path, Object expected) {
+        org.junit.jupiter.api.Assertions.assertEquals(expected == null ? null : String.valueOf(expected), string(path),
+                () -> "Unexpected value at '" + path + "'");
+        return this;
+    }
+
+    /**
+     * ✅ Text at {@code path} contains {@code fragment}
+     */
+    public FhirResponse assertContains(String path, String fragment) {
+        String value = string(path);
+        assertNotNull(value, () -> "Nothing at '" + path + "'");
+        assertTrue(value.contains(fragment), () -> "Expected '" + path + "' to contain '" + fragment + "' but was '" + value + "'");
+        return this;
+    }
+
+    public FhirResponse assertPresent(String path) {
+        assertTrue(has(path), () -> "Expected a value at '" + path + "'");
+        return this;
+    }
+
+    public FhirResponse assertAbsent(String path) {
+        assertFalse(has(path), () -> "Expected no value at '" + path + "' but was '" + string(path) + "'");
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "HTTP " + status() + " " + new String(bytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 🧭 {@code entry[0].response.location} → {@code /entry/0/response/location}, compiled once per distinct path
+     */
+    static JsonPointer pointer(String path) {
+        return POINTERS.computeIfAbsent(path, FhirResponse::compile);
+    }
+
+    private static JsonPointer compile(String path) {
+        StringBuilder pointer = new StringBuilder(path.length() + 8);
+        for (String step : path.split("\\.")) {
+            int bracket = step.indexOf('[');
+            String name = bracket < 0 ? step : step.substring(0, bracket);
+            if (!name.isEmpty()) {
+                pointer.append('/').append(name.replace("~", "~0").replace("/", "~1"));
+            }
+            while (bracket >= 0) {
+                int close = step.indexOf(']', bracket);
+                if (close < 0) {
+                    throw new IllegalArgumentException("❌ Unclosed '[' in path: " + path);
+                }
+                pointer.append('/').append(step, bracket + 1, close);
+                bracket = step.indexOf('[', close);
+            }
+        }
+        return JsonPointer.compile(pointer.toString());
+    }
+}
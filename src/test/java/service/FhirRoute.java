@@ -0,0 +1,130 @@
+package service;
+
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 🧭 FhirRoute classifies a request into its FHIR REST interaction, resource type, ID and version.
+ *
+ * Shared by the client-side filters (cache, metrics, logging) so they all agree on what a request is:
+ * <pre>
+ * GET    /Patient/123                → READ     Patient 123
+ * GET    /Patient/123/_history/2     → VREAD    Patient 123 2
+ * GET    /Condition?subject=...      → SEARCH   Condition
+ * POST   /Patient                    → CREATE   Patient
+ * PUT    /Patient/123                → UPDATE   Patient 123
+ * PATCH  /Patient/123                → PATCH    Patient 123
+ * DELETE /Patient/123                → DELETE   Patient 123
+ * POST   /Patient/$validate          → OPERATION Patient ($validate)
+ * POST   /                           → TRANSACTION (transaction or batch Bundle)
+ * </pre>
+ *
+ * @param type      resource type, or null for system-level interactions
+ * @param id        logical ID, or null; for {@code OPERATION} the operation name (e.g. {@code $validate})
+ * @param versionId version for {@code VREAD}, otherwise null
+ */
+public record FhirRoute(Interaction interaction, String type, String id, String versionId) {
+
+    public enum Interaction {
+        READ, VREAD, SEARCH, CREATE, UPDATE, PATCH, DELETE, OPERATION, TRANSACTION, OTHER;
+
+        /**
+         * 🏷️ Lower-case name used in metric and log labels (e.g. {@code vread})
+         */
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 🧭 Classify a RestAssured request; its URI path is decoded ({@code %24validate}) and the base path stripped first
+     */
+    public static FhirRoute of(FilterableRequestSpecification request) {
+        String path = URI.create(request.getURI()).getPath();
+        String basePath = request.getBasePath();
+        if (basePath != null && !basePath.isEmpty() && !"/".equals(basePath) && path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        return of(request.getMethod(), path);
+    }
+
+    /**
+     * 🧭 Classify an HTTP method and a path relative to the FHIR base (query string excluded)
+     */
+    public static FhirRoute of(String method, String path) {
+        List<String> segments = new ArrayList<>(4);
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        String verb = method.toUpperCase(Locale.ROOT);
+        if (segments.isEmpty()) {
+            return new FhirRoute("POST".equals(verb) ? Interaction.TRANSACTION : Interaction.OTHER, null, null, null);
+        }
+        String type = segments.get(0);
+        if (type.startsWith("$")) {
+            return new FhirRoute(Interaction.OPERATION, null, type, null);
+        }
+        if (segments.size() == 1) {
+            return switch (verb) {
+                case "GET" -> new FhirRoute(Interaction.SEARCH, type, null, null);
+                case "POST" -> new FhirRoute(Interaction.CREATE, type, null, null);
+                default -> new FhirRoute(Interaction.OTHER, type, null, null);
+            };
+        }
+        String id = segments.get(1);
+        if (id.startsWith("$")) {
+            return new FhirRoute(Interaction.OPERATION, type, id, null);
+        }
+        if ("_search".equals(id)) {
+            return new FhirRoute(Interaction.SEARCH, type, null, null);
+        }
+        if (segments.size() == 2) {
+            return switch (verb) {
+                case "GET" -> new FhirRoute(Interaction.READ, type, id, null);
+                case "PUT" -> new FhirRoute(Interaction.UPDATE, type, id, null);
+                case "PATCH" -> new FhirRoute(Interaction.PATCH, type, id, null);
+                case "DELETE" -> new FhirRoute(Interaction.DELETE, type, id, null);
+                default -> new FhirRoute(Interaction.OTHER, type, id, null);
+            };
+        }
+        if (segments.size() == 4 && "_history".equals(segments.get(2)) && "GET".equals(verb)) {
+            return new FhirRoute(Interaction.VREAD, type, id, segments.get(3));
+        }
+        if (segments.size() == 3 && segments.get(2).startsWith("$")) {
+            return new FhirRoute(Interaction.OPERATION, type, segments.get(2), null);
+        }
+        return new FhirRoute(Interaction.OTHER, type, id, null);
+    }
+
+    /**
+     * 🧩 Path with IDs replaced by placeholders, e.g. {@code /Patient/{id}/_history/{vid}}; stable for grouping
+     */
+    public String template() {
+        if (type == null) {
+            return interaction == Interaction.OPERATION ? "/" + id : "/";
+        }
+        return switch (interaction) {
+            case SEARCH, CREATE -> "/" + type;
+            case READ, UPDATE, PATCH, DELETE -> "/" + type + "/{id}";
+            case VREAD -> "/" + type + "/{id}/_history/{vid}";
+            case OPERATION -> "/" + type + "/" + id;
+            default -> id == null ? "/" + type : "/" + type + "/{id}";
+        };
+    }
+
+    /**
+     * 🏷️ Short label such as {@code read Patient} or {@code transaction}
+     */
+    public String label() {
+        if (type == null) {
+            return interaction.label();
+        }
+        return interaction == Interaction.OPERATION ? interaction.label() + " " + type + " " + id : interaction.label() + " " + type;
+    }
+}
@@ -0,0 +1,276 @@
+package service;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import utils.ConfigReader;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔌 FhirTransport is the single HTTP layer shared by every service class.
+ *
+ * RestAssured asks its client factory for a new {@link DefaultHttpClient} on every request. Each of those
+ * lightweight clients is wired to one shared {@link PoolingClientConnectionManager}, so TCP connections
+ * (and TLS sessions, via one shared {@link SSLContext}) are kept alive and reused across requests and threads.
+ *
+ * Tuned from config.properties:
+ * - {@code http.pool.max.total} / {@code http.pool.max.per.route} — pool size
+ * - {@code http.connect.timeout.ms} / {@code http.socket.timeout.ms} — connect and read timeouts
+ * - {@code http.pool.acquire.timeout.ms} — max wait for a free pooled connection
+ * - {@code http.keepalive.ms} — idle keep-alive when the server sends no {@code Keep-Alive} header
+ * - {@code http.stale.check} — probe pooled connections before reuse (costs a 1 ms blocking read per request)
+ * - {@code tls.session.cache.size} / {@code tls.session.timeout.s} — TLS session resumption cache
+ *
+ * RestAssured leaves an unread response body as a live stream, which keeps its pooled connection leased.
+ * {@link #releaseFilter()} buffers the body so the connection goes straight back to the pool, except for requests
+ * marked {@link #streamed(RequestSpecification)}, whose caller reads the body as a stream and closes it.
+ *
+ * Every request goes through the {@link Throttle} ({@code throttle.*}, {@code retry.*}): rate limits, the optional
+ * adaptive concurrency limit and retries of idempotent calls on 429/503 and connection resets.
+ */
+@SuppressWarnings("deprecation")
+public final class FhirTransport {
+
+    private static final FhirTransport SHARED = fromConfig();
+
+    // 🧭 Route of the request being sent on this thread, for per-operation throttling
+    private static final ThreadLocal<FhirRoute> CURRENT_ROUTE = new ThreadLocal<>();
+
+    // 🌊 Marker only: requests carrying it keep their response body as a live stream
+    private static final Filter STREAMED = (requestSpec, responseSpec, ctx) -> ctx.next(requestSpec, responseSpec);
+
+    private static final OrderedFilter RELEASE_FILTER = new OrderedFilter() {
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            CURRENT_ROUTE.set(FhirRoute.of(requestSpec));
+            try {
+                Response response = ctx.next(requestSpec, responseSpec);
+                if (!isStreamed(requestSpec)) {
+                    response.asByteArray();
+                }
+                return response;
+            } finally {
+                CURRENT_ROUTE.remove();
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE - 100;
+        }
+    };
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final int connectTimeoutMs;
+    private final int socketTimeoutMs;
+    private final int acquireTimeoutMs;
+    private final long keepAliveMs;
+    private final boolean staleCheck;
+    private final Throttle throttle;
+    private final RestAssuredConfig config;
+
+    /**
+     * ⚙️ Pool, timeout and TLS settings
+     *
+     * @param acquireTimeoutMs max wait for a free pooled connection
+     * @param keepAliveMs      idle keep-alive when the server sends no {@code Keep-Alive} header
+     * @param staleCheck       probe pooled connections before reuse
+     */
+    public record Options(int maxTotal, int maxPerRoute, int connectTimeoutMs, int socketTimeoutMs, int acquireTimeoutMs,
+                          long keepAliveMs, boolean staleCheck, int tlsSessionCacheSize, int tlsSessionTimeoutS) {
+
+        /**
+         * ⚙️ Options from config.properties ({@code http.*}, {@code tls.*})
+         */
+        public static Options fromConfig() {
+            return new Options(
+                    ConfigReader.getInt("http.pool.max.total", 200),
+                    ConfigReader.getInt("http.pool.max.per.route", 100),
+                    ConfigReader.getInt("http.connect.timeout.ms", 5_000),
+                    ConfigReader.getInt("http.socket.timeout.ms", 30_000),
+                    ConfigReader.getInt("http.pool.acquire.timeout.ms", 10_000),
+                    ConfigReader.getInt("http.keepalive.ms", 30_000),
+                    ConfigReader.getBoolean("http.stale.check", false),
+                    ConfigReader.getInt("tls.session.cache.size", 1_000),
+                    ConfigReader.getInt("tls.session.timeout.s", 3_600));
+        }
+    }
+
+    /**
+     * 🔌 A transport with its own connection pool; services use {@link #shared()}
+     */
+    public FhirTransport(Options options, Throttle throttle) {
+        this.connectTimeoutMs = options.connectTimeoutMs();
+        this.socketTimeoutMs = options.socketTimeoutMs();
+        this.acquireTimeoutMs = options.acquireTimeoutMs();
+        this.keepAliveMs = options.keepAliveMs();
+        this.staleCheck = options.staleCheck();
+        this.throttle = throttle;
+
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+        schemes.register(new Scheme("https", 443, new SSLSocketFactory(sslContext(options.tlsSessionCacheSize(), options.tlsSessionTimeoutS()),
+                SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER)));
+
+        this.connectionManager = new PoolingClientConnectionManager(schemes);
+        this.connectionManager.setMaxTotal(options.maxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(options.maxPerRoute());
+
+        this.config = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .httpClientFactory(this::newClient));
+    }
+
+    /**
+     * 🌐 Transport shared by all service instances in this JVM
+     */
+    public static FhirTransport shared() {
+        return SHARED;
+    }
+
+    /**
+     * ⚙️ RestAssured configuration that routes requests through this transport's connection pool
+     */
+    public RestAssuredConfig config() {
+        return config;
+    }
+
+    /**
+     * ♻️ Filter that reads each response body eagerly so its connection is returned to the pool, unless the request
+     * is {@link #streamed(RequestSpecification)} (and hands the request's {@link FhirRoute} to the {@link Throttle})
+     */
+    public OrderedFilter releaseFilter() {
+        return RELEASE_FILTER;
+    }
+
+    /**
+     * 🌊 Mark {@code request} as streamed: its response body is not buffered, and the connection stays leased until
+     * the caller has closed {@link Response#asInputStream()} (e.g. a search page parsed entry by entry)
+     */
+    public static RequestSpecification streamed(RequestSpecification request) {
+        return request.filter(STREAMED);
+    }
+
+    /**
+     * 🌊 True when {@code requestSpec} was marked {@link #streamed(RequestSpecification)}
+     */
+    public static boolean isStreamed(FilterableRequestSpecification requestSpec) {
+        return requestSpec.getDefinedFilters().contains(STREAMED);
+    }
+
+    /**
+     * 🚦 Rate limits, concurrency limit and retries applied to every request
+     */
+    public Throttle throttle() {
+        return throttle;
+    }
+
+    /**
+     * 📊 Current pool usage (leased, pending, available and max connections)
+     */
+    public PoolStats stats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * 🧹 Close connections that have been idle for longer than the given time
+     */
+    public void closeIdleConnections(long idleTime, TimeUnit unit) {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleTime, unit);
+    }
+
+    private static FhirTransport fromConfig() {
+        return new FhirTransport(Options.fromConfig(), new Throttle(Throttle.Options.fromConfig()));
+    }
+
+    // 🧱 Per-request client: cheap to create, owns its own params, shares the pooled connections
+    private DefaultHttpClient newClient() {
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, connectTimeoutMs);
+        HttpConnectionParams.setSoTimeout(params, socketTimeoutMs);
+        HttpConnectionParams.setTcpNoDelay(params, true);
+        HttpConnectionParams.setStaleCheckingEnabled(params, staleCheck);
+        params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, acquireTimeoutMs);
+
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager, params) {
+            @Override
+            public CloseableHttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+                long start = System.nanoTime();
+                try {
+                    return throttle.execute(request, CURRENT_ROUTE.get(), () -> {
+                        long sent = System.nanoTime();
+                        try {
+                            return super.execute(request, context);
+                        } finally {
+                            FhirFlightRecorder.addWireNanos(System.nanoTime() - sent);
+                        }
+                    });
+                } finally {
+                    FhirFlightRecorder.addTransportNanos(System.nanoTime() - start);
+                }
+            }
+        };
+        client.setKeepAliveStrategy(keepAliveStrategy());
+        return client;
+    }
+
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (HttpResponse response, HttpContext context) -> {
+            HeaderElementIterator elements = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (elements.hasNext()) {
+                HeaderElement element = elements.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException ignored) {
+                        // fall through to the configured default
+                    }
+                }
+            }
+            return keepAliveMs;
+        };
+    }
+
+    private static SSLContext sslContext(int sessionCacheSize, int sessionTimeoutS) {
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+            // 🔐 One context for all connections => abbreviated handshakes on reconnect
+            context.getClientSessionContext().setSessionCacheSize(sessionCacheSize);
+            context.getClientSessionContext().setSessionTimeout(sessionTimeoutS);
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("❌ Failed to initialise TLS context", e);
+        }
+    }
+}
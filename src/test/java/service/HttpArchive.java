@@ -0,0 +1,308 @@
+package service;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 🗄️ HttpArchive is the on-disk store behind {@link RecordReplay}: recorded responses plus an index by request key.
+ *
+ * - ✅ {@value #DATA_FILE}: one length-prefixed binary record per response (status, headers, body),
+ *   appended through a {@link FileChannel}
+ * - ✅ {@value #INDEX_FILE}: request key → record offsets in the order the requests were made, written on {@link #close()}
+ * - ✅ Replay loads only the index and memory-maps the data file; a record is decoded when its request comes in
+ *
+ * A key seen several times (e.g. a read before and after an update) keeps one record per occurrence;
+ * occurrences beyond the recorded ones get the last record.
+ */
+public final class HttpArchive implements AutoCloseable {
+
+    public static final String DATA_FILE = "exchanges.dat";
+    public static final String INDEX_FILE = "exchanges.idx";
+
+    private static final int MAGIC = 0x46485231; // "FHR1"
+
+    /**
+     * 📼 One recorded response
+     *
+     * @param requestUuids UUIDs found in the request that produced it, in order (for {@link #withRequestUuids(List)})
+     */
+    public record Exchange(int status, String statusLine, String contentType, Headers headers, byte[] body,
+                           List<String> requestUuids) {
+
+        /**
+         * 📼 Capture a response; its body is read (and buffered by RestAssured) if it was not already
+         */
+        public static Exchange of(Response response, List<String> requestUuids) {
+            return new Exchange(response.getStatusCode(), response.getStatusLine(), response.getContentType(),
+                    response.getHeaders(), response.asByteArray(), List.copyOf(requestUuids));
+        }
+
+        /**
+         * 🔁 This response with the recorded request's UUIDs replaced by those of a new request with the same key
+         */
+        public Exchange withRequestUuids(List<String> uuids) {
+            if (uuids.equals(requestUuids) || uuids.size() != requestUuids.size()) {
+                return this;
+            }
+            String text = new String(body, StandardCharsets.UTF_8);
+            List<Header> replaced = new ArrayList<>();
+            for (Header header : headers.asList()) {
+                replaced.add(new Header(header.getName(), replace(header.getValue(), uuids)));
+            }
+            return new Exchange(status, statusLine, contentType, new Headers(replaced),
+                    replace(text, uuids).getBytes(StandardCharsets.UTF_8), uuids);
+        }
+
+        private String replace(String text, List<String> uuids) {
+            for (int i = 0; i < uuids.size(); i++) {
+                text = text.replace(requestUuids.get(i), uuids.get(i));
+            }
+            return text;
+        }
+
+        /**
+         * ▶️ A detached RestAssured response with the recorded status, headers and body
+         */
+        public Response toResponse() {
+            return new ResponseBuilder()
+                    .setStatusCode(status)
+                    .setStatusLine(statusLine)
+                    .setHeaders(headers)
+                    .setContentType(contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+
+    private final Path dir;
+    private final FileChannel channel;
+    private final boolean writable;
+    private final Map<String, TreeMap<Integer, Long>> recorded;
+    private final Map<String, long[]> index;
+    private final ByteBuffer data;
+
+    private HttpArchive(Path dir, FileChannel channel, boolean writable, Map<String, long[]> index, ByteBuffer data) {
+        this.dir = dir;
+        this.channel = channel;
+        this.writable = writable;
+        this.recorded = writable ? new HashMap<>() : null;
+        this.index = index;
+        this.data = data;
+    }
+
+    /**
+     * ⏺️ Start a new archive in {@code dir}, replacing any archive already there
+     */
+    public static HttpArchive create(Path dir) {
+        try {
+            Files.createDirectories(dir);
+            Files.deleteIfExists(dir.resolve(INDEX_FILE));
+            FileChannel channel = FileChannel.open(dir.resolve(DATA_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new HttpArchive(dir, channel, true, null, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not create HTTP archive in " + dir, e);
+        }
+    }
+
+    /**
+     * ▶️ Open a finished archive for replay
+     */
+    public static HttpArchive open(Path dir) {
+        Path indexFile = dir.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) {
+            throw new IllegalStateException("❌ No HTTP archive in " + dir.toAbsolutePath() + " (record one with replay.mode=record)");
+        }
+        try {
+            Map<String, long[]> index = readIndex(indexFile);
+            FileChannel channel = FileChannel.open(dir.resolve(DATA_FILE), StandardOpenOption.READ);
+            if (channel.size() > Integer.MAX_VALUE) {
+                channel.close();
+                throw new IllegalStateException("❌ HTTP archive " + dir + " is larger than 2 GB");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new HttpArchive(dir, channel, false, index, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not open HTTP archive in " + dir, e);
+        }
+    }
+
+    /**
+     * 📁 Directory holding the archive files
+     */
+    public Path dir() {
+        return dir;
+    }
+
+    /**
+     * ⏺️ Append the response to the {@code occurrence}-th request (0-based) with this key
+     */
+    public void append(String key, int occurrence, Exchange exchange) {
+        if (!writable) {
+            throw new IllegalStateException("❌ HTTP archive " + dir + " is open for replay");
+        }
+        byte[] record = encode(exchange);
+        synchronized (recorded) {
+            try {
+                long offset = channel.position();
+                ByteBuffer buffer = ByteBuffer.allocate(4 + record.length).putInt(record.length).put(record).flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                recorded.computeIfAbsent(key, k -> new TreeMap<>()).put(occurrence, offset);
+            } catch (IOException e) {
+                throw new UncheckedIOException("❌ Could not append to HTTP archive " + dir, e);
+            }
+        }
+    }
+
+    /**
+     * 🔎 Recorded response to the {@code occurrence}-th request with this key, or null when the key was never recorded
+     */
+    public Exchange find(String key, int occurrence) {
+        if (writable) {
+            throw new IllegalStateException("❌ HTTP archive " + dir + " is open for recording");
+        }
+        long[] offsets = index.get(key);
+        if (offsets == null) {
+            return null;
+        }
+        int offset = (int) offsets[Math.min(occurrence, offsets.length - 1)];
+        ByteBuffer view = data.duplicate();
+        byte[] record = new byte[view.getInt(offset)];
+        view.position(offset + 4).get(record);
+        return decode(record);
+    }
+
+    /**
+     * 🔢 Number of distinct request keys
+     */
+    public int keys() {
+        if (writable) {
+            synchronized (recorded) {
+                return recorded.size();
+            }
+        }
+        return index.size();
+    }
+
+    /**
+     * 💾 Recording: flush the data file and write the index. Replay: release the mapped file.
+     */
+    @Override
+    public void close() {
+        try (channel) {
+            if (writable) {
+                synchronized (recorded) {
+                    channel.force(false);
+                    writeIndex(dir.resolve(INDEX_FILE), recorded);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not finish HTTP archive " + dir, e);
+        }
+    }
+
+    private static byte[] encode(Exchange exchange) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + exchange.body().length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(exchange.status());
+            out.writeUTF(exchange.statusLine() == null ? "" : exchange.statusLine());
+            out.writeUTF(exchange.contentType() == null ? "" : exchange.contentType());
+            List<Header> headers = exchange.headers() == null ? List.of() : exchange.headers().asList();
+            out.writeInt(headers.size());
+            for (Header header : headers) {
+                out.writeUTF(header.getName());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(exchange.body().length);
+            out.write(exchange.body());
+            out.writeInt(exchange.requestUuids().size());
+            for (String uuid : exchange.requestUuids()) {
+                out.writeUTF(uuid);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Exchange decode(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            int status = in.readInt();
+            String statusLine = in.readUTF();
+            String contentType = in.readUTF();
+            int headerCount = in.readInt();
+            List<Header> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new Header(in.readUTF(), in.readUTF()));
+            }
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            int uuidCount = in.readInt();
+            List<String> uuids = new ArrayList<>(uuidCount);
+            for (int i = 0; i < uuidCount; i++) {
+                uuids.add(in.readUTF());
+            }
+            return new Exchange(status, statusLine, contentType, new Headers(headers), body, uuids);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Corrupt HTTP archive record", e);
+        }
+    }
+
+    private static void writeIndex(Path file, Map<String, TreeMap<Integer, Long>> recorded) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(recorded.size());
+            for (Map.Entry<String, TreeMap<Integer, Long>> entry : recorded.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (long offset : entry.getValue().values()) {
+                    out.writeLong(offset);
+                }
+            }
+        }
+    }
+
+    private static Map<String, long[]> readIndex(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("❌ " + file + " is not an HTTP archive index");
+            }
+            int keys = in.readInt();
+            Map<String, long[]> index = new HashMap<>(Math.max(16, keys * 4 / 3 + 1));
+            for (int i = 0; i < keys; i++) {
+                String key = in.readUTF();
+                long[] offsets = new long[in.readInt()];
+                for (int j = 0; j < offsets.length; j++) {
+                    offsets[j] = in.readLong();
+                }
+                index.put(key, offsets);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import model.FhirJson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🩹 JsonPatch builds an RFC 6902 JSON Patch document with any number of operations.
+ *
+ * - ✅ add / remove / replace / test / move / copy
+ * - ✅ Values are written by a Jackson generator, so quotes, backslashes and control characters are escaped;
+ *   numbers, booleans, null and typed model objects keep their JSON type
+ * - ✅ Many operations travel in one PATCH request instead of one request per field
+ *
+ * <pre>
+ * patientService.patchPatient(id, JsonPatch.create()
+ *         .test("/gender", "male")
+ *         .replace("/name/0/text", "Mohanad \"Mo\" Al Badri")
+ *         .add("/birthDate", "1992-01-01"));
+ * </pre>
+ */
+public final class JsonPatch {
+
+    public static final String CONTENT_TYPE = "application/json-patch+json";
+
+    private record Operation(String op, String path, String from, Object value, boolean hasValue) {
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    private JsonPatch() {
+    }
+
+    public static JsonPatch create() {
+        return new JsonPatch();
+    }
+
+    /**
+     * ➕ Add a value (appends to an array when the path ends in {@code /-})
+     */
+    public JsonPatch add(String path, Object value) {
+        operations.add(new Operation("add", path, null, value, true));
+        return this;
+    }
+
+    /**
+     * ➖ Remove the value at a path
+     */
+    public JsonPatch remove(String path) {
+        operations.add(new Operation("remove", path, null, null, false));
+        return this;
+    }
+
+    /**
+     * 🔁 Replace an existing value
+     */
+    public JsonPatch replace(String path, Object value) {
+        operations.add(new Operation("replace", path, null, value, true));
+        return this;
+    }
+
+    /**
+     * 🧪 Fail the whole patch unless the value at a path equals {@code value} (e.g. an optimistic-lock guard)
+     */
+    public JsonPatch test(String path, Object value) {
+        operations.add(new Operation("test", path, null, value, true));
+        return this;
+    }
+
+    /**
+     * 🚚 Move a value from one path to another
+     */
+    public JsonPatch move(String from, String path) {
+        operations.add(new Operation("move", path, from, null, false));
+        return this;
+    }
+
+    /**
+     * 📄 Copy a value from one path to another
+     */
+    public JsonPatch copy(String from, String path) {
+        operations.add(new Operation("copy", path, from, null, false));
+        return this;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     * 🧭 Build a JSON Pointer from raw segments, escaping {@code ~} and {@code /} (e.g. {@code pointer("name", "0", "text")})
+     */
+    public static String pointer(String... segments) {
+        StringBuilder pointer = new StringBuilder();
+        for (String segment : segments) {
+            pointer.append('/').append(segment.replace("~", "~0").replace("/", "~1"));
+        }
+        return pointer.toString();
+    }
+
+    /**
+     * 📤 Stream the patch document as UTF-8 JSON; the stream is left open
+     */
+    public void writeTo(OutputStream out) {
+        try (JsonGenerator generator = FhirJson.mapper().getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not write JSON Patch", e);
+        }
+    }
+
+    /**
+     * 📤 The patch document as UTF-8 bytes, written once into a single buffer (used as the request body)
+     */
+    public byte[] toBytes() {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(64 * operations.size() + 16)) {
+            writeTo(buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(toBytes(), StandardCharsets.UTF_8);
+    }
+
+    private void write(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (Operation operation : operations) {
+            generator.writeStartObject();
+            generator.writeStringField("op", operation.op());
+            if (operation.from() != null) {
+                generator.writeStringField("from", operation.from());
+            }
+            generator.writeStringField("path", operation.path());
+            if (operation.hasValue()) {
+                generator.writeFieldName("value");
+                generator.writeObject(operation.value());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,269 @@
+package service;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import utils.ConfigReader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 📝 LoggingFilter logs HTTP exchanges through SLF4J without formatting on the request thread.
+ *
+ * - ✅ Level-gated: successful exchanges are {@code DEBUG} (one line each), failures ({@code >= 400}
+ *   or an I/O error) are always logged at {@code WARN} with both bodies
+ * - ✅ Bodies of successful exchanges are attached only for a sampled fraction ({@code log.body.sample.rate})
+ * - ✅ Bodies are cut to {@code log.body.max.bytes} and logged compact, never pretty-printed
+ * - ✅ Asynchronous: the request thread only enqueues references; one background thread builds the
+ *   strings and calls the logger. A full queue drops events (counted) instead of blocking requests
+ *
+ * Logger name {@value #LOGGER}; enable per-request lines with {@code -Dorg.slf4j.simpleLogger.log.fhir.http=debug}.
+ */
+public class LoggingFilter implements OrderedFilter, AutoCloseable {
+
+    public static final String LOGGER = "fhir.http";
+
+    /**
+     * 🔢 Outside the transport's release filter, so response bodies are already buffered
+     */
+    public static final int ORDER = OrderedFilter.DEFAULT_PRECEDENCE;
+
+    private static final LoggingFilter SHARED = new LoggingFilter(Options.fromConfig(), Sink.slf4j(LoggerFactory.getLogger(LOGGER)));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.flush(1, TimeUnit.SECONDS), "fhir-log-flush"));
+    }
+
+    /**
+     * ⚙️ Logging settings
+     *
+     * @param maxBodyBytes   bytes of each body kept in a log line (0 = no bodies)
+     * @param bodySampleRate fraction (0..1) of successful exchanges logged with bodies; failures always are
+     * @param queueSize      events buffered for the logging thread before new ones are dropped
+     */
+    public record Options(int maxBodyBytes, double bodySampleRate, int queueSize) {
+
+        public Options {
+            if (maxBodyBytes < 0 || queueSize < 1 || bodySampleRate < 0 || bodySampleRate > 1) {
+                throw new IllegalArgumentException("❌ Invalid logging options: maxBodyBytes=" + maxBodyBytes
+                        + ", bodySampleRate=" + bodySampleRate + ", queueSize=" + queueSize);
+            }
+        }
+
+        /**
+         * ⚙️ Options from config.properties ({@code log.body.max.bytes}, {@code log.body.sample.rate}, {@code log.queue.size})
+         */
+        public static Options fromConfig() {
+            return new Options(ConfigReader.getInt("log.body.max.bytes", 2048),
+                    ConfigReader.getDouble("log.body.sample.rate", 0.01),
+                    ConfigReader.getInt("log.queue.size", 10_000));
+        }
+    }
+
+    /**
+     * 🚰 Where formatted lines end up; {@link #slf4j(Logger)} in normal use
+     */
+    public interface Sink {
+
+        boolean isEnabled(Level level);
+
+        void log(Level level, String message);
+
+        static Sink slf4j(Logger logger) {
+            return new Sink() {
+                @Override
+                public boolean isEnabled(Level level) {
+                    return logger.isEnabledForLevel(level);
+                }
+
+                @Override
+                public void log(Level level, String message) {
+                    logger.atLevel(level).log(message);
+                }
+            };
+        }
+    }
+
+    /**
+     * 📦 What the request thread hands over: references only, formatted later
+     */
+    private record Event(Level level, String method, String uri, int status, long elapsedNanos,
+                         Object requestBody, byte[] responseBody, Throwable error, CountDownLatch flushed) {
+    }
+
+    private final Options options;
+    private final Sink sink;
+    private final BlockingQueue<Event> queue;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private long droppedReported;
+
+    public LoggingFilter(Options options, Sink sink) {
+        this.options = options;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(options.queueSize());
+        this.writer = new Thread(this::drain, "fhir-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 📝 Filter configured in config.properties, installed by {@link FhirClient}
+     */
+    public static LoggingFilter shared() {
+        return SHARED;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        boolean debug = sink.isEnabled(Level.DEBUG);
+        boolean warn = sink.isEnabled(Level.WARN);
+        if (!debug && !warn) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            enqueue(new Event(Level.WARN, requestSpec.getMethod(), requestSpec.getURI(), 0, System.nanoTime() - start,
+                    requestSpec.getBody(), null, e, null));
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        int status = response.getStatusCode();
+        if (status >= 400 && warn) {
+            enqueue(new Event(Level.WARN, requestSpec.getMethod(), requestSpec.getURI(), status, elapsed,
+                    requestSpec.getBody(), response.asByteArray(), null, null));
+        } else if (status < 400 && debug) {
+            boolean sampled = options.maxBodyBytes() > 0 && options.bodySampleRate() > 0
+                    && ThreadLocalRandom.current().nextDouble() < options.bodySampleRate();
+            // 🌊 A streamed response belongs to its consumer; reading it here would buffer the whole body
+            boolean responseSampled = sampled && !FhirTransport.isStreamed(requestSpec);
+            enqueue(new Event(Level.DEBUG, requestSpec.getMethod(), requestSpec.getURI(), status, elapsed,
+                    sampled ? requestSpec.getBody() : null, responseSampled ? response.asByteArray() : null, null, null));
+        }
+        return response;
+    }
+
+    /**
+     * ⏳ Wait until everything enqueued so far has been written
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            return queue.offer(new Event(null, null, null, 0, 0, null, null, null, latch), timeout, unit)
+                    && latch.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 🛑 Write what is queued, then stop the logging thread
+     */
+    @Override
+    public void close() {
+        flush(5, TimeUnit.SECONDS);
+        writer.interrupt();
+    }
+
+    /**
+     * 🔢 Events dropped because the queue was full
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private void enqueue(Event event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Event event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (event.flushed() != null) {
+                event.flushed().countDown();
+                continue;
+            }
+            try {
+                sink.log(event.level(), format(event));
+                reportDropped();
+            } catch (RuntimeException e) {
+                // 🔇 A broken sink must not kill the logging thread
+            }
+        }
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        if (total > droppedReported) {
+            sink.log(Level.WARN, "⚠️ " + (total - droppedReported) + " log events dropped (queue full, log.queue.size=" + options.queueSize() + ")");
+            droppedReported = total;
+        }
+    }
+
+    private String format(Event event) {
+        StringBuilder line = new StringBuilder(128);
+        line.append(event.level() == Level.WARN ? "❌ " : "🌐 ")
+                .append(event.method()).append(' ').append(event.uri());
+        if (event.error() != null) {
+            line.append(" → ").append(event.error().getClass().getSimpleName()).append(": ").append(event.error().getMessage());
+        } else {
+            line.append(" → ").append(event.status());
+        }
+        line.append(" (").append(TimeUnit.NANOSECONDS.toMillis(event.elapsedNanos())).append(" ms)");
+        appendBody(line, "request", event.requestBody());
+        appendBody(line, "response", event.responseBody());
+        return line.toString();
+    }
+
+    private void appendBody(StringBuilder line, String label, Object body) {
+        if (body == null || options.maxBodyBytes() == 0) {
+            return;
+        }
+        byte[] bytes;
+        if (body instanceof byte[] array) {
+            bytes = array;
+        } else if (body instanceof String text) {
+            bytes = text.getBytes(StandardCharsets.UTF_8);
+        } else {
+            line.append("\n  ").append(label).append(": <streamed>");
+            return;
+        }
+        if (bytes.length == 0) {
+            return;
+        }
+        int length = Math.min(bytes.length, options.maxBodyBytes());
+        line.append("\n  ").append(label).append(": ").append(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        if (length < bytes.length) {
+            line.append("… (").append(bytes.length).append(" bytes)");
+        }
+    }
+}
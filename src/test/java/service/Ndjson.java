@@ -0,0 +1,215 @@
+package service;
+
+import model.FhirJson;
+import model.RawResource;
+import model.Resource;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 📄 Ndjson reads and writes FHIR NDJSON (one resource per line) through NIO file channels.
+ *
+ * - ✅ {@link #read(Path)} is a lazy stream: the file is pulled through a fixed-size buffer and each line
+ *   is parsed on its own, so multi-gigabyte files never sit in memory
+ * - ✅ Lines are kept whole as {@link RawResource}s: fields and resource types outside the typed model survive
+ *   an import/export round trip; only {@code resourceType} and {@code id} are read
+ * - ✅ {@link #write(Path, Stream)} streams resources straight to the channel (e.g. from a paged search)
+ * - ✅ Blank lines are skipped; a malformed line or one without {@code resourceType} fails with its line number
+ *
+ * <pre>
+ * try (Stream&lt;RawResource&gt; resources = Ndjson.read(Path.of("Condition.ndjson"))) {
+ *     new BulkLoader().load(resources.map(BulkLoader.Group::of));
+ * }
+ * </pre>
+ */
+public final class Ndjson {
+
+    public static final String CONTENT_TYPE = "application/fhir+ndjson";
+
+    private static final int DEFAULT_BUFFER = 1 << 20;
+
+    private Ndjson() {
+    }
+
+    /**
+     * 📥 Lazily read every resource of a file; close the stream to release the channel
+     */
+    public static Stream<RawResource> read(Path file) {
+        return read(file, DEFAULT_BUFFER);
+    }
+
+    /**
+     * 📥 Lazily read every resource of a file using a read buffer of {@code bufferSize} bytes
+     */
+    public static Stream<RawResource> read(Path file, int bufferSize) {
+        LineReader reader = new LineReader(file, bufferSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::close);
+    }
+
+    /**
+     * 📤 Write resources to a file, one per line (the file is created or truncated)
+     *
+     * @return number of resources written
+     */
+    public static long write(Path file, Stream<? extends Resource> resources) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), DEFAULT_BUFFER)) {
+            long count = write(out, resources);
+            out.flush();
+            channel.force(false);
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Could not write NDJSON to " + file, e);
+        }
+    }
+
+    /**
+     * 📤 Write resources to a stream, one per line; the stream is left open
+     *
+     * @return number of resources written
+     */
+    public static long write(OutputStream out, Stream<? extends Resource> resources) throws IOException {
+        long count = 0;
+        Iterator<? extends Resource> iterator = resources.iterator();
+        while (iterator.hasNext()) {
+            Resource resource = iterator.next();
+            out.write(FhirJson.write(resource));
+            out.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 🧵 Splits a file channel into lines without materialising more than one line at a time.
+     */
+    private static final class LineReader implements Iterator<RawResource>, AutoCloseable {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private byte[] line = new byte[8192];
+        private int lineLength;
+        private long lineNumber;
+        private boolean eof;
+        private RawResource next;
+
+        LineReader(Path file, int bufferSize) {
+            this.file = file;
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException("❌ Could not open NDJSON file " + file, e);
+            }
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.buffer.flip();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && readLine()) {
+                next = parseLine();
+            }
+            return next != null;
+        }
+
+        @Override
+        public RawResource next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RawResource current = next;
+            next = null;
+            return current;
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @return false once the file is exhausted and no partial line is left
+         */
+        private boolean readLine() {
+            lineLength = 0;
+            while (true) {
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        lineNumber++;
+                        return true;
+                    }
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                }
+                if (eof || !fill()) {
+                    eof = true;
+                    if (lineLength > 0) {
+                        lineNumber++;
+                        return true;
+                    }
+                    return false;
+                }
+            }
+        }
+
+        private boolean fill() {
+            buffer.clear();
+            try {
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read == 0);
+                buffer.flip();
+                return read > 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException("❌ Could not read NDJSON file " + file, e);
+            }
+        }
+
+        private RawResource parseLine() {
+            int end = lineLength;
+            if (end > 0 && line[end - 1] == '\r') {
+                end--;
+            }
+            int start = 0;
+            while (start < end && Character.isWhitespace(line[start])) {
+                start++;
+            }
+            if (start == end) {
+                return null;
+            }
+            try {
+                return RawResource.parse(line, start, end - start);
+            } catch (UncheckedIOException e) {
+                throw new UncheckedIOException("❌ " + file + " line " + lineNumber + " is not a FHIR resource", e.getCause());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("❌ " + file + " line " + lineNumber + " is not a FHIR resource: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -2,13 +2,20 @@ package service;
 
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import model.Bundle;
+import model.FhirJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import model.Patient;
+import model.RawResource;
 import utils.ConfigReader;
 
-import java.io.File;
-import java.util.HashMap;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.stream.Stream;
 
-import static io.restassured.RestAssured.*;
+import static io.restassured.RestAssured.given;
 
 /**
  * ✅ This class provides reusable REST API methods for Patient FHIR operations.
@@ -17,31 +24,45 @@ import static io.restassured.RestAssured.*;
  * - ✅ GET patient by ID
  * - ✅ POST a new patient with basic fields
  * - ✅ PUT to update patient resource
- * - ✅ PATCH to partially update patient (FHIR JSON Patch)
+ * - ✅ PATCH to partially update patient (FHIR JSON Patch), several operations per request via {@link JsonPatch}
  * - ✅ DELETE patient
- * - ✅ Search by parameters (e.g., name, gender)
+ * - ✅ Search by parameters (e.g., name, gender), or stream every page of matches
+ * - ✅ Export search results to an NDJSON file
  * - ✅ Validate FHIR resource before sending
  * - ✅ Read historical versions of a patient
  * - ✅ Send Bundle transaction
  * - ✅ Create Patient with embedded Condition
- * - ✅ POST FHIR resource from external JSON file
+ * - ✅ POST FHIR resource from external JSON file, streamed and optionally gzip-compressed
+ * - ✅ Typed overloads taking {@link Patient} / {@link Bundle} (serialized once to bytes via {@link FhirJson})
  */
 public class PatientService {
 
+    private static final Logger log = LoggerFactory.getLogger(PatientService.class);
     private static final String BASE_PATH = "/Patient";
 
-    static {
-        // 🛠️ Initialize base URI and base path from config file
-        baseURI = ConfigReader.get("base.uri");
-        basePath = ConfigReader.get("base.path");
+    // 🔌 Isolated per instance: no RestAssured globals are touched, so instances are safe to use in parallel
+    private final RequestSpecification spec;
+
+    /**
+     * ✅ Service bound to the FHIR server configured in config.properties
+     */
+    public PatientService() {
+        this(FhirClient.spec());
+    }
+
+    /**
+     * ✅ Service bound to an explicit request specification (e.g. another FHIR server)
+     */
+    public PatientService(RequestSpecification spec) {
+        this.spec = spec;
     }
 
     /**
      * ✅ GET a patient by ID
      */
-    public static Response getPatient(String id) {
-        System.out.println("📥 [GET] /Patient/" + id);
-        return given()
+    public Response getPatient(String id) {
+        log.debug("📥 [GET] /Patient/{}", id);
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .when()
                 .get(BASE_PATH + "/" + id)
@@ -52,21 +73,18 @@ public class PatientService {
     /**
      * ✅ POST - Create new patient resource
      */
-    public static Response createPatient(String name, String gender, String birthDate) {
-        Map<String, Object> patient = new HashMap<>();
-        patient.put("resourceType", "Patient");
-        patient.put("gender", gender);
-        patient.put("birthDate", birthDate);
-
-        Map<String, Object> nameObject = new HashMap<>();
-        nameObject.put("use", "official");
-        nameObject.put("text", name);
-        patient.put("name", new Map[]{nameObject});
+    public Response createPatient(String name, String gender, String birthDate) {
+        return createPatient(Patient.of(name, gender, birthDate));
+    }
 
-        System.out.println("➕ [POST] Creating new patient: " + name);
-        return given()
+    /**
+     * ✅ POST - Create new patient resource from the typed model
+     */
+    public Response createPatient(Patient patient) {
+        log.debug("➕ [POST] Creating new patient (typed)");
+        return given(spec)
                 .contentType(ContentType.JSON)
-                .body(patient)
+                .body(FhirJson.write(patient))
                 .when()
                 .post(BASE_PATH)
                 .then()
@@ -76,22 +94,18 @@ public class PatientService {
     /**
      * ✅ PUT - Update entire patient resource
      */
-    public static Response updatePatient(String id, String name, String gender, String birthDate) {
-        Map<String, Object> patient = new HashMap<>();
-        patient.put("resourceType", "Patient");
-        patient.put("id", id);
-        patient.put("gender", gender);
-        patient.put("birthDate", birthDate);
-
-        Map<String, Object> nameObject = new HashMap<>();
-        nameObject.put("use", "official");
-        nameObject.put("text", name);
-        patient.put("name", new Map[]{nameObject});
+    public Response updatePatient(String id, String name, String gender, String birthDate) {
+        return updatePatient(id, Patient.of(name, gender, birthDate));
+    }
 
-        System.out.println("🔁 [PUT] Updating patient ID: " + id);
-        return given()
+    /**
+     * ✅ PUT - Update entire patient resource from the typed model (the ID is taken from the path)
+     */
+    public Response updatePatient(String id, Patient patient) {
+        log.debug("🔁 [PUT] Updating patient ID (typed): {}", id);
+        return given(spec)
                 .contentType(ContentType.JSON)
-                .body(patient)
+                .body(FhirJson.write(patient.withId(id)))
                 .when()
                 .put(BASE_PATH + "/" + id)
                 .then()
@@ -101,9 +115,9 @@ public class PatientService {
     /**
      * ✅ DELETE a patient resource by ID
      */
-    public static Response deletePatient(String id) {
-        System.out.println("🗑️ [DELETE] /Patient/" + id);
-        return given()
+    public Response deletePatient(String id) {
+        log.debug("🗑️ [DELETE] /Patient/{}", id);
+        return given(spec)
                 .when()
                 .delete(BASE_PATH + "/" + id)
                 .then()
@@ -113,9 +127,9 @@ public class PatientService {
     /**
      * 🔍 Search for patient by parameters (name, gender, birthDate)
      */
-    public static Response searchPatientByName(String name) {
-        System.out.println("🔍 [SEARCH] Patient by name: " + name);
-        return given()
+    public Response searchPatientByName(String name) {
+        log.debug("🔍 [SEARCH] Patient by name: {}", name);
+        return given(spec)
                 .queryParam("name", name)
                 .when()
                 .get(BASE_PATH)
@@ -123,12 +137,43 @@ public class PatientService {
                 .extract().response();
     }
 
+    /**
+     * 🌊 Stream every patient matching the search parameters, following {@code next} links page by page
+     */
+    public Stream<Patient> streamPatients(Map<String, ?> params) {
+        log.debug("🌊 [SEARCH] Streaming patients: {}", params);
+        return SearchResults.search(spec, BASE_PATH, params, Patient.class).stream();
+    }
+
+    /**
+     * 🌊 Stream every patient whose name matches, across all result pages
+     */
+    public Stream<Patient> streamPatientsByName(String name) {
+        return streamPatients(Map.of("name", name));
+    }
+
+    /**
+     * 📄 Export every patient matching the search parameters to an NDJSON file, page by page.
+     * Each patient is written exactly as the server returned it, fields outside the typed model included.
+     *
+     * @return number of patients written
+     */
+    public long exportPatients(Map<String, ?> params, Path file) {
+        log.debug("📄 [EXPORT] Patients {} -> {}", params, file);
+        try (Stream<RawResource> patients = SearchResults.search(spec, BASE_PATH, params, RawResource.class).stream()
+                .filter(resource -> "Patient".equals(resource.resourceType()))) {
+            return Ndjson.write(file, patients);
+        }
+    }
+
     /**
      * 🧪 Validate FHIR patient resource without storing
+     *
+     * Answered locally by the {@link validation.ValidationFilter} unless {@code validation.server=true}
      */
-    public static Response validatePatientResource(Map<String, Object> resource) {
-        System.out.println("🧪 [VALIDATE] Sending resource to $validate");
-        return given()
+    public Response validatePatientResource(Map<String, Object> resource) {
+        log.debug("🧪 [VALIDATE] Sending resource to $validate");
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .body(resource)
                 .when()
@@ -137,12 +182,26 @@ public class PatientService {
                 .extract().response();
     }
 
+    /**
+     * 🧪 Validate typed patient resource without storing (locally unless {@code validation.server=true})
+     */
+    public Response validatePatientResource(Patient patient) {
+        log.debug("🧪 [VALIDATE] Sending typed resource to $validate");
+        return given(spec)
+                .contentType(ContentType.JSON)
+                .body(FhirJson.write(patient))
+                .when()
+                .post(BASE_PATH + "/$validate")
+                .then()
+                .extract().response();
+    }
+
     /**
      * 🔄 Read specific version of patient resource
      */
-    public static Response getPatientVersion(String id, String versionId) {
-        System.out.println("📜 [GET Version] /Patient/" + id + "/_history/" + versionId);
-        return given()
+    public Response getPatientVersion(String id, String versionId) {
+        log.debug("📜 [GET Version] /Patient/{}/_history/{}", id, versionId);
+        return given(spec)
                 .when()
                 .get(BASE_PATH + "/" + id + "/_history/" + versionId)
                 .then()
@@ -152,12 +211,18 @@ public class PatientService {
     /**
      * 🩹 PATCH patient using FHIR JSON Patch (application/json-patch+json)
      */
-    public static Response patchPatient(String id, String path, String newValue) {
-        String patch = String.format("[{\"op\":\"replace\", \"path\":\"%s\", \"value\":\"%s\"}]", path, newValue);
-        System.out.println("🩹 [PATCH] /Patient/" + id + " with: " + patch);
-        return given()
-                .contentType("application/json-patch+json")
-                .body(patch)
+    public Response patchPatient(String id, String path, String newValue) {
+        return patchPatient(id, JsonPatch.create().replace(path, newValue));
+    }
+
+    /**
+     * 🩹 PATCH patient with any number of JSON Patch operations in a single request
+     */
+    public Response patchPatient(String id, JsonPatch patch) {
+        log.debug("🩹 [PATCH] /Patient/{} with: {}", id, patch);
+        return given(spec)
+                .contentType(JsonPatch.CONTENT_TYPE)
+                .body(patch.toBytes())
                 .when()
                 .patch(BASE_PATH + "/" + id)
                 .then()
@@ -167,9 +232,9 @@ public class PatientService {
     /**
      * 📦 Send a transaction bundle to the FHIR server
      */
-    public static Response sendTransactionBundle(Map<String, Object> bundle) {
-        System.out.println("📦 [BUNDLE] Sending transaction bundle");
-        return given()
+    public Response sendTransactionBundle(Map<String, Object> bundle) {
+        log.debug("📦 [BUNDLE] Sending transaction bundle");
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .body(bundle)
                 .when()
@@ -178,12 +243,26 @@ public class PatientService {
                 .extract().response();
     }
 
+    /**
+     * 📦 Send a typed transaction or batch bundle to the FHIR server
+     */
+    public Response sendTransactionBundle(Bundle bundle) {
+        log.debug("📦 [BUNDLE] Sending {} bundle (typed)", bundle.type());
+        return given(spec)
+                .contentType(ContentType.JSON)
+                .body(FhirJson.write(bundle))
+                .when()
+                .post("/")
+                .then()
+                .extract().response();
+    }
+
     /**
      * ➕ POST - Create Patient with embedded Condition using transaction Bundle
      */
-    public static Response createPatientWithConditionBundle(Map<String, Object> bundle) {
-        System.out.println("➕ [POST BUNDLE] Patient + Condition");
-        return given()
+    public Response createPatientWithConditionBundle(Map<String, Object> bundle) {
+        log.debug("➕ [POST BUNDLE] Patient + Condition");
+        return given(spec)
                 .contentType(ContentType.JSON)
                 .body(bundle)
                 .when()
@@ -195,15 +274,22 @@ public class PatientService {
     /**
      * 📂 POST FHIR resource from external JSON file
      *
-     * @param filePath path to the FHIR JSON file
+     * @param filePath path to the FHIR JSON file ({@code .json.gz} files are sent compressed)
      * @return Response from the FHIR server
      */
-    public static Response postFhirResourceFromFile(String filePath) {
-        System.out.println("📂 [POST] Resource from file: " + filePath);
-        File file = new File(filePath);
-        return given()
-                .contentType(ContentType.JSON)
-                .body(file)
+    public Response postFhirResourceFromFile(String filePath) {
+        return uploadFhirResource(Path.of(filePath), ConfigReader.getBoolean("upload.gzip", false));
+    }
+
+    /**
+     * 📤 Stream a FHIR resource or Bundle file to the server base, optionally gzip-compressed on the fly
+     *
+     * @param file FHIR JSON file; {@code .gz} files are sent as-is with {@code Content-Encoding: gzip}
+     * @param gzip compress plain JSON files while uploading
+     */
+    public Response uploadFhirResource(Path file, boolean gzip) {
+        log.debug("📂 [POST] Resource from file: {}{}", file, gzip || FileUpload.isGzipFile(file) ? " (gzip)" : "");
+        return FileUpload.body(given(spec), file, gzip)
                 .when()
                 .post("/")
                 .then()
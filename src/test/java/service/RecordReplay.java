@@ -0,0 +1,307 @@
+package service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import model.FhirJson;
+import utils.ConfigReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 📼 RecordReplay saves every HTTP exchange to an {@link HttpArchive}, or answers requests from one with no server at all.
+ *
+ * - ✅ {@code replay.mode=record}: requests go to the server and each response is appended to the archive in {@code replay.dir}
+ * - ✅ {@code replay.mode=replay}: requests are answered from the archive; nothing is sent, and the embedded stub is not started.
+ *   A request that was never recorded fails with an {@link IllegalStateException} naming its key
+ * - ✅ Requests are looked up by method, path, sorted query and a SHA-256 of the body (JSON with sorted keys);
+ *   streamed bodies are not hashed
+ * - ✅ With {@code replay.substitute.ids=true}, server-assigned IDs (from creates and transactions) and UUIDs are replaced
+ *   by stable placeholders before the key is built, so {@code patientId}/{@code conditionId} and random client IDs
+ *   differ between runs without breaking the lookup. Replayed responses get the request's own UUIDs back in place
+ *   of the recorded ones (e.g. a client-chosen {@code id} echoed by an upsert)
+ *
+ * Keys seen several times are answered in the recorded order, so replayed runs are deterministic.
+ */
+public class RecordReplay implements OrderedFilter, Closeable {
+
+    /**
+     * 🔢 Inside logging and metrics (replayed exchanges are logged and timed), outside the transport's release filter
+     */
+    public static final int ORDER = OrderedFilter.LOWEST_PRECEDENCE - 200;
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern REFERENCE = Pattern.compile("\\b([A-Z][A-Za-z]+)/([A-Za-z0-9\\-.]{1,64})");
+    private static final Pattern ID_PROPERTY = Pattern.compile("(\"id\"\\s*:\\s*\")([A-Za-z0-9\\-.]{1,64})(\")");
+
+    private static RecordReplay shared;
+
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        /**
+         * ⚙️ Mode from a {@code replay.mode} value (null or blank = off)
+         */
+        public static Mode parse(String value) {
+            return value == null || value.isBlank() ? OFF : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Mode mode;
+    private final HttpArchive archive;
+    private final boolean substituteIds;
+    private final Map<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    // "Patient/123" and bare "123" → "{Patient:<create key hash>.<occurrence>}"
+    private final Map<String, String> references = new ConcurrentHashMap<>();
+    private final Map<String, String> ids = new ConcurrentHashMap<>();
+    private boolean closed;
+
+    /**
+     * @param mode          {@link Mode#RECORD} (replaces any archive in {@code dir}) or {@link Mode#REPLAY}
+     * @param dir           archive directory
+     * @param substituteIds replace server-assigned IDs and UUIDs by placeholders in request keys
+     */
+    public RecordReplay(Mode mode, Path dir, boolean substituteIds) {
+        this.mode = mode;
+        this.substituteIds = substituteIds;
+        this.archive = switch (mode) {
+            case RECORD -> HttpArchive.create(dir);
+            case REPLAY -> HttpArchive.open(dir);
+            case OFF -> throw new IllegalArgumentException("❌ RecordReplay needs mode record or replay");
+        };
+    }
+
+    /**
+     * 📼 Mode from config.properties ({@code replay.mode}, default off)
+     */
+    public static Mode configuredMode() {
+        return Mode.parse(ConfigReader.get("replay.mode"));
+    }
+
+    /**
+     * 📼 Filter configured in config.properties, shared by every service when {@code replay.mode} is not off;
+     * a recording is finished when the JVM exits
+     */
+    public static synchronized RecordReplay shared() {
+        if (shared == null) {
+            String dir = ConfigReader.get("replay.dir");
+            shared = new RecordReplay(configuredMode(), Path.of(dir == null || dir.isBlank() ? "target/replay" : dir),
+                    ConfigReader.getBoolean("replay.substitute.ids", true));
+            RecordReplay recorder = shared;
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "fhir-replay-close"));
+        }
+        return shared;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public HttpArchive archive() {
+        return archive;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        List<String> uuids = new ArrayList<>();
+        String key = key(requestSpec, uuids);
+        int occurrence = occurrences.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        FhirRoute route = FhirRoute.of(requestSpec);
+        HttpArchive.Exchange exchange;
+        if (mode == Mode.RECORD) {
+            Response response = ctx.next(requestSpec, responseSpec);
+            exchange = HttpArchive.Exchange.of(response, uuids);
+            archive.append(key, occurrence, exchange);
+            learnIds(route, key, occurrence, exchange);
+            return response;
+        }
+        if (requestSpec.getBody() instanceof InputStream stream) {
+            closeQuietly(stream);
+        }
+        exchange = archive.find(key, occurrence);
+        if (exchange == null) {
+            throw new IllegalStateException("❌ No recorded exchange for [" + key + "] in " + archive.dir().toAbsolutePath());
+        }
+        learnIds(route, key, occurrence, exchange);
+        return exchange.withRequestUuids(uuids).toResponse();
+    }
+
+    /**
+     * 💾 Finish the recording (writes the index) or release the replayed archive
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            archive.close();
+        }
+    }
+
+    /**
+     * 🔑 {@code METHOD path?sorted-query body-hash}, after ID and UUID substitution; replaced UUIDs are added to {@code uuids}
+     */
+    private String key(FilterableRequestSpecification requestSpec, List<String> uuids) {
+        URI uri = URI.create(requestSpec.getURI());
+        String query = uri.getRawQuery() == null ? "" : canonicalQuery(uri.getRawQuery());
+        StringBuilder key = new StringBuilder(128)
+                .append(requestSpec.getMethod().toUpperCase(Locale.ROOT)).append(' ')
+                .append(substitute(URLDecoder.decode(uri.getRawPath(), StandardCharsets.UTF_8), uuids));
+        if (!query.isEmpty()) {
+            key.append('?').append(substitute(query, uuids));
+        }
+        return key.append(' ').append(bodyHash(requestSpec.getBody(), uuids)).toString();
+    }
+
+    private String bodyHash(Object body, List<String> uuids) {
+        if (body instanceof byte[] bytes) {
+            return sha256(substitute(canonicalJson(bytes), uuids));
+        }
+        if (body instanceof String text) {
+            return sha256(substitute(canonicalJson(text.getBytes(StandardCharsets.UTF_8)), uuids));
+        }
+        return body == null ? "-" : "stream";
+    }
+
+    /**
+     * 🧾 JSON with object keys sorted, so bodies built from unordered maps hash the same in every JVM
+     */
+    private static String canonicalJson(byte[] body) {
+        try {
+            Object value = FhirJson.mapper().readValue(body, Object.class);
+            return FhirJson.mapper().writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsString(value);
+        } catch (IOException e) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        String[] parameters = rawQuery.split("&");
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = URLDecoder.decode(parameters[i], StandardCharsets.UTF_8);
+        }
+        Arrays.sort(parameters);
+        return String.join("&", parameters);
+    }
+
+    private String substitute(String text, List<String> uuids) {
+        if (!substituteIds) {
+            return text;
+        }
+        String result = UUID.matcher(text).replaceAll(match -> {
+            uuids.add(match.group());
+            return "{uuid}";
+        });
+        if (references.isEmpty()) {
+            return result;
+        }
+        result = REFERENCE.matcher(result).replaceAll(match -> {
+            String placeholder = references.get(match.group());
+            return Matcher.quoteReplacement(placeholder == null ? match.group() : match.group(1) + "/" + placeholder);
+        });
+        return ID_PROPERTY.matcher(result).replaceAll(match -> {
+            String placeholder = ids.get(match.group(2));
+            return Matcher.quoteReplacement(placeholder == null ? match.group() : match.group(1) + placeholder + match.group(3));
+        });
+    }
+
+    /**
+     * 🆔 Give the IDs a create or transaction handed out placeholders derived from its own key and occurrence,
+     * which are the same whenever the same request is made
+     */
+    private void learnIds(FhirRoute route, String key, int occurrence, HttpArchive.Exchange exchange) {
+        if (!substituteIds || exchange.status() < 200 || exchange.status() >= 300) {
+            return;
+        }
+        String prefix = sha256(key).substring(0, 8) + "." + occurrence;
+        if (route.interaction() == FhirRoute.Interaction.CREATE) {
+            String location = exchange.headers().getValue("Location");
+            if (location == null || !learn(location, route.type(), prefix)) {
+                learnFromBody(route.type(), exchange.body(), prefix);
+            }
+        } else if (route.interaction() == FhirRoute.Interaction.TRANSACTION) {
+            try {
+                JsonNode entries = FhirJson.mapper().readTree(exchange.body()).path("entry");
+                for (int i = 0; i < entries.size(); i++) {
+                    learn(entries.get(i).path("response").path("location").asText(""), null, prefix + "." + i);
+                }
+            } catch (IOException e) {
+                // not a Bundle: nothing to learn
+            }
+        }
+    }
+
+    private void learnFromBody(String type, byte[] body, String prefix) {
+        try {
+            String id = FhirJson.mapper().readTree(body).path("id").asText("");
+            if (!id.isEmpty()) {
+                register(type, id, prefix);
+            }
+        } catch (IOException e) {
+            // no JSON body: nothing to learn
+        }
+    }
+
+    private boolean learn(String location, String type, String prefix) {
+        Matcher matcher = REFERENCE.matcher(location);
+        while (matcher.find()) {
+            if (type == null || type.equals(matcher.group(1))) {
+                register(matcher.group(1), matcher.group(2), prefix);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void register(String type, String id, String prefix) {
+        String placeholder = "{" + type + ":" + prefix + "}";
+        references.putIfAbsent(type + "/" + id, placeholder);
+        ids.putIfAbsent(id, placeholder);
+    }
+
+    private static String sha256(String text) {
+        return sha256(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("❌ SHA-256 not available", e);
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // replayed: the body is never sent
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package service;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import utils.ConfigReader;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🗃️ ResponseCache is a client-side, version-aware cache for FHIR reads, installed as a RestAssured filter.
+ *
+ * - ✅ {@code vread} ({@code _history/{vid}}) responses never change, so they are served from memory
+ *   without a round trip and never expire
+ * - ✅ {@code read} responses are revalidated with {@code If-None-Match: <ETag>}; a 304 is answered from
+ *   the cache (optionally served without revalidation for {@code cache.fresh.ms})
+ * - ✅ Our own PUT / PATCH / DELETE of a resource evicts its current read; a transaction or batch
+ *   evicts every current read (history entries stay valid)
+ * - ✅ Bounded size with LRU eviction; current reads also expire after {@code cache.ttl.ms}
+ *
+ * Enable for every service with {@code cache.enabled=true}, or add an instance to a specification:
+ * {@code new PatientService(FhirClient.spec(uri, path).filter(cache))}.
+ */
+public class ResponseCache implements OrderedFilter {
+
+    /**
+     * 🔢 Outermost of our filters: a hit skips everything else, including the network
+     */
+    public static final int ORDER = OrderedFilter.DEFAULT_PRECEDENCE - 500;
+
+    private static final ResponseCache SHARED = new ResponseCache(
+            ConfigReader.getInt("cache.max.entries", 10_000),
+            ConfigReader.getInt("cache.ttl.ms", 300_000),
+            ConfigReader.getInt("cache.fresh.ms", 0));
+
+    /**
+     * 📊 Counters since creation (or the last {@link #clear()})
+     *
+     * @param hits          served from memory without contacting the server
+     * @param revalidations served from memory after a 304 Not Modified
+     * @param misses        cacheable reads that had to be fetched in full
+     */
+    public record Stats(long hits, long revalidations, long misses, long evictions, int size) {
+    }
+
+    private record Entry(int status, String statusLine, Headers headers, String contentType, byte[] body,
+                         String etag, boolean immutable, long storedAtNanos) {
+
+        Entry refreshed() {
+            return new Entry(status, statusLine, headers, contentType, body, etag, immutable, System.nanoTime());
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long freshNanos;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries maximum cached responses (least recently used are evicted first)
+     * @param ttlMillis  lifetime of current reads; history versions never expire
+     * @param freshMillis window in which a current read is served without revalidation (0 = always revalidate)
+     */
+    public ResponseCache(int maxEntries, long ttlMillis, long freshMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("❌ cache.max.entries must be at least 1 but was " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(freshMillis);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 🗃️ Cache configured in config.properties, shared by every service when {@code cache.enabled=true}
+     */
+    public static ResponseCache shared() {
+        return SHARED;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        FhirRoute route = FhirRoute.of(requestSpec);
+        return switch (route.interaction()) {
+            case VREAD -> cacheable(requestSpec) ? vread(requestSpec, responseSpec, ctx) : ctx.next(requestSpec, responseSpec);
+            case READ -> cacheable(requestSpec) ? read(requestSpec, responseSpec, ctx) : ctx.next(requestSpec, responseSpec);
+            case UPDATE, PATCH, DELETE -> {
+                String key = requestKey(requestSpec);
+                invalidate(key);
+                try {
+                    yield ctx.next(requestSpec, responseSpec);
+                } finally {
+                    invalidate(key);
+                }
+            }
+            case TRANSACTION -> {
+                try {
+                    yield ctx.next(requestSpec, responseSpec);
+                } finally {
+                    invalidateCurrentReads();
+                }
+            }
+            default -> ctx.next(requestSpec, responseSpec);
+        };
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.sum(), revalidations.sum(), misses.sum(), evictions.sum(), entries.size());
+        }
+    }
+
+    /**
+     * 🧹 Drop every entry and reset the counters
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.reset();
+        revalidations.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private Response vread(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String key = requestKey(requestSpec);
+        Entry cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return toResponse(cached);
+        }
+        misses.increment();
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (response.getStatusCode() == 200) {
+            put(key, entry(response, true));
+        }
+        return response;
+    }
+
+    private Response read(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String key = requestKey(requestSpec);
+        Entry cached = get(key);
+        if (cached != null && System.nanoTime() - cached.storedAtNanos() > ttlNanos) {
+            invalidate(key);
+            cached = null;
+        }
+        if (cached != null && System.nanoTime() - cached.storedAtNanos() < freshNanos) {
+            hits.increment();
+            return toResponse(cached);
+        }
+        if (cached != null) {
+            requestSpec.header("If-None-Match", cached.etag());
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        int status = response.getStatusCode();
+        if (status == 304 && cached != null) {
+            revalidations.increment();
+            put(key, cached.refreshed());
+            return toResponse(cached);
+        }
+        misses.increment();
+        String etag = response.getHeader("ETag");
+        if (status == 200 && etag != null) {
+            put(key, entry(response, false));
+        } else {
+            invalidate(key);
+        }
+        return response;
+    }
+
+    /**
+     * ✅ Only plain reads: no query parameters and no caller-supplied conditional headers
+     */
+    private static boolean cacheable(FilterableRequestSpecification requestSpec) {
+        return requestSpec.getQueryParams().isEmpty()
+                && URI.create(requestSpec.getURI()).getRawQuery() == null
+                && !requestSpec.getHeaders().hasHeaderWithName("If-None-Match")
+                && !requestSpec.getHeaders().hasHeaderWithName("If-Modified-Since");
+    }
+
+    private static String requestKey(FilterableRequestSpecification requestSpec) {
+        URI uri = URI.create(requestSpec.getURI());
+        return uri.getScheme() + "://" + uri.getRawAuthority() + uri.getRawPath();
+    }
+
+    private static Entry entry(Response response, boolean immutable) {
+        return new Entry(response.getStatusCode(), response.getStatusLine(), response.getHeaders(), response.getContentType(),
+                response.asByteArray(), response.getHeader("ETag"), immutable, System.nanoTime());
+    }
+
+    private static Response toResponse(Entry entry) {
+        return new ResponseBuilder()
+                .setStatusCode(entry.status())
+                .setStatusLine(entry.statusLine())
+                .setHeaders(entry.headers())
+                .setContentType(entry.contentType())
+                .setBody(entry.body())
+                .build();
+    }
+
+    private Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private void invalidate(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    private void invalidateCurrentReads() {
+        synchronized (entries) {
+            for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+                if (!iterator.next().immutable()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
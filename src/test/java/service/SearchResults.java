@@ -0,0 +1,279 @@
+package service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import model.Bundle;
+import model.FhirJson;
+import model.RawResource;
+import model.Resource;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * 🔎 SearchResults iterates every match of a FHIR search, page by page, without building a result list.
+ *
+ * - ✅ Follows {@code Bundle.link[relation=next]} until the last page
+ * - ✅ Parses each page with a streaming Jackson parser, one entry resource at a time, straight off the connection
+ *   ({@link FhirTransport#streamed}: no buffered body, no JsonPath / tree of the whole Bundle); entries of other
+ *   types (e.g. {@code _include}) are skipped
+ * - ✅ Optional prefetch: the next page is requested on a virtual thread while the current one is consumed
+ * - ✅ Memory is bounded by the page size ({@code _count}), not by the total number of matches
+ * - ⚠️ An open page holds its pooled connection until it is read to the end or the results are closed
+ * - ✅ With {@link RawResource} as the type, every entry is kept whole (unmodelled fields and types included), e.g. for export
+ *
+ * <pre>
+ * try (Stream&lt;Condition&gt; conditions = conditionService.streamConditionsByPatient("Patient/123")) {
+ *     long active = conditions.filter(c -&gt; c.clinicalStatus() != null).count();
+ * }
+ * </pre>
+ */
+public final class SearchResults<T extends Resource> implements Iterator<T>, AutoCloseable {
+
+    private static final ObjectReader ENTRY_READER = FhirJson.mapper().readerFor(Resource.class);
+    private static final ObjectReader LINKS_READER = FhirJson.mapper().readerForListOf(Bundle.BundleLink.class);
+
+    private final RequestSpecification spec;
+    private final Class<T> type;
+    private final boolean prefetch;
+
+    private JsonParser page;
+    private String nextUrl;
+    private CompletableFuture<InputStream> nextPage;
+    private Integer total;
+    private int pages;
+    private T next;
+    private boolean closed;
+
+    private SearchResults(RequestSpecification spec, Class<T> type, boolean prefetch) {
+        this.spec = spec;
+        this.type = type;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * 🔎 Search with the configured page size ({@code search.page.size}, used unless {@code _count} is given)
+     * and prefetch setting ({@code search.prefetch})
+     */
+    public static <T extends Resource> SearchResults<T> search(RequestSpecification spec, String path, Map<String, ?> params,
+                                                               Class<T> type) {
+        Map<String, Object> query = new LinkedHashMap<>(params);
+        query.putIfAbsent("_count", ConfigReader.getInt("search.page.size", 100));
+        return search(spec, path, query, type, ConfigReader.getBoolean("search.prefetch", true));
+    }
+
+    /**
+     * 🔎 Start a search of {@code path} (e.g. {@code /Condition}); the first page is requested immediately
+     *
+     * @param params   search parameters; {@code _count} sets the page size
+     * @param prefetch request page N+1 in the background while page N is iterated
+     */
+    public static <T extends Resource> SearchResults<T> search(RequestSpecification spec, String path, Map<String, ?> params,
+                                                               Class<T> type, boolean prefetch) {
+        SearchResults<T> results = new SearchResults<>(spec, type, prefetch);
+        Map<String, Object> query = new LinkedHashMap<>(params);
+        results.open(fetch(FhirTransport.streamed(given(spec)).queryParams(query), path));
+        return results;
+    }
+
+    /**
+     * 🌊 Lazy stream over all matches; closing the stream releases the open page and any outstanding prefetch
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * 🔢 {@code Bundle.total} of the first page, or null when the server does not report it
+     */
+    public Integer total() {
+        return total;
+    }
+
+    /**
+     * 📄 Number of pages requested so far (including a prefetched page)
+     */
+    public int pagesFetched() {
+        return pages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        next = null;
+        if (nextPage != null) {
+            // 🔌 A prefetch cannot be aborted mid-request; close its body whenever it arrives so the connection is released
+            nextPage.thenAccept(SearchResults::closeQuietly);
+            nextPage = null;
+        }
+        closePage();
+    }
+
+    private T advance() {
+        try {
+            while (page != null) {
+                T resource = nextEntry();
+                if (resource != null) {
+                    return resource;
+                }
+                closePage();
+                if (nextPage == null && nextUrl != null) {
+                    requestNextPage();
+                }
+                if (nextPage != null) {
+                    InputStream body = nextPage.join();
+                    nextPage = null;
+                    open(body);
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("❌ Could not parse search page", e);
+        }
+    }
+
+    /**
+     * 📥 Read forward to the next entry resource of the requested type; null at the end of the page
+     */
+    private T nextEntry() throws IOException {
+        JsonToken token;
+        while ((token = page.nextToken()) != null) {
+            if (token != JsonToken.FIELD_NAME) {
+                continue;
+            }
+            String field = page.currentName();
+            if (page.getParsingContext().getParent().inRoot()) {
+                // Top-level Bundle fields
+                page.nextToken();
+                switch (field) {
+                    case "total" -> {
+                        if (total == null && page.currentToken().isNumeric()) {
+                            total = page.getIntValue();
+                        }
+                    }
+                    case "link" -> onLinks(LINKS_READER.readValue(page));
+                    case "entry" -> {
+                        // descend into the array; entries are handled below
+                    }
+                    default -> page.skipChildren();
+                }
+            } else if ("resource".equals(field)) {
+                page.nextToken();
+                Resource resource = type == RawResource.class
+                        ? new RawResource(page.readValueAs(ObjectNode.class))
+                        : ENTRY_READER.readValue(page);
+                if (type.isInstance(resource)) {
+                    return type.cast(resource);
+                }
+            } else {
+                page.nextToken();
+                page.skipChildren();
+            }
+        }
+        return null;
+    }
+
+    private void onLinks(List<Bundle.BundleLink> links) {
+        nextUrl = null;
+        for (Bundle.BundleLink link : links) {
+            if ("next".equals(link.relation())) {
+                nextUrl = link.url();
+            }
+        }
+        if (prefetch && nextUrl != null) {
+            requestNextPage();
+        }
+    }
+
+    private void requestNextPage() {
+        String url = nextUrl;
+        nextUrl = null;
+        // Links arrive already encoded; re-encoding would turn %2F into %252F
+        RequestSpecification request = FhirTransport.streamed(given(spec)).urlEncodingEnabled(false);
+        pages++;
+        if (prefetch) {
+            nextPage = FhirAsync.supply(() -> fetch(request, url));
+        } else {
+            nextPage = CompletableFuture.completedFuture(fetch(request, url));
+        }
+    }
+
+    private void open(InputStream body) {
+        if (pages == 0) {
+            pages = 1;
+        }
+        try {
+            // The parser owns the stream: closing it returns the connection to the pool
+            page = FhirJson.mapper().createParser(body);
+        } catch (IOException e) {
+            closeQuietly(body);
+            throw new UncheckedIOException("❌ Could not open search page", e);
+        }
+    }
+
+    private void closePage() {
+        if (page != null) {
+            try {
+                page.close();
+            } catch (IOException ignored) {
+                // the connection is discarded instead of reused; nothing else to release
+            }
+            page = null;
+        }
+    }
+
+    private static InputStream fetch(RequestSpecification request, String pathOrUrl) {
+        Response response = request.accept("application/fhir+json").when().get(pathOrUrl).then().extract().response();
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("❌ Search page " + pathOrUrl + " failed with HTTP " + response.getStatusCode()
+                    + ": " + response.asString());
+        }
+        return response.asInputStream();
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // the connection is discarded instead of reused; nothing else to release
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package service;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🚦 Throttle paces, limits and retries the requests {@link FhirTransport} sends.
+ *
+ * - ✅ Token buckets per host ({@code throttle.host.rps}) and per host + operation ({@code throttle.operation.rps});
+ *   0 means unlimited, {@code throttle.burst} tokens may be spent at once
+ * - ✅ Optional AIMD concurrency limit per host ({@code throttle.adaptive=true}): +1 per window of successful requests,
+ *   halved on 429/503/connection errors, ×0.9 while recent latency exceeds the long-run average by {@code throttle.latency.tolerance}
+ * - ✅ Idempotent calls (GET/HEAD/PUT/DELETE/OPTIONS with a repeatable body) are retried on 429, 503, connection
+ *   resets and dropped responses, up to {@code retry.max.attempts} in total, with exponential backoff and full jitter;
+ *   a {@code Retry-After} header is honoured up to {@code retry.max.delay.ms}
+ *
+ * Every attempt takes its own tokens and concurrency slot; the slot is held until the response headers arrive.
+ */
+public final class Throttle {
+
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    /**
+     * ⚙️ Throttling and retry settings
+     *
+     * @param hostRps          requests per second per host (0 = unlimited)
+     * @param operationRps     requests per second per host and operation, e.g. {@code read Patient} (0 = unlimited)
+     * @param burst            tokens a bucket holds, i.e. requests that may start back to back
+     * @param adaptive         limit in-flight requests per host with AIMD
+     * @param initialLimit     starting concurrency limit
+     * @param minLimit         lowest concurrency limit
+     * @param maxLimit         highest concurrency limit
+     * @param latencyTolerance recent/long-run latency ratio above which the limit is lowered
+     * @param maxAttempts      attempts per idempotent request, first one included (1 = no retries)
+     * @param baseDelayMs      backoff before the first retry (doubled per retry, then jittered)
+     * @param maxDelayMs       upper bound of a single backoff
+     */
+    public record Options(double hostRps, double operationRps, int burst, boolean adaptive, int initialLimit, int minLimit,
+                          int maxLimit, double latencyTolerance, int maxAttempts, long baseDelayMs, long maxDelayMs) {
+
+        public Options {
+            if (hostRps < 0 || operationRps < 0 || burst < 1 || minLimit < 1 || maxLimit < minLimit
+                    || initialLimit < minLimit || initialLimit > maxLimit || latencyTolerance <= 1 || maxAttempts < 1
+                    || baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+                throw new IllegalArgumentException("❌ Invalid throttle options: " + this);
+            }
+        }
+
+        /**
+         * ⚙️ Options from config.properties ({@code throttle.*}, {@code retry.*})
+         */
+        public static Options fromConfig() {
+            return new Options(
+                    ConfigReader.getDouble("throttle.host.rps", 0),
+                    ConfigReader.getDouble("throttle.operation.rps", 0),
+                    ConfigReader.getInt("throttle.burst", 50),
+                    ConfigReader.getBoolean("throttle.adaptive", false),
+                    ConfigReader.getInt("throttle.concurrency.initial", 32),
+                    ConfigReader.getInt("throttle.concurrency.min", 1),
+                    ConfigReader.getInt("throttle.concurrency.max", 200),
+                    ConfigReader.getDouble("throttle.latency.tolerance", 2.0),
+                    ConfigReader.getInt("retry.max.attempts", 3),
+                    ConfigReader.getInt("retry.base.delay.ms", 100),
+                    ConfigReader.getInt("retry.max.delay.ms", 5_000));
+        }
+    }
+
+    /**
+     * 📊 Counters since creation
+     *
+     * @param retries         attempts repeated after a 429/503 or connection error
+     * @param throttledMillis total time requests waited for rate-limit tokens
+     * @param limits          current concurrency limit per host (empty unless adaptive)
+     */
+    public record Stats(long retries, long throttledMillis, Map<String, Integer> limits) {
+    }
+
+    /**
+     * 📞 One attempt at sending the request
+     */
+    @FunctionalInterface
+    public interface Attempt {
+        CloseableHttpResponse send() throws IOException;
+    }
+
+    private final Options options;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+
+    public Throttle(Options options) {
+        this.options = options;
+    }
+
+    public Options options() {
+        return options;
+    }
+
+    /**
+     * 🚦 Send {@code request} through the rate limits and concurrency limit, retrying when allowed
+     *
+     * @param route FHIR route of the request, or null to limit per HTTP method
+     */
+    public CloseableHttpResponse execute(HttpUriRequest request, FhirRoute route, Attempt attempt) throws IOException {
+        String host = request.getURI().getRawAuthority();
+        String operation = route == null ? request.getMethod() : route.label();
+        boolean retryable = options.maxAttempts() > 1 && isRetryable(request);
+        for (int attemptNo = 1; ; attemptNo++) {
+            pace(host, operation);
+            AdaptiveLimit limit = options.adaptive() ? limits.computeIfAbsent(host, h -> new AdaptiveLimit(options)) : null;
+            if (limit != null) {
+                limit.acquire();
+            }
+            long start = System.nanoTime();
+            CloseableHttpResponse response;
+            try {
+                response = attempt.send();
+            } catch (SocketException | NoHttpResponseException e) {
+                if (limit != null) {
+                    limit.release(System.nanoTime() - start, true);
+                }
+                if (!retryable || attemptNo >= options.maxAttempts()) {
+                    throw e;
+                }
+                backOff(attemptNo, null);
+                continue;
+            } catch (IOException | RuntimeException e) {
+                if (limit != null) {
+                    limit.release(System.nanoTime() - start, e instanceof SocketTimeoutException);
+                }
+                throw e;
+            }
+            int status = response.getStatusLine().getStatusCode();
+            boolean overloaded = status == 429 || status == 503;
+            if (limit != null) {
+                limit.release(System.nanoTime() - start, overloaded);
+            }
+            if (!overloaded || !retryable || attemptNo >= options.maxAttempts()) {
+                return response;
+            }
+            Header retryAfter = response.getFirstHeader("Retry-After");
+            EntityUtils.consumeQuietly(response.getEntity());
+            backOff(attemptNo, retryAfter);
+        }
+    }
+
+    public Stats stats() {
+        Map<String, Integer> current = new ConcurrentHashMap<>();
+        limits.forEach((host, limit) -> current.put(host, limit.limit()));
+        return new Stats(retries.sum(), TimeUnit.NANOSECONDS.toMillis(throttledNanos.sum()), Map.copyOf(current));
+    }
+
+    /**
+     * ⏳ Backoff before retry {@code attemptNo}: full jitter over {@code base * 2^(attemptNo-1)}, at least {@code Retry-After}
+     */
+    private long backoffMillis(int attemptNo, Header retryAfter) {
+        long ceiling = Math.min(options.maxDelayMs(), options.baseDelayMs() << Math.min(attemptNo - 1, 30));
+        long delay = ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (retryAfter != null) {
+            try {
+                delay = Math.max(delay, Math.min(options.maxDelayMs(), TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.getValue().trim()))));
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form: keep the computed backoff
+            }
+        }
+        return delay;
+    }
+
+    private void backOff(int attemptNo, Header retryAfter) throws InterruptedIOException {
+        retries.increment();
+        sleep(TimeUnit.MILLISECONDS.toNanos(backoffMillis(attemptNo, retryAfter)));
+    }
+
+    private void pace(String host, String operation) throws InterruptedIOException {
+        long wait = 0;
+        if (options.hostRps() > 0) {
+            wait = buckets.computeIfAbsent(host, k -> new TokenBucket(options.hostRps(), options.burst())).reserve();
+        }
+        if (options.operationRps() > 0) {
+            wait = Math.max(wait, buckets.computeIfAbsent(host + " " + operation,
+                    k -> new TokenBucket(options.operationRps(), options.burst())).reserve());
+        }
+        if (wait > 0) {
+            throttledNanos.add(wait);
+            sleep(wait);
+        }
+    }
+
+    private static boolean isRetryable(HttpUriRequest request) {
+        if (!IDEMPOTENT.contains(request.getMethod().toUpperCase(Locale.ROOT))) {
+            return false;
+        }
+        return !(request instanceof HttpEntityEnclosingRequest enclosing)
+                || enclosing.getEntity() == null || enclosing.getEntity().isRepeatable();
+    }
+
+    private static void sleep(long nanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("❌ Interrupted while throttled");
+        }
+    }
+
+    /**
+     * 🪣 Token bucket that hands out reservations: callers sleep outside the lock for the returned time
+     */
+    public static final class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        public TokenBucket(double ratePerSecond, int burst) {
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = burst;
+            this.tokens = burst;
+        }
+
+        /**
+         * 🎟️ Take one token
+         *
+         * @return nanoseconds to wait until the token is due (0 when one was available)
+         */
+        public synchronized long reserve() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+        }
+    }
+
+    /**
+     * 📈 AIMD limit on in-flight requests, driven by overload signals and a short- versus long-run latency average
+     *
+     * Waiters park on a {@link ReentrantLock} condition rather than {@code Object.wait()}, so a virtual thread
+     * blocked here releases its carrier; a saturated limit cannot starve the carrier pool.
+     */
+    public static final class AdaptiveLimit {
+
+        private static final double SHORT_WEIGHT = 0.1;
+        private static final double LONG_WEIGHT = 0.01;
+
+        private final int min;
+        private final int max;
+        private final double tolerance;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition slotFreed = lock.newCondition();
+        private double limit;
+        private int inFlight;
+        private double shortLatency;
+        private double longLatency;
+
+        public AdaptiveLimit(Options options) {
+            this.min = options.minLimit();
+            this.max = options.maxLimit();
+            this.tolerance = options.latencyTolerance();
+            this.limit = options.initialLimit();
+        }
+
+        /**
+         * 🎫 Wait for a free slot
+         */
+        public void acquire() throws InterruptedIOException {
+            lock.lock();
+            try {
+                while (inFlight >= (int) limit) {
+                    slotFreed.await();
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("❌ Interrupted while waiting for a concurrency slot");
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 🔓 Give the slot back and adjust the limit
+         *
+         * @param overloaded the server answered 429/503 or the connection failed
+         */
+        public void release(long latencyNanos, boolean overloaded) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (overloaded) {
+                    limit = Math.max(min, limit / 2);
+                } else {
+                    shortLatency = shortLatency == 0 ? latencyNanos : shortLatency + SHORT_WEIGHT * (latencyNanos - shortLatency);
+                    longLatency = longLatency == 0 ? latencyNanos : longLatency + LONG_WEIGHT * (latencyNanos - longLatency);
+                    if (shortLatency > longLatency * tolerance) {
+                        limit = Math.max(min, limit * 0.9);
+                    } else if (inFlight + 1 >= limit / 2) {
+                        limit = Math.min(max, limit + 1 / limit);
+                    }
+                }
+                // the limit may have grown by more than one slot
+                slotFreed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int limit() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,755 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import utils.ConfigReader;
+import validation.FhirValidator;
+import validation.ValidationResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 🧪 Embedded, in-memory FHIR R4 stand-in for local and offline runs.
+ *
+ * Supports the subset of the REST API exercised by the service classes:
+ * - ✅ Create / read / update / delete for any resource type
+ * - ✅ Version reads via {@code _history/{vid}}
+ * - ✅ Conditional reads: {@code If-None-Match} with the current ETag returns 304 Not Modified
+ * - ✅ {@code $validate} with the local {@link FhirValidator} rules for Patient and Condition (structural check otherwise)
+ * - ✅ Search for Patient by {@code name} and Condition by {@code subject}/{@code patient}
+ * - ✅ Search paging with {@code _count}/{@code _offset} and {@code next}/{@code previous} links (20 per page by default)
+ * - ✅ JSON Patch ({@code application/json-patch+json})
+ * - ✅ Transaction and batch Bundles, including {@code urn:uuid} reference resolution
+ * - ✅ gzip-compressed request bodies ({@code Content-Encoding: gzip})
+ *
+ * Enable it with {@code fhir.stub=true}; {@link ConfigReader} then points {@code base.uri} here.
+ */
+public class FhirStubServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String FHIR_JSON = "application/fhir+json;charset=UTF-8";
+    private static final Pattern RESOURCE_TYPE = Pattern.compile("[A-Z][A-Za-z]+");
+    private static final Pattern RESOURCE_ID = Pattern.compile("[A-Za-z0-9\\-.]{1,64}");
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static FhirStubServer shared;
+
+    static {
+        // ⚡ JDK HttpServer writes headers and body separately; without TCP_NODELAY every small response
+        // stalls ~40 ms on Nagle + delayed ACK. Must be set before the first HttpServer is created.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final String contextPath;
+    private final ResourceStore store = new ResourceStore();
+    // 🔒 Single operations share the read lock; transactions take the write lock to stay atomic
+    private final ReentrantReadWriteLock transactionLock = new ReentrantReadWriteLock();
+    private final AtomicLong requests = new AtomicLong();
+
+    private FhirStubServer(int port, String contextPath) throws IOException {
+        this.contextPath = normalizeContext(contextPath);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 512);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext(this.contextPath.isEmpty() ? "/" : this.contextPath, this::handle);
+    }
+
+    /**
+     * 🚀 Start a new stub server on the given port (0 = ephemeral) serving under {@code contextPath}.
+     */
+    public static FhirStubServer start(int port, String contextPath) {
+        try {
+            FhirStubServer stub = new FhirStubServer(port, contextPath);
+            stub.startDaemon();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException("❌ Failed to start FHIR stub server", e);
+        }
+    }
+
+    /**
+     * 🌐 Lazily started, JVM-wide stub configured from {@code stub.port} and {@code base.path}.
+     */
+    public static synchronized FhirStubServer shared() {
+        if (shared == null) {
+            String port = ConfigReader.get("stub.port");
+            shared = start(port == null ? 0 : Integer.parseInt(port), ConfigReader.get("base.path"));
+        }
+        return shared;
+    }
+
+    /**
+     * 🔗 Base URI (scheme, host and port) clients should use.
+     */
+    public String baseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * 📁 Path prefix under which the FHIR endpoints are served.
+     */
+    public String basePath() {
+        return contextPath;
+    }
+
+    /**
+     * 🗄️ Direct access to the backing store (e.g. for seeding or resetting between runs).
+     */
+    public ResourceStore store() {
+        return store;
+    }
+
+    /**
+     * 🔢 Number of HTTP requests received so far (e.g. to check that a client cache avoided round trips).
+     */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // 🧵 The dispatcher thread inherits daemon status from its creator, so start it from a daemon
+    // thread to make sure an idle stub never keeps the JVM alive.
+    private void startDaemon() {
+        CountDownLatch started = new CountDownLatch(1);
+        Thread starter = new Thread(() -> {
+            server.start();
+            started.countDown();
+        }, "fhir-stub-starter");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting FHIR stub server", e);
+        }
+    }
+
+    // ------------------------------------------------------------------ routing
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            Reply reply;
+            try {
+                reply = route(exchange);
+            } catch (StubException e) {
+                reply = Reply.of(e.status, outcome("error", e.code, e.getMessage()));
+            } catch (JsonPatches.PatchException e) {
+                reply = Reply.of(422, outcome("error", "processing", e.getMessage()));
+            } catch (IOException e) {
+                reply = Reply.of(400, outcome("error", "invalid", "Unable to parse request body: " + e.getMessage()));
+            } catch (RuntimeException e) {
+                reply = Reply.of(500, outcome("fatal", "exception", String.valueOf(e)));
+            }
+            write(exchange, reply);
+        }
+    }
+
+    private Reply route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+        String path = exchange.getRequestURI().getRawPath().substring(contextPath.length());
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (segments.isEmpty()) {
+            requireMethod(method, "POST");
+            return bundle(readJson(exchange));
+        }
+        String type = segments.get(0);
+        if (!RESOURCE_TYPE.matcher(type).matches()) {
+            throw new StubException(404, "not-found", "Unknown resource type: " + type);
+        }
+        if (segments.size() == 1) {
+            return switch (method) {
+                case "GET" -> search(type, query);
+                case "POST" -> create(type, readJson(exchange));
+                default -> throw notAllowed(method);
+            };
+        }
+        String id = segments.get(1);
+        if (segments.size() == 2 && "$validate".equals(id)) {
+            requireMethod(method, "POST");
+            return validate(type, readJson(exchange));
+        }
+        if (!RESOURCE_ID.matcher(id).matches()) {
+            throw new StubException(400, "invalid", "Invalid resource ID: " + id);
+        }
+        if (segments.size() == 2) {
+            return switch (method) {
+                case "GET" -> conditional(exchange, read(type, id));
+                case "PUT" -> update(type, id, readJson(exchange));
+                case "PATCH" -> patch(type, id, readJson(exchange));
+                case "DELETE" -> delete(type, id);
+                default -> throw notAllowed(method);
+            };
+        }
+        if (segments.size() == 4 && "_history".equals(segments.get(2))) {
+            requireMethod(method, "GET");
+            return conditional(exchange, vread(type, id, segments.get(3)));
+        }
+        throw new StubException(404, "not-found", "Unsupported path: " + path);
+    }
+
+    // ------------------------------------------------------------------ interactions
+
+    private Reply read(String type, String id) {
+        ResourceStore.Version current = store.current(type, id);
+        if (current == null) {
+            throw new StubException(404, "not-found", "Resource " + type + "/" + id + " is not known");
+        }
+        if (current.deleted()) {
+            throw new StubException(410, "deleted", "Resource " + type + "/" + id + " was deleted");
+        }
+        return Reply.resource(200, current);
+    }
+
+    /**
+     * 🔁 Turn a 200 read into a body-less 304 when {@code If-None-Match} names the current ETag
+     */
+    private static Reply conditional(HttpExchange exchange, Reply reply) {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String etag = reply.headers.get("ETag");
+        if (ifNoneMatch == null || etag == null || reply.status != 200) {
+            return reply;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || weak(tag).equals(weak(etag))) {
+                Reply notModified = Reply.of(304, null);
+                notModified.headers.putAll(reply.headers);
+                return notModified;
+            }
+        }
+        return reply;
+    }
+
+    private static String weak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private Reply vread(String type, String id, String versionId) {
+        ResourceStore.Version version;
+        try {
+            version = store.version(type, id, Integer.parseInt(versionId));
+        } catch (NumberFormatException e) {
+            throw new StubException(400, "invalid", "Invalid version ID: " + versionId);
+        }
+        if (version == null) {
+            throw new StubException(404, "not-found", "Version " + versionId + " of " + type + "/" + id + " is not known");
+        }
+        if (version.deleted()) {
+            throw new StubException(410, "deleted", "Version " + versionId + " of " + type + "/" + id + " is a delete");
+        }
+        return Reply.resource(200, version);
+    }
+
+    private Reply create(String type, JsonNode body) {
+        ObjectNode resource = requireResource(type, body);
+        transactionLock.readLock().lock();
+        try {
+            return Reply.resource(201, store.create(type, resource));
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    private Reply update(String type, String id, JsonNode body) {
+        ObjectNode resource = requireResource(type, body);
+        if (!id.equals(resource.path("id").asText(id))) {
+            throw new StubException(400, "invalid", "Resource ID in body does not match URL ID " + id);
+        }
+        transactionLock.readLock().lock();
+        try {
+            ResourceStore.Version previous = store.current(type, id);
+            ResourceStore.Version version = store.put(type, id, resource);
+            return Reply.resource(previous == null || previous.deleted() ? 201 : 200, version);
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    private Reply patch(String type, String id, JsonNode patch) {
+        transactionLock.readLock().lock();
+        try {
+            ResourceStore.Version current = store.current(type, id);
+            if (current == null || current.deleted()) {
+                throw new StubException(404, "not-found", "Resource " + type + "/" + id + " is not known");
+            }
+            JsonNode patched = JsonPatches.apply(current.resource(), patch);
+            ObjectNode resource = requireResource(type, patched);
+            if (!id.equals(resource.path("id").asText())) {
+                throw new StubException(400, "invalid", "JSON Patch must not change the resource ID");
+            }
+            return Reply.resource(200, store.put(type, id, resource));
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    private Reply delete(String type, String id) {
+        transactionLock.readLock().lock();
+        try {
+            ResourceStore.Version tombstone = store.delete(type, id);
+            String message = tombstone == null
+                    ? "Nothing to delete for " + type + "/" + id
+                    : "Successfully deleted 1 resource(s)";
+            Reply reply = Reply.of(200, outcome("information", "informational", message));
+            if (tombstone != null) {
+                reply.headers.put("ETag", "W/\"" + tombstone.versionId() + "\"");
+            }
+            return reply;
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    private Reply validate(String type, JsonNode body) {
+        if (body == null || !body.isObject() || !type.equals(body.path("resourceType").asText())) {
+            return Reply.of(412, outcome("error", "invalid", "Expected a " + type + " resource"));
+        }
+        if (FhirValidator.supports(type)) {
+            ValidationResult result = FhirValidator.validate(body);
+            return Reply.of(result.isValid() ? 200 : 412, result.toOperationOutcome());
+        }
+        return Reply.of(200, outcome("information", "informational", "No issues detected during validation"));
+    }
+
+    private Reply search(String type, Map<String, String> query) {
+        Map<String, String> criteria = new LinkedHashMap<>(query);
+        int count = pagingParam(criteria.remove("_count"), DEFAULT_PAGE_SIZE);
+        int offset = pagingParam(criteria.remove("_offset"), 0);
+        List<Predicate<JsonNode>> filters = new ArrayList<>();
+        for (Map.Entry<String, String> param : criteria.entrySet()) {
+            filters.add(searchFilter(type, param.getKey(), param.getValue()));
+        }
+        List<ResourceStore.Version> matches = store.search(type, node -> filters.stream().allMatch(f -> f.test(node)));
+        int from = Math.min(offset, matches.size());
+        int to = Math.min(from + Math.min(count, MAX_PAGE_SIZE), matches.size());
+
+        ObjectNode bundle = MAPPER.createObjectNode();
+        bundle.put("resourceType", "Bundle");
+        bundle.put("type", "searchset");
+        bundle.put("total", matches.size());
+        ArrayNode links = bundle.putArray("link");
+        addLink(links, "self", pageUrl(type, criteria, count, from));
+        if (count > 0 && to < matches.size()) {
+            addLink(links, "next", pageUrl(type, criteria, count, to));
+        }
+        if (from > 0) {
+            addLink(links, "previous", pageUrl(type, criteria, count, Math.max(0, from - count)));
+        }
+        ArrayNode entries = bundle.putArray("entry");
+        for (ResourceStore.Version match : matches.subList(from, to)) {
+            ObjectNode entry = entries.addObject();
+            entry.put("fullUrl", baseUri() + contextPath + "/" + type + "/" + match.id());
+            entry.set("resource", match.resource());
+            entry.putObject("search").put("mode", "match");
+        }
+        return Reply.of(200, bundle);
+    }
+
+    private static int pagingParam(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through to the error below
+        }
+        throw new StubException(400, "invalid", "Paging parameters must be non-negative integers but got '" + value + "'");
+    }
+
+    private static void addLink(ArrayNode links, String relation, String url) {
+        ObjectNode link = links.addObject();
+        link.put("relation", relation);
+        link.put("url", url);
+    }
+
+    private Predicate<JsonNode> searchFilter(String type, String name, String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if ("_id".equals(name)) {
+            return node -> value.equals(node.path("id").asText());
+        }
+        if ("Patient".equals(type) && "name".equals(name)) {
+            return node -> {
+                for (JsonNode humanName : node.path("name")) {
+                    List<JsonNode> parts = new ArrayList<>();
+                    parts.add(humanName.path("text"));
+                    parts.add(humanName.path("family"));
+                    humanName.path("given").forEach(parts::add);
+                    for (JsonNode part : parts) {
+                        if (part.isTextual() && startsWithAnyWord(part.asText().toLowerCase(Locale.ROOT), lower)) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            };
+        }
+        if ("Patient".equals(type) && "gender".equals(name)) {
+            return node -> value.equals(node.path("gender").asText());
+        }
+        if ("Condition".equals(type) && ("subject".equals(name) || "patient".equals(name))) {
+            String reference = value.contains("/") ? value : "Patient/" + value;
+            return node -> reference.equals(node.path("subject").path("reference").asText());
+        }
+        throw new StubException(400, "not-supported", "Unknown search parameter '" + name + "' for " + type);
+    }
+
+    private static boolean startsWithAnyWord(String text, String prefix) {
+        if (text.startsWith(prefix)) {
+            return true;
+        }
+        for (String word : text.split("\\s+")) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------ bundles
+
+    private Reply bundle(JsonNode body) {
+        if (body == null || !"Bundle".equals(body.path("resourceType").asText())) {
+            throw new StubException(400, "invalid", "Only Bundle resources can be posted to the server base");
+        }
+        String bundleType = body.path("type").asText();
+        if (!"transaction".equals(bundleType) && !"batch".equals(bundleType)) {
+            throw new StubException(400, "invalid", "Unsupported Bundle type: " + bundleType);
+        }
+        boolean transaction = "transaction".equals(bundleType);
+        JsonNode entries = body.path("entry");
+
+        // 🔗 First pass: assign target IDs so urn:uuid references can be resolved before anything is written
+        Map<String, String> resolved = new HashMap<>();
+        List<String[]> targets = new ArrayList<>();
+        for (JsonNode entry : entries) {
+            String method = entry.path("request").path("method").asText().toUpperCase(Locale.ROOT);
+            String url = entry.path("request").path("url").asText();
+            String[] target = parseEntryUrl(method, url);
+            if ("POST".equals(method)) {
+                target[1] = store.nextId();
+            }
+            targets.add(target);
+            String fullUrl = entry.path("fullUrl").asText("");
+            if (!fullUrl.isEmpty() && target[1] != null) {
+                resolved.put(fullUrl, target[0] + "/" + target[1]);
+            }
+        }
+
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("resourceType", "Bundle");
+        response.put("type", bundleType + "-response");
+        ArrayNode responseEntries = response.putArray("entry");
+
+        if (transaction) {
+            transactionLock.writeLock().lock();
+        } else {
+            transactionLock.readLock().lock();
+        }
+        try {
+            if (transaction) {
+                // 🧪 Reject malformed resources before anything is written
+                int index = 0;
+                for (JsonNode entry : entries) {
+                    String[] target = targets.get(index++);
+                    if (!"DELETE".equals(target[2]) && !"GET".equals(target[2])) {
+                        requireResource(target[0], entry.path("resource"));
+                    }
+                }
+            }
+            // ↩️ Version count of every resource a transaction touches, so a later failure can undo the earlier writes
+            List<Map.Entry<String[], Integer>> undo = new ArrayList<>();
+            int index = 0;
+            for (JsonNode entry : entries) {
+                String[] target = targets.get(index++);
+                ObjectNode responseEntry = responseEntries.addObject();
+                try {
+                    if (transaction && !"GET".equals(target[2])) {
+                        ResourceStore.Version before = store.current(target[0], target[1]);
+                        undo.add(Map.entry(target, before == null ? 0 : before.versionId()));
+                    }
+                    Reply reply = applyEntry(target, entry.path("resource"), resolved);
+                    ObjectNode entryResponse = responseEntry.putObject("response");
+                    entryResponse.put("status", reply.status + " " + reasonPhrase(reply.status));
+                    if (reply.headers.containsKey("Location")) {
+                        entryResponse.put("location", reply.headers.get("Location"));
+                    }
+                    if (reply.headers.containsKey("ETag")) {
+                        entryResponse.put("etag", reply.headers.get("ETag"));
+                    }
+                    if (reply.headers.containsKey("Last-Modified")) {
+                        entryResponse.put("lastModified", reply.body.path("meta").path("lastUpdated").asText());
+                    }
+                    if ("GET".equals(target[2])) {
+                        responseEntry.set("resource", reply.body);
+                    }
+                } catch (RuntimeException e) {
+                    if (transaction) {
+                        for (int i = undo.size() - 1; i >= 0; i--) {
+                            String[] written = undo.get(i).getKey();
+                            store.truncate(written[0], written[1], undo.get(i).getValue());
+                        }
+                        throw e;
+                    }
+                    if (!(e instanceof StubException stub)) {
+                        throw e;
+                    }
+                    ObjectNode entryResponse = responseEntry.putObject("response");
+                    entryResponse.put("status", stub.status + " " + reasonPhrase(stub.status));
+                    entryResponse.set("outcome", outcome("error", stub.code, stub.getMessage()));
+                }
+            }
+        } finally {
+            if (transaction) {
+                transactionLock.writeLock().unlock();
+            } else {
+                transactionLock.readLock().unlock();
+            }
+        }
+        return Reply.of(200, response);
+    }
+
+    private Reply applyEntry(String[] target, JsonNode resource, Map<String, String> resolved) {
+        String type = target[0];
+        String id = target[1];
+        switch (target[2]) {
+            case "GET" -> {
+                return read(type, id);
+            }
+            case "DELETE" -> {
+                store.delete(type, id);
+                return Reply.of(204, null);
+            }
+            default -> {
+                ObjectNode copy = requireResource(type, resource).deepCopy();
+                resolveReferences(copy, resolved);
+                copy.put("id", id);
+                ResourceStore.Version previous = store.current(type, id);
+                ResourceStore.Version version = store.put(type, id, copy);
+                return Reply.resource(previous == null || previous.deleted() ? 201 : 200, version);
+            }
+        }
+    }
+
+    private String[] parseEntryUrl(String method, String url) {
+        String path = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+        String[] parts = path.split("/");
+        switch (method) {
+            case "POST" -> {
+                if (parts.length != 1 || !RESOURCE_TYPE.matcher(parts[0]).matches()) {
+                    throw new StubException(400, "invalid", "Invalid POST entry URL: " + url);
+                }
+                return new String[]{parts[0], null, method};
+            }
+            case "PUT", "DELETE", "GET" -> {
+                if (parts.length != 2 || !RESOURCE_TYPE.matcher(parts[0]).matches() || !RESOURCE_ID.matcher(parts[1]).matches()) {
+                    throw new StubException(400, "invalid", "Invalid " + method + " entry URL: " + url);
+                }
+                return new String[]{parts[0], parts[1], method};
+            }
+            default -> throw new StubException(400, "not-supported", "Unsupported Bundle entry method: " + method);
+        }
+    }
+
+    private static void resolveReferences(JsonNode node, Map<String, String> resolved) {
+        if (node instanceof ObjectNode object) {
+            JsonNode reference = object.get("reference");
+            if (reference != null && reference.isTextual() && resolved.containsKey(reference.asText())) {
+                object.put("reference", resolved.get(reference.asText()));
+            }
+            object.forEach(child -> resolveReferences(child, resolved));
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(child -> resolveReferences(child, resolved));
+        }
+    }
+
+    // ------------------------------------------------------------------ helpers
+
+    private ObjectNode requireResource(String type, JsonNode body) {
+        if (!(body instanceof ObjectNode resource)) {
+            throw new StubException(400, "invalid", "Expected a JSON object for " + type);
+        }
+        String resourceType = resource.path("resourceType").asText();
+        if (!type.equals(resourceType)) {
+            throw new StubException(400, "invalid", "Expected resourceType " + type + " but got '" + resourceType + "'");
+        }
+        return resource;
+    }
+
+    private static JsonNode readJson(HttpExchange exchange) throws IOException {
+        InputStream raw = exchange.getRequestBody();
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        try (InputStream body = "gzip".equalsIgnoreCase(encoding) ? new GZIPInputStream(raw, 64 * 1024) : raw) {
+            return MAPPER.readTree(body);
+        }
+    }
+
+    private void write(HttpExchange exchange, Reply reply) throws IOException {
+        reply.headers.forEach((name, value) -> exchange.getResponseHeaders().set(name,
+                "Location".equals(name) ? baseUri() + contextPath + "/" + value : value));
+        if (reply.body == null) {
+            exchange.sendResponseHeaders(reply.status, -1);
+            return;
+        }
+        byte[] bytes = MAPPER.writeValueAsBytes(reply.body);
+        exchange.getResponseHeaders().set("Content-Type", FHIR_JSON);
+        exchange.sendResponseHeaders(reply.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String pageUrl(String type, Map<String, String> criteria, int count, int offset) {
+        StringBuilder url = new StringBuilder(baseUri()).append(contextPath).append('/').append(type).append('?');
+        for (Map.Entry<String, String> param : criteria.entrySet()) {
+            url.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8)).append('&');
+        }
+        return url.append("_count=").append(count).append("&_offset=").append(offset).toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static ObjectNode outcome(String severity, String code, String diagnostics) {
+        ObjectNode outcome = MAPPER.createObjectNode();
+        outcome.put("resourceType", "OperationOutcome");
+        ObjectNode issue = outcome.putArray("issue").addObject();
+        issue.put("severity", severity);
+        issue.put("code", code);
+        issue.put("diagnostics", diagnostics);
+        return outcome;
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw notAllowed(method);
+        }
+    }
+
+    private static StubException notAllowed(String method) {
+        return new StubException(405, "not-supported", "Method " + method + " is not supported here");
+    }
+
+    private static String reasonPhrase(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 204 -> "No Content";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            case 410 -> "Gone";
+            case 412 -> "Precondition Failed";
+            case 422 -> "Unprocessable Entity";
+            default -> "";
+        };
+    }
+
+    private static String normalizeContext(String contextPath) {
+        if (contextPath == null || contextPath.isBlank() || "/".equals(contextPath)) {
+            return "";
+        }
+        String trimmed = contextPath.endsWith("/") ? contextPath.substring(0, contextPath.length() - 1) : contextPath;
+        return trimmed.startsWith("/") ? trimmed : "/" + trimmed;
+    }
+
+    /**
+     * 📨 Status, headers and JSON body of a stub response.
+     */
+    private static final class Reply {
+        final int status;
+        final JsonNode body;
+        final Map<String, String> headers = new LinkedHashMap<>();
+
+        private Reply(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Reply of(int status, JsonNode body) {
+            return new Reply(status, body);
+        }
+
+        static Reply resource(int status, ResourceStore.Version version) {
+            Reply reply = new Reply(status, version.resource());
+            reply.headers.put("ETag", "W/\"" + version.versionId() + "\"");
+            reply.headers.put("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(OffsetDateTime.parse(version.lastUpdated())));
+            if (status == 201) {
+                reply.headers.put("Location", version.type() + "/" + version.id() + "/_history/" + version.versionId());
+            }
+            return reply;
+        }
+    }
+
+    /**
+     * ❌ Maps a failure to an HTTP status and OperationOutcome issue code.
+     */
+    private static final class StubException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+        final String code;
+
+        StubException(int status, String code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🩹 Minimal RFC 6902 JSON Patch engine used by {@link FhirStubServer}.
+ *
+ * Supports add, remove, replace, move, copy and test on a Jackson tree.
+ */
+public final class JsonPatches {
+
+    /**
+     * ❌ Raised when a patch document is malformed or an operation cannot be applied.
+     */
+    public static class PatchException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public PatchException(String message) {
+            super(message);
+        }
+    }
+
+    private JsonPatches() {
+    }
+
+    /**
+     * ✅ Apply every operation of {@code patch} to a copy of {@code target} and return the copy.
+     */
+    public static JsonNode apply(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new PatchException("JSON Patch document must be an array");
+        }
+        JsonNode document = target.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = operation.path("op").asText();
+            String path = requireText(operation, "path");
+            switch (op) {
+                case "add" -> document = add(document, path, requireValue(operation));
+                case "remove" -> document = remove(document, path);
+                case "replace" -> {
+                    document = remove(document, path);
+                    document = add(document, path, requireValue(operation));
+                }
+                case "move" -> {
+                    String from = requireText(operation, "from");
+                    JsonNode value = resolve(document, from);
+                    document = remove(document, from);
+                    document = add(document, path, value);
+                }
+                case "copy" -> document = add(document, path, resolve(document, requireText(operation, "from")).deepCopy());
+                case "test" -> {
+                    if (!resolve(document, path).equals(requireValue(operation))) {
+                        throw new PatchException("Test operation failed for path " + path);
+                    }
+                }
+                default -> throw new PatchException("Unsupported JSON Patch operation: " + op);
+            }
+        }
+        return document;
+    }
+
+    private static JsonNode add(JsonNode document, String path, JsonNode value) {
+        List<String> tokens = tokens(path);
+        if (tokens.isEmpty()) {
+            return value.deepCopy();
+        }
+        JsonNode parent = resolve(document, tokens.subList(0, tokens.size() - 1));
+        String last = tokens.get(tokens.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            object.set(last, value.deepCopy());
+        } else if (parent instanceof ArrayNode array) {
+            if ("-".equals(last)) {
+                array.add(value.deepCopy());
+            } else {
+                int index = index(last, array.size() + 1);
+                array.insert(index, value.deepCopy());
+            }
+        } else {
+            throw new PatchException("Cannot add to a scalar at " + path);
+        }
+        return document;
+    }
+
+    private static JsonNode remove(JsonNode document, String path) {
+        List<String> tokens = tokens(path);
+        if (tokens.isEmpty()) {
+            throw new PatchException("Cannot remove the document root");
+        }
+        JsonNode parent = resolve(document, tokens.subList(0, tokens.size() - 1));
+        String last = tokens.get(tokens.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            if (object.remove(last) == null) {
+                throw new PatchException("No value at " + path);
+            }
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(last, array.size()));
+        } else {
+            throw new PatchException("No value at " + path);
+        }
+        return document;
+    }
+
+    private static JsonNode resolve(JsonNode document, String path) {
+        return resolve(document, tokens(path));
+    }
+
+    private static JsonNode resolve(JsonNode document, List<String> tokens) {
+        JsonNode node = document;
+        for (String token : tokens) {
+            if (node instanceof ObjectNode object && object.has(token)) {
+                node = object.get(token);
+            } else if (node instanceof ArrayNode array) {
+                node = array.get(index(token, array.size()));
+            } else {
+                throw new PatchException("Path segment not found: " + token);
+            }
+        }
+        return node;
+    }
+
+    private static int index(String token, int size) {
+        try {
+            int index = Integer.parseInt(token);
+            if (index < 0 || index >= size) {
+                throw new PatchException("Array index out of bounds: " + token);
+            }
+            return index;
+        } catch (NumberFormatException e) {
+            throw new PatchException("Invalid array index: " + token);
+        }
+    }
+
+    private static List<String> tokens(String path) {
+        List<String> tokens = new ArrayList<>();
+        if (path.isEmpty()) {
+            return tokens;
+        }
+        if (path.charAt(0) != '/') {
+            throw new PatchException("JSON Pointer must start with '/': " + path);
+        }
+        for (String raw : path.substring(1).split("/", -1)) {
+            tokens.add(raw.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String requireText(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if (value == null || !value.isTextual()) {
+            throw new PatchException("Missing '" + field + "' in patch operation");
+        }
+        return value.asText();
+    }
+
+    private static JsonNode requireValue(JsonNode operation) {
+        if (!operation.has("value")) {
+            throw new PatchException("Missing 'value' in patch operation");
+        }
+        return operation.get("value");
+    }
+}
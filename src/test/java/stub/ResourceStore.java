@@ -0,0 +1,205 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 🗄️ Thread-safe, versioned in-memory storage used by {@link FhirStubServer}.
+ *
+ * Every write produces a new immutable version; deletes are recorded as a
+ * tombstone version so that {@code _history/{vid}} keeps working afterwards.
+ * Searches only walk a per-type index of live resources in creation order,
+ * so tombstoned resources cost nothing once they are deleted.
+ */
+public class ResourceStore {
+
+    /**
+     * 📜 One stored version of a resource ({@code resource} is null for a delete tombstone).
+     */
+    public record Version(String type, String id, int versionId, String lastUpdated, ObjectNode resource) {
+
+        public boolean deleted() {
+            return resource == null;
+        }
+    }
+
+    private static final class History {
+        final List<Version> versions = new ArrayList<>();
+        final long createdSeq;
+
+        History(long createdSeq) {
+            this.createdSeq = createdSeq;
+        }
+
+        Version current() {
+            return versions.isEmpty() ? null : versions.get(versions.size() - 1);
+        }
+    }
+
+    private final Map<String, ConcurrentHashMap<String, History>> resources = new ConcurrentHashMap<>();
+    // 🔍 Live (not deleted) histories per type, keyed by creation sequence; maintained under each history's lock
+    private final Map<String, ConcurrentSkipListMap<Long, History>> live = new ConcurrentHashMap<>();
+    private final AtomicLong idSequence = new AtomicLong(1000);
+    private final AtomicLong createSequence = new AtomicLong();
+
+    /**
+     * ➕ Store a new resource under a server-assigned ID.
+     */
+    public Version create(String type, ObjectNode resource) {
+        return put(type, nextId(), resource);
+    }
+
+    /**
+     * 🆔 Reserve a fresh server-assigned ID (numeric, like HAPI).
+     */
+    public String nextId() {
+        return String.valueOf(idSequence.incrementAndGet());
+    }
+
+    /**
+     * 🔁 Create or replace a resource under the given ID, returning the new version.
+     */
+    public Version put(String type, String id, ObjectNode resource) {
+        History history = typeMap(type).computeIfAbsent(id, key -> new History(createSequence.incrementAndGet()));
+        synchronized (history) {
+            Version current = history.current();
+            int versionId = current == null ? 1 : current.versionId() + 1;
+            String lastUpdated = now();
+            ObjectNode stored = resource.deepCopy();
+            stored.put("resourceType", type);
+            stored.put("id", id);
+            ObjectNode meta = stored.putObject("meta");
+            meta.put("versionId", String.valueOf(versionId));
+            meta.put("lastUpdated", lastUpdated);
+            Version version = new Version(type, id, versionId, lastUpdated, stored);
+            history.versions.add(version);
+            index(type, history);
+            return version;
+        }
+    }
+
+    /**
+     * ❌ Record a delete tombstone; returns null when the resource never existed or is already deleted.
+     */
+    public Version delete(String type, String id) {
+        History history = typeMap(type).get(id);
+        if (history == null) {
+            return null;
+        }
+        synchronized (history) {
+            Version current = history.current();
+            if (current == null || current.deleted()) {
+                return null;
+            }
+            Version tombstone = new Version(type, id, current.versionId() + 1, now(), null);
+            history.versions.add(tombstone);
+            index(type, history);
+            return tombstone;
+        }
+    }
+
+    /**
+     * ↩️ Forget every version after the first {@code versions}; with 0 the resource was never there.
+     * Used to undo the writes of a transaction that failed part-way.
+     */
+    void truncate(String type, String id, int versions) {
+        ConcurrentHashMap<String, History> histories = typeMap(type);
+        History history = histories.get(id);
+        if (history == null) {
+            return;
+        }
+        synchronized (history) {
+            history.versions.subList(Math.min(versions, history.versions.size()), history.versions.size()).clear();
+            if (history.versions.isEmpty()) {
+                histories.remove(id, history);
+            }
+            index(type, history);
+        }
+    }
+
+    /**
+     * 📥 Current version of a resource (may be a tombstone), or null when unknown.
+     */
+    public Version current(String type, String id) {
+        History history = typeMap(type).get(id);
+        if (history == null) {
+            return null;
+        }
+        synchronized (history) {
+            return history.current();
+        }
+    }
+
+    /**
+     * 📜 A specific historical version, or null when unknown.
+     */
+    public Version version(String type, String id, int versionId) {
+        History history = typeMap(type).get(id);
+        if (history == null) {
+            return null;
+        }
+        synchronized (history) {
+            return versionId >= 1 && versionId <= history.versions.size() ? history.versions.get(versionId - 1) : null;
+        }
+    }
+
+    /**
+     * 🔍 All live resources of a type matching the predicate, in creation order.
+     */
+    public List<Version> search(String type, Predicate<JsonNode> filter) {
+        List<Version> matches = new ArrayList<>();
+        for (History history : liveMap(type).values()) {
+            Version current;
+            synchronized (history) {
+                current = history.current();
+            }
+            // deleted between the index walk and the lock
+            if (current != null && !current.deleted() && filter.test(current.resource())) {
+                matches.add(current);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 🧹 Drop every stored resource.
+     */
+    public void clear() {
+        resources.clear();
+        live.clear();
+    }
+
+    private ConcurrentHashMap<String, History> typeMap(String type) {
+        return resources.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+    }
+
+    private ConcurrentSkipListMap<Long, History> liveMap(String type) {
+        return live.computeIfAbsent(type, key -> new ConcurrentSkipListMap<>());
+    }
+
+    // Caller holds the history's lock
+    private void index(String type, History history) {
+        Version current = history.current();
+        if (current == null || current.deleted()) {
+            liveMap(type).remove(history.createdSeq, history);
+        } else {
+            liveMap(type).put(history.createdSeq, history);
+        }
+    }
+
+    private static String now() {
+        return OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+}
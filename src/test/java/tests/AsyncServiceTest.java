@@ -0,0 +1,70 @@
+package tests;
+
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import service.AsyncConditionService;
+import service.AsyncPatientService;
+import service.FhirClient;
+import service.FhirResponse;
+import service.PatientService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 AsyncServiceTest verifies the virtual-thread async API and its bounded fan-out helpers.
+ */
+public class AsyncServiceTest {
+
+    private final AsyncPatientService asyncPatientService = new AsyncPatientService();
+    private final AsyncConditionService asyncConditionService = new AsyncConditionService();
+
+    @Test
+    @DisplayName("🌊 Fan-out GET of many patients")
+    void testFanOutGetPatients() {
+        FhirResponse created = FhirResponse.of(asyncPatientService.createPatient("Async Fanout", "female", "1985-03-03").join());
+        assertEquals(201, created.status(), "Expected status 201 Created");
+        String id = created.id();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(id);
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Filter counting = (requestSpec, responseSpec, ctx) -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                return ctx.next(requestSpec, responseSpec);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+        AsyncPatientService counted = new AsyncPatientService(new PatientService(FhirClient.spec().filter(counting)));
+        int maxInFlight = 32;
+        List<Response> responses = counted.getPatients(ids, maxInFlight).join();
+
+        assertEquals(ids.size(), responses.size(), "Expected one response per ID");
+        assertTrue(responses.stream().allMatch(r -> r.getStatusCode() == 200), "Every concurrent GET should return 200");
+        assertTrue(peak.get() > 0 && peak.get() <= maxInFlight,
+                "At most " + maxInFlight + " GETs should be in flight at once but saw " + peak.get());
+        assertEquals(200, asyncPatientService.deletePatient(id).join().getStatusCode(), "Expected 200 for delete");
+    }
+
+    @Test
+    @DisplayName("⚡ Async Condition create and read")
+    void testAsyncConditionCreateAndRead() {
+        String conditionId = asyncConditionService
+                .createCondition("Patient/async-patient", "44054006", "Diabetes mellitus type 2", "Async Diabetes")
+                .thenApply(response -> FhirResponse.of(response).id())
+                .join();
+
+        FhirResponse response = FhirResponse.of(asyncConditionService.getCondition(conditionId).join());
+        assertEquals(200, response.status(), "Expected status code 200");
+        assertEquals("Async Diabetes", response.string("code.text"), "Diagnosis text should match");
+    }
+}
@@ -0,0 +1,74 @@
+package tests;
+
+import model.BundleEntry;
+import model.Condition;
+import model.Patient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.BulkLoader;
+import service.ConditionService;
+import service.FhirClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 BulkLoaderTest verifies chunked, concurrent ingestion through transaction and batch Bundles.
+ */
+public class BulkLoaderTest {
+
+    private final ConditionService conditionService = new ConditionService();
+
+    @Test
+    @DisplayName("🚛 Bulk load patients with conditions in concurrent transaction chunks")
+    void testBulkLoadTransactions() {
+        BulkLoader loader = new BulkLoader(FhirClient.spec(), new BulkLoader.Options(50, "transaction", 4));
+        Stream<BulkLoader.Group> groups = IntStream.range(0, 200).mapToObj(i -> BulkLoader.Group.patientWithConditions(
+                Patient.of("Bulk Patient" + i, "female", "1970-01-01"),
+                List.of(Condition.of(null, "44054006", "Diabetes mellitus type 2", "Bulk Diabetes " + i),
+                        Condition.of(null, "38341003", "Hypertensive disorder", "Bulk Hypertension " + i))));
+
+        BulkLoader.Result result = loader.load(groups);
+
+        assertEquals(600, result.outcomes().size(), "Expected one outcome per entry");
+        assertEquals(600, result.succeeded(), "Every entry should be created: " + result.outcomes().stream()
+                .filter(o -> !o.succeeded()).findFirst().orElse(null));
+        assertEquals(13, result.chunks(), "16 groups of 3 entries fit into a 50-entry chunk, so 200 groups need 13 chunks");
+
+        Map<Long, Set<Integer>> chunksPerGroup = result.outcomes().stream()
+                .collect(Collectors.groupingBy(BulkLoader.EntryOutcome::group,
+                        Collectors.mapping(BulkLoader.EntryOutcome::chunk, Collectors.toSet())));
+        assertTrue(chunksPerGroup.values().stream().allMatch(chunks -> chunks.size() == 1), "A group must never be split across chunks");
+
+        BulkLoader.EntryOutcome patient = result.outcomes().get(0);
+        assertEquals("Patient", patient.resourceType(), "The first entry of a group is its patient");
+        List<Condition> conditions = conditionService.streamConditionsByPatient("Patient/" + patient.id()).toList();
+        assertEquals(2, conditions.size(), "urn:uuid subjects should resolve to the created patient");
+    }
+
+    @Test
+    @DisplayName("🚛 A failing transaction chunk fails only its own entries")
+    void testFailedTransactionChunk() {
+        BulkLoader loader = new BulkLoader(FhirClient.spec(), new BulkLoader.Options(2, "transaction", 2));
+        Stream<BulkLoader.Group> groups = Stream.of(
+                BulkLoader.Group.of(Patient.of("Bulk Ok One", "male", "1980-01-01")),
+                BulkLoader.Group.of(Patient.of("Bulk Ok Two", "male", "1980-01-01")),
+                new BulkLoader.Group(List.of(BundleEntry.put(Patient.of("Bulk Bad", "male", "1980-01-01").withId("not a valid id!")))),
+                BulkLoader.Group.of(Patient.of("Bulk Ok Three", "male", "1980-01-01")));
+
+        BulkLoader.Result result = loader.load(groups);
+
+        assertEquals(2, result.chunks(), "Four single-entry groups at two entries per chunk");
+        assertEquals(4, result.outcomes().size(), "Expected one outcome per entry");
+        assertTrue(result.outcomes().get(0).succeeded() && result.outcomes().get(1).succeeded(), "First chunk should succeed");
+        assertFalse(result.outcomes().get(2).succeeded(), "The invalid entry should fail");
+        assertFalse(result.outcomes().get(3).succeeded(), "A transaction is all-or-nothing, so its chunk-mate fails too");
+        assertNotNull(result.outcomes().get(3).error(), "Failed entries should carry diagnostics");
+    }
+}
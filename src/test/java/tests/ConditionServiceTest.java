@@ -2,125 +2,222 @@ package tests;
 
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import model.Bundle;
+import model.BundleEntry;
+import model.Condition;
 import service.ConditionService;
+import service.FhirResponse;
+import service.PatientService;
+import utils.StepGraph;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * 🧪 ConditionServiceTest runs ordered test cases to verify the FHIR Condition API using RestAssured.
+ * 🧪 ConditionServiceTest runs the FHIR Condition lifecycle as a {@link StepGraph} using RestAssured.
+ *
+ * Lifecycle state lives on the test instance (one per class), so the class can run
+ * concurrently with other test classes. Steps that need {@code conditionId} wait for create;
+ * paging, validation and the file post start right away. {@code @Order} only sets the report order.
  */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class ConditionServiceTest {
 
-    private static String conditionId;
+    private static final Logger log = LoggerFactory.getLogger(ConditionServiceTest.class);
+    private final ConditionService conditionService = new ConditionService();
+    private String conditionId;
     private static final String patientReference = "Patient/mohanad-albadri";
     private static final String diagnosisCode = "44054006";
     private static final String diagnosisDisplay = "Diabetes mellitus type 2";
     private static final String diagnosisText = "Type 2 Diabetes Mellitus";
+    private StepGraph lifecycle;
+
+    @BeforeAll
+    void startLifecycle() {
+        lifecycle = StepGraph.create()
+                .step("create").provides("conditionId").run(this::createCondition)
+                .step("get").needs("conditionId").run(this::getCondition)
+                // 🔁 get checks the original text, so writes start after it
+                .step("update").needs("conditionId").after("get").run(this::updateCondition)
+                .step("patch").needs("conditionId").after("update").run(this::patchCondition)
+                .step("search").needs("conditionId").run(this::searchByPatient)
+                .step("stream-pages").run(this::streamConditionsAcrossPages)
+                .step("validate").run(this::validateCondition)
+                .step("post-file").run(this::postConditionFromFile)
+                .step("delete").needs("conditionId").after("patch", "search").run(this::deleteCondition)
+                .start();
+    }
 
     @Test
     @Order(1)
     @DisplayName("✅ Create Condition")
     void testCreateCondition() {
-        Response response = ConditionService.createCondition(patientReference, diagnosisCode, diagnosisDisplay, diagnosisText);
-        System.out.println("✅ [CREATE] Response:\n" + response.asPrettyString());
+        lifecycle.await("create");
+    }
 
-        assertEquals(201, response.getStatusCode(), "Expected status code 201 for creation");
-        conditionId = response.jsonPath().getString("id");
+    private void createCondition() {
+        FhirResponse response = FhirResponse.of(conditionService.createCondition(patientReference, diagnosisCode, diagnosisDisplay, diagnosisText));
+        log.debug("✅ [CREATE] Response: {}", response);
+
+        assertEquals(201, response.status(), "Expected status code 201 for creation");
+        conditionId = response.id();
         assertNotNull(conditionId, "Condition ID should not be null");
 
-        System.out.println("🆔 Created Condition ID: " + conditionId);
+        log.info("🆔 Created Condition ID: {}", conditionId);
     }
 
     @Test
     @Order(2)
     @DisplayName("📥 GET Condition by ID")
     void testGetCondition() {
-        Response response = ConditionService.getCondition(conditionId);
-        System.out.println("📥 [GET] Response:\n" + response.asPrettyString());
+        lifecycle.await("get");
+    }
 
-        assertEquals(200, response.getStatusCode(), "Expected status code 200");
-        assertEquals("Condition", response.jsonPath().getString("resourceType"), "Expected resourceType to be 'Condition'");
-        assertEquals(diagnosisText, response.jsonPath().getString("code.text"), "Diagnosis text should match");
+    private void getCondition() {
+        FhirResponse response = FhirResponse.of(conditionService.getCondition(conditionId));
+        log.debug("📥 [GET] Response: {}", response);
+
+        assertEquals(200, response.status(), "Expected status code 200");
+        assertEquals("Condition", response.string("resourceType"), "Expected resourceType to be 'Condition'");
+        assertEquals(diagnosisText, response.string("code.text"), "Diagnosis text should match");
+        assertEquals(diagnosisCode, response.as(Condition.class).code().coding().get(0).code(), "Typed view should see the same body");
     }
 
     @Test
     @Order(3)
     @DisplayName("🔁 Update Condition")
     void testUpdateCondition() {
+        lifecycle.await("update");
+    }
+
+    private void updateCondition() {
         String newText = "Updated Type 2 Diabetes";
-        Response response = ConditionService.updateCondition(conditionId, patientReference, diagnosisCode, diagnosisDisplay, newText);
-        System.out.println("🔁 [UPDATE] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(conditionService.updateCondition(conditionId, patientReference, diagnosisCode, diagnosisDisplay, newText));
+        log.debug("🔁 [UPDATE] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected status code 200 after update");
-        assertEquals(newText, response.jsonPath().getString("code.text"), "Text should reflect the update");
+        assertEquals(200, response.status(), "Expected status code 200 after update");
+        assertEquals(newText, response.string("code.text"), "Text should reflect the update");
     }
 
     @Test
     @Order(4)
     @DisplayName("🩹 Patch Condition Text")
     void testPatchCondition() {
+        lifecycle.await("patch");
+    }
+
+    private void patchCondition() {
         String patchedText = "Patched Diagnosis Text";
-        Response response = ConditionService.patchCondition(conditionId, "/code/text", patchedText);
-        System.out.println("🩹 [PATCH] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(conditionService.patchCondition(conditionId, "/code/text", patchedText));
+        log.debug("🩹 [PATCH] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected status code 200 after patching");
-        assertEquals(patchedText, response.jsonPath().getString("code.text"), "Text should reflect the patch");
+        assertEquals(200, response.status(), "Expected status code 200 after patching");
+        assertEquals(patchedText, response.string("code.text"), "Text should reflect the patch");
     }
 
     @Test
     @Order(5)
     @DisplayName("🔍 Search Conditions by Patient")
     void testSearchByPatient() {
-        Response response = ConditionService.searchConditionsByPatient(patientReference);
-        System.out.println("🔍 [SEARCH] Response:\n" + response.asPrettyString());
+        lifecycle.await("search");
+    }
 
-        assertEquals(200, response.getStatusCode(), "Expected status code 200 for search");
-        assertTrue(response.getBody().asString().contains("Condition"), "Response should contain 'Condition'");
+    private void searchByPatient() {
+        FhirResponse response = FhirResponse.of(conditionService.searchConditionsByPatient(patientReference));
+        log.debug("🔍 [SEARCH] Response: {}", response);
+
+        assertEquals(200, response.status(), "Expected status code 200 for search");
+        assertTrue(response.raw().asString().contains("Condition"), "Response should contain 'Condition'");
     }
 
     @Test
     @Order(6)
+    @DisplayName("🌊 Stream Conditions across result pages")
+    void testStreamConditionsAcrossPages() {
+        lifecycle.await("stream-pages");
+    }
+
+    private void streamConditionsAcrossPages() {
+        String pagedPatient = "Patient/paging-" + UUID.randomUUID();
+        List<BundleEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            entries.add(BundleEntry.post(null, Condition.of(pagedPatient, "44054006", "Diabetes mellitus type 2", "Paged " + i)));
+        }
+        Response batch = new PatientService().sendTransactionBundle(Bundle.batch(entries));
+        assertEquals(200, batch.getStatusCode(), "Expected 200 for the seeding batch");
+
+        List<String> texts;
+        try (Stream<Condition> conditions = conditionService.streamConditions(Map.of("subject", pagedPatient, "_count", 20))) {
+            texts = conditions.map(condition -> condition.code().text()).toList();
+        }
+        assertEquals(45, texts.size(), "Every match across all pages should be streamed");
+        assertEquals(45, new HashSet<>(texts).size(), "No condition should be returned twice");
+        assertEquals("Paged 0", texts.get(0), "Results should keep server order");
+        assertEquals(45, conditionService.streamConditionsByPatient(pagedPatient).count(), "Default page size should give the same result");
+    }
+
+    @Test
+    @Order(7)
     @DisplayName("🧪 Validate Condition Resource")
     void testValidateCondition() {
+        lifecycle.await("validate");
+    }
+
+    private void validateCondition() {
         Map<String, Object> condition = new HashMap<>();
         condition.put("resourceType", "Condition");
         condition.put("subject", Map.of("reference", patientReference));
         condition.put("code", Map.of("text", diagnosisText));
 
-        Response response = ConditionService.validateConditionResource(condition);
-        System.out.println("🧪 [VALIDATE] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(conditionService.validateConditionResource(condition));
+        log.debug("🧪 [VALIDATE] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected validation to return 200");
+        assertEquals(200, response.status(), "Expected validation to return 200");
     }
 
     @Test
-    @Order(7)
+    @Order(8)
     @DisplayName("📂 Post Condition from File")
     void testPostConditionFromFile() {
+        lifecycle.await("post-file");
+    }
+
+    private void postConditionFromFile() {
         String filePath = "src/test/resources/sample_condition.json";
-        Response response = ConditionService.postConditionFromFile(filePath);
-        System.out.println("📂 [POST-FILE] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(conditionService.postConditionFromFile(filePath));
+        log.debug("📂 [POST-FILE] Response: {}", response);
 
-        assertEquals(201, response.getStatusCode(), "Expected 201 Created from file input");
+        assertEquals(201, response.status(), "Expected 201 Created from file input");
     }
 
     @Test
-    @Order(8)
+    @Order(9)
     @DisplayName("❌ Delete Condition")
     void testDeleteCondition() {
-        Response response = ConditionService.deleteCondition(conditionId);
-        System.out.println("❌ [DELETE] Response:\n" + response.asPrettyString());
+        lifecycle.await("delete");
+    }
+
+    private void deleteCondition() {
+        FhirResponse response = FhirResponse.of(conditionService.deleteCondition(conditionId));
+        log.debug("❌ [DELETE] Response: {}", response);
 
-        assertTrue(response.getStatusCode() == 200 || response.getStatusCode() == 204, "Expected 200 or 204 for deletion");
-        System.out.println("🧹 Condition with ID " + conditionId + " deleted.");
+        assertTrue(response.status() == 200 || response.status() == 204, "Expected 200 or 204 for deletion");
+        log.info("🧹 Condition with ID {} deleted.", conditionId);
     }
 
     @AfterAll
-    static void summary() {
-        System.out.println("\n✅✅ All FHIR Condition tests completed successfully.");
+    void summary() {
+        lifecycle.close();
+        log.info("✅✅ All FHIR Condition tests completed successfully.");
     }
 }
@@ -0,0 +1,51 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import run.FanOut;
+import run.LoadConfig;
+import run.LoadReport;
+import utils.TargetProfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FanOutTest runs one short load scenario against two private stub targets and checks the comparison report.
+ */
+@Tag("non-replayable")
+public class FanOutTest {
+
+    @Test
+    @DisplayName("🎯 The same mix runs against every target and is compared per operation")
+    void testFanOut() {
+        List<TargetProfile> targets = TargetProfile.parse("local-a,local-b");
+        assertTrue(targets.stream().allMatch(TargetProfile::isStub), "Both configured profiles should be private stubs");
+        assertThrows(IllegalArgumentException.class, () -> TargetProfile.parse("local-a,no-such-target"));
+
+        // 🕰️ Open model: arrivals are dispatched on a fixed schedule, so each target gets exactly 40 requests however
+        // busy the machine is (closed-model workers that start late could measure nothing)
+        LoadConfig config = LoadConfig.parse(new String[]{"--rps", "20", "--concurrency", "4", "--duration", "2s", "--warmup", "1s", "--seed", "5"});
+        FanOut.ComparisonReport comparison = new FanOut(config, targets).run();
+
+        assertEquals(List.of("local-a", "local-b"), List.copyOf(comparison.reports().keySet()), "Reports should keep target order");
+        assertEquals("local-a", comparison.baseline());
+        for (String target : comparison.reports().keySet()) {
+            LoadReport.OperationStats all = comparison.stats(target, "ALL");
+            assertEquals(40, all.count() + all.skipped(), "Every scheduled arrival should be accounted for against " + target);
+            assertTrue(all.count() > 0, "No requests measured against " + target);
+            assertEquals(0, all.errors(), "Errors against " + target);
+            assertNotNull(comparison.stats(target, "get-patient"), "Every operation should be reported for " + target);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        comparison.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+        String table = out.toString(StandardCharsets.UTF_8);
+        assertTrue(table.contains("local-a") && table.contains("local-b") && table.contains("p99 ms"), table);
+    }
+}
@@ -0,0 +1,79 @@
+package tests;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.Patient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.FhirCallEvent;
+import service.FhirFlightRecorder;
+import service.FhirResponse;
+import service.FhirRoute;
+import service.PatientService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FhirFlightRecorderTest records a few calls with JFR and reads the FHIR call events back from the file.
+ */
+public class FhirFlightRecorderTest {
+
+    private final PatientService patientService = new PatientService();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Tag("non-replayable")
+    @DisplayName("🛩️ Every call becomes a JFR event with route, sizes and timings")
+    void testEventsRecorded() throws IOException {
+        Path file = dir.resolve("fhir.jfr");
+        long thread = Thread.currentThread().threadId();
+        String id;
+        try (Recording recording = FhirFlightRecorder.start(file, "default")) {
+            id = FhirResponse.of(patientService.createPatient(Patient.of("Flight Recorder", "female", "1975-05-05"))).id();
+            patientService.getPatient(id);
+            recording.stop();
+        }
+
+        // 🧵 Other test classes run concurrently; keep the events of this thread
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> FhirCallEvent.NAME.equals(e.getEventType().getName()))
+                .filter(e -> e.getThread() != null && e.getThread().getJavaThreadId() == thread)
+                .toList();
+        assertEquals(2, events.size(), "Expected one event per call");
+
+        RecordedEvent create = events.get(0);
+        assertEquals("create", create.getString("operation"));
+        assertEquals("Patient", create.getString("resourceType"));
+        assertEquals("POST", create.getString("method"));
+        assertEquals("/Patient", create.getString("pathTemplate"));
+        assertEquals(201, create.getInt("status"));
+        assertTrue(create.getLong("requestBytes") > 0 && create.getLong("responseBytes") > 0, "Payload sizes should be recorded");
+        assertTrue(create.getDuration("serializationTime").toNanos() > 0, "The Patient body was serialized for this call");
+        assertTrue(create.getDuration("wireTime").toNanos() > 0, "Wire time should be measured");
+        assertTrue(create.getDuration().compareTo(create.getDuration("wireTime")) >= 0, "The call spans its wire time");
+
+        RecordedEvent read = events.get(1);
+        assertEquals("read", read.getString("operation"));
+        assertEquals("/Patient/{id}", read.getString("pathTemplate"));
+        assertEquals(200, read.getInt("status"));
+        assertEquals(0, read.getLong("requestBytes"));
+    }
+
+    @Test
+    @DisplayName("🧩 Path templates hide IDs")
+    void testPathTemplates() {
+        assertEquals("/Patient/{id}/_history/{vid}", FhirRoute.of("GET", "/Patient/1/_history/2").template());
+        assertEquals("/Condition/$validate", FhirRoute.of("POST", "/Condition/$validate").template());
+        assertEquals("/Condition/{id}", FhirRoute.of("PATCH", "/Condition/9").template());
+        assertEquals("/", FhirRoute.of("POST", "/").template());
+    }
+}
@@ -0,0 +1,72 @@
+package tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import model.FhirJson;
+import model.Patient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.FhirClient;
+import service.FhirMetrics;
+import service.FhirResponse;
+import service.PatientService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FhirMetricsTest checks per-operation series and the Prometheus/JSON export of client metrics.
+ */
+public class FhirMetricsTest {
+
+    private final FhirMetrics metrics = new FhirMetrics();
+    private final PatientService patientService = new PatientService(FhirClient.spec().filter(metrics));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("⏱️ Each request lands in its operation / resource type / status series")
+    void testSeriesPerOperation() {
+        String id = FhirResponse.of(patientService.createPatient(Patient.of("Metrics Patient", "female", "1990-01-01"))).id();
+        patientService.getPatient(id);
+        patientService.getPatient(id);
+        patientService.getPatient("does-not-exist");
+
+        FhirMetrics.Stats created = stats("create", "Patient", 201);
+        assertEquals(1, created.count(), "Expected one create");
+        assertTrue(created.bytesSent() > 0 && created.bytesReceived() > 0, "Create should count bytes both ways");
+        assertEquals(2, stats("read", "Patient", 200).count(), "Expected two successful reads");
+        assertEquals(1, stats("read", "Patient", 404).count(), "The 404 read should be its own series");
+        assertTrue(stats("read", "Patient", 200).max() > 0, "Latency should be recorded");
+    }
+
+    @Test
+    @DisplayName("📤 Prometheus text and JSON files are written")
+    void testExport() throws IOException {
+        patientService.createPatient(Patient.of("Export Patient", "male", "1980-02-02"));
+
+        List<Path> files = metrics.writeTo(dir);
+        String prometheus = Files.readString(files.get(0));
+        assertTrue(prometheus.contains("# TYPE fhir_client_request_duration_seconds summary"), prometheus);
+        assertTrue(prometheus.contains("fhir_client_request_duration_seconds_count{operation=\"create\",resource=\"Patient\",status=\"201\"} 1"), prometheus);
+        assertTrue(prometheus.contains("fhir_client_request_duration_seconds{operation=\"create\",resource=\"Patient\",status=\"201\",quantile=\"0.99\"} "), prometheus);
+
+        JsonNode json = FhirJson.mapper().readTree(files.get(1).toFile());
+        JsonNode series = json.path("series").get(0);
+        assertEquals("create", series.path("operation").asText());
+        assertEquals(201, series.path("status").asInt());
+        assertTrue(series.path("latencyMs").has("p99"), "JSON should carry percentiles");
+    }
+
+    private FhirMetrics.Stats stats(String operation, String type, int status) {
+        return metrics.snapshot().stream()
+                .filter(s -> s.key().equals(new FhirMetrics.Key(operation, type, status)))
+                .findFirst()
+                .orElseGet(() -> fail("No series " + operation + " " + type + " " + status + " in " + metrics.snapshot()));
+    }
+}
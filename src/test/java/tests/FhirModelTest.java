@@ -0,0 +1,69 @@
+package tests;
+
+import io.restassured.response.Response;
+import model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.ConditionService;
+import service.PatientService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FhirModelTest verifies the typed resource model end to end: serialization, service overloads
+ * and parsing responses back into records.
+ */
+public class FhirModelTest {
+
+    private final PatientService patientService = new PatientService();
+    private final ConditionService conditionService = new ConditionService();
+
+    @Test
+    @DisplayName("🧬 Typed Patient and Condition create, read back as records")
+    void testTypedCreateAndRead() {
+        Response created = patientService.createPatient(Patient.of("Typed Patient", "female", "1990-02-02"));
+        assertEquals(201, created.getStatusCode(), "Expected status 201 Created");
+        Patient patient = FhirJson.read(created.asByteArray(), Patient.class);
+        assertNotNull(patient.id(), "Server should assign an ID");
+        assertEquals("1", patient.meta().versionId(), "First version should be 1");
+        assertEquals("Typed Patient", patient.name().get(0).text(), "Name should round-trip");
+
+        Condition condition = Condition.of("Patient/" + patient.id(), "44054006", "Diabetes mellitus type 2", "Typed Diabetes")
+                .withStatus("active", "confirmed");
+        Response conditionResponse = conditionService.createCondition(condition);
+        assertEquals(201, conditionResponse.getStatusCode(), "Expected status 201 Created");
+        Condition stored = FhirJson.read(conditionResponse.asByteArray(), Condition.class);
+        assertEquals(condition.code(), stored.code(), "Code should round-trip");
+        assertEquals("active", stored.clinicalStatus().coding().get(0).code(), "Clinical status should round-trip");
+
+        Response updated = patientService.updatePatient(patient.id(), patient.withId(null));
+        assertEquals(200, updated.getStatusCode(), "Expected status 200 for update");
+        assertEquals("2", FhirJson.read(updated.asByteArray(), Patient.class).meta().versionId(), "Update should bump the version");
+    }
+
+    @Test
+    @DisplayName("📦 Typed transaction Bundle resolves urn:uuid references")
+    void testTypedTransactionBundle() {
+        Patient patient = Patient.of("Typed Bundle", "male", "1975-07-07");
+        Condition condition = Condition.of("urn:uuid:typed-patient", "38341003", "Hypertensive disorder", "Hypertension");
+        Bundle bundle = Bundle.transaction(List.of(
+                BundleEntry.post("urn:uuid:typed-patient", patient),
+                BundleEntry.post(null, condition)));
+
+        Response response = patientService.sendTransactionBundle(bundle);
+        assertEquals(200, response.getStatusCode(), "Expected status 200 for transaction");
+
+        Bundle result = FhirJson.read(response.asByteArray(), Bundle.class);
+        assertEquals("transaction-response", result.type(), "Expected a transaction-response");
+        assertEquals(2, result.entry().size(), "Expected one response entry per request entry");
+        String patientLocation = result.entry().get(0).response().location();
+        assertTrue(patientLocation.startsWith("Patient/"), "Patient should be created: " + patientLocation);
+
+        String conditionId = result.entry().get(1).response().location().split("/")[1];
+        Condition stored = FhirJson.read(conditionService.getCondition(conditionId).asByteArray(), Condition.class);
+        assertEquals(patientLocation.substring(0, patientLocation.indexOf("/_history")), stored.subject().reference(),
+                "Condition subject should point at the created patient");
+    }
+}
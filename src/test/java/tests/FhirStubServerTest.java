@@ -0,0 +1,127 @@
+package tests;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+import service.FhirResponse;
+import stub.FhirStubServer;
+import stub.ResourceStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FhirStubServerTest checks the embedded FHIR stand-in behaves like a real server where the suite relies on it.
+ */
+public class FhirStubServerTest {
+
+    private static FhirStubServer stub;
+
+    @BeforeAll
+    static void startStub() {
+        stub = FhirStubServer.start(0, "/fhir");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("🔗 Transaction resolves urn:uuid references")
+    void testTransactionResolvesReferences() {
+        Map<String, Object> bundle = Map.of(
+                "resourceType", "Bundle",
+                "type", "transaction",
+                "entry", List.of(
+                        Map.of("fullUrl", "urn:uuid:p1",
+                                "resource", Map.of("resourceType", "Patient", "gender", "female"),
+                                "request", Map.of("method", "POST", "url", "Patient")),
+                        Map.of("resource", Map.of("resourceType", "Condition", "subject", Map.of("reference", "urn:uuid:p1")),
+                                "request", Map.of("method", "POST", "url", "Condition"))));
+
+        FhirResponse response = FhirResponse.of(request().body(bundle).post("/"));
+        assertEquals(200, response.status(), "Expected 200 from transaction");
+
+        String patientLocation = response.string("entry[0].response.location");
+        String patientReference = patientLocation.substring(0, patientLocation.indexOf("/_history"));
+        FhirResponse search = FhirResponse.of(request().queryParam("subject", patientReference).get("/Condition"));
+        assertEquals(1, search.integer("total"), "Condition should reference the created Patient");
+    }
+
+    @Test
+    @DisplayName("↩️ Transaction with a failing entry leaves no earlier write behind")
+    void testFailedTransactionRollsBack() {
+        String id = "rollback-" + UUID.randomUUID();
+        Map<String, Object> bundle = Map.of(
+                "resourceType", "Bundle",
+                "type", "transaction",
+                "entry", List.of(
+                        Map.of("resource", Map.of("resourceType", "Patient", "gender", "female"),
+                                "request", Map.of("method", "PUT", "url", "Patient/" + id)),
+                        Map.of("request", Map.of("method", "GET", "url", "Patient/missing-" + UUID.randomUUID()))));
+
+        Response response = request().body(bundle).post("/");
+        assertEquals(404, response.getStatusCode(), "Expected the failing entry's 404 for the whole transaction");
+        assertEquals(404, request().get("/Patient/" + id).getStatusCode(), "The first entry's Patient should have been rolled back");
+    }
+
+    @Test
+    @DisplayName("📜 Deleted resources answer 410 but keep their history")
+    void testDeleteKeepsHistory() {
+        String id = FhirResponse.of(request().body(Map.of("resourceType", "Patient", "gender", "male")).post("/Patient")).id();
+
+        assertEquals(200, request().delete("/Patient/" + id).getStatusCode(), "Expected 200 for delete");
+        assertEquals(410, request().get("/Patient/" + id).getStatusCode(), "Expected 410 Gone after delete");
+        assertEquals(200, request().get("/Patient/" + id + "/_history/1").getStatusCode(), "Version 1 should stay readable");
+    }
+
+    @Test
+    @DisplayName("🔍 Search skips deleted resources and keeps creation order when one is re-created")
+    void testSearchSkipsTombstones() {
+        ResourceStore store = stub.store();
+        String tag = "tombstone-" + UUID.randomUUID();
+        ObjectNode resource = JsonNodeFactory.instance.objectNode().put("gender", tag);
+        String first = store.create("Patient", resource).id();
+        String second = store.create("Patient", resource).id();
+        String third = store.create("Patient", resource).id();
+
+        store.delete("Patient", second);
+        assertEquals(List.of(first, third), ids(store.search("Patient", node -> tag.equals(node.path("gender").asText()))),
+                "The deleted Patient should not be searched");
+        assertNotNull(store.version("Patient", second, 1).resource(), "Its history should be kept");
+
+        store.put("Patient", second, resource);
+        assertEquals(List.of(first, second, third), ids(store.search("Patient", node -> tag.equals(node.path("gender").asText()))),
+                "A re-created Patient should be found again at its original position");
+    }
+
+    @Test
+    @DisplayName("🩹 Failed JSON Patch test op leaves the resource untouched")
+    void testPatchTestOperation() {
+        String id = FhirResponse.of(request().body(Map.of("resourceType", "Patient", "gender", "male")).post("/Patient")).id();
+
+        Response response = request()
+                .contentType("application/json-patch+json")
+                .body("[{\"op\":\"test\",\"path\":\"/gender\",\"value\":\"female\"},{\"op\":\"replace\",\"path\":\"/gender\",\"value\":\"other\"}]")
+                .patch("/Patient/" + id);
+
+        assertEquals(422, response.getStatusCode(), "Expected 422 when a test op fails");
+        assertEquals("male", FhirResponse.of(request().get("/Patient/" + id)).string("gender"), "Gender should be unchanged");
+    }
+
+    private static List<String> ids(List<ResourceStore.Version> versions) {
+        return versions.stream().map(ResourceStore.Version::id).toList();
+    }
+
+    private static RequestSpecification request() {
+        return given().baseUri(stub.baseUri()).basePath(stub.basePath()).contentType(ContentType.JSON);
+    }
+}
@@ -0,0 +1,100 @@
+package tests;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.*;
+import service.FhirTransport;
+import service.Throttle;
+import stub.FhirStubServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FhirTransportTest checks the pooled transport on its own pool: connections are reused and timeouts applied.
+ */
+public class FhirTransportTest {
+
+    private static final Throttle.Options NO_RETRIES = new Throttle.Options(0, 0, 1, false, 1, 1, 1, 2.0, 1, 0, 0);
+
+    private static FhirStubServer stub;
+
+    @BeforeAll
+    static void startStub() {
+        stub = FhirStubServer.start(0, "/fhir");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("♻️ Sequential calls reuse one pooled connection and leave nothing leased")
+    void testSequentialCallsReuseOneConnection() {
+        FhirTransport transport = new FhirTransport(options(30_000), new Throttle(NO_RETRIES));
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, request(transport).get("/Patient").getStatusCode(), "Search " + i + " should succeed");
+        }
+
+        PoolStats stats = transport.stats();
+        assertEquals(0, stats.getLeased(), "Every connection should be back in the pool: " + stats);
+        assertEquals(1, stats.getAvailable(), "50 sequential calls should share one connection: " + stats);
+    }
+
+    @Test
+    @DisplayName("🌊 A streamed response keeps its connection until the body is closed")
+    void testStreamedResponseIsNotBuffered() throws IOException {
+        FhirTransport transport = new FhirTransport(options(30_000), new Throttle(NO_RETRIES));
+
+        Response response = FhirTransport.streamed(request(transport)).get("/Patient");
+        assertEquals(200, response.getStatusCode(), "Search should succeed");
+        assertEquals(1, transport.stats().getLeased(), "The unread body should still hold its connection: " + transport.stats());
+
+        try (InputStream body = response.asInputStream()) {
+            assertTrue(body.readAllBytes().length > 0, "The streamed body should be readable");
+        }
+        PoolStats stats = transport.stats();
+        assertEquals(0, stats.getLeased(), "Closing the body should release the connection: " + stats);
+        assertEquals(1, stats.getAvailable(), "The connection should go back to the pool for reuse: " + stats);
+    }
+
+    @Test
+    @DisplayName("⏱️ A server that never answers fails after the socket timeout")
+    void testSocketTimeoutApplied() throws IOException {
+        FhirTransport transport = new FhirTransport(options(300), new Throttle(NO_RETRIES));
+
+        // 🐌 The kernel completes the handshake from the backlog, but nothing ever reads the request or answers it
+        try (ServerSocket silent = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            long start = System.nanoTime();
+            Exception failure = assertThrows(Exception.class,
+                    () -> given().config(transport.config()).filter(transport.releaseFilter())
+                            .baseUri("http://127.0.0.1:" + silent.getLocalPort()).get("/fhir/Patient"));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            Throwable cause = failure;
+            while (cause != null && !(cause instanceof SocketTimeoutException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull(cause, "Expected a SocketTimeoutException but got " + failure);
+            assertTrue(elapsedMs >= 250 && elapsedMs < 5_000, "Expected to give up after ~300 ms, took " + elapsedMs + " ms");
+        }
+    }
+
+    private static FhirTransport.Options options(int socketTimeoutMs) {
+        return new FhirTransport.Options(10, 10, 2_000, socketTimeoutMs, 2_000, 30_000, false, 10, 60);
+    }
+
+    private static RequestSpecification request(FhirTransport transport) {
+        return given().config(transport.config()).filter(transport.releaseFilter())
+                .baseUri(stub.baseUri()).basePath(stub.basePath());
+    }
+}
@@ -0,0 +1,99 @@
+package tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+import model.Condition;
+import model.FhirJson;
+import model.Patient;
+import org.junit.jupiter.api.*;
+import service.ConditionService;
+import service.FhirClient;
+import service.FhirResponse;
+import service.PatientService;
+import stub.FhirStubServer;
+import validation.FhirValidator;
+import validation.ValidationIssue;
+import validation.ValidationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FhirValidatorTest checks the local validation rules and that the pre-flight filter saves round trips.
+ */
+public class FhirValidatorTest {
+
+    private static FhirStubServer stub;
+
+    @BeforeAll
+    static void startStub() {
+        stub = FhirStubServer.start(0, "/validation");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("✅ Valid Patient and Condition resources pass without issues")
+    void testValidResources() throws IOException {
+        ValidationResult patient = FhirValidator.validate(Patient.of("Valid Patient", "female", "1990-02-28"));
+        ValidationResult sample = FhirValidator.validate(Files.readAllBytes(Path.of("src/test/resources/sample_condition.json")));
+
+        assertTrue(patient.isValid() && patient.issues().isEmpty(), "Unexpected issues: " + patient);
+        assertTrue(sample.isValid() && sample.issues().isEmpty(), "Unexpected issues: " + sample);
+    }
+
+    @Test
+    @DisplayName("❌ Datatype, binding and cardinality errors are reported with their location")
+    void testInvalidPatient() {
+        ValidationResult result = FhirValidator.validate(FhirJson.mapper().<JsonNode>valueToTree(Map.of(
+                "resourceType", "Patient",
+                "gender", "bogus",
+                "birthDate", "2021-02-30",
+                "name", Map.of("use", "official", "text", "Not An Array"))));
+
+        assertFalse(result.isValid(), "Expected errors");
+        assertEquals(List.of("Patient.birthDate", "Patient.gender", "Patient.name"),
+                result.errors().stream().map(ValidationIssue::expression).sorted().toList(), "Unexpected issues: " + result);
+    }
+
+    @Test
+    @DisplayName("❌ Required subject, SNOMED check digit and con-5 are enforced on Condition")
+    void testInvalidCondition() {
+        Condition condition = Condition.of(null, "44054007", "Diabetes mellitus type 2", "Bad check digit")
+                .withStatus("active", "entered-in-error");
+
+        ValidationResult result = FhirValidator.validate(condition);
+
+        assertEquals(List.of("code-invalid", "invariant", "required"),
+                result.errors().stream().map(ValidationIssue::code).sorted().toList(), "Unexpected issues: " + result);
+        assertEquals("Condition.code.coding[0].code", result.errors().stream()
+                .filter(issue -> issue.code().equals("code-invalid")).findFirst().orElseThrow().expression());
+    }
+
+    @Test
+    @DisplayName("🛂 Invalid bodies and $validate are answered locally without a server round trip")
+    void testPreflightFilter() {
+        PatientService patientService = new PatientService(FhirClient.spec(stub.baseUri(), stub.basePath()));
+        ConditionService conditionService = new ConditionService(FhirClient.spec(stub.baseUri(), stub.basePath()));
+        long before = stub.requestCount();
+
+        FhirResponse rejected = FhirResponse.of(patientService.createPatient(Patient.of("Preflight Patient", "bogus", "1990-01-01")));
+        Response validated = conditionService.validateConditionResource(Condition.of("Patient/p1", "44054006", "Diabetes mellitus type 2", "Preflight"));
+
+        assertEquals(422, rejected.status(), "Expected 422 for an invalid create");
+        assertEquals("OperationOutcome", rejected.string("resourceType"));
+        assertEquals("Patient.gender", rejected.string("issue[0].expression[0]"));
+        assertEquals(200, validated.getStatusCode(), "Expected a local 200 from $validate");
+        assertEquals(before, stub.requestCount(), "Neither call should reach the server");
+        assertEquals(201, patientService.createPatient(Patient.of("Preflight Patient", "female", "1990-01-01")).getStatusCode(),
+                "Valid bodies are still sent");
+    }
+}
@@ -0,0 +1,85 @@
+package tests;
+
+import model.Bundle;
+import model.BundleEntry;
+import model.Condition;
+import model.FhirJson;
+import model.Patient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.ConditionService;
+import service.FhirResponse;
+import service.FileUpload;
+import service.PatientService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 FileUploadTest verifies streamed file uploads, on-the-fly gzip and pre-compressed files.
+ */
+public class FileUploadTest {
+
+    private final PatientService patientService = new PatientService();
+    private final ConditionService conditionService = new ConditionService();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("🗜️ On-the-fly gzip produces a valid gzip stream")
+    void testGzipStreamIsValid() throws IOException {
+        Path file = largeBundle(dir.resolve("large-bundle.json"));
+        byte[] original = Files.readAllBytes(file);
+
+        byte[] compressed;
+        try (InputStream gzip = FileUpload.gzip(file)) {
+            compressed = gzip.readAllBytes();
+        }
+        try (InputStream inflated = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(original, inflated.readAllBytes(), "Inflated bytes should match the file (CRC and size verified)");
+        }
+        assertTrue(compressed.length < original.length / 4, "Repetitive FHIR JSON should compress well");
+    }
+
+    @Test
+    @DisplayName("📤 Upload a transaction Bundle gzip-compressed on the fly")
+    void testUploadBundleWithGzip() throws IOException {
+        Path file = largeBundle(dir.resolve("bundle.json"));
+
+        FhirResponse response = FhirResponse.of(patientService.uploadFhirResource(file, true));
+        assertEquals(200, response.status(), "Expected 200 for the compressed transaction");
+        assertEquals(400, response.as(Bundle.class).entry().size(), "Every entry should be processed");
+    }
+
+    @Test
+    @DisplayName("📦 Upload a pre-compressed .json.gz file as-is")
+    void testUploadPreCompressed() throws IOException {
+        Path file = dir.resolve("condition.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(FhirJson.write(Condition.of("Patient/gz-patient", "44054006", "Diabetes mellitus type 2", "Gzipped Diabetes")));
+        }
+
+        FhirResponse response = FhirResponse.of(conditionService.uploadCondition(file, false));
+        assertEquals(201, response.status(), "Expected 201 Created");
+        assertEquals("Gzipped Diabetes", response.string("code.text"), "The server should inflate the body");
+    }
+
+    private static Path largeBundle(Path file) throws IOException {
+        Bundle bundle = Bundle.transaction(IntStream.range(0, 400)
+                .mapToObj(i -> BundleEntry.post(null, Patient.of("Upload Patient " + i, "female", "1990-01-01")))
+                .toList());
+        Files.write(file, FhirJson.write(bundle));
+        return file;
+    }
+}
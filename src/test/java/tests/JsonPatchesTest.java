@@ -0,0 +1,78 @@
+package tests;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import stub.JsonPatches;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 JsonPatchesTest checks the stub's RFC 6902 engine on array indices and JSON Pointer escaping.
+ */
+public class JsonPatchesTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("🔀 Move, copy and remove address array elements by index")
+    void testArrayIndices() {
+        JsonNode document = json("{\"list\":[\"a\",\"b\",\"c\",\"d\"]}");
+
+        // The element is removed before it is re-inserted, so index 3 refers to the shortened array
+        assertEquals(json("{\"list\":[\"a\",\"c\",\"d\",\"b\"]}"),
+                patch(document, "[{\"op\":\"move\",\"from\":\"/list/1\",\"path\":\"/list/3\"}]"));
+        assertEquals(json("{\"list\":[\"a\",\"d\",\"b\",\"c\"]}"),
+                patch(document, "[{\"op\":\"move\",\"from\":\"/list/3\",\"path\":\"/list/1\"}]"));
+        assertEquals(json("{\"list\":[\"a\",\"b\",\"c\",\"d\",\"a\"]}"),
+                patch(document, "[{\"op\":\"copy\",\"from\":\"/list/0\",\"path\":\"/list/-\"}]"));
+        assertEquals(json("{\"list\":[\"c\",\"a\",\"b\",\"c\",\"d\"]}"),
+                patch(document, "[{\"op\":\"copy\",\"from\":\"/list/2\",\"path\":\"/list/0\"}]"));
+        assertEquals(json("{\"list\":[\"a\",\"b\",\"d\"]}"),
+                patch(document, "[{\"op\":\"remove\",\"path\":\"/list/2\"}]"));
+        assertEquals(json("{\"list\":[\"a\",\"b\",\"c\",\"d\"]}"), document, "The input document must not be modified");
+    }
+
+    @Test
+    @DisplayName("🚫 Out-of-range and non-numeric array indices are rejected")
+    void testInvalidArrayIndices() {
+        JsonNode document = json("{\"list\":[\"a\",\"b\"]}");
+
+        assertThrows(JsonPatches.PatchException.class, () -> patch(document, "[{\"op\":\"remove\",\"path\":\"/list/2\"}]"));
+        assertThrows(JsonPatches.PatchException.class,
+                () -> patch(document, "[{\"op\":\"move\",\"from\":\"/list/5\",\"path\":\"/list/0\"}]"));
+        assertThrows(JsonPatches.PatchException.class,
+                () -> patch(document, "[{\"op\":\"copy\",\"from\":\"/list/first\",\"path\":\"/list/-\"}]"));
+        // Appending at size is allowed; one past it is not
+        assertEquals(json("{\"list\":[\"a\",\"b\",\"c\"]}"), patch(document, "[{\"op\":\"add\",\"path\":\"/list/2\",\"value\":\"c\"}]"));
+        assertThrows(JsonPatches.PatchException.class,
+                () -> patch(document, "[{\"op\":\"add\",\"path\":\"/list/3\",\"value\":\"c\"}]"));
+    }
+
+    @Test
+    @DisplayName("🔤 ~1 and ~0 decode to '/' and '~' in member names")
+    void testPointerEscaping() {
+        JsonNode document = json("{\"a/b\":1,\"m~n\":2,\"~1\":3}");
+
+        assertEquals(json("{\"a/b\":10,\"m~n\":2,\"~1\":3}"), patch(document, "[{\"op\":\"replace\",\"path\":\"/a~1b\",\"value\":10}]"));
+        assertEquals(json("{\"a/b\":1,\"~1\":3}"), patch(document, "[{\"op\":\"remove\",\"path\":\"/m~0n\"}]"));
+        // ~01 is '~' followed by '1', not '/'
+        assertEquals(json("{\"a/b\":1,\"m~n\":2}"), patch(document, "[{\"op\":\"remove\",\"path\":\"/~01\"}]"));
+        assertEquals(json("{\"m~n\":2,\"~1\":3,\"x/y\":1}"),
+                patch(document, "[{\"op\":\"move\",\"from\":\"/a~1b\",\"path\":\"/x~1y\"}]"));
+        assertDoesNotThrow(() -> patch(document, "[{\"op\":\"test\",\"path\":\"/m~0n\",\"value\":2}]"));
+    }
+
+    private static JsonNode patch(JsonNode document, String operations) {
+        return JsonPatches.apply(document, json(operations));
+    }
+
+    private static JsonNode json(String text) {
+        try {
+            return MAPPER.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("❌ Invalid JSON in test: " + text, e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package tests;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import model.Patient;
+import run.LatencyBaseline;
+import run.LatencyGate;
+import run.LifecycleScenario;
+import service.FhirClient;
+import service.PatientService;
+import utils.ConfigReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 LatencyGateTest checks the regression statistics and the baseline file, and, with {@code perf.gate=true}
+ * (the {@code -Pperf} profile), gates the Patient/Condition lifecycle latency against {@code perf.baseline.file}.
+ */
+public class LatencyGateTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyGateTest.class);
+    private static final LatencyGate.Options OPTIONS = new LatencyGate.Options(0.25, 0.05);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("📉 Rank test separates a real shift from noise and from shifts within tolerance")
+    void testStatistics() {
+        double[] baseline = {10.1, 9.8, 10.4, 10.0, 9.9};
+
+        LatencyGate.Finding same = LatencyGate.compare("patient.get", "p95", baseline, new double[]{10.2, 9.7, 10.3, 10.1, 9.9}, OPTIONS);
+        assertFalse(same.regressed(), "Same distribution must pass: " + same);
+
+        LatencyGate.Finding slower = LatencyGate.compare("patient.get", "p95", baseline, new double[]{15.2, 14.8, 15.9, 15.1, 14.6}, OPTIONS);
+        assertTrue(slower.regressed(), "A 50 % shift in every sample must fail: " + slower);
+        assertEquals(1 / 252.0, slower.pValue(), 1e-9, "Exact p-value of complete separation with 5 + 5 samples");
+
+        LatencyGate.Finding outlier = LatencyGate.compare("patient.get", "p95", baseline, new double[]{10.0, 30.0, 10.2, 9.9, 10.1}, OPTIONS);
+        assertFalse(outlier.regressed(), "One noisy sample must not fail the gate: " + outlier);
+
+        LatencyGate.Finding small = LatencyGate.compare("patient.get", "p95", baseline, new double[]{11.1, 11.0, 11.3, 11.2, 11.4}, OPTIONS);
+        assertTrue(small.pValue() < 0.05, "A consistent 10 % shift is significant");
+        assertFalse(small.regressed(), "…but within the 25 % tolerance");
+
+        double[] manyBaseline = new double[60];
+        double[] manyCurrent = new double[60];
+        for (int i = 0; i < 60; i++) {
+            manyBaseline[i] = 10 + i % 7;
+            manyCurrent[i] = 10 + i % 7;
+        }
+        assertTrue(LatencyGate.mannWhitneyGreater(manyBaseline, manyCurrent) > 0.4, "Normal approximation: identical samples");
+    }
+
+    @Test
+    @DisplayName("📏 Baseline measured from the lifecycles round-trips through its file and passes against itself")
+    void testBaselineRoundTrip() {
+        LatencyBaseline measured = LatencyBaseline.measure(LifecycleScenario.forServer(), 2, 2, 1);
+        assertEquals(LifecycleScenario.OPERATIONS, List.copyOf(measured.operations().keySet()), "Every lifecycle step should be sampled");
+        measured.operations().forEach((operation, samples) -> assertEquals(2, samples.p95().size(), operation));
+
+        Path file = dir.resolve("baseline.json");
+        measured.write(file);
+        LatencyBaseline read = LatencyBaseline.read(file);
+        assertEquals(measured, read, "Baseline should survive a write/read round trip");
+        assertTrue(LatencyGate.compare(read, measured, OPTIONS).stream().noneMatch(LatencyGate.Finding::regressed),
+                "A run compared with itself cannot regress");
+    }
+
+    @Test
+    @DisplayName("🛂 The gated validate steps are server round trips, not the local pre-flight answer")
+    void testValidateReachesServer() {
+        Patient patient = Patient.of("Perf Validate", "female", "1980-01-01");
+        // 🕰️ Only a real HTTP exchange carries the server's Date header; the pre-flight filter builds its reply in-process
+        assertNotNull(new PatientService(FhirClient.serverValidationSpec()).validatePatientResource(patient).getHeader("Date"),
+                "$validate should reach the server on the scenario's specification");
+        if (!ConfigReader.getBoolean("validation.server", false)) {
+            assertNull(new PatientService().validatePatientResource(patient).getHeader("Date"),
+                    "With validation.server=false the default specification answers $validate locally");
+        }
+    }
+
+    @Test
+    @DisplayName("🚧 Lifecycle latency within tolerance of the stored baseline")
+    void testLatencyAgainstBaseline() {
+        Assumptions.assumeTrue(ConfigReader.getBoolean("perf.gate", false), "Latency gate disabled (perf.gate=false)");
+        Path file = Path.of(ConfigReader.get("perf.baseline.file"));
+        boolean update = ConfigReader.getBoolean("perf.baseline.update", false);
+        // 🚫 A gate without a baseline would pass every build; only an explicit update may create one
+        assertTrue(update || Files.exists(file), "No latency baseline at " + file.toAbsolutePath()
+                + "; record one on a reference build with -Pperf -Dperf.baseline.update=true");
+        LatencyBaseline current = LatencyBaseline.measure(LifecycleScenario.forServer(),
+                ConfigReader.getInt("perf.samples", 10), ConfigReader.getInt("perf.iterations", 20),
+                ConfigReader.getInt("perf.warmup.iterations", 10));
+
+        if (update) {
+            current.write(file);
+            log.info("📏 Latency baseline written to {}", file.toAbsolutePath());
+            Assumptions.abort("Baseline recorded to " + file + "; nothing to compare with in this run");
+        }
+
+        LatencyGate.Options options = LatencyGate.Options.fromConfig();
+        List<LatencyGate.Finding> findings = LatencyGate.compare(LatencyBaseline.read(file), current, options);
+        LatencyGate.print(findings, options, System.out);
+        List<LatencyGate.Finding> regressions = findings.stream().filter(LatencyGate.Finding::regressed).toList();
+        assertTrue(regressions.isEmpty(), "Latency regressed against " + file + ": " + regressions);
+    }
+}
@@ -0,0 +1,81 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import run.LoadConfig;
+import run.LoadOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 LoadConfigTest checks flag, mix and duration parsing for the load driver.
+ */
+public class LoadConfigTest {
+
+    @Test
+    @DisplayName("🧾 Flags override the defaults")
+    void testParseFlags() {
+        LoadConfig defaults = LoadConfig.parse(new String[0]);
+        assertEquals(LoadConfig.parseMix(LoadConfig.DEFAULT_MIX), defaults.mix());
+        assertFalse(defaults.isRateLimited(), "No --rps means the closed model");
+        assertEquals(32, defaults.concurrency());
+
+        LoadConfig config = LoadConfig.parse(new String[]{"--mix", "get-patient=3", "--rps", "150.5", "--concurrency", "8",
+                "--duration", "2m", "--warmup", "500ms", "--seed", "0"});
+        assertEquals(Map.of(LoadOperation.GET_PATIENT, 3), config.mix());
+        assertEquals(150.5, config.rps());
+        assertTrue(config.isRateLimited());
+        assertEquals(8, config.concurrency());
+        assertEquals(Duration.ofMinutes(2), config.duration());
+        assertEquals(Duration.ofMillis(500), config.warmup());
+        assertEquals(0, config.seedResources());
+    }
+
+    @Test
+    @DisplayName("🎛️ Mix weights keep their order, default to 1 and add up per operation")
+    void testParseMix() {
+        Map<LoadOperation, Integer> mix = LoadConfig.parseMix(" search-patient , get-patient=3,,get-patient=2,create-patient=0");
+        assertEquals(List.of(LoadOperation.SEARCH_PATIENT, LoadOperation.GET_PATIENT, LoadOperation.CREATE_PATIENT),
+                List.copyOf(mix.keySet()));
+        assertEquals(1, mix.get(LoadOperation.SEARCH_PATIENT));
+        assertEquals(5, mix.get(LoadOperation.GET_PATIENT));
+        assertEquals(0, mix.get(LoadOperation.CREATE_PATIENT));
+    }
+
+    @Test
+    @DisplayName("🚫 Negative, all-zero and unknown weights are rejected")
+    void testRejectsInvalidMix() {
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parseMix("get-patient=5,search-patient=-1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parseMix("get-patient=0,search-patient=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parseMix(""));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parseMix("get-patient=many"));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parseMix("no-such-operation=1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoadConfig(Map.of(LoadOperation.GET_PATIENT, 2, LoadOperation.SEARCH_PATIENT, -1), 0, 1, Duration.ofSeconds(1), Duration.ZERO, 0));
+    }
+
+    @Test
+    @DisplayName("⚠️ Unknown flags, missing values and out-of-range numbers are rejected")
+    void testRejectsInvalidFlags() {
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--rps"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--speed", "10"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--concurrency", "0"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--rps", "-5"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--duration", "0s"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--warmup", "-1s"}));
+    }
+
+    @Test
+    @DisplayName("⏲️ Durations accept ms, s, m, h and plain seconds")
+    void testParseDuration() {
+        assertEquals(Duration.ofMillis(250), LoadConfig.parseDuration("250ms"));
+        assertEquals(Duration.ofSeconds(30), LoadConfig.parseDuration("30s"));
+        assertEquals(Duration.ofMinutes(5), LoadConfig.parseDuration("5m"));
+        assertEquals(Duration.ofHours(2), LoadConfig.parseDuration(" 2H "));
+        assertEquals(Duration.ofSeconds(7), LoadConfig.parseDuration("7"));
+    }
+}
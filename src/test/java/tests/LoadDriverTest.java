@@ -0,0 +1,81 @@
+package tests;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import run.LoadConfig;
+import run.LoadContext;
+import run.LoadDriver;
+import run.LoadReport;
+import service.ConditionService;
+import service.PatientService;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 LoadDriverTest checks the open-model schedule, the report arithmetic and skipping calls that have no ID yet.
+ */
+public class LoadDriverTest {
+
+    @Test
+    @Tag("non-replayable")
+    @DisplayName("🕰️ --rps 50 for 1 s schedules exactly 50 requests")
+    void testOpenModelRate() {
+        // ➕ Creates are cheap for the shared stub; searches scan every stored patient and would slow the other test classes
+        LoadConfig config = LoadConfig.parse(new String[]{"--mix", "create-patient", "--rps", "50", "--concurrency", "8",
+                "--duration", "1s", "--warmup", "0s", "--seed", "0"});
+        LoadReport report = new LoadDriver(config, new LoadContext(new PatientService(), new ConditionService())).run();
+
+        LoadReport.OperationStats all = report.stats("ALL");
+        assertEquals(50, all.count(), "One request every 20 ms for 1 s");
+        assertEquals(0, all.errors());
+        // ⏳ Elapsed also covers draining the last requests, so under a busy server the rate falls below 50
+        assertEquals(50 / (report.elapsed().toNanos() / 1e9), all.throughput(), 1e-6, "Throughput is count over measured time");
+    }
+
+    @Test
+    @DisplayName("🧮 Throughput and percentiles come out in req/s and milliseconds")
+    void testReportArithmetic() {
+        Histogram histogram = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        for (int ms = 1; ms <= 1_000; ms++) {
+            histogram.recordValue(ms * 1_000L);
+        }
+        LoadReport.OperationStats stats = LoadReport.OperationStats.of("get-patient", histogram, 2, 3, Duration.ofSeconds(4));
+
+        assertEquals(1_000, stats.count());
+        assertEquals(2, stats.errors());
+        assertEquals(3, stats.skipped());
+        assertEquals(250, stats.throughput(), 1e-9);
+        assertEquals(500, stats.p50(), 1);
+        assertEquals(900, stats.p90(), 1);
+        assertEquals(950, stats.p95(), 1);
+        assertEquals(990, stats.p99(), 1);
+        assertEquals(999, stats.p999(), 1);
+        assertEquals(1_000, stats.max(), 1);
+
+        LoadReport.OperationStats empty = LoadReport.OperationStats.of("ALL", new Histogram(3), 0, 0, Duration.ZERO);
+        assertEquals(0, empty.count());
+        assertEquals(0, empty.p99());
+        assertEquals(0, empty.throughput());
+    }
+
+    @Test
+    @DisplayName("🆔 Reads are skipped, not sent with a missing ID, until the pool has IDs")
+    void testSkipsReadsWithoutIds() {
+        LoadConfig config = LoadConfig.parse(new String[]{"--mix", "get-patient", "--concurrency", "2",
+                "--duration", "300ms", "--warmup", "0s", "--seed", "0"});
+        LoadContext context = new LoadContext(new PatientService(), new ConditionService());
+        LoadReport report = new LoadDriver(config, context).run();
+
+        LoadReport.OperationStats get = report.stats("get-patient");
+        assertEquals(0, get.count(), "Nothing should be sent without an ID");
+        assertEquals(0, get.errors());
+        assertTrue(get.skipped() > 0, "Skipped calls should be counted");
+        assertEquals(get.skipped(), report.stats("ALL").skipped());
+        assertThrows(IllegalStateException.class, () -> context.patientIds().random());
+    }
+}
@@ -0,0 +1,80 @@
+package tests;
+
+import org.junit.jupiter.api.*;
+import org.slf4j.event.Level;
+import service.FhirClient;
+import service.FhirResponse;
+import service.LoggingFilter;
+import service.PatientService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 LoggingFilterTest checks level gating, body sampling and truncation of the asynchronous HTTP log.
+ */
+public class LoggingFilterTest {
+
+    private final PatientService patientService = new PatientService();
+
+    @Test
+    @DisplayName("📝 At INFO only failures are logged, always with their body")
+    void testFailuresOnlyAtInfo() {
+        RecordingSink sink = new RecordingSink(Set.of(Level.INFO, Level.WARN, Level.ERROR));
+        try (LoggingFilter filter = new LoggingFilter(new LoggingFilter.Options(40, 1.0, 100), sink)) {
+            PatientService logged = new PatientService(FhirClient.spec().filter(filter));
+            String id = FhirResponse.of(patientService.createPatient("Logging Patient", "female", "1990-01-01")).id();
+
+            logged.getPatient(id);
+            logged.getPatient("does-not-exist");
+            assertTrue(filter.flush(5, TimeUnit.SECONDS), "Log queue should drain");
+        }
+
+        assertEquals(1, sink.lines.size(), "Only the 404 should be logged: " + sink.lines);
+        String line = sink.lines.get(0);
+        assertTrue(line.startsWith("WARN ❌ GET ") && line.contains("/Patient/does-not-exist → 404"), line);
+        assertTrue(line.contains("response: {") && line.contains("bytes)"), "Failure body should be attached and truncated: " + line);
+    }
+
+    @Test
+    @DisplayName("🎲 At DEBUG every exchange gets a line, bodies only when sampled")
+    void testBodySampling() {
+        RecordingSink sink = new RecordingSink(Set.of(Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR));
+        String id = FhirResponse.of(patientService.createPatient("Sampled Patient", "male", "1990-01-01")).id();
+        try (LoggingFilter never = new LoggingFilter(new LoggingFilter.Options(2048, 0.0, 100), sink);
+             LoggingFilter always = new LoggingFilter(new LoggingFilter.Options(2048, 1.0, 100), sink)) {
+            new PatientService(FhirClient.spec().filter(never)).getPatient(id);
+            assertTrue(never.flush(5, TimeUnit.SECONDS), "Log queue should drain");
+            new PatientService(FhirClient.spec().filter(always)).getPatient(id);
+            assertTrue(always.flush(5, TimeUnit.SECONDS), "Log queue should drain");
+        }
+
+        assertEquals(2, sink.lines.size(), "Expected one line per exchange: " + sink.lines);
+        assertTrue(sink.lines.get(0).startsWith("DEBUG 🌐 GET ") && !sink.lines.get(0).contains("response:"), sink.lines.get(0));
+        assertTrue(sink.lines.get(1).contains("response: {") && sink.lines.get(1).contains("Sampled Patient"), sink.lines.get(1));
+    }
+
+    private static final class RecordingSink implements LoggingFilter.Sink {
+
+        private final Set<Level> enabled;
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+
+        RecordingSink(Set<Level> enabled) {
+            this.enabled = enabled;
+        }
+
+        @Override
+        public boolean isEnabled(Level level) {
+            return enabled.contains(level);
+        }
+
+        @Override
+        public void log(Level level, String message) {
+            lines.add(level + " " + message);
+        }
+    }
+}
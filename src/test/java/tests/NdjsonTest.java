@@ -0,0 +1,133 @@
+package tests;
+
+import model.Condition;
+import model.FhirJson;
+import model.Patient;
+import model.RawResource;
+import model.Resource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.BulkLoader;
+import service.ConditionService;
+import service.FhirClient;
+import service.FhirResponse;
+import service.Ndjson;
+import service.PatientService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 NdjsonTest verifies NDJSON round trips, import through the bulk loader and export of search results.
+ */
+public class NdjsonTest {
+
+    private final ConditionService conditionService = new ConditionService();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("📄 NDJSON write and read back with lines spanning the read buffer")
+    void testRoundTrip() throws IOException {
+        Path file = dir.resolve("Patient.ndjson");
+        long written = Ndjson.write(file, IntStream.range(0, 500)
+                .mapToObj(i -> Patient.of("Ndjson \"Patient\" " + i, "female", "1960-01-01").withId("nd-" + i)));
+        assertEquals(500, written, "Expected every patient to be written");
+        assertEquals(500, Files.readAllLines(file).size(), "Expected one line per resource");
+
+        // A 64-byte buffer forces every line to be stitched together from several reads
+        try (Stream<RawResource> resources = Ndjson.read(file, 64)) {
+            List<RawResource> read = resources.toList();
+            assertEquals(500, read.size(), "Expected every line to be read back");
+            Patient last = read.get(499).as(Patient.class);
+            assertEquals("nd-499", last.id(), "IDs should round-trip");
+            assertEquals("Ndjson \"Patient\" 499", last.name().get(0).text(), "Escaped text should round-trip");
+        }
+    }
+
+    @Test
+    @DisplayName("🚛 Import NDJSON through the bulk loader, then export conditions by search")
+    void testImportAndExport() throws IOException {
+        String patientId = "nd-" + UUID.randomUUID();
+        Path input = dir.resolve("import.ndjson");
+        Files.writeString(input, FhirLines.of(Patient.of("Ndjson Import", "male", "1950-05-05").withId(patientId))
+                + "\n\n"
+                + FhirLines.of(IntStream.range(0, 30).mapToObj(i ->
+                Condition.of("Patient/" + patientId, "44054006", "Diabetes mellitus type 2", "Imported " + i)).toArray(Resource[]::new)));
+
+        BulkLoader.Result result = new BulkLoader(FhirClient.spec(), new BulkLoader.Options(10, "batch", 2)).loadNdjson(input);
+        assertEquals(31, result.outcomes().size(), "Blank lines are skipped; one outcome per resource");
+        assertEquals(31, result.succeeded(), "Every imported resource should be stored");
+        assertEquals(patientId, result.outcomes().get(0).id(), "Resources with IDs are upserted under that ID");
+
+        Path export = dir.resolve("Condition.ndjson");
+        long exported = conditionService.exportConditions(Map.of("subject", "Patient/" + patientId, "_count", 7), export);
+        assertEquals(30, exported, "Every page of the search should be exported");
+        try (Stream<RawResource> resources = Ndjson.read(export)) {
+            assertTrue(resources.map(r -> r.as(Condition.class)).allMatch(c -> ("Patient/" + patientId).equals(c.subject().reference())),
+                    "Exported conditions should reference the imported patient");
+        }
+    }
+
+    @Test
+    @DisplayName("🧾 Unmodelled fields and resource types survive import and export unchanged")
+    void testLosslessRoundTrip() throws IOException {
+        String patientId = "nd-full-" + UUID.randomUUID();
+        String patientLine = """
+                {"resourceType":"Patient","id":"%s","identifier":[{"system":"urn:oid:1.2.36.146.595.217.0.1","value":"12345"}],\
+                "name":[{"use":"official","text":"Ndjson Lossless","family":"Lossless"}],"gender":"female",\
+                "address":[{"line":["534 Erewhon St"],"city":"PleasantVille","postalCode":"3999"}]}""".formatted(patientId);
+        String observationLine = """
+                {"resourceType":"Observation","id":"%s-obs","status":"final","code":{"text":"Body weight"},\
+                "subject":{"reference":"Patient/%s"},"valueQuantity":{"value":72.5,"unit":"kg"}}""".formatted(patientId, patientId);
+        Path input = dir.resolve("mixed.ndjson");
+        Files.writeString(input, patientLine + "\n" + observationLine + "\n");
+
+        try (Stream<RawResource> resources = Ndjson.read(input)) {
+            List<RawResource> read = resources.toList();
+            assertEquals(List.of("Patient", "Observation"), read.stream().map(RawResource::resourceType).toList(),
+                    "Types outside the typed model must not be skipped");
+            assertEquals(FhirJson.mapper().readTree(patientLine), read.get(0).json(), "Every field should be read");
+        }
+
+        BulkLoader.Result result = new BulkLoader(FhirClient.spec(), new BulkLoader.Options(10, "batch", 1)).loadNdjson(input);
+        assertEquals(2, result.outcomes().size(), "One outcome per line, whatever its type");
+        assertEquals(2, result.succeeded(), "Both resources should be stored: " + result.outcomes());
+        FhirResponse stored = FhirResponse.of(new PatientService().getPatient(patientId));
+        assertEquals("12345", stored.string("identifier[0].value"), "The import must not drop identifier");
+        assertEquals("PleasantVille", stored.string("address[0].city"), "The import must not drop address");
+
+        Path export = dir.resolve("Patient.ndjson");
+        assertEquals(1, new PatientService().exportPatients(Map.of("_id", patientId), export));
+        try (Stream<RawResource> exported = Ndjson.read(export)) {
+            RawResource patient = exported.findFirst().orElseThrow();
+            patient.json().remove("meta");
+            assertEquals(FhirJson.mapper().readTree(patientLine), patient.json(), "The export must keep every field");
+        }
+    }
+
+    /**
+     * 🧾 Builds NDJSON text for small fixtures.
+     */
+    private static final class FhirLines {
+
+        static String of(Resource... resources) {
+            StringBuilder lines = new StringBuilder();
+            for (Resource resource : resources) {
+                lines.append(new String(FhirJson.write(resource), StandardCharsets.UTF_8)).append('\n');
+            }
+            return lines.toString();
+        }
+    }
+}
@@ -2,26 +2,61 @@ package tests;
 
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import model.Patient;
+import service.FhirResponse;
+import service.JsonPatch;
 import service.PatientService;
+import utils.StepGraph;
 
 import java.io.File;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * 🧪 PatientServiceTest verifies the full lifecycle of FHIR Patient operations.
+ *
+ * Lifecycle state lives on the test instance (one per class), so the class can run
+ * concurrently with other test classes. The steps run as a {@link StepGraph}: each starts once the
+ * {@code patientId} or {@code versionId} it needs exists, writes stay in order and delete waits for every
+ * reader. Each test method reports its step's outcome; {@code @Order} only sets the report order.
  */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class PatientServiceTest {
 
-    private static String patientId;
-    private static String versionId;
+    private static final Logger log = LoggerFactory.getLogger(PatientServiceTest.class);
+    private final PatientService patientService = new PatientService();
+    private String patientId;
+    private String versionId;
     private static final String patientName = "Mohanad Al Badri";
     private static final String gender = "male";
     private static final String birthDate = "1992-01-01";
+    private StepGraph lifecycle;
+
+    @BeforeAll
+    void startLifecycle() {
+        lifecycle = StepGraph.create()
+                .step("create").provides("patientId").run(this::createPatient)
+                .step("get").needs("patientId").provides("versionId").run(this::getPatient)
+                .step("update").needs("patientId").run(this::updatePatient)
+                .step("patch").needs("patientId").after("update").run(this::patchPatient)
+                .step("multi-patch").needs("patientId").after("patch").run(this::multiOperationPatch)
+                .step("search").needs("patientId").run(this::searchPatient)
+                .step("validate").run(this::validatePatientResource)
+                .step("vread").needs("patientId", "versionId").run(this::getPatientVersion)
+                .step("bundle").run(this::sendTransactionBundle)
+                .step("bundle-with-condition").run(this::createPatientWithCondition)
+                .step("post-file").run(this::postFhirFromFile)
+                .step("delete").needs("patientId").after("multi-patch", "search", "vread").run(this::deletePatient)
+                .start();
+    }
 
     /**
      * ✅ Create a new Patient
@@ -30,14 +65,18 @@ public class PatientServiceTest {
     @Order(1)
     @DisplayName("✅ Create Patient")
     void testCreatePatient() {
-        Response response = PatientService.createPatient(patientName, gender, birthDate);
-        System.out.println("✅ [CREATE] Response:\n" + response.asPrettyString());
+        lifecycle.await("create");
+    }
+
+    private void createPatient() {
+        FhirResponse response = FhirResponse.of(patientService.createPatient(patientName, gender, birthDate));
+        log.debug("✅ [CREATE] Response: {}", response);
 
-        assertEquals(201, response.getStatusCode(), "Expected status 201 Created");
-        patientId = response.jsonPath().getString("id");
+        assertEquals(201, response.status(), "Expected status 201 Created");
+        patientId = response.id();
         assertNotNull(patientId, "Patient ID should not be null");
 
-        System.out.println("🆔 Created Patient ID: " + patientId);
+        log.info("🆔 Created Patient ID: {}", patientId);
     }
 
     /**
@@ -47,14 +86,18 @@ public class PatientServiceTest {
     @Order(2)
     @DisplayName("📥 GET Patient by ID")
     void testGetPatient() {
-        Response response = PatientService.getPatient(patientId);
-        System.out.println("📥 [GET] Response:\n" + response.asPrettyString());
+        lifecycle.await("get");
+    }
+
+    private void getPatient() {
+        FhirResponse response = FhirResponse.of(patientService.getPatient(patientId));
+        log.debug("📥 [GET] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected status 200");
-        assertTrue(response.jsonPath().getString("name[0].text").contains("Mohanad"), "Patient name should contain 'Mohanad'");
-        versionId = response.jsonPath().getString("meta.versionId");
+        assertEquals(200, response.status(), "Expected status 200");
+        assertTrue(response.string("name[0].text").contains("Mohanad"), "Patient name should contain 'Mohanad'");
+        versionId = response.versionId();
 
-        System.out.println("📜 Patient Version ID: " + versionId);
+        log.info("📜 Patient Version ID: {}", versionId);
     }
 
     /**
@@ -64,12 +107,16 @@ public class PatientServiceTest {
     @Order(3)
     @DisplayName("🔁 Update Patient (PUT)")
     void testUpdatePatient() {
+        lifecycle.await("update");
+    }
+
+    private void updatePatient() {
         String updatedName = "Mohanad Updated";
-        Response response = PatientService.updatePatient(patientId, updatedName, gender, birthDate);
-        System.out.println("🔁 [UPDATE] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(patientService.updatePatient(patientId, updatedName, gender, birthDate));
+        log.debug("🔁 [UPDATE] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected status 200 after update");
-        assertEquals(updatedName, response.jsonPath().getString("name[0].text"), "Updated name should match");
+        assertEquals(200, response.status(), "Expected status 200 after update");
+        assertEquals(updatedName, response.string("name[0].text"), "Updated name should match");
     }
 
     /**
@@ -79,35 +126,82 @@ public class PatientServiceTest {
     @Order(4)
     @DisplayName("🩹 Patch Patient Name")
     void testPatchPatient() {
+        lifecycle.await("patch");
+    }
+
+    private void patchPatient() {
         String patchedName = "Mohanad Patched";
-        Response response = PatientService.patchPatient(patientId, "/name/0/text", patchedName);
-        System.out.println("🩹 [PATCH] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(patientService.patchPatient(patientId, "/name/0/text", patchedName));
+        log.debug("🩹 [PATCH] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected status 200 for patch");
-        assertEquals(patchedName, response.jsonPath().getString("name[0].text"), "Patched name should match");
+        assertEquals(200, response.status(), "Expected status 200 for patch");
+        assertEquals(patchedName, response.string("name[0].text"), "Patched name should match");
     }
 
     /**
-     * 🔍 Search Patient by Name
+     * 🩹 Patch several fields in one request, with a guard and characters that need escaping
      */
     @Test
     @Order(5)
+    @DisplayName("🩹 Multi-operation JSON Patch")
+    void testMultiOperationPatch() {
+        lifecycle.await("multi-patch");
+    }
+
+    private void multiOperationPatch() {
+        String quotedName = "Mohanad \"Mo\" Al\\Badri";
+        JsonPatch patch = JsonPatch.create()
+                .test("/gender", gender)
+                .replace("/name/0/text", quotedName)
+                .add("/name/0/given", List.of("Mohanad"))
+                .replace("/birthDate", "1992-02-02");
+        FhirResponse response = FhirResponse.of(patientService.patchPatient(patientId, patch));
+        log.debug("🩹 [PATCH] Response: {}", response);
+
+        response.assertStatus(200)
+                .assertEquals("name[0].text", quotedName)
+                .assertEquals("name[0].given[0]", "Mohanad")
+                .assertEquals("birthDate", "1992-02-02");
+
+        Response rejected = patientService.patchPatient(patientId, JsonPatch.create()
+                .test("/gender", "female")
+                .replace("/gender", "female"));
+        assertEquals(422, rejected.getStatusCode(), "A failing test op should reject the whole patch");
+    }
+
+    /**
+     * 🔍 Search Patient by Name
+     */
+    @Test
+    @Order(6)
     @DisplayName("🔍 Search Patient by Name")
     void testSearchPatient() {
-        Response response = PatientService.searchPatientByName("Mohanad");
-        System.out.println("🔍 [SEARCH] Response:\n" + response.asPrettyString());
+        lifecycle.await("search");
+    }
+
+    private void searchPatient() {
+        FhirResponse response = FhirResponse.of(patientService.searchPatientByName("Mohanad"));
+        log.debug("🔍 [SEARCH] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected 200 for search");
-        assertTrue(response.getBody().asString().contains("Mohanad"), "Search result should contain 'Mohanad'");
+        assertEquals(200, response.status(), "Expected 200 for search");
+        assertTrue(response.raw().asString().contains("Mohanad"), "Search result should contain 'Mohanad'");
+
+        try (Stream<Patient> matches = patientService.streamPatientsByName("Mohanad")) {
+            assertTrue(matches.anyMatch(patient -> patientId.equals(patient.id())), "Streamed results should include the created patient");
+        }
     }
 
     /**
      * 🧪 Validate Patient Resource
      */
     @Test
-    @Order(6)
+    @Order(7)
     @DisplayName("🧪 Validate Patient Resource")
     void testValidatePatientResource() {
+        lifecycle.await("validate");
+    }
+
+    private void validatePatientResource() {
         Map<String, Object> resource = new HashMap<>();
         resource.put("resourceType", "Patient");
         resource.put("gender", gender);
@@ -117,33 +211,41 @@ public class PatientServiceTest {
         name.put("text", patientName);
         resource.put("name", new Map[]{name});
 
-        Response response = PatientService.validatePatientResource(resource);
-        System.out.println("🧪 [VALIDATE] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(patientService.validatePatientResource(resource));
+        log.debug("🧪 [VALIDATE] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected validation success (200)");
+        assertEquals(200, response.status(), "Expected validation success (200)");
     }
 
     /**
      * 📜 Get Patient Version
      */
     @Test
-    @Order(7)
+    @Order(8)
     @DisplayName("📜 Get Patient Version")
     void testGetPatientVersion() {
-        Response response = PatientService.getPatientVersion(patientId, versionId);
-        System.out.println("📜 [VERSION] Response:\n" + response.asPrettyString());
+        lifecycle.await("vread");
+    }
 
-        assertEquals(200, response.getStatusCode(), "Expected 200 when retrieving version");
-        assertEquals(versionId, response.jsonPath().getString("meta.versionId"), "Version ID should match");
+    private void getPatientVersion() {
+        FhirResponse response = FhirResponse.of(patientService.getPatientVersion(patientId, versionId));
+        log.debug("📜 [VERSION] Response: {}", response);
+
+        assertEquals(200, response.status(), "Expected 200 when retrieving version");
+        assertEquals(versionId, response.versionId(), "Version ID should match");
     }
 
     /**
      * 📦 Send Transaction Bundle
      */
     @Test
-    @Order(8)
+    @Order(9)
     @DisplayName("📦 Send Transaction Bundle")
     void testSendTransactionBundle() {
+        lifecycle.await("bundle");
+    }
+
+    private void sendTransactionBundle() {
         Map<String, Object> bundle = new HashMap<>();
         bundle.put("resourceType", "Bundle");
         bundle.put("type", "transaction");
@@ -158,19 +260,23 @@ public class PatientServiceTest {
 
         bundle.put("entry", new Map[]{entry});
 
-        Response response = PatientService.sendTransactionBundle(bundle);
-        System.out.println("📦 [BUNDLE] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(patientService.sendTransactionBundle(bundle));
+        log.debug("📦 [BUNDLE] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected 200 from transaction bundle");
+        assertEquals(200, response.status(), "Expected 200 from transaction bundle");
     }
 
     /**
      * ➕ Create Patient + Condition via Bundle
      */
     @Test
-    @Order(9)
+    @Order(10)
     @DisplayName("➕ Create Patient + Condition via Bundle")
     void testCreatePatientWithCondition() {
+        lifecycle.await("bundle-with-condition");
+    }
+
+    private void createPatientWithCondition() {
         Map<String, Object> patient = new HashMap<>();
         patient.put("resourceType", "Patient");
         patient.put("id", "mohanad-albadri");
@@ -191,46 +297,55 @@ public class PatientServiceTest {
                 "entry", new Map[]{entry1, entry2}
         );
 
-        Response response = PatientService.createPatientWithConditionBundle(bundle);
-        System.out.println("➕ [PATIENT+CONDITION] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(patientService.createPatientWithConditionBundle(bundle));
+        log.debug("➕ [PATIENT+CONDITION] Response: {}", response);
 
-        assertEquals(200, response.getStatusCode(), "Expected 200 for transaction bundle with patient + condition");
+        assertEquals(200, response.status(), "Expected 200 for transaction bundle with patient + condition");
     }
 
     /**
      * 📂 Post FHIR Resource From File
      */
     @Test
-    @Order(10)
+    @Order(11)
     @DisplayName("📂 Post FHIR Resource From File")
     void testPostFhirFromFile() {
+        lifecycle.await("post-file");
+    }
+
+    private void postFhirFromFile() {
         String path = "src/test/resources/sample_patient_condition.json";
         File file = new File(path);
         assertTrue(file.exists(), "❌ File not found: " + path);
 
-        Response response = PatientService.postFhirResourceFromFile(path);
-        System.out.println("📂 [POST FILE] Response:\n" + response.asPrettyString());
+        FhirResponse response = FhirResponse.of(patientService.postFhirResourceFromFile(path));
+        log.debug("📂 [POST FILE] Response: {}", response);
 
-        assertTrue(response.getStatusCode() == 200 || response.getStatusCode() == 201, "Expected 200 or 201 from file post");
+        assertTrue(response.status() == 200 || response.status() == 201, "Expected 200 or 201 from file post");
     }
 
     /**
      * ❌ Delete Patient
      */
     @Test
-    @Order(11)
+    @Order(12)
     @DisplayName("❌ Delete Patient")
     void testDeletePatient() {
-        Response response = PatientService.deletePatient(patientId);
-        int status = response.getStatusCode();
-        System.out.println("❌ [DELETE] Response:\n" + response.asPrettyString());
+        lifecycle.await("delete");
+    }
+
+    private void deletePatient() {
+        FhirResponse response = FhirResponse.of(patientService.deletePatient(patientId));
+        int status = response.status();
+        log.debug("❌ [DELETE] Response: {}", response);
 
         assertTrue(status == 204 || status == 200, "Expected 204 (No Content) or 200 (OK), but got: " + status);
-        System.out.println("🧹 Deleted Patient ID: " + patientId);
+        log.info("🧹 Deleted Patient ID: {}", patientId);
     }
 
     @AfterAll
-    static void testSummary() {
-        System.out.println("\n✅✅ All Patient API tests completed successfully.");
+    void testSummary() {
+        lifecycle.close();
+        log.info("✅✅ All Patient API tests completed successfully.");
     }
 }
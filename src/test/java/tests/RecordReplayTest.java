@@ -0,0 +1,74 @@
+package tests;
+
+import model.Patient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.FhirClient;
+import service.FhirResponse;
+import service.PatientService;
+import service.RecordReplay;
+import stub.FhirStubServer;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 RecordReplayTest records a lifecycle against a dedicated stub, stops it, and replays the same calls from the archive.
+ */
+public class RecordReplayTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("📼 A recorded lifecycle replays identically with the server gone")
+    void testRecordThenReplay() {
+        FhirStubServer stub = FhirStubServer.start(0, "/replay");
+        String baseUri = stub.baseUri();
+        List<FhirResponse> recorded;
+        try (RecordReplay recorder = new RecordReplay(RecordReplay.Mode.RECORD, dir, true)) {
+            recorded = lifecycle(new PatientService(FhirClient.spec(baseUri, stub.basePath()).filter(recorder)));
+        } finally {
+            stub.close();
+        }
+
+        try (RecordReplay player = new RecordReplay(RecordReplay.Mode.REPLAY, dir, true)) {
+            PatientService replayService = new PatientService(FhirClient.spec(baseUri, "/replay").filter(player));
+            List<FhirResponse> replayed = lifecycle(replayService);
+
+            assertEquals(recorded.size(), replayed.size());
+            for (int i = 0; i < recorded.size(); i++) {
+                assertEquals(recorded.get(i).status(), replayed.get(i).status(), "Status of call " + i);
+                assertEquals(recorded.get(i).raw().asString(), replayed.get(i).raw().asString(), "Body of call " + i);
+            }
+            assertEquals("Replay Updated", replayed.get(3).string("name[0].text"), "Reads after the update replay in order");
+            assertThrows(IllegalStateException.class, () -> replayService.getPatient("never-recorded"),
+                    "Unrecorded requests must fail instead of reaching a server");
+        }
+    }
+
+    /**
+     * 🔁 create → read → update → read → search → transaction with a fresh client UUID
+     */
+    private static List<FhirResponse> lifecycle(PatientService service) {
+        FhirResponse created = FhirResponse.of(service.createPatient(Patient.of("Replay Patient", "female", "1970-07-07")));
+        String id = created.id();
+        return List.of(
+                created,
+                FhirResponse.of(service.getPatient(id)),
+                FhirResponse.of(service.updatePatient(id, "Replay Updated", "female", "1970-07-07")),
+                FhirResponse.of(service.getPatient(id)),
+                FhirResponse.of(service.searchPatientByName("Replay")),
+                FhirResponse.of(service.sendTransactionBundle(Map.of(
+                        "resourceType", "Bundle",
+                        "type", "transaction",
+                        "entry", List.of(Map.of(
+                                "resource", Map.of("resourceType", "Patient", "id", UUID.randomUUID().toString()),
+                                "request", Map.of("method", "POST", "url", "Patient")))))));
+    }
+}
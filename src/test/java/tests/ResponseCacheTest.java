@@ -0,0 +1,71 @@
+package tests;
+
+import model.Patient;
+import org.junit.jupiter.api.*;
+import service.FhirClient;
+import service.FhirResponse;
+import service.PatientService;
+import service.ResponseCache;
+import stub.FhirStubServer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 ResponseCacheTest checks version reads are served locally and current reads are revalidated, against a dedicated stub
+ * so request counts are not disturbed by parallel test classes.
+ */
+public class ResponseCacheTest {
+
+    private static FhirStubServer stub;
+    private final ResponseCache cache = new ResponseCache(100, 60_000, 0);
+    private PatientService patientService;
+
+    @BeforeAll
+    static void startStub() {
+        stub = FhirStubServer.start(0, "/cache");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache.clear();
+        patientService = new PatientService(FhirClient.spec(stub.baseUri(), stub.basePath()).filter(cache));
+    }
+
+    @Test
+    @DisplayName("🗃️ History versions are served from the cache without a round trip")
+    void testVersionReadHit() {
+        String id = FhirResponse.of(patientService.createPatient(Patient.of("Cache Version", "female", "1990-01-01"))).id();
+
+        assertEquals(200, patientService.getPatientVersion(id, "1").getStatusCode(), "Expected 200 for first version read");
+        long before = stub.requestCount();
+        FhirResponse cached = FhirResponse.of(patientService.getPatientVersion(id, "1"));
+
+        assertEquals(200, cached.status(), "Cached version read should look like a 200");
+        assertEquals("Cache Version", cached.string("name[0].text"), "Cached body should be intact");
+        assertEquals(before, stub.requestCount(), "A cached version read must not reach the server");
+        assertEquals(1, cache.stats().hits(), "Expected one cache hit");
+    }
+
+    @Test
+    @DisplayName("🔁 Current reads revalidate with If-None-Match and updates invalidate them")
+    void testReadRevalidationAndInvalidation() {
+        String id = FhirResponse.of(patientService.createPatient(Patient.of("Cache Read", "male", "1985-05-05"))).id();
+
+        assertEquals(200, patientService.getPatient(id).getStatusCode(), "Expected 200 for first read");
+        FhirResponse revalidated = FhirResponse.of(patientService.getPatient(id));
+        assertEquals(200, revalidated.status(), "A 304 should be answered from the cache as a 200");
+        assertEquals("Cache Read", revalidated.string("name[0].text"), "Revalidated body should be intact");
+        assertEquals(1, cache.stats().revalidations(), "Second read should be revalidated, not refetched");
+
+        assertEquals(200, patientService.updatePatient(id, Patient.of("Cache Updated", "male", "1985-05-05").withId(id)).getStatusCode(),
+                "Expected 200 for update");
+        FhirResponse afterUpdate = FhirResponse.of(patientService.getPatient(id));
+        assertEquals("Cache Updated", afterUpdate.string("name[0].text"), "Update must invalidate the cached read");
+        assertEquals("2", afterUpdate.versionId(), "Expected the new version after update");
+    }
+}
@@ -0,0 +1,114 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import run.SoakReport;
+import run.SoakRunner;
+import run.Trend;
+import service.ConditionService;
+import service.PatientService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 SoakTest runs a few seconds of soak against the stub and checks the drift detection on synthetic series.
+ */
+public class SoakTest {
+
+    private static final SoakRunner.Options HOUR = new SoakRunner.Options(Duration.ofHours(1), 16, Duration.ofSeconds(30),
+            Duration.ofMinutes(2), 20, 10, 0.05, 0.01);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Tag("non-replayable")
+    @DisplayName("🧽 A short soak cycles both lifecycles and samples the client's health")
+    void testShortSoak() throws IOException {
+        SoakRunner.Options options = new SoakRunner.Options(Duration.ofSeconds(3), 4, Duration.ofMillis(250),
+                Duration.ofMillis(500), 20, 10, 0.05, 0.01);
+        SoakReport report = new SoakRunner(options, new PatientService(), new ConditionService()).run();
+
+        assertTrue(report.samples().size() >= 6, "Expected a sample every 250 ms, got " + report.samples().size());
+        assertEquals(0, report.errors(), "Soak cycles should not fail against the stub");
+        assertTrue(report.samples().stream().mapToDouble(SoakRunner.Sample::cyclesPerSecond).sum() > 0, "No cycles completed");
+        SoakRunner.Sample last = report.samples().get(report.samples().size() - 1);
+        assertTrue(last.heapAfterGcMb() > 0 && last.threads() > 0, "Heap and threads should be sampled");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("heap after GC"));
+        Path csv = report.writeCsv(dir);
+        assertEquals(report.samples().size() + 1, Files.readAllLines(csv).size(), "One CSV line per sample plus a header");
+    }
+
+    @Test
+    @DisplayName("📈 Steady growth is a leak, flat noise is not")
+    void testLeakDetection() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<SoakRunner.Sample> leaking = new ArrayList<>();
+        List<SoakRunner.Sample> steady = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            double seconds = 150 + i * 30.0;
+            double noise = random.nextDouble(-15, 15);
+            // 🫧 40 MB/h of live-heap growth under ±15 MB of noise; file descriptors grow by one every 3 minutes
+            leaking.add(sample(seconds, 200, 300 + seconds / 90 + noise, 12 + i / 6));
+            steady.add(sample(seconds, 200 + random.nextDouble(-20, 20), 300 + noise, 12));
+        }
+
+        SoakReport leak = SoakReport.analyse(HOUR, leaking);
+        assertTrue(leak.conclusive());
+        assertTrue(check(leak, "heap after GC").flagged(), "40 MB/h should be flagged");
+        assertEquals(40, check(leak, "heap after GC").trend().slopePerHour(), 8);
+        assertTrue(check(leak, "open file descriptors").flagged(), "20 fds/h should be flagged");
+        assertFalse(check(leak, "threads").flagged());
+        assertTrue(leak.failed());
+
+        SoakReport flat = SoakReport.analyse(HOUR, steady);
+        assertFalse(flat.failed(), "Noise around a flat level is not a leak");
+    }
+
+    @Test
+    @DisplayName("📉 Throughput losing 10 % per hour is decay; too few samples is inconclusive")
+    void testThroughputDecay() {
+        List<SoakRunner.Sample> decaying = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 120; i++) {
+            double seconds = 150 + i * 30.0;
+            decaying.add(sample(seconds, 200 * (1 - 0.1 * seconds / 3600) + random.nextDouble(-5, 5), 300, 12));
+        }
+        SoakReport report = SoakReport.analyse(HOUR, decaying);
+        SoakReport.Check throughput = check(report, "throughput");
+        assertTrue(throughput.flagged(), "Losing 10 %/h should be flagged");
+        assertEquals(-0.1, throughput.trend().relativeSlopePerHour(), 0.03);
+        assertTrue(report.failed());
+
+        SoakReport shortRun = SoakReport.analyse(HOUR, decaying.subList(0, 5));
+        assertFalse(shortRun.conclusive());
+        assertFalse(shortRun.failed(), "Five samples are not enough for a verdict");
+
+        Trend none = Trend.of(new double[]{0, 1}, new double[]{1, 2});
+        assertEquals(1, none.pIncreasing(), "Two points carry no trend");
+    }
+
+    private static SoakRunner.Sample sample(double seconds, double cyclesPerSecond, double heapAfterGcMb, long fds) {
+        return new SoakRunner.Sample(seconds, cyclesPerSecond, 0, heapAfterGcMb + 100, heapAfterGcMb, 0, 0, 8, 2, fds, 40);
+    }
+
+    private static SoakReport.Check check(SoakReport report, String signal) {
+        return report.checks().stream().filter(c -> c.signal().equals(signal)).findFirst().orElseThrow();
+    }
+}
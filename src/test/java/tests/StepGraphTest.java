@@ -0,0 +1,78 @@
+package tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.TestAbortedException;
+import utils.StepGraph;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 StepGraphTest checks that steps wait only for their declared inputs and that failures skip what depends on them.
+ */
+public class StepGraphTest {
+
+    @Test
+    @DisplayName("🕸️ Independent branches overlap; a step waits for the values it needs")
+    void testIndependentStepsOverlap() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        Runnable meet = () -> {
+            bothRunning.countDown();
+            try {
+                assertTrue(bothRunning.await(5, TimeUnit.SECONDS), "Sibling steps should run at the same time");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        try (StepGraph graph = StepGraph.create()
+                .step("create").provides("id").run(() -> events.add("create"))
+                .step("read").needs("id").provides("version").run(() -> { meet.run(); events.add("read"); })
+                .step("search").needs("id").run(() -> { meet.run(); events.add("search"); })
+                .step("vread").needs("id", "version").run(() -> events.add("vread"))
+                .step("delete").needs("id").after("vread", "search").run(() -> events.add("delete"))
+                .start()) {
+            graph.await("delete");
+            graph.await("read");
+        }
+        assertEquals("create", events.get(0));
+        assertEquals("delete", events.get(events.size() - 1));
+        assertTrue(events.indexOf("read") < events.indexOf("vread"), "vread needs the version from read: " + events);
+        assertEquals(5, events.size());
+    }
+
+    @Test
+    @DisplayName("⏭️ A failed step fails its test and skips everything downstream")
+    void testFailureSkipsDependents() {
+        StepGraph graph = StepGraph.create()
+                .step("create").provides("id").run(() -> fail("server down"))
+                .step("read").needs("id").run(() -> { })
+                .step("validate").run(() -> { })
+                .start();
+        AssertionError failure = assertThrows(AssertionError.class, () -> graph.await("create"));
+        assertEquals("server down", failure.getMessage());
+        TestAbortedException skipped = assertThrows(TestAbortedException.class, () -> graph.await("read"));
+        assertTrue(skipped.getMessage().contains("needs id from 'create'"), skipped.getMessage());
+        assertDoesNotThrow(() -> graph.await("validate"));
+        graph.close();
+    }
+
+    @Test
+    @DisplayName("🚫 Missing providers, duplicate providers and cycles are rejected up front")
+    void testInvalidGraphs() {
+        assertThrows(IllegalStateException.class, () -> StepGraph.create()
+                .step("read").needs("id").run(() -> { }).start());
+        assertThrows(IllegalStateException.class, () -> StepGraph.create()
+                .step("a").provides("id").run(() -> { })
+                .step("b").provides("id").run(() -> { }));
+        assertThrows(IllegalStateException.class, () -> StepGraph.create()
+                .step("a").needs("y").provides("x").run(() -> { })
+                .step("b").needs("x").provides("y").run(() -> { })
+                .start());
+    }
+}
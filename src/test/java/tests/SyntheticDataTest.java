@@ -0,0 +1,118 @@
+package tests;
+
+import data.SyntheticData;
+import model.Condition;
+import model.FhirJson;
+import model.RawResource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.BulkLoader;
+import service.ConditionService;
+import service.FhirClient;
+import service.FhirResponse;
+import service.Ndjson;
+import service.PatientService;
+import validation.FhirValidator;
+import validation.ValidationResult;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 SyntheticDataTest verifies that generated populations are reproducible, valid and plausibly distributed,
+ * and that they load through the services, the bulk loader and NDJSON.
+ */
+public class SyntheticDataTest {
+
+    private static final SyntheticData.Options OPTIONS = new SyntheticData.Options(7, 1.5, 8, LocalDate.of(2025, 1, 1));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("🎲 Same seed ⇒ byte-identical resources, in any order; another seed ⇒ another population")
+    void testDeterminism() {
+        byte[][] first = json(new SyntheticData(OPTIONS), 500);
+        byte[][] second = json(new SyntheticData(OPTIONS), 500);
+        for (int i = 0; i < first.length; i++) {
+            assertArrayEquals(first[i], second[i], "Resource " + i + " differs between runs with the same seed");
+        }
+
+        SyntheticData data = new SyntheticData(OPTIONS);
+        assertEquals(data.records(300).toList().get(299), data.record(299), "Random access should match the sequential stream");
+        assertEquals(data.records(300).toList(), data.records(300).parallel().toList(), "Parallel generation should match sequential");
+
+        byte[][] other = json(new SyntheticData(OPTIONS.withSeed(8)), 500);
+        assertFalse(Arrays.equals(first[0], other[0]) && Arrays.equals(first[1], other[1]), "A different seed should change the data");
+    }
+
+    @Test
+    @DisplayName("✅ Every generated Patient and Condition passes the local validator")
+    void testValidity() {
+        new SyntheticData(OPTIONS).records(2000).flatMap(SyntheticData.PatientRecord::resources).forEach(resource -> {
+            ValidationResult result = FhirValidator.validate(resource);
+            assertTrue(result.issues().isEmpty(), resource.id() + ": " + result);
+        });
+    }
+
+    @Test
+    @DisplayName("📊 Genders, ages and conditions per patient follow the configured shape")
+    void testDistributions() {
+        List<SyntheticData.PatientRecord> records = new SyntheticData(OPTIONS).records(10_000).toList();
+
+        long female = records.stream().filter(r -> "female".equals(r.patient().gender())).count();
+        assertTrue(female > 4_800 && female < 5_300, "About half should be female, got " + female);
+
+        double meanConditions = records.stream().mapToInt(r -> r.conditions().size()).average().orElse(0);
+        assertTrue(meanConditions > 1.0 && meanConditions < 2.0, "Mean conditions per patient near 1.5, got " + meanConditions);
+        assertTrue(records.stream().allMatch(r -> r.conditions().size() <= OPTIONS.maxConditions()), "Max conditions exceeded");
+        assertTrue(records.stream().anyMatch(r -> r.conditions().isEmpty()), "Some patients should have no conditions");
+
+        long distinctCodes = records.stream().flatMap(r -> r.conditions().stream())
+                .map(c -> c.code().coding().get(0).code()).distinct().count();
+        assertTrue(distinctCodes >= 15, "Expected a spread of SNOMED codes, got " + distinctCodes);
+
+        for (SyntheticData.PatientRecord record : records) {
+            for (Condition condition : record.conditions()) {
+                assertTrue(condition.onsetDateTime().compareTo(record.patient().birthDate()) >= 0, "Onset before birth in " + record.id());
+                assertTrue(condition.recordedDate().compareTo("2025-01-01") <= 0, "Recorded after the reference date in " + record.id());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("🚚 Synthetic patients load through the services, the bulk loader and NDJSON")
+    void testLoading() {
+        SyntheticData data = new SyntheticData(OPTIONS.withSeed(1807));
+        PatientService patientService = new PatientService();
+        ConditionService conditionService = new ConditionService();
+
+        long expected = data.records(5).mapToLong(r -> 1 + r.conditions().size()).sum();
+        assertEquals(expected, data.create(patientService, conditionService, 5), "Every resource should be created");
+
+        BulkLoader.Result result = new BulkLoader(FhirClient.spec(), new BulkLoader.Options(100, "transaction", 2)).load(data.groups(50));
+        assertEquals(0, result.failed(), "No bulk entry should fail");
+        assertEquals(data.records(50).mapToLong(r -> 1 + r.conditions().size()).sum(), result.succeeded());
+        String patientId = result.outcomes().get(0).id();
+        FhirResponse patient = FhirResponse.of(patientService.getPatient(patientId));
+        assertEquals(data.record(0).patient().name().get(0).text(), patient.string("name[0].text"));
+
+        long written = data.writeNdjson(dir, 20);
+        try (Stream<RawResource> patients = Ndjson.read(dir.resolve("Patient.ndjson"));
+             Stream<RawResource> conditions = Ndjson.read(dir.resolve("Condition.ndjson"))) {
+            assertEquals(20, patients.count(), "One line per patient");
+            assertEquals(written - 20, conditions.filter(c -> c.as(Condition.class).subject().reference().startsWith("Patient/syn-")).count(),
+                    "Conditions should reference their synthetic patient IDs");
+        }
+    }
+
+    private static byte[][] json(SyntheticData data, int count) {
+        return data.records(count).flatMap(SyntheticData.PatientRecord::resources).map(FhirJson::write).toArray(byte[][]::new);
+    }
+}
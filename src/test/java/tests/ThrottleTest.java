@@ -0,0 +1,140 @@
+package tests;
+
+import com.sun.net.httpserver.HttpServer;
+import model.Patient;
+import org.junit.jupiter.api.*;
+import service.FhirClient;
+import service.PatientService;
+import service.Throttle;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 🧪 ThrottleTest checks retries against a server that sheds load, and the token bucket and AIMD limit on their own.
+ */
+public class ThrottleTest {
+
+    private static HttpServer server;
+    private static final AtomicInteger reads = new AtomicInteger();
+    private static final AtomicInteger creates = new AtomicInteger();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // 🔥 Reads are refused twice with 429, then served; creates always get 503
+        server.createContext("/flaky", exchange -> {
+            boolean read = "GET".equals(exchange.getRequestMethod());
+            int status = read ? (reads.incrementAndGet() <= 2 ? 429 : 200) : 503;
+            creates.addAndGet(read ? 0 : 1);
+            byte[] body = (status == 200 ? "{\"resourceType\":\"Patient\",\"id\":\"1\"}" : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/fhir+json");
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @Tag("non-replayable")
+    @DisplayName("🔁 Idempotent reads are retried on 429, creates are not retried on 503")
+    void testRetries() {
+        PatientService patientService = new PatientService(FhirClient.spec(
+                "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort(), "/flaky"));
+
+        assertEquals(200, patientService.getPatient("1").getStatusCode(), "Read should succeed on the third attempt");
+        assertEquals(3, reads.get(), "Expected two retries");
+
+        assertEquals(503, patientService.createPatient(Patient.of("Not Retried", "male", "1990-01-01")).getStatusCode());
+        assertEquals(1, creates.get(), "POST is not idempotent and must not be retried");
+    }
+
+    @Test
+    @DisplayName("🪣 Token bucket spends its burst, then paces at the configured rate")
+    void testTokenBucket() {
+        Throttle.TokenBucket bucket = new Throttle.TokenBucket(10, 2);
+
+        assertEquals(0, bucket.reserve(), "Burst token 1");
+        assertEquals(0, bucket.reserve(), "Burst token 2");
+        long wait = 0;
+        for (int i = 0; i < 10; i++) {
+            wait = bucket.reserve();
+        }
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900) && wait <= TimeUnit.MILLISECONDS.toNanos(1000),
+                "Tenth request past the burst should wait about 1 s at 10 rps, waited " + wait + " ns");
+    }
+
+    @Test
+    @DisplayName("📈 AIMD limit halves on overload and grows back additively")
+    void testAdaptiveLimit() throws IOException {
+        Throttle.AdaptiveLimit limit = new Throttle.AdaptiveLimit(new Throttle.Options(0, 0, 1, true, 16, 2, 32, 2.0, 1, 0, 0));
+
+        limit.acquire();
+        limit.release(1_000_000, true);
+        assertEquals(8, limit.limit(), "Overload should halve the limit");
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 8; i++) {
+                limit.acquire();
+            }
+            for (int i = 0; i < 8; i++) {
+                limit.release(1_000_000, false);
+            }
+        }
+        assertTrue(limit.limit() > 8, "Successful windows at steady latency should raise the limit, got " + limit.limit());
+    }
+
+    @Test
+    @DisplayName("🧵 Virtual threads waiting for a slot do not hold on to their carriers")
+    void testAdaptiveLimitDoesNotPinCarriers() throws Exception {
+        Throttle.AdaptiveLimit limit = new Throttle.AdaptiveLimit(new Throttle.Options(0, 0, 1, true, 1, 1, 1, 2.0, 1, 0, 0));
+        limit.acquire();
+
+        // 🧱 More waiters than the virtual-thread scheduler has carriers (at most 256): if waiting pinned a carrier,
+        // the thread that frees the slot could never be scheduled
+        int waiters = 300;
+        CountDownLatch started = new CountDownLatch(waiters);
+        AtomicInteger served = new AtomicInteger();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < waiters; i++) {
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    limit.acquire();
+                    served.incrementAndGet();
+                    limit.release(1_000_000, false);
+                    return null;
+                }));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS), "Every waiter should start");
+            futures.add(executor.submit(() -> limit.release(1_000_000, false)));
+            for (Future<?> future : futures) {
+                future.get(20, TimeUnit.SECONDS);
+            }
+        } finally {
+            // interrupts stuck waiters, so a regression fails with a timeout instead of hanging the build
+            executor.shutdownNow();
+        }
+        assertEquals(waiters, served.get(), "Every waiter should get the slot in turn");
+    }
+}
@@ -1,26 +1,83 @@
 package utils;
 
-import java.io.FileInputStream;
+import stub.FhirStubServer;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Properties;
 
 /**
  * 📦 ConfigReader loads key-value pairs from config.properties file.
+ *
+ * - ✅ JVM system properties (e.g. {@code -Dbase.uri=...}) override file values
+ * - ✅ Named servers for fan-out runs are read through {@link TargetProfile}
+ * - ✅ {@code fhir.stub=true} points {@code base.uri} at the embedded {@link FhirStubServer}
+ *   (never started with {@code replay.mode=replay}, where no server is contacted)
  */
 public class ConfigReader {
 
     private static final Properties properties = new Properties();
 
     static {
-        try {
-            FileInputStream file = new FileInputStream("src/test/resources/config.properties");
-            properties.load(file);
+        // 📂 -Dconfig.file wins; otherwise the source tree copy, then the one on the test classpath (other working directories)
+        String path = System.getProperty("config.file", "src/test/resources/config.properties");
+        try (InputStream in = Files.exists(Path.of(path)) ? Files.newInputStream(Path.of(path))
+                : ConfigReader.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (in == null) {
+                throw new IOException("not found at " + path + " or on the classpath");
+            }
+            properties.load(in);
         } catch (IOException e) {
             throw new RuntimeException("❌ Failed to load config.properties", e);
         }
     }
 
     public static String get(String key) {
-        return properties.getProperty(key);
+        if ("base.uri".equals(key) && isStubEnabled()) {
+            return FhirStubServer.shared().baseUri();
+        }
+        return System.getProperty(key, properties.getProperty(key));
+    }
+
+    /**
+     * 🔢 Integer value for {@code key}, or {@code defaultValue} when it is not configured
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * 🔢 Long value for {@code key}, or {@code defaultValue} when it is not configured
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /**
+     * 🔢 Decimal value for {@code key}, or {@code defaultValue} when it is not configured
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    /**
+     * 🔘 Boolean value for {@code key}, or {@code defaultValue} when it is not configured
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * 🧪 True when requests should go to the in-process stub instead of {@code base.uri}.
+     */
+    public static boolean isStubEnabled() {
+        return Boolean.parseBoolean(System.getProperty("fhir.stub", properties.getProperty("fhir.stub")))
+                && !"replay".equalsIgnoreCase(System.getProperty("replay.mode", properties.getProperty("replay.mode", "")).trim());
     }
 }
@@ -0,0 +1,29 @@
+package utils;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import service.FhirFlightRecorder;
+
+/**
+ * 🛩️ FlightRecordingListener records the whole test run with Java Flight Recorder when {@code jfr.record=true}.
+ *
+ * - ✅ Starts before the first test and writes {@code jfr.dir/tests-<timestamp>.jfr} after the last one
+ * - ✅ Registered through {@code META-INF/services}, like {@link MetricsExportListener}
+ */
+public class FlightRecordingListener implements TestExecutionListener {
+
+    private FhirFlightRecorder.Session session;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        session = FhirFlightRecorder.recordIfConfigured("tests");
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+}
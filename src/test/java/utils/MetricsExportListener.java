@@ -0,0 +1,69 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.FhirMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 📤 MetricsExportListener writes the {@link FhirMetrics} of a test run once every test has finished.
+ *
+ * - ✅ {@code fhir-metrics.prom} (Prometheus text format) and {@code fhir-metrics.json} go to {@code metrics.dir}
+ * - ✅ Both files are attached to the Allure report under a "📊 FHIR client metrics" entry
+ * - ✅ Registered through {@code META-INF/services}, so Surefire, the IDE and {@code MenuLauncher} all pick it up
+ */
+public class MetricsExportListener implements TestExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsExportListener.class);
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (!ConfigReader.getBoolean("metrics.enabled", true)) {
+            return;
+        }
+        FhirMetrics metrics = FhirMetrics.shared();
+        if (metrics.snapshot().isEmpty()) {
+            return;
+        }
+        String dir = ConfigReader.get("metrics.dir");
+        try {
+            List<Path> files = metrics.writeTo(Path.of(dir == null || dir.isBlank() ? "target/metrics" : dir));
+            attachToAllure(files);
+            log.info("📊 FHIR client metrics written to {}", files.get(0).getParent().toAbsolutePath());
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Could not export FHIR client metrics", e);
+        }
+    }
+
+    /**
+     * 📎 Allure only keeps attachments of a running test, so the files get a result entry of their own
+     */
+    private static void attachToAllure(List<Path> files) throws IOException {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        TestResult result = new TestResult()
+                .setUuid(uuid)
+                .setName("📊 FHIR client metrics")
+                .setFullName("utils.MetricsExportListener")
+                .setStatus(Status.PASSED)
+                .setLabels(List.of(ResultsUtils.createSuiteLabel("📊 Metrics")));
+        lifecycle.scheduleTestCase(result);
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("fhir-metrics.prom", "text/plain", "prom", Files.readAllBytes(files.get(0)));
+        lifecycle.addAttachment("fhir-metrics.json", "application/json", "json", Files.readAllBytes(files.get(1)));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+}
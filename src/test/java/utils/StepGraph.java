@@ -0,0 +1,274 @@
+package utils;
+
+import org.opentest4j.TestAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 🕸️ StepGraph runs lifecycle steps as a dependency graph instead of a fixed order.
+ *
+ * - ✅ A step declares the values it {@code needs} (e.g. {@code patientId}) and the values it {@code provides};
+ *   it starts as soon as the steps providing its inputs have finished, on its own virtual thread
+ * - ✅ {@code after} adds an ordering without a value, e.g. delete after every step that reads the resource
+ * - ✅ A failed step makes everything downstream abort (reported as skipped), naming the input that never arrived
+ * - ✅ Wall-clock time drops to the critical path; {@link #close()} logs it next to the sum of all steps
+ *
+ * <pre>
+ * StepGraph lifecycle = StepGraph.create()
+ *         .step("create").provides("patientId").run(this::createPatient)
+ *         .step("get").needs("patientId").provides("versionId").run(this::getPatient)
+ *         .step("vread").needs("patientId", "versionId").run(this::getPatientVersion)
+ *         .step("delete").needs("patientId").after("get", "vread").run(this::deletePatient)
+ *         .start();
+ * lifecycle.await("get");   // in the @Test method: rethrows the step's failure
+ * </pre>
+ *
+ * Values themselves travel through the caller's fields: completing a step happens-before its dependents start.
+ */
+public final class StepGraph implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StepGraph.class);
+
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+    private final Map<String, String> providers = new HashMap<>();
+    private final Map<String, CompletableFuture<Void>> futures = new ConcurrentHashMap<>();
+    private final Map<String, long[]> timings = new HashMap<>();
+    private ExecutorService executor;
+    private long startNanos;
+
+    /**
+     * 🧩 One step under construction; {@link #run(Runnable)} adds it to the graph
+     */
+    public final class Step {
+        private final String name;
+        private final List<String> needs = new ArrayList<>();
+        private final List<String> provides = new ArrayList<>();
+        private final List<String> after = new ArrayList<>();
+        private Runnable action;
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 📥 Values that must be available before this step runs
+         */
+        public Step needs(String... keys) {
+            needs.addAll(List.of(keys));
+            return this;
+        }
+
+        /**
+         * 📤 Values this step makes available to others
+         */
+        public Step provides(String... keys) {
+            provides.addAll(List.of(keys));
+            return this;
+        }
+
+        /**
+         * ⏳ Steps that must have finished first, without exchanging a value
+         */
+        public Step after(String... stepNames) {
+            after.addAll(List.of(stepNames));
+            return this;
+        }
+
+        /**
+         * ▶️ The step's body; assertion failures and exceptions become the step's outcome
+         */
+        public StepGraph run(Runnable action) {
+            this.action = action;
+            for (String key : provides) {
+                String previous = providers.putIfAbsent(key, name);
+                if (previous != null) {
+                    throw new IllegalStateException("❌ '" + key + "' is provided by both '" + previous + "' and '" + name + "'");
+                }
+            }
+            steps.put(name, this);
+            return StepGraph.this;
+        }
+
+        private List<String> dependencies() {
+            List<String> dependencies = new ArrayList<>();
+            for (String key : needs) {
+                String provider = providers.get(key);
+                if (provider == null) {
+                    throw new IllegalStateException("❌ Step '" + name + "' needs '" + key + "', which no step provides");
+                }
+                dependencies.add(provider);
+            }
+            for (String other : after) {
+                if (!steps.containsKey(other)) {
+                    throw new IllegalStateException("❌ Step '" + name + "' runs after unknown step '" + other + "'");
+                }
+                dependencies.add(other);
+            }
+            return dependencies;
+        }
+    }
+
+    private StepGraph() {
+    }
+
+    /**
+     * 🕸️ An empty graph
+     */
+    public static StepGraph create() {
+        return new StepGraph();
+    }
+
+    /**
+     * ➕ Start declaring a step
+     */
+    public Step step(String name) {
+        if (steps.containsKey(name)) {
+            throw new IllegalStateException("❌ Duplicate step '" + name + "'");
+        }
+        return new Step(name);
+    }
+
+    /**
+     * 🚀 Check the graph (every input provided, no cycles) and start every step whose inputs are ready
+     */
+    public StepGraph start() {
+        if (executor != null) {
+            throw new IllegalStateException("❌ StepGraph already started");
+        }
+        List<Step> order = topologicalOrder();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        startNanos = System.nanoTime();
+        for (Step step : order) {
+            List<String> dependencies = step.dependencies();
+            CompletableFuture<?>[] upstream = dependencies.stream().map(futures::get).toArray(CompletableFuture<?>[]::new);
+            futures.put(step.name, CompletableFuture.allOf(upstream).handleAsync((ignored, failure) -> {
+                if (failure != null) {
+                    throw new TestAbortedException("⏭️ '" + step.name + "' skipped: " + missingInput(step, dependencies));
+                }
+                long begin = System.nanoTime();
+                try {
+                    step.action.run();
+                } finally {
+                    synchronized (timings) {
+                        timings.put(step.name, new long[]{begin - startNanos, System.nanoTime() - startNanos});
+                    }
+                }
+                return null;
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture<?>[]::new)).whenComplete((r, e) -> executor.shutdown());
+        return this;
+    }
+
+    /**
+     * ⏳ Wait for a step; rethrows its assertion failure or exception, or aborts when an upstream step failed
+     */
+    public void await(String name) {
+        CompletableFuture<Void> future = futures.get(name);
+        if (future == null) {
+            throw new IllegalArgumentException("❌ Unknown step '" + name + "' (or graph not started)");
+        }
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * ⏹️ Wait for every step and log wall-clock time against the critical path and the sum of all steps
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture<?>[]::new)).exceptionally(e -> null).join();
+        log.info(summary());
+    }
+
+    /**
+     * 📏 "wall X ms, critical path Y ms, sum of steps Z ms" for the steps that ran
+     */
+    public String summary() {
+        Map<String, Double> finish = new HashMap<>();
+        double sum = 0;
+        double wall = 0;
+        double critical = 0;
+        synchronized (timings) {
+            for (Step step : topologicalOrder()) {
+                long[] timing = timings.get(step.name);
+                if (timing == null) {
+                    continue;
+                }
+                double took = (timing[1] - timing[0]) / 1e6;
+                double ready = step.dependencies().stream().mapToDouble(d -> finish.getOrDefault(d, 0.0)).max().orElse(0);
+                finish.put(step.name, ready + took);
+                sum += took;
+                wall = Math.max(wall, timing[1] / 1e6);
+                critical = Math.max(critical, ready + took);
+            }
+        }
+        return String.format(Locale.ROOT, "🕸️ %d steps: wall %.0f ms, critical path %.0f ms, sum of steps %.0f ms",
+                timings.size(), wall, critical, sum);
+    }
+
+    private String missingInput(Step step, List<String> dependencies) {
+        for (String dependency : dependencies) {
+            if (futures.get(dependency).isCompletedExceptionally()) {
+                List<String> keys = steps.get(dependency).provides.stream().filter(step.needs::contains).toList();
+                return keys.isEmpty() ? "'" + dependency + "' did not complete"
+                        : "needs " + String.join(", ", keys) + " from '" + dependency + "', which did not complete";
+            }
+        }
+        return "an upstream step did not complete";
+    }
+
+    // Kahn's algorithm in declaration order, so independent steps start in the order they were written
+    private List<Step> topologicalOrder() {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (Step step : steps.values()) {
+            List<String> dependencies = step.dependencies();
+            pending.put(step.name, dependencies.size());
+            for (String dependency : dependencies) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(step.name);
+            }
+        }
+        List<Step> order = new ArrayList<>();
+        List<String> ready = new ArrayList<>(steps.keySet().stream().filter(name -> pending.get(name) == 0).toList());
+        while (!ready.isEmpty()) {
+            String name = ready.remove(0);
+            order.add(steps.get(name));
+            for (String dependent : dependents.getOrDefault(name, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() < steps.size()) {
+            List<String> cyclic = steps.keySet().stream().filter(name -> pending.get(name) > 0).toList();
+            throw new IllegalStateException("❌ Step dependencies form a cycle among " + cyclic);
+        }
+        return order;
+    }
+}
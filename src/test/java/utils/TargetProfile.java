@@ -0,0 +1,81 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 🎯 TargetProfile is a named FHIR server to run against, configured as
+ * {@code target.<name>.base.uri} and {@code target.<name>.base.path}.
+ *
+ * - ✅ {@code default} is the regular {@code base.uri}/{@code base.path} (so the shared stub when {@code fhir.stub=true})
+ * - ✅ {@code base.uri=stub} asks the runner for a private embedded stub, e.g. to compare two local configurations
+ * - ✅ {@code targets} lists the profiles a fan-out run uses when none are given on the command line
+ *
+ * <pre>
+ * target.staging.base.uri=https://fhir.staging.example
+ * target.staging.base.path=/baseR4
+ * </pre>
+ */
+public record TargetProfile(String name, String baseUri, String basePath) {
+
+    public static final String STUB = "stub";
+
+    public TargetProfile {
+        if (name == null || name.isBlank() || baseUri == null || baseUri.isBlank()) {
+            throw new IllegalArgumentException("❌ Target profile needs a name and a base URI: " + name + " → " + baseUri);
+        }
+        basePath = basePath == null ? "" : basePath;
+    }
+
+    /**
+     * 🔎 The profile called {@code name}
+     *
+     * @throws IllegalArgumentException when {@code target.<name>.base.uri} is not configured
+     */
+    public static TargetProfile named(String name) {
+        if ("default".equals(name)) {
+            return new TargetProfile(name, ConfigReader.get("base.uri"), ConfigReader.get("base.path"));
+        }
+        String baseUri = ConfigReader.get("target." + name + ".base.uri");
+        if (baseUri == null || baseUri.isBlank()) {
+            throw new IllegalArgumentException("❌ Unknown target '" + name + "': set target." + name + ".base.uri");
+        }
+        String basePath = ConfigReader.get("target." + name + ".base.path");
+        return new TargetProfile(name, baseUri.trim(), basePath == null ? ConfigReader.get("base.path") : basePath.trim());
+    }
+
+    /**
+     * 📋 Profiles for a comma-separated list of names, in order
+     */
+    public static List<TargetProfile> parse(String names) {
+        List<TargetProfile> profiles = new ArrayList<>();
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                profiles.add(named(name.trim()));
+            }
+        }
+        if (profiles.isEmpty()) {
+            throw new IllegalArgumentException("❌ No targets in '" + names + "'");
+        }
+        if (profiles.stream().map(TargetProfile::name).distinct().count() != profiles.size()) {
+            throw new IllegalArgumentException("❌ Duplicate target in " + Arrays.toString(names.split(",")));
+        }
+        return profiles;
+    }
+
+    /**
+     * 📋 Profiles listed in {@code targets}
+     */
+    public static List<TargetProfile> configured() {
+        String names = ConfigReader.get("targets");
+        return parse(names == null || names.isBlank() ? "default" : names);
+    }
+
+    /**
+     * 🧪 True when the runner should start a private embedded stub for this target
+     */
+    public boolean isStub() {
+        return STUB.equalsIgnoreCase(baseUri);
+    }
+}
@@ -0,0 +1,95 @@
+package validation;
+
+import model.Coding;
+import model.Condition;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🔤 CodeSystems knows the code systems the suite uses and can check codes against them offline.
+ *
+ * - ✅ SNOMED CT: concept identifiers are checked for format, partition and Verhoeff check digit
+ *   (membership in the release is left to a terminology server)
+ * - ✅ Small HL7 code systems (condition clinical / verification status, condition category,
+ *   administrative gender, name use) are checked against their full code lists
+ * - ✅ Codes from any other system are accepted as-is
+ */
+public final class CodeSystems {
+
+    public static final String ADMINISTRATIVE_GENDER = "http://hl7.org/fhir/administrative-gender";
+    public static final String NAME_USE = "http://hl7.org/fhir/name-use";
+    public static final String CONDITION_CATEGORY = "http://terminology.hl7.org/CodeSystem/condition-category";
+
+    private static final Map<String, Set<String>> ENUMERATED = Map.of(
+            Condition.CLINICAL_STATUS_SYSTEM, Set.of("active", "recurrence", "relapse", "inactive", "remission", "resolved"),
+            Condition.VERIFICATION_STATUS_SYSTEM, Set.of("unconfirmed", "provisional", "differential", "confirmed", "refuted", "entered-in-error"),
+            CONDITION_CATEGORY, Set.of("problem-list-item", "encounter-diagnosis"),
+            ADMINISTRATIVE_GENDER, Set.of("male", "female", "other", "unknown"),
+            NAME_USE, Set.of("usual", "official", "temp", "nickname", "anonymous", "old", "maiden"));
+
+    // 🔢 Verhoeff dihedral-group tables (multiplication, permutation, inverse)
+    private static final int[][] D = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, {1, 2, 3, 4, 0, 6, 7, 8, 9, 5}, {2, 3, 4, 0, 1, 7, 8, 9, 5, 6},
+            {3, 4, 0, 1, 2, 8, 9, 5, 6, 7}, {4, 0, 1, 2, 3, 9, 5, 6, 7, 8}, {5, 9, 8, 7, 6, 0, 4, 3, 2, 1},
+            {6, 5, 9, 8, 7, 1, 0, 4, 3, 2}, {7, 6, 5, 9, 8, 2, 1, 0, 4, 3}, {8, 7, 6, 5, 9, 3, 2, 1, 0, 4},
+            {9, 8, 7, 6, 5, 4, 3, 2, 1, 0}};
+    private static final int[][] P = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, {1, 5, 7, 6, 2, 8, 3, 0, 9, 4}, {5, 8, 0, 3, 7, 9, 6, 1, 4, 2},
+            {8, 9, 1, 6, 0, 4, 3, 5, 2, 7}, {9, 4, 5, 3, 1, 2, 6, 8, 7, 0}, {4, 2, 8, 6, 5, 7, 3, 9, 0, 1},
+            {2, 7, 9, 3, 8, 0, 6, 4, 1, 5}, {7, 0, 4, 6, 9, 1, 3, 2, 5, 8}};
+
+    private CodeSystems() {
+    }
+
+    /**
+     * ✅ True for systems whose codes can be checked locally
+     */
+    public static boolean isKnown(String system) {
+        return Coding.SNOMED.equals(system) || ENUMERATED.containsKey(system);
+    }
+
+    /**
+     * ✅ True when {@code code} is in the full code list of an enumerated system
+     */
+    public static boolean contains(String system, String code) {
+        Set<String> codes = ENUMERATED.get(system);
+        return codes != null && codes.contains(code);
+    }
+
+    /**
+     * 🔎 Check one code against its system
+     *
+     * @return null when the code is acceptable, otherwise why it is not
+     */
+    public static String check(String system, String code) {
+        if (Coding.SNOMED.equals(system)) {
+            return isSnomedConceptId(code) ? null : "'" + code + "' is not a valid SNOMED CT concept id";
+        }
+        Set<String> codes = ENUMERATED.get(system);
+        if (codes != null && !codes.contains(code)) {
+            return "'" + code + "' is not a code of " + system + " (expected one of " + codes + ")";
+        }
+        return null;
+    }
+
+    /**
+     * 🧮 SNOMED CT concept id: 6-18 digits, no leading zero, concept partition ({@code 00}/{@code 10}) and a valid Verhoeff check digit
+     */
+    public static boolean isSnomedConceptId(String code) {
+        int length = code.length();
+        if (length < 6 || length > 18 || code.charAt(0) == '0') {
+            return false;
+        }
+        int check = 0;
+        for (int i = length - 1, position = 0; i >= 0; i--, position++) {
+            int digit = code.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            check = D[check][P[position % 8][digit]];
+        }
+        char partition = code.charAt(length - 2);
+        return check == 0 && partition == '0' && (code.charAt(length - 3) == '0' || code.charAt(length - 3) == '1');
+    }
+}
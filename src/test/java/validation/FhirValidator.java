@@ -0,0 +1,406 @@
+package validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import model.FhirJson;
+import model.Resource;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 🩻 FhirValidator checks Patient and Condition resources locally, without a {@code $validate} round trip.
+ *
+ * - ✅ Required elements and cardinality (repeating elements must be arrays, single ones must not)
+ * - ✅ Datatypes: JSON kind plus the FHIR R4 patterns for id, code, uri, date, dateTime and instant
+ *   (calendar dates such as {@code 2021-02-30} are rejected)
+ * - ✅ Required bindings (gender, name use, condition clinical / verification status) and
+ *   code checks for known code systems, see {@link CodeSystems}
+ * - ✅ Condition invariants con-3, con-4 and con-5
+ *
+ * The rules are compiled once into immutable structure definitions when the class loads; a check
+ * is a single walk over the JSON tree. Elements without rules are accepted, so a clean local result
+ * does not replace a full server-side validation against profiles.
+ */
+public final class FhirValidator {
+
+    private static final int MANY = Integer.MAX_VALUE;
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9\\-.]{1,64}");
+    private static final Pattern CODE = Pattern.compile("[^\\s]+( [^\\s]+)*");
+    private static final Pattern URI = Pattern.compile("\\S+");
+    private static final Pattern DATE = Pattern.compile(
+            "([0-9]([0-9]([0-9][1-9]|[1-9]0)|[1-9]00)|[1-9]000)(-(0[1-9]|1[0-2])(-(0[1-9]|[1-2][0-9]|3[0-1]))?)?");
+    private static final Pattern DATE_TIME = Pattern.compile(
+            "([0-9]([0-9]([0-9][1-9]|[1-9]0)|[1-9]00)|[1-9]000)(-(0[1-9]|1[0-2])(-(0[1-9]|[1-2][0-9]|3[0-1])"
+                    + "(T([01][0-9]|2[0-3]):[0-5][0-9]:([0-5][0-9]|60)(\\.[0-9]+)?(Z|([+\\-])((0[0-9]|1[0-3]):[0-5][0-9]|14:00)))?)?)?");
+    private static final Pattern INSTANT = Pattern.compile(
+            "([0-9]([0-9]([0-9][1-9]|[1-9]0)|[1-9]00)|[1-9]000)-(0[1-9]|1[0-2])-(0[1-9]|[1-2][0-9]|3[0-1])"
+                    + "T([01][0-9]|2[0-3]):[0-5][0-9]:([0-5][0-9]|60)(\\.[0-9]+)?(Z|([+\\-])((0[0-9]|1[0-3]):[0-5][0-9]|14:00))");
+    private static final Pattern REFERENCE = Pattern.compile(
+            "#.*|urn:(uuid|oid):\\S+|https?://\\S+|[A-Z][A-Za-z]+/[A-Za-z0-9\\-.]{1,64}(/_history/[A-Za-z0-9\\-.]{1,64})?");
+
+    private static final Structure META = structure("Meta")
+            .element("versionId", 0, 1, Kind.ID)
+            .element("lastUpdated", 0, 1, Kind.INSTANT)
+            .build();
+
+    private static final Structure CODING = structure("Coding")
+            .element("system", 0, 1, Kind.URI)
+            .element("version", 0, 1, Kind.STRING)
+            .element("code", 0, 1, Kind.CODE)
+            .element("display", 0, 1, Kind.STRING)
+            .element("userSelected", 0, 1, Kind.BOOLEAN)
+            .rule(FhirValidator::checkCode)
+            .build();
+
+    private static final Structure CODEABLE_CONCEPT = structure("CodeableConcept")
+            .element("coding", 0, MANY, CODING)
+            .element("text", 0, 1, Kind.STRING)
+            .build();
+
+    private static final Structure REFERENCE_TYPE = structure("Reference")
+            .element("reference", 0, 1, Kind.REFERENCE)
+            .element("type", 0, 1, Kind.URI)
+            .element("display", 0, 1, Kind.STRING)
+            .build();
+
+    private static final Structure HUMAN_NAME = structure("HumanName")
+            .element("use", 0, 1, Kind.CODE, CodeSystems.NAME_USE)
+            .element("text", 0, 1, Kind.STRING)
+            .element("family", 0, 1, Kind.STRING)
+            .element("given", 0, MANY, Kind.STRING)
+            .element("prefix", 0, MANY, Kind.STRING)
+            .element("suffix", 0, MANY, Kind.STRING)
+            .build();
+
+    private static final Structure PATIENT = structure("Patient")
+            .element("id", 0, 1, Kind.ID)
+            .element("meta", 0, 1, META)
+            .element("active", 0, 1, Kind.BOOLEAN)
+            .element("name", 0, MANY, HUMAN_NAME)
+            .element("gender", 0, 1, Kind.CODE, CodeSystems.ADMINISTRATIVE_GENDER)
+            .element("birthDate", 0, 1, Kind.DATE)
+            .element("deceasedBoolean", 0, 1, Kind.BOOLEAN)
+            .element("deceasedDateTime", 0, 1, Kind.DATE_TIME)
+            .build();
+
+    private static final Structure CONDITION = structure("Condition")
+            .element("id", 0, 1, Kind.ID)
+            .element("meta", 0, 1, META)
+            .element("clinicalStatus", 0, 1, CODEABLE_CONCEPT, model.Condition.CLINICAL_STATUS_SYSTEM)
+            .element("verificationStatus", 0, 1, CODEABLE_CONCEPT, model.Condition.VERIFICATION_STATUS_SYSTEM)
+            .element("category", 0, MANY, CODEABLE_CONCEPT)
+            .element("severity", 0, 1, CODEABLE_CONCEPT)
+            .element("code", 0, 1, CODEABLE_CONCEPT)
+            .element("bodySite", 0, MANY, CODEABLE_CONCEPT)
+            .element("subject", 1, 1, REFERENCE_TYPE)
+            .element("encounter", 0, 1, REFERENCE_TYPE)
+            .element("onsetDateTime", 0, 1, Kind.DATE_TIME)
+            .element("onsetString", 0, 1, Kind.STRING)
+            .element("abatementDateTime", 0, 1, Kind.DATE_TIME)
+            .element("abatementString", 0, 1, Kind.STRING)
+            .element("abatementBoolean", 0, 1, Kind.BOOLEAN)
+            .element("recordedDate", 0, 1, Kind.DATE_TIME)
+            .element("recorder", 0, 1, REFERENCE_TYPE)
+            .element("asserter", 0, 1, REFERENCE_TYPE)
+            .invariant("con-3", ValidationIssue.Severity.WARNING,
+                    "Condition.clinicalStatus SHALL be present if verificationStatus is not entered-in-error and category is problem-list-item",
+                    c -> c.has("clinicalStatus") || hasCode(c.path("verificationStatus"), "entered-in-error")
+                            || !hasCode(c.path("category"), "problem-list-item"))
+            .invariant("con-4", ValidationIssue.Severity.ERROR,
+                    "If condition is abated, then clinicalStatus must be either inactive, resolved, or remission",
+                    c -> !hasAbatement(c) || hasCode(c.path("clinicalStatus"), "inactive", "resolved", "remission"))
+            .invariant("con-5", ValidationIssue.Severity.ERROR,
+                    "Condition.clinicalStatus SHALL NOT be present if verification Status is entered-in-error",
+                    c -> !c.has("clinicalStatus") || !hasCode(c.path("verificationStatus"), "entered-in-error"))
+            .build();
+
+    private static final Map<String, Structure> RESOURCES = Map.of("Patient", PATIENT, "Condition", CONDITION);
+
+    private FhirValidator() {
+    }
+
+    /**
+     * ✅ True when local rules exist for the resource type
+     */
+    public static boolean supports(String resourceType) {
+        return RESOURCES.containsKey(resourceType);
+    }
+
+    /**
+     * 🩻 Validate a typed resource
+     */
+    public static ValidationResult validate(Resource resource) {
+        ObjectNode node = FhirJson.mapper().valueToTree(resource);
+        node.put("resourceType", resource.resourceType());
+        return validate(node);
+    }
+
+    /**
+     * 🩻 Validate a JSON resource (e.g. a request body)
+     */
+    public static ValidationResult validate(byte[] json) {
+        try {
+            return validate(FhirJson.mapper().readTree(json));
+        } catch (IOException e) {
+            return new ValidationResult(null, true, List.of(ValidationIssue.error("structure", "$", "Body is not valid JSON: " + e.getMessage())));
+        }
+    }
+
+    /**
+     * 🩻 Validate a parsed JSON resource
+     */
+    public static ValidationResult validate(JsonNode resource) {
+        if (resource == null || !resource.isObject()) {
+            return new ValidationResult(null, true, List.of(ValidationIssue.error("structure", "$", "A resource must be a JSON object")));
+        }
+        JsonNode typeNode = resource.get("resourceType");
+        if (typeNode == null || !typeNode.isTextual()) {
+            return new ValidationResult(null, true, List.of(ValidationIssue.error("required", "resourceType", "resourceType is required")));
+        }
+        String type = typeNode.asText();
+        Structure structure = RESOURCES.get(type);
+        if (structure == null) {
+            return new ValidationResult(type, false, List.of());
+        }
+        List<ValidationIssue> issues = new ArrayList<>(0);
+        structure.check(resource, type, issues);
+        return new ValidationResult(type, true, issues);
+    }
+
+    // ------------------------------------------------------------------ rules
+
+    private enum Kind {
+        STRING, CODE, ID, URI, BOOLEAN, DATE, DATE_TIME, INSTANT, REFERENCE, COMPLEX
+    }
+
+    /**
+     * 🧩 One element of a structure: cardinality, datatype and (for codes) the required code system
+     */
+    private record Element(String name, int min, int max, Kind kind, Structure type, String binding) {
+
+        void check(JsonNode value, String path, List<ValidationIssue> issues) {
+            if (max > 1) {
+                if (!value.isArray()) {
+                    issues.add(ValidationIssue.error("structure", path, name + " repeats and must be a JSON array"));
+                    return;
+                }
+                if (value.isEmpty()) {
+                    issues.add(ValidationIssue.error("structure", path, "Arrays must not be empty"));
+                }
+                for (int i = 0; i < value.size(); i++) {
+                    checkValue(value.get(i), path + "[" + i + "]", issues);
+                }
+            } else if (value.isArray()) {
+                issues.add(ValidationIssue.error("structure", path, name + " has max cardinality 1 but is an array"));
+            } else {
+                checkValue(value, path, issues);
+            }
+        }
+
+        private void checkValue(JsonNode value, String path, List<ValidationIssue> issues) {
+            if (kind == Kind.COMPLEX) {
+                if (!value.isObject()) {
+                    issues.add(ValidationIssue.error("structure", path, name + " must be a " + type.name() + " object"));
+                    return;
+                }
+                type.check(value, path, issues);
+                if (binding != null) {
+                    checkBinding(value, path, issues);
+                }
+                return;
+            }
+            if (kind == Kind.BOOLEAN) {
+                if (!value.isBoolean()) {
+                    issues.add(ValidationIssue.error("value", path, name + " must be a JSON boolean"));
+                }
+                return;
+            }
+            if (!value.isTextual()) {
+                issues.add(ValidationIssue.error("value", path, name + " must be a JSON string"));
+                return;
+            }
+            String text = value.asText();
+            if (text.isEmpty()) {
+                issues.add(ValidationIssue.error("value", path, name + " must not be empty"));
+                return;
+            }
+            String problem = switch (kind) {
+                case CODE -> CODE.matcher(text).matches() ? null : "'" + text + "' is not a valid code";
+                case ID -> ID.matcher(text).matches() ? null : "'" + text + "' is not a valid id (1-64 of A-Z, a-z, 0-9, '-', '.')";
+                case URI -> URI.matcher(text).matches() ? null : "'" + text + "' is not a valid uri";
+                case DATE -> DATE.matcher(text).matches() && isCalendarDate(text) ? null : "'" + text + "' is not a valid date (YYYY, YYYY-MM or YYYY-MM-DD)";
+                case DATE_TIME -> DATE_TIME.matcher(text).matches() && isCalendarDate(text) ? null : "'" + text + "' is not a valid dateTime";
+                case INSTANT -> INSTANT.matcher(text).matches() && isCalendarDate(text) ? null : "'" + text + "' is not a valid instant";
+                case REFERENCE -> REFERENCE.matcher(text).matches() ? null : "'" + text + "' is not a resolvable reference (Type/id, absolute URL or urn)";
+                default -> null;
+            };
+            if (problem == null && kind == Kind.CODE && binding != null) {
+                problem = CodeSystems.check(binding, text);
+            }
+            if (problem != null) {
+                issues.add(ValidationIssue.error(kind == Kind.CODE ? "code-invalid" : "value", path, problem));
+            }
+        }
+
+        /**
+         * 🔗 Required binding on a CodeableConcept: at least one coding from the bound system
+         */
+        private void checkBinding(JsonNode concept, String path, List<ValidationIssue> issues) {
+            for (JsonNode coding : concept.path("coding")) {
+                if (binding.equals(coding.path("system").asText(null))) {
+                    return;
+                }
+            }
+            issues.add(ValidationIssue.error("code-invalid", path, name + " requires a coding from " + binding));
+        }
+    }
+
+    /**
+     * 📏 A check on a whole structure (invariants, code system lookups)
+     */
+    private interface Rule {
+        void check(JsonNode node, String path, List<ValidationIssue> issues);
+    }
+
+    /**
+     * 🧱 Compiled definition of a resource or datatype
+     */
+    private record Structure(String name, Map<String, Element> elements, List<Element> required, List<Rule> rules) {
+
+        void check(JsonNode node, String path, List<ValidationIssue> issues) {
+            for (Element element : required) {
+                JsonNode value = node.get(element.name());
+                if (value == null || value.isNull() || (value.isContainerNode() && value.isEmpty())) {
+                    issues.add(ValidationIssue.error("required", path + "." + element.name(),
+                            name + "." + element.name() + " is required (minimum cardinality " + element.min() + ")"));
+                }
+            }
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                Element element = elements.get(field.getKey());
+                if (element != null && !field.getValue().isNull()) {
+                    element.check(field.getValue(), path + "." + field.getKey(), issues);
+                }
+            }
+            for (Rule rule : rules) {
+                rule.check(node, path, issues);
+            }
+        }
+    }
+
+    private static Builder structure(String name) {
+        return new Builder(name);
+    }
+
+    private static final class Builder {
+
+        private final String name;
+        private final Map<String, Element> elements = new LinkedHashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        Builder element(String element, int min, int max, Kind kind) {
+            return element(element, min, max, kind, (String) null);
+        }
+
+        Builder element(String element, int min, int max, Kind kind, String binding) {
+            elements.put(element, new Element(element, min, max, kind, null, binding));
+            return this;
+        }
+
+        Builder element(String element, int min, int max, Structure type) {
+            return element(element, min, max, type, null);
+        }
+
+        Builder element(String element, int min, int max, Structure type, String binding) {
+            elements.put(element, new Element(element, min, max, Kind.COMPLEX, type, binding));
+            return this;
+        }
+
+        Builder invariant(String key, ValidationIssue.Severity severity, String human, Predicate<JsonNode> test) {
+            return rule((node, path, issues) -> {
+                if (!test.test(node)) {
+                    issues.add(new ValidationIssue(severity, "invariant", path, key + ": " + human));
+                }
+            });
+        }
+
+        Builder rule(Rule rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        Structure build() {
+            List<Element> required = elements.values().stream().filter(e -> e.min() > 0).toList();
+            return new Structure(name, Map.copyOf(elements), required, List.copyOf(rules));
+        }
+    }
+
+    // ------------------------------------------------------------------ helpers
+
+    /**
+     * 🔤 Codings from known code systems are checked code by code
+     */
+    private static void checkCode(JsonNode coding, String path, List<ValidationIssue> issues) {
+        String system = coding.path("system").asText(null);
+        String code = coding.path("code").asText(null);
+        if (system == null || code == null || !CodeSystems.isKnown(system)) {
+            return;
+        }
+        String problem = CodeSystems.check(system, code);
+        if (problem != null) {
+            issues.add(ValidationIssue.error("code-invalid", path + ".code", problem));
+        }
+    }
+
+    /**
+     * 📅 Reject impossible days (e.g. 2021-02-30) that the FHIR regex lets through
+     */
+    private static boolean isCalendarDate(String text) {
+        if (text.length() < 10) {
+            return true;
+        }
+        int year = Integer.parseInt(text, 0, 4, 10);
+        int month = Integer.parseInt(text, 5, 7, 10);
+        int day = Integer.parseInt(text, 8, 10, 10);
+        return day <= YearMonth.of(year, month).lengthOfMonth();
+    }
+
+    /**
+     * 🔎 True when a CodeableConcept (or an array of them) has a coding with one of the codes
+     */
+    private static boolean hasCode(JsonNode concepts, String... codes) {
+        Set<String> wanted = Set.of(codes);
+        Iterable<JsonNode> all = concepts.isArray() ? concepts : List.of(concepts);
+        for (JsonNode concept : all) {
+            for (JsonNode coding : concept.path("coding")) {
+                if (wanted.contains(coding.path("code").asText())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAbatement(JsonNode condition) {
+        for (Iterator<String> names = condition.fieldNames(); names.hasNext(); ) {
+            if (names.next().startsWith("abatement")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import model.FhirJson;
+import service.FhirRoute;
+import utils.ConfigReader;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 🛂 ValidationFilter runs {@link FhirValidator} on outgoing Patient / Condition bodies before they reach the server.
+ *
+ * - ✅ Create / update with errors is answered locally with {@code 422} and an OperationOutcome (no round trip)
+ * - ✅ {@code $validate} is answered locally ({@code 200} or {@code 412}, like the server) unless
+ *   {@code validation.server=true}; then only bodies that pass locally are sent on
+ * - ✅ Streamed bodies (file uploads), transactions and other resource types pass through untouched
+ *
+ * Installed on every specification by {@link service.FhirClient} when {@code validation.preflight=true}.
+ */
+public class ValidationFilter implements OrderedFilter {
+
+    /**
+     * 🔢 Runs before the cache and everything else: a rejected body never costs a request
+     */
+    public static final int ORDER = OrderedFilter.DEFAULT_PRECEDENCE - 600;
+
+    private static final ValidationFilter SHARED = new ValidationFilter(ConfigReader.getBoolean("validation.server", false));
+
+    private final boolean serverValidation;
+
+    /**
+     * @param serverValidation also send {@code $validate} to the server once the body passes locally
+     */
+    public ValidationFilter(boolean serverValidation) {
+        this.serverValidation = serverValidation;
+    }
+
+    /**
+     * 🛂 Filter configured in config.properties
+     */
+    public static ValidationFilter shared() {
+        return SHARED;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        FhirRoute route = FhirRoute.of(requestSpec);
+        boolean validateOperation = route.interaction() == FhirRoute.Interaction.OPERATION && "$validate".equals(route.id());
+        boolean write = route.interaction() == FhirRoute.Interaction.CREATE || route.interaction() == FhirRoute.Interaction.UPDATE;
+        if (!(validateOperation || write) || !FhirValidator.supports(route.type())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        byte[] body = bodyBytes(requestSpec.getBody());
+        if (body == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        ValidationResult result = FhirValidator.validate(body);
+        if (!result.isValid()) {
+            return outcome(validateOperation ? 412 : 422, validateOperation ? "Precondition Failed" : "Unprocessable Entity", result);
+        }
+        if (validateOperation && !serverValidation) {
+            return outcome(200, "OK", result);
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+
+    /**
+     * @return the serialized body, or null when it is streamed or absent
+     */
+    private static byte[] bodyBytes(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (body instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private static Response outcome(int status, String reason, ValidationResult result) {
+        try {
+            return new ResponseBuilder()
+                    .setStatusCode(status)
+                    .setStatusLine("HTTP/1.1 " + status + " " + reason)
+                    .setContentType("application/fhir+json")
+                    .setBody(FhirJson.mapper().writeValueAsBytes(result.toOperationOutcome()))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("❌ Could not serialize OperationOutcome", e);
+        }
+    }
+}
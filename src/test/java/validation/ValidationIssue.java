@@ -0,0 +1,41 @@
+package validation;
+
+import java.util.Locale;
+
+/**
+ * 🩻 One finding of the local validator, shaped like an {@code OperationOutcome.issue}.
+ *
+ * @param code        FHIR issue type, e.g. {@code required}, {@code value}, {@code code-invalid}, {@code invariant}
+ * @param expression  FHIRPath-style location, e.g. {@code Patient.name[0].use}
+ * @param diagnostics human-readable explanation
+ */
+public record ValidationIssue(Severity severity, String code, String expression, String diagnostics) {
+
+    public enum Severity {
+        ERROR, WARNING, INFORMATION;
+
+        /**
+         * 🏷️ Value used in {@code OperationOutcome.issue.severity}
+         */
+        public String fhirCode() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static ValidationIssue error(String code, String expression, String diagnostics) {
+        return new ValidationIssue(Severity.ERROR, code, expression, diagnostics);
+    }
+
+    public static ValidationIssue warning(String code, String expression, String diagnostics) {
+        return new ValidationIssue(Severity.WARNING, code, expression, diagnostics);
+    }
+
+    public boolean isError() {
+        return severity == Severity.ERROR;
+    }
+
+    @Override
+    public String toString() {
+        return severity.fhirCode() + " " + expression + ": " + diagnostics;
+    }
+}
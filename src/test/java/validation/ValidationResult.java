@@ -0,0 +1,64 @@
+package validation;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import model.FhirJson;
+
+import java.util.List;
+
+/**
+ * 📋 Outcome of validating one resource locally.
+ *
+ * @param resourceType type that was validated ({@code null} if the input had none)
+ * @param checked      false when no local rules exist for the type, so only a server can judge it
+ */
+public record ValidationResult(String resourceType, boolean checked, List<ValidationIssue> issues) {
+
+    public ValidationResult {
+        issues = List.copyOf(issues);
+    }
+
+    /**
+     * ✅ True when no issue has severity {@code error}
+     */
+    public boolean isValid() {
+        for (ValidationIssue issue : issues) {
+            if (issue.isError()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<ValidationIssue> errors() {
+        return issues.stream().filter(ValidationIssue::isError).toList();
+    }
+
+    /**
+     * 🧾 The issues as a FHIR OperationOutcome (an informational issue when there are none)
+     */
+    public ObjectNode toOperationOutcome() {
+        ObjectNode outcome = FhirJson.mapper().createObjectNode();
+        outcome.put("resourceType", "OperationOutcome");
+        ArrayNode array = outcome.putArray("issue");
+        if (issues.isEmpty()) {
+            array.addObject()
+                    .put("severity", "information")
+                    .put("code", "informational")
+                    .put("diagnostics", checked ? "No issues detected during validation" : "No local rules for " + resourceType);
+        }
+        for (ValidationIssue issue : issues) {
+            ObjectNode node = array.addObject()
+                    .put("severity", issue.severity().fhirCode())
+                    .put("code", issue.code())
+                    .put("diagnostics", issue.diagnostics());
+            node.putArray("expression").add(issue.expression());
+        }
+        return outcome;
+    }
+
+    @Override
+    public String toString() {
+        return (isValid() ? "✅ " : "❌ ") + resourceType + " " + issues;
+    }
+}